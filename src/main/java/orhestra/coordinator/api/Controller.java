@@ -5,6 +5,8 @@ import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpResponseStatus;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Base interface for HTTP controllers.
  * Controllers handle specific URL patterns and HTTP methods.
@@ -30,6 +32,18 @@ public interface Controller {
      */
     ControllerResponse handle(ChannelHandlerContext ctx, FullHttpRequest req, String path);
 
+    /**
+     * Handle the request, possibly completing later (e.g. long-poll).
+     * The request body must be read before this method returns; the request
+     * is released afterwards.
+     *
+     * @return future response; defaults to {@link #handle} run inline
+     */
+    default CompletableFuture<ControllerResponse> handleAsync(ChannelHandlerContext ctx, FullHttpRequest req,
+            String path) {
+        return CompletableFuture.completedFuture(handle(ctx, req, path));
+    }
+
     /**
      * Response from a controller.
      */
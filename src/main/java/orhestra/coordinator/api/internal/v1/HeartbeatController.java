@@ -5,9 +5,9 @@ import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.HttpMethod;
 import orhestra.coordinator.api.Controller;
 import orhestra.coordinator.api.internal.v1.dto.HeartbeatRequest;
+import orhestra.coordinator.api.internal.v1.dto.HeartbeatResponse;
 import orhestra.coordinator.api.internal.v1.dto.HelloRequest;
 import orhestra.coordinator.api.internal.v1.dto.HelloResponse;
-import orhestra.coordinator.api.internal.v1.dto.OperationResponse;
 import orhestra.coordinator.core.AppBus;
 import orhestra.coordinator.server.RouterHandler;
 import orhestra.coordinator.service.SpotService;
@@ -16,6 +16,7 @@ import org.slf4j.LoggerFactory;
 
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 /**
  * Controller for SPOT heartbeat and registration (internal API).
@@ -103,19 +104,20 @@ public class HeartbeatController implements Controller {
                 .getAddress().getHostAddress();
 
         // Process heartbeat
-        spotService.heartbeat(
+        List<String> cancel = spotService.heartbeat(
                 request.spotId(),
                 clientIp,
                 request.cpuLoad(),
                 request.runningTasks(),
                 request.totalCores(),
                 request.ramUsedMb(),
-                request.ramTotalMb());
+                request.ramTotalMb(),
+                request.taskIds());
 
         // Fire UI event
         AppBus.fireSpotsChanged();
 
-        OperationResponse response = OperationResponse.success();
+        HeartbeatResponse response = HeartbeatResponse.of(cancel);
         return ControllerResponse.json(RouterHandler.mapper().writeValueAsString(response));
     }
 }
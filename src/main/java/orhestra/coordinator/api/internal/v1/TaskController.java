@@ -7,26 +7,37 @@ import io.netty.handler.codec.http.HttpResponseStatus;
 import orhestra.coordinator.api.Controller;
 import orhestra.coordinator.api.internal.v1.dto.*;
 import orhestra.coordinator.core.AppBus;
+import orhestra.coordinator.model.ClaimResult;
+import orhestra.coordinator.model.JobTemplate;
 import orhestra.coordinator.model.Task;
+import orhestra.coordinator.model.TaskBatchResult;
 import orhestra.coordinator.model.TaskCompleteResult;
 import orhestra.coordinator.model.TaskFailResult;
 import orhestra.coordinator.server.RouterHandler;
+import orhestra.coordinator.service.JobTemplates;
 import orhestra.coordinator.service.TaskService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * Controller for task operations (internal API).
- * POST /internal/v1/tasks/claim - Claim tasks for execution
+ * POST /internal/v1/tasks/claim - Claim tasks for execution (long-poll with
+ * waitMs)
  * POST /internal/v1/tasks/{taskId}/complete - Report task completion
  * (idempotent)
  * POST /internal/v1/tasks/{taskId}/fail - Report task failure (idempotent)
+ * POST /internal/v1/tasks/complete-batch - Report many outcomes in one
+ * transaction
  */
 public class TaskController implements Controller {
 
@@ -36,11 +47,30 @@ public class TaskController implements Controller {
     private static final Pattern CLAIM_PATTERN = Pattern.compile("^/internal/v1/tasks/claim$");
     private static final Pattern COMPLETE_PATTERN = Pattern.compile("^/internal/v1/tasks/([^/]+)/complete$");
     private static final Pattern FAIL_PATTERN = Pattern.compile("^/internal/v1/tasks/([^/]+)/fail$");
+    private static final Pattern BATCH_PATTERN = Pattern.compile("^/internal/v1/tasks/complete-batch$");
 
     private final TaskService taskService;
+    private final JobTemplates templates;
+    private final Executor claimExecutor;
 
     public TaskController(TaskService taskService) {
+        this(taskService, null, null);
+    }
+
+    public TaskController(TaskService taskService, Executor claimExecutor) {
+        this(taskService, null, claimExecutor);
+    }
+
+    /**
+     * @param templates     job templates for params-only payloads; null
+     *                      sends stored payloads as they are
+     * @param claimExecutor runs long-poll claims after a wake-up; null
+     *                      disables long-polling (waitMs is ignored)
+     */
+    public TaskController(TaskService taskService, JobTemplates templates, Executor claimExecutor) {
         this.taskService = taskService;
+        this.templates = templates;
+        this.claimExecutor = claimExecutor;
     }
 
     @Override
@@ -49,6 +79,7 @@ public class TaskController implements Controller {
             return false;
         }
         return CLAIM_PATTERN.matcher(path).matches()
+                || BATCH_PATTERN.matcher(path).matches()
                 || COMPLETE_PATTERN.matcher(path).matches()
                 || FAIL_PATTERN.matcher(path).matches();
     }
@@ -62,6 +93,10 @@ public class TaskController implements Controller {
                 return handleClaim(req);
             }
 
+            if (BATCH_PATTERN.matcher(path).matches()) {
+                return handleBatch(req);
+            }
+
             Matcher completeMatcher = COMPLETE_PATTERN.matcher(path);
             if (completeMatcher.matches()) {
                 String taskId = completeMatcher.group(1);
@@ -84,6 +119,36 @@ public class TaskController implements Controller {
         }
     }
 
+    @Override
+    public CompletableFuture<ControllerResponse> handleAsync(ChannelHandlerContext ctx, FullHttpRequest req,
+            String path) {
+        if (claimExecutor == null || !CLAIM_PATTERN.matcher(path).matches()) {
+            return Controller.super.handleAsync(ctx, req, path);
+        }
+
+        ClaimTasksRequest request;
+        try {
+            String body = req.content().toString(StandardCharsets.UTF_8);
+            request = RouterHandler.mapper().readValue(body, ClaimTasksRequest.class);
+            request.validate();
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ControllerResponse.badRequest(e.getMessage()));
+        } catch (Exception e) {
+            throw new RuntimeException("Task controller error: " + e.getMessage(), e);
+        }
+
+        if (request.waitMs() <= 0) {
+            return CompletableFuture.completedFuture(claimResponse(request,
+                    taskService.claim(request.spotId(), request.maxTasks())));
+        }
+
+        // Long-poll: parked without a thread until tasks arrive or the wait elapses
+        CompletableFuture<ClaimResult> claimed = taskService.claimWhenAvailable(request.spotId(),
+                request.maxTasks(), Duration.ofMillis(request.waitMs()), claimExecutor);
+        ctx.channel().closeFuture().addListener(f -> claimed.cancel(false));
+        return claimed.thenApply(result -> claimResponse(request, result));
+    }
+
     /**
      * POST /internal/v1/tasks/claim - Claim tasks for execution
      */
@@ -94,16 +159,75 @@ public class TaskController implements Controller {
         // Validate
         request.validate();
 
-        // Claim tasks
-        List<Task> claimed = taskService.claimTasks(request.spotId(), request.maxTasks());
+        // Claim tasks (bounded by the SPOT's quota)
+        return claimResponse(request, taskService.claim(request.spotId(), request.maxTasks()));
+    }
 
+    private ControllerResponse claimResponse(ClaimTasksRequest request, ClaimResult claimed) {
         // Fire UI event
-        if (!claimed.isEmpty()) {
+        if (!claimed.tasks().isEmpty()) {
             AppBus.fireTasksChanged();
         }
 
-        ClaimTasksResponse response = ClaimTasksResponse.from(claimed);
-        return ControllerResponse.json(RouterHandler.mapper().writeValueAsString(response));
+        try {
+            ClaimTasksResponse response = templates == null
+                    ? ClaimTasksResponse.from(claimed)
+                    : withTemplates(request, claimed);
+            return ControllerResponse.json(RouterHandler.mapper().writeValueAsString(response));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize claim response", e);
+        }
+    }
+
+    /**
+     * Attach job templates to a claim. SPOTs that sent {@code knownTemplates}
+     * get params-only payloads plus the templates they do not hold yet;
+     * other SPOTs get each payload merged with its template.
+     */
+    private ClaimTasksResponse withTemplates(ClaimTasksRequest request, ClaimResult claimed) {
+        if (!request.wantsTemplates()) {
+            List<ClaimTasksResponse.ClaimedTask> tasks = claimed.tasks().stream()
+                    .map(t -> new ClaimTasksResponse.ClaimedTask(t.id(), t.jobId(),
+                            templates.expand(t.jobId(), t.payload())))
+                    .toList();
+            return new ClaimTasksResponse(tasks, claimed.quota());
+        }
+
+        Map<String, ClaimTasksResponse.Template> sent = new LinkedHashMap<>();
+        for (Task task : claimed.tasks()) {
+            if (!JobTemplate.isParamsOnly(task.payload()) || sent.containsKey(task.jobId())) {
+                continue;
+            }
+            templates.get(task.jobId())
+                    .filter(t -> !t.version().equals(request.knownTemplates().get(t.jobId())))
+                    .ifPresent(t -> sent.put(t.jobId(), ClaimTasksResponse.Template.from(t)));
+        }
+        return new ClaimTasksResponse(
+                claimed.tasks().stream().map(ClaimTasksResponse.ClaimedTask::from).toList(),
+                claimed.quota(), sent);
+    }
+
+    /**
+     * POST /internal/v1/tasks/complete-batch - Report many completions and
+     * failures in one transaction
+     */
+    private ControllerResponse handleBatch(FullHttpRequest req) throws Exception {
+        String body = req.content().toString(StandardCharsets.UTF_8);
+        TaskBatchReportRequest request = RouterHandler.mapper().readValue(body, TaskBatchReportRequest.class);
+
+        // Validate
+        request.validate();
+
+        TaskBatchResult result = taskService.reportBatch(
+                request.spotId(),
+                request.completionsOrEmpty().stream().map(TaskBatchReportRequest.Completion::toModel).toList(),
+                request.failuresOrEmpty().stream().map(TaskBatchReportRequest.Failure::toModel).toList());
+
+        // Fire UI event
+        AppBus.fireTasksChanged();
+
+        return ControllerResponse.json(
+                RouterHandler.mapper().writeValueAsString(TaskBatchReportResponse.from(result)));
     }
 
     /**
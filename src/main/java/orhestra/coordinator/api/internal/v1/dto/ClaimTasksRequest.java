@@ -3,21 +3,49 @@ package orhestra.coordinator.api.internal.v1.dto;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.Map;
+
 /**
  * Request DTO for claiming tasks.
  * POST /internal/v1/tasks/claim
  * 
  * Ignores unknown fields to allow agent version evolution.
+ *
+ * {@code waitMs} > 0 turns the claim into a long-poll: if nothing can be
+ * claimed, the request is parked until tasks arrive or the wait elapses.
+ *
+ * {@code knownTemplates} (jobId → template version) opts into params-only
+ * payloads: the response then carries each job template only if the SPOT
+ * does not already hold that version. SPOTs that omit it get full payloads.
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record ClaimTasksRequest(
         @JsonProperty("spotId") String spotId,
-        @JsonProperty("maxTasks") int maxTasks) {
+        @JsonProperty("maxTasks") int maxTasks,
+        @JsonProperty("waitMs") long waitMs,
+        @JsonProperty("knownTemplates") Map<String, String> knownTemplates) {
+
+    public ClaimTasksRequest(String spotId, int maxTasks) {
+        this(spotId, maxTasks, 0);
+    }
+
+    public ClaimTasksRequest(String spotId, int maxTasks, long waitMs) {
+        this(spotId, maxTasks, waitMs, null);
+    }
+
+    /** Whether the SPOT accepts params-only payloads plus job templates */
+    public boolean wantsTemplates() {
+        return knownTemplates != null;
+    }
+
     /** Default max tasks if not specified */
     public static final int DEFAULT_MAX_TASKS = 1;
 
-    /** Maximum tasks allowed per claim */
-    public static final int MAX_ALLOWED = 10;
+    /**
+     * Maximum tasks a request may ask for. The coordinator additionally
+     * limits each claim to the SPOT's quota.
+     */
+    public static final int MAX_ALLOWED = 1000;
 
     public void validate() {
         if (spotId == null || spotId.isBlank()) {
@@ -29,6 +57,9 @@ public record ClaimTasksRequest(
         if (maxTasks > MAX_ALLOWED) {
             throw new IllegalArgumentException("maxTasks cannot exceed " + MAX_ALLOWED);
         }
+        if (waitMs < 0) {
+            throw new IllegalArgumentException("waitMs must not be negative");
+        }
     }
 
     /** Create request with defaults */
@@ -1,17 +1,34 @@
 package orhestra.coordinator.api.internal.v1.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRawValue;
+import orhestra.coordinator.model.ClaimResult;
+import orhestra.coordinator.model.JobTemplate;
 import orhestra.coordinator.model.Task;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Response DTO for claimed tasks.
  * POST /internal/v1/tasks/claim
+ *
+ * {@code quota} is the claim size the coordinator suggests for the SPOT's
+ * next request, derived from its capacity and observed task runtime.
+ *
+ * {@code templates} (jobId → template) is present only for SPOTs that sent
+ * {@code knownTemplates}; their task payloads are then params-only.
  */
 public record ClaimTasksResponse(
-        @JsonProperty("tasks") List<ClaimedTask> tasks) {
+        @JsonProperty("tasks") List<ClaimedTask> tasks,
+        @JsonProperty("quota") int quota,
+        @JsonInclude(JsonInclude.Include.NON_EMPTY)
+        @JsonProperty("templates") Map<String, Template> templates) {
+
+    public ClaimTasksResponse(List<ClaimedTask> tasks, int quota) {
+        this(tasks, quota, Map.of());
+    }
     /**
      * A single claimed task with its payload and job context.
      */
@@ -25,17 +42,44 @@ public record ClaimTasksResponse(
         }
     }
 
+    /**
+     * Fields shared by every task of a job. Merging them into a task's
+     * params-only payload gives the full payload.
+     */
+    public record Template(
+            @JsonProperty("version") String version,
+            @JsonProperty("artifactBucket") String artifactBucket,
+            @JsonProperty("artifactKey") String artifactKey,
+            @JsonProperty("artifactEndpoint") String artifactEndpoint,
+            @JsonProperty("mainClass") String mainClass) {
+
+        public static Template from(JobTemplate template) {
+            return new Template(template.version(), template.artifact().bucket(),
+                    template.artifact().key(), template.artifact().endpoint(), template.mainClass());
+        }
+    }
+
     /** Create response from domain models */
     public static ClaimTasksResponse from(List<Task> tasks) {
+        return from(tasks, ClaimTasksRequest.DEFAULT_MAX_TASKS);
+    }
+
+    /** Create response from domain models with the next-claim quota */
+    public static ClaimTasksResponse from(List<Task> tasks, int quota) {
         List<ClaimedTask> claimed = tasks.stream()
                 .map(ClaimedTask::from)
                 .toList();
-        return new ClaimTasksResponse(claimed);
+        return new ClaimTasksResponse(claimed, quota);
+    }
+
+    /** Create response from a claim result */
+    public static ClaimTasksResponse from(ClaimResult result) {
+        return from(result.tasks(), result.quota());
     }
 
     /** Empty response (no tasks available) */
     public static ClaimTasksResponse empty() {
-        return new ClaimTasksResponse(List.of());
+        return new ClaimTasksResponse(List.of(), ClaimTasksRequest.DEFAULT_MAX_TASKS);
     }
 
     /** Check if any tasks were claimed */
@@ -3,11 +3,16 @@ package orhestra.coordinator.api.internal.v1.dto;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.List;
+
 /**
  * Request DTO for SPOT heartbeat.
  * POST /internal/v1/heartbeat
  * 
  * Ignores unknown fields to allow agent version evolution.
+ *
+ * {@code taskIds} lists the tasks the agent is still running; their leases
+ * are renewed. Agents that omit it renew all of their leases.
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record HeartbeatRequest(
@@ -16,7 +21,14 @@ public record HeartbeatRequest(
         @JsonProperty("runningTasks") int runningTasks,
         @JsonProperty("totalCores") int totalCores,
         @JsonProperty("ramUsedMb") long ramUsedMb,
-        @JsonProperty("ramTotalMb") long ramTotalMb) {
+        @JsonProperty("ramTotalMb") long ramTotalMb,
+        @JsonProperty("taskIds") List<String> taskIds) {
+
+    public HeartbeatRequest(String spotId, double cpuLoad, int runningTasks, int totalCores, long ramUsedMb,
+            long ramTotalMb) {
+        this(spotId, cpuLoad, runningTasks, totalCores, ramUsedMb, ramTotalMb, null);
+    }
+
     public void validate() {
         if (spotId == null || spotId.isBlank()) {
             throw new IllegalArgumentException("spotId is required");
@@ -0,0 +1,24 @@
+package orhestra.coordinator.api.internal.v1.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Response DTO for SPOT heartbeat.
+ * POST /internal/v1/heartbeat
+ *
+ * {@code cancelTaskIds} lists tasks the SPOT should stop running because
+ * another copy of them already finished (speculative execution). Each ID
+ * is sent once; the field is omitted when empty.
+ */
+public record HeartbeatResponse(
+        @JsonProperty("ok") boolean ok,
+        @JsonInclude(JsonInclude.Include.NON_EMPTY)
+        @JsonProperty("cancelTaskIds") List<String> cancelTaskIds) {
+
+    public static HeartbeatResponse of(List<String> cancelTaskIds) {
+        return new HeartbeatResponse(true, cancelTaskIds);
+    }
+}
@@ -0,0 +1,93 @@
+package orhestra.coordinator.api.internal.v1.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import orhestra.coordinator.model.FailureReason;
+import orhestra.coordinator.model.TaskCompletion;
+import orhestra.coordinator.model.TaskFailure;
+
+import java.util.List;
+
+/**
+ * Request DTO for reporting many task outcomes at once.
+ * POST /internal/v1/tasks/complete-batch
+ * 
+ * Items use the same fields as the single-task complete/fail requests,
+ * plus {@code taskId}.
+ * Ignores unknown fields to allow agent version evolution.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record TaskBatchReportRequest(
+        @JsonProperty("spotId") String spotId,
+        @JsonProperty("completions") List<Completion> completions,
+        @JsonProperty("failures") List<Failure> failures) {
+
+    /** Maximum completions + failures per request */
+    public static final int MAX_ITEMS = 1000;
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Completion(
+            @JsonProperty("taskId") String taskId,
+            @JsonProperty("runtimeMs") long runtimeMs,
+            @JsonProperty("iter") Integer iter,
+            @JsonProperty("fopt") Double fopt,
+            @JsonProperty("bestPos") JsonNode bestPos,
+            @JsonProperty("charts") JsonNode charts) {
+
+        public TaskCompletion toModel() {
+            String result = new TaskCompleteRequest(null, runtimeMs, iter, fopt, bestPos, charts).resultJson();
+            return new TaskCompletion(taskId, runtimeMs, iter, fopt, result);
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Failure(
+            @JsonProperty("taskId") String taskId,
+            @JsonProperty("error") String error,
+            @JsonProperty("retriable") Boolean retriable,
+            @JsonProperty("failureReason") String failureReason) {
+
+        public TaskFailure toModel() {
+            FailureReason reason = failureReason != null && !failureReason.isBlank()
+                    ? FailureReason.fromString(failureReason)
+                    : null;
+            boolean canRetry = retriable != null ? retriable : TaskFailRequest.DEFAULT_RETRIABLE;
+            return new TaskFailure(taskId, error, canRetry, reason);
+        }
+    }
+
+    public void validate() {
+        if (spotId == null || spotId.isBlank()) {
+            throw new IllegalArgumentException("spotId is required");
+        }
+        int items = completionsOrEmpty().size() + failuresOrEmpty().size();
+        if (items == 0) {
+            throw new IllegalArgumentException("completions or failures required");
+        }
+        if (items > MAX_ITEMS) {
+            throw new IllegalArgumentException("batch cannot exceed " + MAX_ITEMS + " items");
+        }
+        for (Completion c : completionsOrEmpty()) {
+            if (c.taskId() == null || c.taskId().isBlank()) {
+                throw new IllegalArgumentException("taskId is required");
+            }
+            if (c.runtimeMs() < 0) {
+                throw new IllegalArgumentException("runtimeMs must be non-negative");
+            }
+        }
+        for (Failure f : failuresOrEmpty()) {
+            if (f.taskId() == null || f.taskId().isBlank()) {
+                throw new IllegalArgumentException("taskId is required");
+            }
+        }
+    }
+
+    public List<Completion> completionsOrEmpty() {
+        return completions != null ? completions : List.of();
+    }
+
+    public List<Failure> failuresOrEmpty() {
+        return failures != null ? failures : List.of();
+    }
+}
@@ -0,0 +1,32 @@
+package orhestra.coordinator.api.internal.v1.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import orhestra.coordinator.model.TaskBatchResult;
+
+import java.util.List;
+
+/**
+ * Response DTO for a batch report: one outcome per reported task, in request
+ * order. Completion results are {@code TaskCompleteResult} names, failure
+ * results are {@code TaskFailResult} names.
+ * POST /internal/v1/tasks/complete-batch
+ */
+public record TaskBatchReportResponse(
+        @JsonProperty("completed") List<Outcome> completed,
+        @JsonProperty("failed") List<Outcome> failed) {
+
+    public record Outcome(
+            @JsonProperty("taskId") String taskId,
+            @JsonProperty("result") String result) {
+    }
+
+    public static TaskBatchReportResponse from(TaskBatchResult result) {
+        return new TaskBatchReportResponse(
+                result.completed().stream()
+                        .map(c -> new Outcome(c.taskId(), c.result().name()))
+                        .toList(),
+                result.failed().stream()
+                        .map(f -> new Outcome(f.taskId(), f.result().name()))
+                        .toList());
+    }
+}
@@ -5,6 +5,7 @@ import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.HttpMethod;
 import orhestra.coordinator.api.Controller;
 import orhestra.coordinator.api.v1.dto.HealthResponse;
+import orhestra.coordinator.server.ControllerExecutor;
 import orhestra.coordinator.server.RouterHandler;
 import orhestra.coordinator.service.SpotService;
 import orhestra.coordinator.service.TaskService;
@@ -14,6 +15,7 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.management.ManagementFactory;
 import java.time.Duration;
+import java.util.List;
 
 /**
  * Health check controller.
@@ -27,11 +29,14 @@ public class HealthController implements Controller {
     private final Database database;
     private final SpotService spotService;
     private final TaskService taskService;
+    private final List<ControllerExecutor> executors;
 
-    public HealthController(Database database, SpotService spotService, TaskService taskService) {
+    public HealthController(Database database, SpotService spotService, TaskService taskService,
+            ControllerExecutor... executors) {
         this.database = database;
         this.spotService = spotService;
         this.taskService = taskService;
+        this.executors = List.of(executors);
     }
 
     @Override
@@ -58,8 +63,12 @@ public class HealthController implements Controller {
             int pendingTasks = taskService.countPending();
             int runningTasks = taskService.countRunning();
 
+            List<ControllerExecutor.Stats> dispatch = executors.stream()
+                    .map(ControllerExecutor::snapshot)
+                    .toList();
+
             HealthResponse response = HealthResponse.healthy(
-                    uptime, VERSION, activeSpots, pendingTasks, runningTasks);
+                    uptime, VERSION, activeSpots, pendingTasks, runningTasks, dispatch);
 
             return ControllerResponse.json(RouterHandler.mapper().writeValueAsString(response));
 
@@ -20,6 +20,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.LongFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -29,6 +30,8 @@ import java.util.regex.Pattern;
  * POST /api/v1/jobs - Create a new job
  * GET /api/v1/jobs/{jobId} - Get job status
  * GET /api/v1/jobs/{jobId}/results - Get job results
+ * GET /api/v1/scheduling - Scheduling policy and per-job shares/throughput
+ * GET /api/v1/scheduling/runtime - Runtime estimates vs actual runtimes
  */
 public class JobController implements Controller {
 
@@ -37,6 +40,8 @@ public class JobController implements Controller {
     private static final Pattern JOBS_PATTERN = Pattern.compile("^/api/v1/jobs$");
     private static final Pattern JOB_BY_ID_PATTERN = Pattern.compile("^/api/v1/jobs/([^/]+)$");
     private static final Pattern JOB_RESULTS_PATTERN = Pattern.compile("^/api/v1/jobs/([^/]+)/results$");
+    private static final String SCHEDULING_PATH = "/api/v1/scheduling";
+    private static final String RUNTIME_MODEL_PATH = "/api/v1/scheduling/runtime";
 
     private final JobService jobService;
 
@@ -51,7 +56,9 @@ public class JobController implements Controller {
         }
         if (method.equals(HttpMethod.GET)) {
             return JOB_BY_ID_PATTERN.matcher(path).matches() ||
-                    JOB_RESULTS_PATTERN.matcher(path).matches();
+                    JOB_RESULTS_PATTERN.matcher(path).matches() ||
+                    SCHEDULING_PATH.equals(path) ||
+                    RUNTIME_MODEL_PATH.equals(path);
         }
         return false;
     }
@@ -63,6 +70,14 @@ public class JobController implements Controller {
                 return handleCreateJob(req);
             }
 
+            if (req.method().equals(HttpMethod.GET) && SCHEDULING_PATH.equals(path)) {
+                return handleGetScheduling();
+            }
+
+            if (req.method().equals(HttpMethod.GET) && RUNTIME_MODEL_PATH.equals(path)) {
+                return handleGetRuntimeModel();
+            }
+
             Matcher resultsMatcher = JOB_RESULTS_PATTERN.matcher(path);
             if (req.method().equals(HttpMethod.GET) && resultsMatcher.matches()) {
                 String jobId = resultsMatcher.group(1);
@@ -101,19 +116,64 @@ public class JobController implements Controller {
                 request.artifactKey(),
                 request.artifactEndpoint());
 
-        Job job = jobService.createJob(
-                artifact,
-                request.mainClass(),
-                request.config(),
-                request.payloads());
+        // Search and lazy jobs have nothing to write up front; others are
+        // ingested in the background and answered with 202
+        Job job;
+        HttpResponseStatus status;
+        if (request.isOptimize()) {
+            job = jobService.createOptimizeJob(
+                    artifact,
+                    request.mainClass(),
+                    request.config(),
+                    request.space(),
+                    request.optimize(),
+                    request.scheduling(),
+                    request.stopCondition());
+            status = HttpResponseStatus.CREATED;
+        } else if (request.isSearch()) {
+            job = jobService.createSearchJob(
+                    artifact,
+                    request.mainClass(),
+                    request.config(),
+                    request.totalTasks(),
+                    request.payloadAt(),
+                    request.search(),
+                    request.scheduling(),
+                    request.stopCondition());
+            status = HttpResponseStatus.CREATED;
+        } else if (request.isLazy()) {
+            LongFunction<String> payloadAt = request.payloadAt();
+            job = jobService.createLazyJob(
+                    artifact,
+                    request.mainClass(),
+                    request.config(),
+                    (int) request.totalTasks(),
+                    payloadAt::apply,
+                    request.scheduling(),
+                    request.stopCondition(),
+                    request.cacheResults());
+            status = HttpResponseStatus.CREATED;
+        } else {
+            job = jobService.submitJob(
+                    artifact,
+                    request.mainClass(),
+                    request.config(),
+                    (int) request.totalTasks(),
+                    request.payloadIterator(),
+                    request.scheduling(),
+                    request.stopCondition(),
+                    request.cacheResults());
+            status = HttpResponseStatus.ACCEPTED;
+        }
 
         Map<String, Object> response = Map.of(
                 "success", true,
                 "jobId", job.id(),
+                "status", job.status().name(),
                 "totalTasks", job.totalTasks());
 
         return ControllerResponse.json(
-                HttpResponseStatus.CREATED,
+                status,
                 RouterHandler.mapper().writeValueAsString(response));
     }
 
@@ -130,11 +190,32 @@ public class JobController implements Controller {
         }
 
         Job job = jobOpt.get();
-        JobResponse response = JobResponse.from(job);
+        JobResponse response = JobResponse.from(job)
+                .withEarlyStop(jobService.earlyStop(jobId).orElse(null))
+                .withSearch(jobService.search(jobId).orElse(null))
+                .withOptimize(jobService.optimization(jobId).orElse(null));
+
+        return ControllerResponse.json(RouterHandler.mapper().writeValueAsString(response));
+    }
+
+    /**
+     * GET /api/v1/scheduling - Scheduling policy and per-job counters
+     */
+    private ControllerResponse handleGetScheduling() throws Exception {
+        Map<String, Object> response = Map.of(
+                "policy", jobService.schedulingPolicy().name(),
+                "jobs", jobService.schedulingStats());
 
         return ControllerResponse.json(RouterHandler.mapper().writeValueAsString(response));
     }
 
+    /**
+     * GET /api/v1/scheduling/runtime - Runtime estimates, errors and SPOT speeds
+     */
+    private ControllerResponse handleGetRuntimeModel() throws Exception {
+        return ControllerResponse.json(RouterHandler.mapper().writeValueAsString(jobService.runtimeModel()));
+    }
+
     /**
      * GET /api/v1/jobs/{jobId}/results - Get job results
      */
@@ -2,10 +2,19 @@ package orhestra.coordinator.api.v1.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import orhestra.coordinator.model.JobScheduling;
+import orhestra.coordinator.model.OptimizeSpec;
+import orhestra.coordinator.model.SamplingSpec;
+import orhestra.coordinator.model.SearchDimension;
+import orhestra.coordinator.model.SearchSpec;
+import orhestra.coordinator.model.StopCondition;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.LongFunction;
 
 /**
  * Request DTO for creating a new job.
@@ -16,7 +25,60 @@ public record CreateJobRequest(
         @JsonProperty("artifactKey")      String artifactKey,
         @JsonProperty("artifactEndpoint") String artifactEndpoint,
         @JsonProperty("mainClass")        String mainClass,
-        @JsonProperty("parameters")       List<ParameterGroupRequest> parameters) {
+        @JsonProperty("parameters")       List<ParameterGroupRequest> parameters,
+        @JsonProperty("lazy")             Boolean lazy,
+        @JsonProperty("priority")         Integer priority,
+        @JsonProperty("weight")           Integer weight,
+        @JsonProperty("stopCondition")    StopCondition stopCondition,
+        @JsonProperty("search")           SearchSpec search,
+        @JsonProperty("optimize")         OptimizeSpec optimize,
+        @JsonProperty("sampling")         SamplingSpec sampling,
+        @JsonProperty("cache")            Boolean cache) {
+
+    public CreateJobRequest(String artifactBucket, String artifactKey, String artifactEndpoint,
+            String mainClass, List<ParameterGroupRequest> parameters) {
+        this(artifactBucket, artifactKey, artifactEndpoint, mainClass, parameters, null);
+    }
+
+    public CreateJobRequest(String artifactBucket, String artifactKey, String artifactEndpoint,
+            String mainClass, List<ParameterGroupRequest> parameters, Boolean lazy) {
+        this(artifactBucket, artifactKey, artifactEndpoint, mainClass, parameters, lazy, null, null);
+    }
+
+    public CreateJobRequest(String artifactBucket, String artifactKey, String artifactEndpoint,
+            String mainClass, List<ParameterGroupRequest> parameters, Boolean lazy, Integer priority,
+            Integer weight) {
+        this(artifactBucket, artifactKey, artifactEndpoint, mainClass, parameters, lazy, priority, weight, null);
+    }
+
+    public CreateJobRequest(String artifactBucket, String artifactKey, String artifactEndpoint,
+            String mainClass, List<ParameterGroupRequest> parameters, Boolean lazy, Integer priority,
+            Integer weight, StopCondition stopCondition) {
+        this(artifactBucket, artifactKey, artifactEndpoint, mainClass, parameters, lazy, priority, weight,
+                stopCondition, null);
+    }
+
+    public CreateJobRequest(String artifactBucket, String artifactKey, String artifactEndpoint,
+            String mainClass, List<ParameterGroupRequest> parameters, Boolean lazy, Integer priority,
+            Integer weight, StopCondition stopCondition, SearchSpec search) {
+        this(artifactBucket, artifactKey, artifactEndpoint, mainClass, parameters, lazy, priority, weight,
+                stopCondition, search, null);
+    }
+
+    public CreateJobRequest(String artifactBucket, String artifactKey, String artifactEndpoint,
+            String mainClass, List<ParameterGroupRequest> parameters, Boolean lazy, Integer priority,
+            Integer weight, StopCondition stopCondition, SearchSpec search, OptimizeSpec optimize) {
+        this(artifactBucket, artifactKey, artifactEndpoint, mainClass, parameters, lazy, priority, weight,
+                stopCondition, search, optimize, null);
+    }
+
+    public CreateJobRequest(String artifactBucket, String artifactKey, String artifactEndpoint,
+            String mainClass, List<ParameterGroupRequest> parameters, Boolean lazy, Integer priority,
+            Integer weight, StopCondition stopCondition, SearchSpec search, OptimizeSpec optimize,
+            SamplingSpec sampling) {
+        this(artifactBucket, artifactKey, artifactEndpoint, mainClass, parameters, lazy, priority, weight,
+                stopCondition, search, optimize, sampling, null);
+    }
 
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
@@ -27,9 +89,12 @@ public record CreateJobRequest(
             @JsonProperty("groupId") String groupId,
             @JsonProperty("params")  Map<String, ParameterValue> params) {}
 
+    /** Largest grid a single job may expand to. */
+    public static final long MAX_TASKS = Integer.MAX_VALUE;
+
     /** Total number of tasks this request will generate. */
-    public int totalTasks() {
-        return PayloadGenerator.countTasks(parameters);
+    public long totalTasks() {
+        return sampling != null ? sampling.points() : PayloadGenerator.countTasks(parameters);
     }
 
     /** Serialise the parameter spec as a config JSON (stored on the job row). */
@@ -41,16 +106,106 @@ public record CreateJobRequest(
             cfg.put("artifactEndpoint", artifactEndpoint);
             cfg.put("mainClass",        mainClass);
             cfg.put("parameters",       parameters);
+            if (stopCondition != null) {
+                cfg.put("stopCondition", stopCondition);
+            }
+            if (search != null) {
+                cfg.put("search", search);
+            }
+            if (optimize != null) {
+                cfg.put("optimize", optimize);
+            }
+            if (sampling != null) {
+                cfg.put("sampling", sampling);
+            }
+            if (cache != null) {
+                cfg.put("cache", cache);
+            }
             return MAPPER.writeValueAsString(cfg);
         } catch (Exception e) {
             return "{}";
         }
     }
 
-    /** Generate one JSON payload per parameter combination. */
+    /** Generate one JSON payload per parameter combination (or sampled point). */
     public List<String> payloads() {
-        return PayloadGenerator.generate(
-                artifactBucket, artifactKey, artifactEndpoint, mainClass, parameters);
+        if (sampling != null) {
+            List<String> payloads = new ArrayList<>();
+            sampler().iterator().forEachRemaining(payloads::add);
+            return payloads;
+        }
+        return PayloadGenerator.generate(parameters);
+    }
+
+    /**
+     * Whether the job reuses and adds results in the result cache (default
+     * true); false for nondeterministic algorithms.
+     */
+    public boolean cacheResults() {
+        return !Boolean.FALSE.equals(cache);
+    }
+
+    /**
+     * Lazy mode: only the parameter spec is stored, and task rows are
+     * written when their combinations are claimed.
+     */
+    public boolean isLazy() {
+        return Boolean.TRUE.equals(lazy);
+    }
+
+    /**
+     * Search mode: the grid's configurations are run with successive
+     * halving over {@code search}'s budgets instead of once each.
+     */
+    public boolean isSearch() {
+        return search != null;
+    }
+
+    /**
+     * Optimize mode: points are proposed by a model from the results so
+     * far, over the parameter ranges rather than their grid.
+     */
+    public boolean isOptimize() {
+        return optimize != null;
+    }
+
+    /** The parameters as dimensions of a model-guided search. */
+    public List<SearchDimension> space() {
+        List<SearchDimension> space = new ArrayList<>();
+        for (ParameterGroupRequest group : parameters) {
+            if (group.params() == null) continue;
+            for (Map.Entry<String, ParameterValue> entry : group.params().entrySet()) {
+                space.add(entry.getValue().dimension(group.groupId() + "." + entry.getKey()));
+            }
+        }
+        return space;
+    }
+
+    /** Priority and fair-share weight (defaults 0 and 1). */
+    public JobScheduling scheduling() {
+        return new JobScheduling(
+                priority != null ? priority : JobScheduling.DEFAULT.priority(),
+                weight != null ? weight : JobScheduling.DEFAULT.weight());
+    }
+
+    /** Random-access view of the parameter grid. */
+    public PayloadGenerator.Grid grid() {
+        return PayloadGenerator.grid(parameters);
+    }
+
+    /** Points spread over the parameter ranges, when {@code sampling} is set. */
+    public PointSampler sampler() {
+        return PointSampler.of(space(), sampling);
+    }
+
+    /** Random-access payloads: sampled points, or the grid's combinations. */
+    public LongFunction<String> payloadAt() {
+        return sampling != null ? sampler()::payloadAt : grid()::payloadAt;
+    }
+
+    /** Lazily generate the payloads, one combination (or point) at a time. */
+    public Iterator<String> payloadIterator() {
+        return sampling != null ? sampler().iterator() : PayloadGenerator.iterate(parameters);
     }
 
     /** Validate that all required fields are present. */
@@ -67,8 +222,44 @@ public record CreateJobRequest(
         if (parameters == null || parameters.isEmpty()) {
             throw new IllegalArgumentException("parameters must not be empty");
         }
-        if (totalTasks() == 0) {
+        if (weight != null && weight <= 0) {
+            throw new IllegalArgumentException("weight must be positive");
+        }
+        if (stopCondition != null) {
+            stopCondition.validate();
+        }
+        if (optimize != null) {
+            if (search != null || sampling != null) {
+                throw new IllegalArgumentException("optimize cannot be combined with search or sampling");
+            }
+            optimize.validate();
+            if (space().isEmpty()) {
+                throw new IllegalArgumentException("parameters must not be empty");
+            }
+            // Ranges are searched, not expanded: the grid size does not matter
+            return;
+        }
+        if (search != null) {
+            search.validate();
+            for (ParameterGroupRequest group : parameters) {
+                if (group.params() != null && group.params().keySet().stream()
+                        .anyMatch(key -> (group.groupId() + "." + key).equals(search.budgetParam()))) {
+                    throw new IllegalArgumentException("search.budgetParam " + search.budgetParam()
+                            + " must not be a grid parameter");
+                }
+            }
+        }
+        if (sampling != null) {
+            // Validates the method, the point count and the ranges
+            sampler();
+            return;
+        }
+        long total = totalTasks();
+        if (total == 0) {
             throw new IllegalArgumentException("parameters expand to zero tasks — check ranges/values");
         }
+        if (total > MAX_TASKS) {
+            throw new IllegalArgumentException("parameters expand to more than " + MAX_TASKS + " tasks");
+        }
     }
 }
@@ -2,6 +2,9 @@ package orhestra.coordinator.api.v1.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import orhestra.coordinator.server.ControllerExecutor;
+
+import java.util.List;
 
 /**
  * Response DTO for health check.
@@ -15,13 +18,15 @@ public record HealthResponse(
         @JsonProperty("version") String version,
         @JsonProperty("activeSpots") Integer activeSpots,
         @JsonProperty("pendingTasks") Integer pendingTasks,
-        @JsonProperty("runningTasks") Integer runningTasks) {
+        @JsonProperty("runningTasks") Integer runningTasks,
+        @JsonProperty("dispatch") List<ControllerExecutor.Stats> dispatch) {
     public static HealthResponse healthy(String uptime, String version, int activeSpots, int pendingTasks,
-            int runningTasks) {
-        return new HealthResponse("healthy", "ok", uptime, version, activeSpots, pendingTasks, runningTasks);
+            int runningTasks, List<ControllerExecutor.Stats> dispatch) {
+        return new HealthResponse("healthy", "ok", uptime, version, activeSpots, pendingTasks, runningTasks,
+                dispatch);
     }
 
     public static HealthResponse unhealthy(String database) {
-        return new HealthResponse("unhealthy", database, null, null, null, null, null);
+        return new HealthResponse("unhealthy", database, null, null, null, null, null, null);
     }
 }
@@ -4,6 +4,9 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import orhestra.coordinator.model.Job;
 import orhestra.coordinator.model.Task;
+import orhestra.coordinator.service.EarlyStopping;
+import orhestra.coordinator.service.SuccessiveHalving;
+import orhestra.coordinator.service.TpeSearch;
 
 import java.time.Instant;
 import java.util.List;
@@ -23,9 +26,15 @@ public record JobResponse(
         @JsonProperty("totalTasks")       int totalTasks,
         @JsonProperty("completedTasks")   int completedTasks,
         @JsonProperty("failedTasks")      int failedTasks,
+        @JsonProperty("materializedTasks") Integer materializedTasks,
+        @JsonProperty("priority")         int priority,
+        @JsonProperty("weight")           int weight,
         @JsonProperty("createdAt")        Instant createdAt,
         @JsonProperty("startedAt")        Instant startedAt,
         @JsonProperty("finishedAt")       Instant finishedAt,
+        @JsonProperty("earlyStop")        EarlyStopping.Progress earlyStop,
+        @JsonProperty("search")           SuccessiveHalving.Progress search,
+        @JsonProperty("optimize")         TpeSearch.Progress optimize,
         @JsonProperty("results")          List<TaskResultResponse> results) {
 
     public static JobResponse from(Job job) {
@@ -39,9 +48,15 @@ public record JobResponse(
                 job.totalTasks(),
                 job.completedTasks(),
                 job.failedTasks(),
+                job.materializedTasks(),
+                job.priority(),
+                job.weight(),
                 job.createdAt(),
                 job.startedAt(),
                 job.finishedAt(),
+                null,
+                null,
+                null,
                 null
         );
     }
@@ -61,16 +76,46 @@ public record JobResponse(
                 job.totalTasks(),
                 job.completedTasks(),
                 job.failedTasks(),
+                job.materializedTasks(),
+                job.priority(),
+                job.weight(),
                 job.createdAt(),
                 job.startedAt(),
                 job.finishedAt(),
+                null,
+                null,
+                null,
                 results);
     }
 
     public JobResponse compact() {
         return new JobResponse(
                 jobId, status, artifactBucket, artifactKey, artifactEndpoint, mainClass,
-                totalTasks, completedTasks, failedTasks,
-                createdAt, startedAt, finishedAt, null);
+                totalTasks, completedTasks, failedTasks, materializedTasks, priority, weight,
+                createdAt, startedAt, finishedAt, earlyStop, search, optimize, null);
+    }
+
+    /** Same response with the job's progress towards its stop condition. */
+    public JobResponse withEarlyStop(EarlyStopping.Progress progress) {
+        return new JobResponse(
+                jobId, status, artifactBucket, artifactKey, artifactEndpoint, mainClass,
+                totalTasks, completedTasks, failedTasks, materializedTasks, priority, weight,
+                createdAt, startedAt, finishedAt, progress, search, optimize, results);
+    }
+
+    /** Same response with the progress of the job's adaptive search. */
+    public JobResponse withSearch(SuccessiveHalving.Progress progress) {
+        return new JobResponse(
+                jobId, status, artifactBucket, artifactKey, artifactEndpoint, mainClass,
+                totalTasks, completedTasks, failedTasks, materializedTasks, priority, weight,
+                createdAt, startedAt, finishedAt, earlyStop, progress, optimize, results);
+    }
+
+    /** Same response with the progress of the job's model-guided search. */
+    public JobResponse withOptimize(TpeSearch.Progress progress) {
+        return new JobResponse(
+                jobId, status, artifactBucket, artifactKey, artifactEndpoint, mainClass,
+                totalTasks, completedTasks, failedTasks, materializedTasks, priority, weight,
+                createdAt, startedAt, finishedAt, earlyStop, search, progress, results);
     }
 }
@@ -1,6 +1,7 @@
 package orhestra.coordinator.api.v1.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import orhestra.coordinator.model.SearchDimension;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -52,4 +53,23 @@ public record ParameterValue(
             default -> List.of();
         };
     }
+
+    /**
+     * This parameter as a dimension of a model-guided search: ranges stay
+     * intervals instead of being expanded, and a {@code FLOAT_RANGE}
+     * without {@code step} is continuous.
+     */
+    public SearchDimension dimension(String key) {
+        String kind = type == null ? "" : type.toUpperCase();
+        if ((kind.equals("INT_RANGE") || kind.equals("FLOAT_RANGE")) && (min == null || max == null)) {
+            throw new IllegalArgumentException(key + ": min and max are required");
+        }
+        return switch (kind) {
+            case "INT_RANGE" -> SearchDimension.ofInt(key, min.intValue(), max.intValue(),
+                    step != null ? step.intValue() : 1);
+            case "FLOAT_RANGE" -> SearchDimension.ofFloat(key, min.doubleValue(), max.doubleValue(),
+                    step != null ? step.doubleValue() : null);
+            default -> SearchDimension.ofChoices(key, expand());
+        };
+    }
 }
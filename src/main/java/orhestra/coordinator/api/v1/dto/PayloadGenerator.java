@@ -1,29 +1,39 @@
 package orhestra.coordinator.api.v1.dto;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
- * Generates flat JSON task payloads from a dynamic parameter specification
+ * Generates JSON task payloads from a dynamic parameter specification
  * via Cartesian-product expansion.
  *
  * <p>Output per task:
  * <pre>
  * {
- *   "artifactBucket":   "...",
- *   "artifactKey":      "...",
- *   "artifactEndpoint": "...",
- *   "mainClass":        "...",
  *   "params": {
  *     "group.paramId": <value>,
  *     ...
  *   }
  * }
  * </pre>
+ *
+ * <p>The artifact and {@code mainClass} are the same for every task of a
+ * job, so they are not repeated here: they live on the job row and are
+ * attached at claim time (see {@code JobTemplate}).
+ *
+ * <p>Combinations are never materialised: combination {@code i} is the
+ * mixed-radix number whose digits index each parameter's value list (the
+ * last parameter varies fastest), and each payload is written straight into
+ * a streaming JSON generator. Memory use does not depend on the grid size.
  */
 public final class PayloadGenerator {
 
@@ -33,51 +43,49 @@ public final class PayloadGenerator {
 
     /**
      * Generate one JSON payload string per unique parameter combination.
+     * Materialises the whole list — prefer {@link #iterate} for large grids.
      *
-     * @param artifactBucket   S3 bucket name
-     * @param artifactKey      S3 object key
-     * @param artifactEndpoint S3/MinIO endpoint URL
-     * @param mainClass        fully-qualified main class name
-     * @param groups           parameter group specifications
+     * @param groups parameter group specifications
      * @return list of JSON payload strings (one per task)
      */
-    public static List<String> generate(
-            String artifactBucket,
-            String artifactKey,
-            String artifactEndpoint,
-            String mainClass,
-            List<CreateJobRequest.ParameterGroupRequest> groups) {
-
-        List<Map.Entry<String, List<Object>>> allParams = flattenParams(groups);
-        List<Map<String, Object>> combinations = cartesian(allParams);
-
-        List<String> payloads = new ArrayList<>(combinations.size());
-        for (Map<String, Object> combo : combinations) {
-            Map<String, Object> payload = new LinkedHashMap<>();
-            payload.put("artifactBucket",   artifactBucket);
-            payload.put("artifactKey",      artifactKey);
-            payload.put("artifactEndpoint", artifactEndpoint);
-            payload.put("mainClass",        mainClass);
-            payload.put("params",           combo);
-            try {
-                payloads.add(MAPPER.writeValueAsString(payload));
-            } catch (Exception e) {
-                payloads.add("{}");
-            }
-        }
+    public static List<String> generate(List<CreateJobRequest.ParameterGroupRequest> groups) {
+        List<String> payloads = new ArrayList<>();
+        iterate(groups).forEachRemaining(payloads::add);
         return payloads;
     }
 
+    /**
+     * Lazily generate the payloads, in the same order as {@link #generate}.
+     * Each call to {@code next()} serialises exactly one combination.
+     */
+    public static Iterator<String> iterate(List<CreateJobRequest.ParameterGroupRequest> groups) {
+        return grid(groups).iterator();
+    }
+
+    /**
+     * Random-access view of the grid: payload {@code i} can be decoded
+     * without generating the ones before it.
+     */
+    public static Grid grid(List<CreateJobRequest.ParameterGroupRequest> groups) {
+        return new Grid(flattenParams(groups));
+    }
+
     /**
      * Count the total number of tasks that will be generated without
      * materialising the full payload list.
+     *
+     * @return the grid size, or {@link Long#MAX_VALUE} if it overflows a long
      */
-    public static int countTasks(List<CreateJobRequest.ParameterGroupRequest> groups) {
+    public static long countTasks(List<CreateJobRequest.ParameterGroupRequest> groups) {
         List<Map.Entry<String, List<Object>>> flat = flattenParams(groups);
         if (flat.isEmpty()) return 0;
-        int count = 1;
-        for (Map.Entry<String, List<Object>> entry : flat) {
-            count *= entry.getValue().size();
+        long count = 1;
+        try {
+            for (Map.Entry<String, List<Object>> entry : flat) {
+                count = Math.multiplyExact(count, (long) entry.getValue().size());
+            }
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
         }
         return count;
     }
@@ -103,23 +111,102 @@ public final class PayloadGenerator {
         return result;
     }
 
-    private static List<Map<String, Object>> cartesian(List<Map.Entry<String, List<Object>>> params) {
-        List<Map<String, Object>> result = new ArrayList<>();
-        result.add(new LinkedHashMap<>());
-
-        for (Map.Entry<String, List<Object>> param : params) {
-            String key = param.getKey();
-            List<Object> vals = param.getValue();
-            List<Map<String, Object>> next = new ArrayList<>(result.size() * vals.size());
-            for (Map<String, Object> existing : result) {
-                for (Object val : vals) {
-                    Map<String, Object> combo = new LinkedHashMap<>(existing);
-                    combo.put(key, val);
-                    next.add(combo);
+    /**
+     * A parameter grid addressed by mixed-radix combination index.
+     * {@link #payloadAt} is thread-safe; each iterator is single-threaded.
+     */
+    public static final class Grid {
+
+        private final String[] keys;
+        private final Object[][] values;
+
+        Grid(List<Map.Entry<String, List<Object>>> params) {
+            this.keys = new String[params.size()];
+            this.values = new Object[params.size()][];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = params.get(i).getKey();
+                values[i] = params.get(i).getValue().toArray();
+            }
+        }
+
+        /**
+         * Number of combinations, or {@link Long#MAX_VALUE} on overflow.
+         */
+        public long size() {
+            if (keys.length == 0) return 0;
+            long count = 1;
+            try {
+                for (Object[] vals : values) {
+                    count = Math.multiplyExact(count, (long) vals.length);
                 }
+            } catch (ArithmeticException e) {
+                return Long.MAX_VALUE;
             }
-            result = next;
+            return count;
+        }
+
+        /**
+         * Decode combination {@code index} into its payload.
+         */
+        public String payloadAt(long index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("combination " + index + " of " + size());
+            }
+            int[] digits = new int[keys.length];
+            long rest = index;
+            for (int i = keys.length - 1; i >= 0; i--) {
+                digits[i] = (int) (rest % values[i].length);
+                rest /= values[i].length;
+            }
+            return write(digits, new StringWriter(256));
+        }
+
+        /**
+         * Walks the grid like an odometer: the last digit is bumped and
+         * carries into the previous ones, so each step is O(1) amortised.
+         */
+        public Iterator<String> iterator() {
+            int[] digits = new int[keys.length];
+            StringWriter buffer = new StringWriter(256);
+            return new Iterator<>() {
+                private boolean done = keys.length == 0;
+
+                @Override
+                public boolean hasNext() {
+                    return !done;
+                }
+
+                @Override
+                public String next() {
+                    if (done) {
+                        throw new NoSuchElementException();
+                    }
+                    buffer.getBuffer().setLength(0);
+                    String payload = write(digits, buffer);
+                    int pos = digits.length - 1;
+                    while (pos >= 0 && ++digits[pos] == values[pos].length) {
+                        digits[pos--] = 0;
+                    }
+                    done = pos < 0;
+                    return payload;
+                }
+            };
+        }
+
+        private String write(int[] digits, StringWriter buffer) {
+            try (JsonGenerator gen = MAPPER.getFactory().createGenerator(buffer)) {
+                gen.writeStartObject();
+                gen.writeObjectFieldStart("params");
+                for (int i = 0; i < keys.length; i++) {
+                    gen.writeFieldName(keys[i]);
+                    gen.writeObject(values[i][digits[i]]);
+                }
+                gen.writeEndObject();
+                gen.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to serialise payload", e);
+            }
+            return buffer.toString();
         }
-        return result;
     }
 }
@@ -0,0 +1,278 @@
+package orhestra.coordinator.api.v1.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import orhestra.coordinator.model.SamplingSpec;
+import orhestra.coordinator.model.SearchDimension;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Generates JSON task payloads from a fixed number of points spread over
+ * the parameter ranges (see {@link SamplingSpec}), in the same format as
+ * {@link PayloadGenerator}.
+ *
+ * <p>Point {@code i} is a pure function of the seed and {@code i}: nothing
+ * is stored, any point can be decoded on its own (lazy jobs), and the same
+ * request always yields the same points. Each point is a coordinate in
+ * [0, 1) per parameter, mapped to a value by {@link SearchDimension#at}.
+ * Parameters with a single value take no coordinate.
+ *
+ * <ul>
+ *   <li>{@code random}: independent uniform coordinates from a hash of
+ *       (seed, i, parameter).</li>
+ *   <li>{@code lhs}: Latin hypercube — each parameter's range is cut into
+ *       {@code points} strata and every stratum holds exactly one point.
+ *       Strata are assigned by a keyed pseudo-random permutation of
+ *       {@code i} (a Feistel network with cycle walking), so no
+ *       permutation table is kept.</li>
+ *   <li>{@code sobol}: Sobol low-discrepancy sequence (direction numbers of
+ *       Joe and Kuo, up to {@value #MAX_SOBOL_DIMENSIONS} parameters),
+ *       randomised by a seeded digital shift.</li>
+ * </ul>
+ */
+public final class PointSampler {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Parameters a Sobol sequence can cover. */
+    public static final int MAX_SOBOL_DIMENSIONS = 21;
+
+    private static final int BITS = 32;
+
+    // Degree s, coefficients a and initial direction numbers m of the
+    // primitive polynomials for Sobol dimensions 2.. (dimension 1 is the
+    // van der Corput sequence)
+    private static final int[][] SOBOL_POLYNOMIALS = {
+            {1, 0, 1},
+            {2, 1, 1, 3},
+            {3, 1, 1, 3, 1},
+            {3, 2, 1, 1, 1},
+            {4, 1, 1, 1, 3, 3},
+            {4, 4, 1, 3, 5, 13},
+            {5, 2, 1, 1, 5, 5, 17},
+            {5, 4, 1, 1, 5, 5, 5},
+            {5, 7, 1, 1, 7, 11, 19},
+            {5, 11, 1, 1, 5, 1, 1},
+            {5, 13, 1, 1, 1, 3, 11},
+            {5, 14, 1, 3, 5, 5, 31},
+            {6, 1, 1, 3, 3, 9, 7, 49},
+            {6, 13, 1, 1, 1, 15, 21, 21},
+            {6, 16, 1, 3, 1, 13, 27, 49},
+            {6, 19, 1, 1, 1, 15, 7, 5},
+            {6, 22, 1, 3, 1, 15, 13, 25},
+            {6, 25, 1, 1, 5, 5, 19, 61},
+            {7, 1, 1, 3, 7, 11, 23, 15, 103},
+            {7, 4, 1, 3, 7, 13, 13, 15, 69},
+    };
+
+    private final String[] keys;
+    private final SearchDimension[] dims;
+    private final Object[] fixed;
+    private final SamplingSpec.Method method;
+    private final int points;
+    private final long seed;
+    // Sobol: direction numbers and digital shift per sampled dimension
+    private final int[][] directions;
+    private final int[] shifts;
+
+    private PointSampler(List<SearchDimension> space, SamplingSpec spec) {
+        this.method = spec.methodOrDefault();
+        this.points = spec.points();
+        this.seed = spec.seedOrDefault();
+        this.keys = new String[space.size()];
+        this.dims = new SearchDimension[space.size()];
+        this.fixed = new Object[space.size()];
+        int sampled = 0;
+        for (int i = 0; i < keys.length; i++) {
+            SearchDimension dim = space.get(i);
+            keys[i] = dim.key();
+            if (dim.isFixed()) {
+                fixed[i] = dim.at(0);
+            } else {
+                dims[i] = dim;
+                sampled++;
+            }
+        }
+
+        if (method == SamplingSpec.Method.SOBOL) {
+            if (sampled > MAX_SOBOL_DIMENSIONS) {
+                throw new IllegalArgumentException("sobol sampling supports at most " + MAX_SOBOL_DIMENSIONS
+                        + " varying parameters, got " + sampled);
+            }
+            this.directions = new int[sampled][];
+            this.shifts = new int[sampled];
+            for (int d = 0; d < sampled; d++) {
+                directions[d] = directions(d);
+                shifts[d] = (int) mix(seed ^ mix(d + 1L));
+            }
+        } else {
+            this.directions = null;
+            this.shifts = null;
+        }
+    }
+
+    /**
+     * Sampler over the given parameters.
+     */
+    public static PointSampler of(List<SearchDimension> space, SamplingSpec spec) {
+        spec.validate();
+        if (space.isEmpty()) {
+            throw new IllegalArgumentException("parameters must not be empty");
+        }
+        return new PointSampler(space, spec);
+    }
+
+    /** Number of points. */
+    public long size() {
+        return points;
+    }
+
+    /**
+     * Decode point {@code index} into its payload.
+     */
+    public String payloadAt(long index) {
+        if (index < 0 || index >= points) {
+            throw new IndexOutOfBoundsException("point " + index + " of " + points);
+        }
+        return write(index, new StringWriter(256));
+    }
+
+    /**
+     * The payloads in index order.
+     */
+    public Iterator<String> iterator() {
+        StringWriter buffer = new StringWriter(256);
+        return new Iterator<>() {
+            private long next;
+
+            @Override
+            public boolean hasNext() {
+                return next < points;
+            }
+
+            @Override
+            public String next() {
+                if (next >= points) {
+                    throw new NoSuchElementException();
+                }
+                buffer.getBuffer().setLength(0);
+                return write(next++, buffer);
+            }
+        };
+    }
+
+    /**
+     * Coordinate in [0, 1) of point {@code index} in sampled dimension
+     * {@code d}.
+     */
+    double coordinate(long index, int d) {
+        return switch (method) {
+            case RANDOM -> unit(mix(mix(seed ^ mix(index)) + d));
+            case LHS -> {
+                long key = mix(seed ^ mix(d + 1L));
+                long stratum = permute(index, points, key);
+                yield (stratum + unit(mix(key ^ mix(index)))) / points;
+            }
+            case SOBOL -> {
+                long gray = index ^ (index >>> 1);
+                int x = 0;
+                for (int bit = 0; gray != 0 && bit < BITS; bit++, gray >>>= 1) {
+                    if ((gray & 1) != 0) {
+                        x ^= directions[d][bit];
+                    }
+                }
+                yield Integer.toUnsignedLong(x ^ shifts[d]) / (double) (1L << BITS);
+            }
+        };
+    }
+
+    private String write(long index, StringWriter buffer) {
+        try (JsonGenerator gen = MAPPER.getFactory().createGenerator(buffer)) {
+            gen.writeStartObject();
+            gen.writeObjectFieldStart("params");
+            int d = 0;
+            for (int i = 0; i < keys.length; i++) {
+                gen.writeFieldName(keys[i]);
+                gen.writeObject(dims[i] != null ? dims[i].at(coordinate(index, d++)) : fixed[i]);
+            }
+            gen.writeEndObject();
+            gen.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialise payload", e);
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Direction numbers of Sobol dimension {@code d} (0-based), scaled to
+     * {@value #BITS} bits.
+     */
+    private static int[] directions(int d) {
+        int[] v = new int[BITS];
+        if (d == 0) {
+            for (int i = 0; i < BITS; i++) {
+                v[i] = 1 << (BITS - 1 - i);
+            }
+            return v;
+        }
+        int[] poly = SOBOL_POLYNOMIALS[d - 1];
+        int s = poly[0];
+        int a = poly[1];
+        for (int i = 0; i < BITS; i++) {
+            if (i < s) {
+                v[i] = poly[2 + i] << (BITS - 1 - i);
+            } else {
+                int x = v[i - s] ^ (v[i - s] >>> s);
+                for (int k = 1; k < s; k++) {
+                    if (((a >>> (s - 1 - k)) & 1) != 0) {
+                        x ^= v[i - k];
+                    }
+                }
+                v[i] = x;
+            }
+        }
+        return v;
+    }
+
+    /**
+     * A pseudo-random permutation of [0, n) keyed by {@code key}: a
+     * four-round Feistel network over the smallest even number of bits
+     * that covers n, re-applied until the value falls below n.
+     */
+    static long permute(long index, long n, long key) {
+        int bits = Math.max(2, 64 - Long.numberOfLeadingZeros(n - 1));
+        bits += bits & 1;
+        int half = bits / 2;
+        long mask = (1L << half) - 1;
+        long x = index;
+        do {
+            long left = x >>> half;
+            long right = x & mask;
+            for (int round = 0; round < 4; round++) {
+                long next = left ^ (mix(right ^ key ^ ((long) round << 56)) & mask);
+                left = right;
+                right = next;
+            }
+            x = (left << half) | right;
+        } while (x >= n);
+        return x;
+    }
+
+    /** SplitMix64 finaliser. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Top 53 bits as a double in [0, 1). */
+    private static double unit(long bits) {
+        return (bits >>> 11) * 0x1.0p-53;
+    }
+}
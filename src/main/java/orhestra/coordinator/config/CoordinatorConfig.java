@@ -1,5 +1,7 @@
 package orhestra.coordinator.config;
 
+import orhestra.coordinator.service.SchedulingPolicy;
+
 import java.time.Duration;
 
 /**
@@ -16,14 +18,36 @@ public final class CoordinatorConfig {
     private int serverPort = 8080;
     private String serverHost = "0.0.0.0";
 
+    // Controller dispatch (0 threads = size to the database pool)
+    private int internalDispatchThreads = 0;
+    private int apiDispatchThreads = 0;
+    private int dispatchQueueCapacity = 1000;
+    private Duration dispatchRetryAfter = Duration.ofSeconds(1);
+
+    // Claim sizing (see ClaimQuota)
+    private int maxClaimBatch = 64;
+    private Duration claimLeadTime = Duration.ofSeconds(5);
+    private Duration maxClaimWait = Duration.ofSeconds(30);
+    private SchedulingPolicy schedulingPolicy = SchedulingPolicy.FAIR_SHARE;
+
     // Task settings
     private int defaultMaxAttempts = 3;
+    private int ingestChunkSize = 1000;
     private Duration taskStuckThreshold = Duration.ofMinutes(5);
     private Duration taskReaperInterval = Duration.ofSeconds(30);
+    private Duration taskLeaseDuration = Duration.ofSeconds(30);
+    private double taskDeadlineFactor = 3.0;
+    private Duration taskLeaseCheckInterval = Duration.ofSeconds(1);
+    private double speculationFactor = 1.5;
+    private Duration speculationMinRuntime = Duration.ofSeconds(10);
+    private int speculativeCopies = 1;
+    private int resultCacheEntries = 100_000;
+    private long resultCacheBytes = 64L << 20;
 
     // SPOT settings
     private Duration spotHeartbeatTimeout = Duration.ofSeconds(10);
-    private Duration spotCleanupInterval = Duration.ofSeconds(5);
+    private Duration spotCleanupInterval = Duration.ofSeconds(1);
+    private Duration heartbeatFlushInterval = Duration.ofSeconds(2);
 
     // Auth settings (optional)
     private String agentKey = null; // If set, SPOTs must provide X-Orhestra-Key header
@@ -63,6 +87,86 @@ public final class CoordinatorConfig {
             config.defaultMaxAttempts = Integer.parseInt(maxAttempts);
         }
 
+        String ingestChunk = System.getenv("ORHESTRA_INGEST_CHUNK");
+        if (ingestChunk != null && !ingestChunk.isBlank()) {
+            config.ingestChunkSize = Integer.parseInt(ingestChunk);
+        }
+
+        String internalThreads = System.getenv("ORHESTRA_INTERNAL_THREADS");
+        if (internalThreads != null && !internalThreads.isBlank()) {
+            config.internalDispatchThreads = Integer.parseInt(internalThreads);
+        }
+
+        String apiThreads = System.getenv("ORHESTRA_API_THREADS");
+        if (apiThreads != null && !apiThreads.isBlank()) {
+            config.apiDispatchThreads = Integer.parseInt(apiThreads);
+        }
+
+        String dispatchQueue = System.getenv("ORHESTRA_DISPATCH_QUEUE");
+        if (dispatchQueue != null && !dispatchQueue.isBlank()) {
+            config.dispatchQueueCapacity = Integer.parseInt(dispatchQueue);
+        }
+
+        String maxClaimBatch = System.getenv("ORHESTRA_MAX_CLAIM_BATCH");
+        if (maxClaimBatch != null && !maxClaimBatch.isBlank()) {
+            config.maxClaimBatch = Integer.parseInt(maxClaimBatch);
+        }
+
+        String claimLeadMs = System.getenv("ORHESTRA_CLAIM_LEAD_MS");
+        if (claimLeadMs != null && !claimLeadMs.isBlank()) {
+            config.claimLeadTime = Duration.ofMillis(Long.parseLong(claimLeadMs));
+        }
+
+        String maxClaimWaitMs = System.getenv("ORHESTRA_MAX_CLAIM_WAIT_MS");
+        if (maxClaimWaitMs != null && !maxClaimWaitMs.isBlank()) {
+            config.maxClaimWait = Duration.ofMillis(Long.parseLong(maxClaimWaitMs));
+        }
+
+        String schedulingPolicy = System.getenv("ORHESTRA_SCHEDULING_POLICY");
+        if (schedulingPolicy != null && !schedulingPolicy.isBlank()) {
+            config.schedulingPolicy = SchedulingPolicy.parse(schedulingPolicy);
+        }
+
+        String taskLeaseMs = System.getenv("ORHESTRA_TASK_LEASE_MS");
+        if (taskLeaseMs != null && !taskLeaseMs.isBlank()) {
+            config.taskLeaseDuration = Duration.ofMillis(Long.parseLong(taskLeaseMs));
+        }
+
+        String deadlineFactor = System.getenv("ORHESTRA_TASK_DEADLINE_FACTOR");
+        if (deadlineFactor != null && !deadlineFactor.isBlank()) {
+            config.taskDeadlineFactor = Double.parseDouble(deadlineFactor);
+        }
+
+        String speculationFactor = System.getenv("ORHESTRA_SPECULATION_FACTOR");
+        if (speculationFactor != null && !speculationFactor.isBlank()) {
+            config.speculationFactor = Double.parseDouble(speculationFactor);
+        }
+
+        String speculationMinMs = System.getenv("ORHESTRA_SPECULATION_MIN_RUNTIME_MS");
+        if (speculationMinMs != null && !speculationMinMs.isBlank()) {
+            config.speculationMinRuntime = Duration.ofMillis(Long.parseLong(speculationMinMs));
+        }
+
+        String speculativeCopies = System.getenv("ORHESTRA_SPECULATIVE_COPIES");
+        if (speculativeCopies != null && !speculativeCopies.isBlank()) {
+            config.speculativeCopies = Integer.parseInt(speculativeCopies);
+        }
+
+        String resultCacheEntries = System.getenv("ORHESTRA_RESULT_CACHE_ENTRIES");
+        if (resultCacheEntries != null && !resultCacheEntries.isBlank()) {
+            config.resultCacheEntries = Integer.parseInt(resultCacheEntries);
+        }
+
+        String resultCacheMb = System.getenv("ORHESTRA_RESULT_CACHE_MB");
+        if (resultCacheMb != null && !resultCacheMb.isBlank()) {
+            config.resultCacheBytes = Long.parseLong(resultCacheMb) << 20;
+        }
+
+        String heartbeatFlushMs = System.getenv("ORHESTRA_HEARTBEAT_FLUSH_MS");
+        if (heartbeatFlushMs != null && !heartbeatFlushMs.isBlank()) {
+            config.heartbeatFlushInterval = Duration.ofMillis(Long.parseLong(heartbeatFlushMs));
+        }
+
         String s3Endpoint = System.getenv("ORHESTRA_S3_ENDPOINT");
         if (s3Endpoint != null && !s3Endpoint.isBlank()) {
             config.s3Endpoint = s3Endpoint;
@@ -93,10 +197,70 @@ public final class CoordinatorConfig {
         return serverHost;
     }
 
+    /**
+     * Threads for /internal/v1 controllers. Defaults to the database pool size,
+     * since every internal request holds a connection while it runs.
+     */
+    public int internalDispatchThreads() {
+        return internalDispatchThreads > 0 ? internalDispatchThreads : databasePoolSize;
+    }
+
+    /**
+     * Threads for /api/v1 controllers. Defaults to a quarter of the database
+     * pool so UI/API traffic cannot starve the agents.
+     */
+    public int apiDispatchThreads() {
+        return apiDispatchThreads > 0 ? apiDispatchThreads : Math.max(2, databasePoolSize / 4);
+    }
+
+    public int dispatchQueueCapacity() {
+        return dispatchQueueCapacity;
+    }
+
+    public Duration dispatchRetryAfter() {
+        return dispatchRetryAfter;
+    }
+
+    /**
+     * Upper bound on tasks handed out by a single claim.
+     */
+    public int maxClaimBatch() {
+        return maxClaimBatch;
+    }
+
+    /**
+     * How much work (by average runtime) a SPOT may hold per slot beyond what
+     * it is running, so short tasks are not starved by claim round trips.
+     */
+    public Duration claimLeadTime() {
+        return claimLeadTime;
+    }
+
+    /**
+     * Longest a long-poll claim ({@code waitMs}) may stay parked.
+     */
+    public Duration maxClaimWait() {
+        return maxClaimWait;
+    }
+
+    /**
+     * How claims order queued tasks of different jobs.
+     */
+    public SchedulingPolicy schedulingPolicy() {
+        return schedulingPolicy;
+    }
+
     public int defaultMaxAttempts() {
         return defaultMaxAttempts;
     }
 
+    /**
+     * Rows per transaction when a job's tasks are bulk-inserted.
+     */
+    public int ingestChunkSize() {
+        return ingestChunkSize;
+    }
+
     public Duration taskStuckThreshold() {
         return taskStuckThreshold;
     }
@@ -105,14 +269,85 @@ public final class CoordinatorConfig {
         return taskReaperInterval;
     }
 
+    /**
+     * How long a task lease lasts without renewal, and the shortest run-time
+     * budget a task gets (see TaskLeases).
+     */
+    public Duration taskLeaseDuration() {
+        return taskLeaseDuration;
+    }
+
+    /**
+     * Multiplier on the observed p99 runtime that gives a task's deadline.
+     */
+    public double taskDeadlineFactor() {
+        return taskDeadlineFactor;
+    }
+
+    /**
+     * How often expired task leases are collected.
+     */
+    public Duration taskLeaseCheckInterval() {
+        return taskLeaseCheckInterval;
+    }
+
+    /**
+     * A RUNNING task is a straggler once it has run this many times its
+     * predicted runtime; 0 disables speculative execution.
+     */
+    public double speculationFactor() {
+        return speculationFactor;
+    }
+
+    /**
+     * Shortest run time before a task may get a speculative copy.
+     */
+    public Duration speculationMinRuntime() {
+        return speculationMinRuntime;
+    }
+
+    /**
+     * Speculative copies per task, on top of the original.
+     */
+    public int speculativeCopies() {
+        return speculativeCopies;
+    }
+
+    /**
+     * Results kept by the result cache; 0 disables it.
+     */
+    public int resultCacheEntries() {
+        return resultCacheEntries;
+    }
+
+    /**
+     * Approximate memory bound of the result cache.
+     */
+    public long resultCacheBytes() {
+        return resultCacheBytes;
+    }
+
     public Duration spotHeartbeatTimeout() {
         return spotHeartbeatTimeout;
     }
 
+    /**
+     * Spot reaper tick. SPOT expiries come from a timing wheel with this
+     * resolution, so a reaper run is cheap and a SPOT is reaped at most one
+     * tick after its heartbeat timeout.
+     */
     public Duration spotCleanupInterval() {
         return spotCleanupInterval;
     }
 
+    /**
+     * How often buffered heartbeats are written to the spots table. Zero
+     * writes only status changes (registration, revival, reaping).
+     */
+    public Duration heartbeatFlushInterval() {
+        return heartbeatFlushInterval;
+    }
+
     public String agentKey() {
         return agentKey;
     }
@@ -140,6 +375,76 @@ public final class CoordinatorConfig {
         return this;
     }
 
+    public CoordinatorConfig withInternalDispatchThreads(int threads) {
+        this.internalDispatchThreads = threads;
+        return this;
+    }
+
+    public CoordinatorConfig withApiDispatchThreads(int threads) {
+        this.apiDispatchThreads = threads;
+        return this;
+    }
+
+    public CoordinatorConfig withDispatchQueueCapacity(int capacity) {
+        this.dispatchQueueCapacity = capacity;
+        return this;
+    }
+
+    public CoordinatorConfig withMaxClaimBatch(int batch) {
+        this.maxClaimBatch = batch;
+        return this;
+    }
+
+    public CoordinatorConfig withClaimLeadTime(Duration leadTime) {
+        this.claimLeadTime = leadTime;
+        return this;
+    }
+
+    public CoordinatorConfig withMaxClaimWait(Duration wait) {
+        this.maxClaimWait = wait;
+        return this;
+    }
+
+    public CoordinatorConfig withSchedulingPolicy(SchedulingPolicy policy) {
+        this.schedulingPolicy = policy;
+        return this;
+    }
+
+    public CoordinatorConfig withTaskLeaseDuration(Duration duration) {
+        this.taskLeaseDuration = duration;
+        return this;
+    }
+
+    public CoordinatorConfig withTaskDeadlineFactor(double factor) {
+        this.taskDeadlineFactor = factor;
+        return this;
+    }
+
+    public CoordinatorConfig withSpeculationFactor(double factor) {
+        this.speculationFactor = factor;
+        return this;
+    }
+
+    public CoordinatorConfig withSpeculationMinRuntime(Duration duration) {
+        this.speculationMinRuntime = duration;
+        return this;
+    }
+
+    public CoordinatorConfig withSpeculativeCopies(int copies) {
+        this.speculativeCopies = copies;
+        return this;
+    }
+
+    public CoordinatorConfig withResultCacheEntries(int entries) {
+        this.resultCacheEntries = entries;
+        return this;
+    }
+
+    public CoordinatorConfig withHeartbeatFlushInterval(Duration interval) {
+        this.heartbeatFlushInterval = interval;
+        return this;
+    }
+
     public CoordinatorConfig withAgentKey(String key) {
         this.agentKey = key;
         return this;
@@ -150,6 +455,11 @@ public final class CoordinatorConfig {
         return this;
     }
 
+    public CoordinatorConfig withIngestChunkSize(int chunkSize) {
+        this.ingestChunkSize = chunkSize;
+        return this;
+    }
+
     public CoordinatorConfig withTaskStuckThreshold(Duration threshold) {
         this.taskStuckThreshold = threshold;
         return this;
@@ -10,10 +10,22 @@ import orhestra.coordinator.repository.JobRepository;
 import orhestra.coordinator.repository.SpotRepository;
 import orhestra.coordinator.repository.TaskRepository;
 import orhestra.coordinator.scheduler.Scheduler;
+import orhestra.coordinator.scheduler.TaskReaper;
+import orhestra.coordinator.server.ControllerExecutor;
 import orhestra.coordinator.server.RouterHandler;
+import orhestra.coordinator.service.ClaimNotifier;
+import orhestra.coordinator.service.EarlyStopping;
 import orhestra.coordinator.service.JobService;
+import orhestra.coordinator.service.JobTemplates;
+import orhestra.coordinator.service.LazyTaskSource;
+import orhestra.coordinator.service.ResultCache;
+import orhestra.coordinator.service.SpeculativeExecution;
+import orhestra.coordinator.service.SpotRegistry;
 import orhestra.coordinator.service.SpotService;
 import orhestra.coordinator.service.SpotTaskBlacklist;
+import orhestra.coordinator.service.TaskCancels;
+import orhestra.coordinator.service.TaskDispatcher;
+import orhestra.coordinator.service.TaskLeases;
 import orhestra.coordinator.service.TaskService;
 import orhestra.coordinator.store.Database;
 import orhestra.coordinator.store.JdbcJobRepository;
@@ -22,6 +34,10 @@ import orhestra.coordinator.store.JdbcTaskRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Manual dependency injection container.
  * Creates and wires all service dependencies.
@@ -46,9 +62,24 @@ public final class Dependencies implements AutoCloseable {
     private final SpotRepository spotRepository;
     private final JobRepository jobRepository;
     private final SpotTaskBlacklist blacklist;
+    private final ClaimNotifier claimNotifier;
+    private final TaskDispatcher dispatcher;
+    private final LazyTaskSource lazyTasks;
+    private final SpotRegistry spotRegistry;
+    private final TaskLeases taskLeases;
+    private final TaskCancels taskCancels;
+    private final SpeculativeExecution speculation;
+    private final EarlyStopping earlyStopping;
+    private final ResultCache resultCache;
     private final TaskService taskService;
     private final SpotService spotService;
     private final JobService jobService;
+    private final JobTemplates jobTemplates;
+    private final ExecutorService ingestExecutor;
+
+    // Controller dispatch executors (off the Netty event loop)
+    private final ControllerExecutor internalExecutor;
+    private final ControllerExecutor apiExecutor;
 
     // Controllers
     private final HealthController healthController;
@@ -79,19 +110,70 @@ public final class Dependencies implements AutoCloseable {
 
         // Services
         this.blacklist = new SpotTaskBlacklist();
-        this.taskService = new TaskService(taskRepository, spotRepository, blacklist, config);
-        this.spotService = new SpotService(spotRepository, taskRepository, config);
-        this.jobService = new JobService(jobRepository, taskRepository, config);
+        this.claimNotifier = new ClaimNotifier();
+        this.resultCache = new ResultCache(config);
+        this.dispatcher = TaskDispatcher.builder(taskRepository)
+                .blacklist(blacklist)
+                .notifier(claimNotifier)
+                .policy(config.schedulingPolicy())
+                .resultCache(resultCache)
+                .build();
+        this.dispatcher.rebuild();
+        this.lazyTasks = new LazyTaskSource(taskRepository, dispatcher);
+        this.spotRegistry = new SpotRegistry(spotRepository);
+        this.taskLeases = new TaskLeases(config);
+        this.taskCancels = new TaskCancels();
+        this.speculation = new SpeculativeExecution(taskRepository, dispatcher, lazyTasks, taskLeases, taskCancels,
+                config);
+        this.earlyStopping = new EarlyStopping(jobRepository, taskRepository, dispatcher, lazyTasks, taskLeases,
+                speculation, taskCancels);
+        this.taskService = TaskService.builder(taskRepository, config)
+                .spotRegistry(spotRegistry)
+                .blacklist(blacklist)
+                .dispatcher(dispatcher)
+                .lazyTasks(lazyTasks)
+                .leases(taskLeases)
+                .speculation(speculation)
+                .earlyStopping(earlyStopping)
+                .resultCache(resultCache)
+                .build();
+        this.spotService = SpotService.builder(spotRepository, taskRepository, config)
+                .spotRegistry(spotRegistry)
+                .dispatcher(dispatcher)
+                .leases(taskLeases)
+                .speculation(speculation)
+                .cancels(taskCancels)
+                .build();
+        this.ingestExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "orhestra-ingest");
+            t.setDaemon(true);
+            return t;
+        });
+        this.jobService = JobService.builder(jobRepository, taskRepository, config)
+                .dispatcher(dispatcher)
+                .lazyTasks(lazyTasks)
+                .ingestExecutor(ingestExecutor)
+                .earlyStopping(earlyStopping)
+                .resultCache(resultCache)
+                .build();
+        this.jobTemplates = new JobTemplates(jobRepository);
+
+        // Dispatch executors
+        this.internalExecutor = new ControllerExecutor("internal",
+                config.internalDispatchThreads(), config.dispatchQueueCapacity());
+        this.apiExecutor = new ControllerExecutor("api",
+                config.apiDispatchThreads(), config.dispatchQueueCapacity());
 
         // Controllers (public API)
-        this.healthController = new HealthController(database, spotService, taskService);
+        this.healthController = new HealthController(database, spotService, taskService,
+                internalExecutor, apiExecutor);
         this.spotController = new SpotController(spotService);
         this.jobController = new JobController(jobService);
         this.parameterSchemaController = new ParameterSchemaController();
 
         // Controllers (internal API)
         this.heartbeatController = new HeartbeatController(spotService);
-        this.taskController = new TaskController(taskService);
+        this.taskController = new TaskController(taskService, jobTemplates, internalExecutor.asExecutor());
 
         log.info("Dependencies initialized successfully");
     }
@@ -131,6 +213,34 @@ public final class Dependencies implements AutoCloseable {
         return jobRepository;
     }
 
+    public TaskDispatcher dispatcher() {
+        return dispatcher;
+    }
+
+    public ClaimNotifier claimNotifier() {
+        return claimNotifier;
+    }
+
+    public LazyTaskSource lazyTasks() {
+        return lazyTasks;
+    }
+
+    public SpotRegistry spotRegistry() {
+        return spotRegistry;
+    }
+
+    public TaskLeases taskLeases() {
+        return taskLeases;
+    }
+
+    public SpeculativeExecution speculation() {
+        return speculation;
+    }
+
+    public EarlyStopping earlyStopping() {
+        return earlyStopping;
+    }
+
     public TaskService taskService() {
         return taskService;
     }
@@ -143,6 +253,22 @@ public final class Dependencies implements AutoCloseable {
         return jobService;
     }
 
+    public ResultCache resultCache() {
+        return resultCache;
+    }
+
+    public JobTemplates jobTemplates() {
+        return jobTemplates;
+    }
+
+    public ControllerExecutor internalExecutor() {
+        return internalExecutor;
+    }
+
+    public ControllerExecutor apiExecutor() {
+        return apiExecutor;
+    }
+
     // Controller getters
     public HealthController healthController() {
         return healthController;
@@ -174,7 +300,7 @@ public final class Dependencies implements AutoCloseable {
      */
     public RouterHandler routerHandler() {
         if (routerHandler == null) {
-            routerHandler = new RouterHandler(config)
+            routerHandler = new RouterHandler(config, internalExecutor, apiExecutor)
                     .registerController(healthController)
                     .registerController(spotController)
                     .registerController(jobController)
@@ -191,7 +317,14 @@ public final class Dependencies implements AutoCloseable {
      */
     public Scheduler scheduler() {
         if (scheduler == null) {
-            scheduler = new Scheduler(taskRepository, spotService::reapStaleSpots, config);
+            TaskReaper reaper = TaskReaper.builder(taskRepository, config)
+                    .jobRepository(jobRepository)
+                    .dispatcher(dispatcher)
+                    .leases(taskLeases)
+                    .speculation(speculation)
+                    .build();
+            scheduler = new Scheduler(reaper, taskLeases, spotService::reapStaleSpots, spotService::flushHeartbeats,
+                    config);
         }
         return scheduler;
     }
@@ -226,6 +359,27 @@ public final class Dependencies implements AutoCloseable {
             }
         }
 
+        // Release parked long-poll claims, then drain controller executors
+        // before the pool goes away
+        claimNotifier.close();
+        internalExecutor.close();
+        apiExecutor.close();
+
+        // Interrupt background ingestion (it stops at the next task)
+        ingestExecutor.shutdownNow();
+        try {
+            ingestExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Write the last buffered heartbeats
+        try {
+            spotService.flushHeartbeats();
+        } catch (Exception e) {
+            log.warn("Error flushing heartbeats: {}", e.getMessage());
+        }
+
         // Close database
         try {
             database.close();
@@ -55,7 +55,7 @@ public class CoordinatorCore {
     }
 
     public int freeTasksOf(String spotId) {
-        return deps().taskRepository().freeTasksForSpot(spotId);
+        return deps().taskService().freeTasksForSpot(spotId);
     }
 
     /** Simple holder for claimed task info (replaces legacy TaskDao.TaskPick) */
@@ -0,0 +1,11 @@
+package orhestra.coordinator.model;
+
+/**
+ * A task cancelled before it finished.
+ *
+ * @param spotId SPOT the task was running on, or null if it was still NEW
+ */
+public record CancelledTask(
+        String taskId,
+        String spotId) {
+}
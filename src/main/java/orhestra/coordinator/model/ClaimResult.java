@@ -0,0 +1,13 @@
+package orhestra.coordinator.model;
+
+import java.util.List;
+
+/**
+ * Outcome of a claim: the tasks handed to the SPOT and the claim size the
+ * coordinator suggests for its next request.
+ *
+ * @param tasks claimed tasks, already RUNNING
+ * @param quota suggested {@code maxTasks} for the next claim
+ */
+public record ClaimResult(List<Task> tasks, int quota) {
+}
@@ -16,6 +16,9 @@ public final class Job {
     private final int totalTasks;
     private final int completedTasks;
     private final int failedTasks;
+    private final Integer materializedTasks; // null = all tasks written at creation
+    private final int priority;
+    private final int weight;
     private final Instant createdAt;
     private final Instant startedAt;
     private final Instant finishedAt;
@@ -29,6 +32,9 @@ public final class Job {
         this.totalTasks = builder.totalTasks;
         this.completedTasks = builder.completedTasks;
         this.failedTasks = builder.failedTasks;
+        this.materializedTasks = builder.materializedTasks;
+        this.priority = builder.priority;
+        this.weight = builder.weight;
         this.createdAt = builder.createdAt;
         this.startedAt = builder.startedAt;
         this.finishedAt = builder.finishedAt;
@@ -66,6 +72,33 @@ public final class Job {
         return failedTasks;
     }
 
+    /**
+     * How many tasks have rows so far, for jobs whose rows are written after
+     * creation (lazy jobs, background ingestion); null for jobs whose tasks
+     * were all written at creation.
+     */
+    public Integer materializedTasks() {
+        return materializedTasks;
+    }
+
+    /**
+     * Scheduling priority (PRIORITY policy); higher runs first.
+     */
+    public int priority() {
+        return priority;
+    }
+
+    /**
+     * Relative share of SPOT slots (FAIR_SHARE policy).
+     */
+    public int weight() {
+        return weight;
+    }
+
+    public JobScheduling scheduling() {
+        return new JobScheduling(priority, weight);
+    }
+
     public Instant createdAt() {
         return createdAt;
     }
@@ -99,6 +132,9 @@ public final class Job {
                 .totalTasks(totalTasks)
                 .completedTasks(completedTasks)
                 .failedTasks(failedTasks)
+                .materializedTasks(materializedTasks)
+                .priority(priority)
+                .weight(weight)
                 .createdAt(createdAt)
                 .startedAt(startedAt)
                 .finishedAt(finishedAt);
@@ -117,6 +153,9 @@ public final class Job {
         private int totalTasks;
         private int completedTasks;
         private int failedTasks;
+        private Integer materializedTasks;
+        private int priority = 0;
+        private int weight = 1;
         private Instant createdAt;
         private Instant startedAt;
         private Instant finishedAt;
@@ -161,6 +200,27 @@ public final class Job {
             return this;
         }
 
+        public Builder materializedTasks(Integer materializedTasks) {
+            this.materializedTasks = materializedTasks;
+            return this;
+        }
+
+        public Builder priority(int priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        public Builder weight(int weight) {
+            this.weight = weight;
+            return this;
+        }
+
+        public Builder scheduling(JobScheduling scheduling) {
+            this.priority = scheduling.priority();
+            this.weight = scheduling.weight();
+            return this;
+        }
+
         public Builder createdAt(Instant createdAt) {
             this.createdAt = createdAt;
             return this;
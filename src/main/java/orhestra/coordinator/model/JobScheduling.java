@@ -0,0 +1,18 @@
+package orhestra.coordinator.model;
+
+/**
+ * User-supplied scheduling attributes of a job.
+ *
+ * @param priority used by the PRIORITY policy; higher runs first
+ * @param weight   relative share of SPOT slots under the FAIR_SHARE policy
+ */
+public record JobScheduling(int priority, int weight) {
+
+    public static final JobScheduling DEFAULT = new JobScheduling(0, 1);
+
+    public JobScheduling {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("weight must be positive");
+        }
+    }
+}
@@ -4,6 +4,8 @@ package orhestra.coordinator.model;
  * Job status representing the overall state of a computation job.
  */
 public enum JobStatus {
+    /** Job accepted, tasks still being written in the background */
+    MATERIALIZING,
     /** Job created, no tasks started yet */
     PENDING,
     /** At least one task is running */
@@ -0,0 +1,75 @@
+package orhestra.coordinator.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * The part of a task payload shared by every task of a job: the artifact to
+ * run and its main class. It is stored once on the {@code jobs} row; task
+ * payloads carry only {@code {"params": {...}}}.
+ *
+ * {@code version} is a checksum of the template fields, so a SPOT can cache
+ * templates by {@code (jobId, version)}.
+ *
+ * @param jobId     the job
+ * @param version   checksum of the template fields (hex)
+ * @param artifact  S3 artifact reference
+ * @param mainClass main class name
+ * @param prefix    serialised template fields, ready to prepend to a
+ *                  params-only payload
+ */
+public record JobTemplate(String jobId, String version, ArtifactRef artifact, String mainClass, String prefix) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Params-only payloads start with this. */
+    private static final String PARAMS_ONLY = "{\"params\":";
+
+    public static JobTemplate of(Job job) {
+        StringWriter out = new StringWriter(256);
+        try (JsonGenerator gen = MAPPER.getFactory().createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeStringField("artifactBucket",   job.artifact().bucket());
+            gen.writeStringField("artifactKey",      job.artifact().key());
+            gen.writeStringField("artifactEndpoint", job.artifact().endpoint());
+            gen.writeStringField("mainClass",        job.mainClass());
+            gen.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialise job template", e);
+        }
+        String fields = out.toString();
+
+        CRC32 crc = new CRC32();
+        crc.update(fields.getBytes(StandardCharsets.UTF_8));
+        String version = Long.toHexString(crc.getValue());
+
+        // {"artifactBucket":...,"mainClass":"..."} -> {"artifactBucket":...,"mainClass":"...",
+        String prefix = fields.substring(0, fields.length() - 1) + ",";
+        return new JobTemplate(job.id(), version, job.artifact(), job.mainClass(), prefix);
+    }
+
+    /**
+     * Whether a payload is in the params-only form and needs this template
+     * to be runnable.
+     */
+    public static boolean isParamsOnly(String payload) {
+        return payload != null && payload.startsWith(PARAMS_ONLY);
+    }
+
+    /**
+     * Merge the template into a params-only payload, giving the full payload
+     * older SPOT agents expect. Other payloads are returned unchanged.
+     */
+    public String expand(String payload) {
+        if (!isParamsOnly(payload)) {
+            return payload;
+        }
+        return prefix + payload.substring(1);
+    }
+}
@@ -0,0 +1,71 @@
+package orhestra.coordinator.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Locale;
+
+/**
+ * Model-guided search over a job's parameter ranges: each new point is
+ * proposed from the {@code fopt} (minimised) of the points that finished,
+ * instead of running a full grid.
+ *
+ * @param method        {@code tpe} (tree-structured Parzen estimator, the
+ *                      only method so far)
+ * @param trials        points to evaluate in total
+ * @param parallelism   points running at once (default 32); more keeps
+ *                      more SPOTs busy, fewer lets each proposal see more
+ *                      results
+ * @param startupTrials points drawn at random before the model is used
+ *                      (default 20)
+ * @param candidates    candidates scored per proposal (default 24)
+ * @param seed          seed of the random draws (default 0)
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record OptimizeSpec(
+        @JsonProperty("method") String method,
+        @JsonProperty("trials") Integer trials,
+        @JsonProperty("parallelism") Integer parallelism,
+        @JsonProperty("startupTrials") Integer startupTrials,
+        @JsonProperty("candidates") Integer candidates,
+        @JsonProperty("seed") Long seed) {
+
+    public static final int DEFAULT_PARALLELISM = 32;
+    public static final int DEFAULT_STARTUP_TRIALS = 20;
+    public static final int DEFAULT_CANDIDATES = 24;
+
+    /** Check the fields; the parameter ranges are checked by the request. */
+    public void validate() {
+        if (method != null && !method.isBlank() && !"tpe".equals(method.trim().toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("Unknown optimize.method: " + method + " (expected tpe)");
+        }
+        if (trials == null || trials <= 0) {
+            throw new IllegalArgumentException("optimize.trials must be positive");
+        }
+        if (parallelism != null && parallelism <= 0) {
+            throw new IllegalArgumentException("optimize.parallelism must be positive");
+        }
+        if (startupTrials != null && startupTrials < 0) {
+            throw new IllegalArgumentException("optimize.startupTrials must not be negative");
+        }
+        if (candidates != null && candidates <= 0) {
+            throw new IllegalArgumentException("optimize.candidates must be positive");
+        }
+    }
+
+    public int parallelismOrDefault() {
+        return parallelism != null ? parallelism : DEFAULT_PARALLELISM;
+    }
+
+    public int startupTrialsOrDefault() {
+        return startupTrials != null ? startupTrials : DEFAULT_STARTUP_TRIALS;
+    }
+
+    public int candidatesOrDefault() {
+        return candidates != null ? candidates : DEFAULT_CANDIDATES;
+    }
+
+    public long seedOrDefault() {
+        return seed != null ? seed : 0L;
+    }
+}
@@ -0,0 +1,54 @@
+package orhestra.coordinator.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Locale;
+
+/**
+ * Draw a fixed number of well-spread points from the parameter ranges
+ * instead of expanding them into a grid.
+ *
+ * @param method {@code random}, {@code lhs} (Latin hypercube) or
+ *               {@code sobol} (scrambled Sobol sequence, default)
+ * @param points number of points, one task each
+ * @param seed   seed of the draws (default 0); the same seed gives the same
+ *               points
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SamplingSpec(
+        @JsonProperty("method") String method,
+        @JsonProperty("points") Integer points,
+        @JsonProperty("seed") Long seed) {
+
+    /** Sampling methods. */
+    public enum Method {
+        RANDOM,
+        LHS,
+        SOBOL
+    }
+
+    /** Check the fields; the parameter ranges are checked by the request. */
+    public void validate() {
+        methodOrDefault();
+        if (points == null || points <= 0) {
+            throw new IllegalArgumentException("sampling.points must be positive");
+        }
+    }
+
+    public Method methodOrDefault() {
+        if (method == null || method.isBlank()) {
+            return Method.SOBOL;
+        }
+        try {
+            return Method.valueOf(method.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown sampling.method: " + method
+                    + " (expected random, lhs or sobol)");
+        }
+    }
+
+    public long seedOrDefault() {
+        return seed != null ? seed : 0L;
+    }
+}
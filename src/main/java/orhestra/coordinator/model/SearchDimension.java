@@ -0,0 +1,91 @@
+package orhestra.coordinator.model;
+
+import java.util.List;
+
+/**
+ * One parameter of a model-guided search, as the optimiser sees it: a
+ * numeric interval or a set of choices.
+ *
+ * Numeric values are handled in unit coordinates {@code u} in [0, 1] and
+ * mapped back with {@link #value(double)}; choices by index.
+ *
+ * @param key     payload key, {@code group.param}
+ * @param kind    FLOAT, INT or CHOICE
+ * @param min     lower bound (numeric kinds)
+ * @param max     upper bound (numeric kinds)
+ * @param step    grid step values snap to, or null for a continuous FLOAT
+ * @param choices options (CHOICE)
+ */
+public record SearchDimension(String key, Kind kind, double min, double max, Double step, List<Object> choices) {
+
+    /** How a dimension's values are drawn. */
+    public enum Kind {
+        FLOAT,
+        INT,
+        CHOICE
+    }
+
+    public static SearchDimension ofFloat(String key, double min, double max, Double step) {
+        if (!(min <= max) || (step != null && step <= 0)) {
+            throw new IllegalArgumentException("invalid range for " + key);
+        }
+        return new SearchDimension(key, Kind.FLOAT, min, max, step, null);
+    }
+
+    public static SearchDimension ofInt(String key, int min, int max, int step) {
+        if (min > max || step <= 0) {
+            throw new IllegalArgumentException("invalid range for " + key);
+        }
+        return new SearchDimension(key, Kind.INT, min, max, (double) step, null);
+    }
+
+    public static SearchDimension ofChoices(String key, List<Object> choices) {
+        if (choices == null || choices.isEmpty()) {
+            throw new IllegalArgumentException("no values for " + key);
+        }
+        return new SearchDimension(key, Kind.CHOICE, 0, 0, null, List.copyOf(choices));
+    }
+
+    public boolean isNumeric() {
+        return kind != Kind.CHOICE;
+    }
+
+    /**
+     * Whether the dimension has a single value.
+     */
+    public boolean isFixed() {
+        return isNumeric() ? min == max : choices.size() == 1;
+    }
+
+    /**
+     * The value whose cell contains {@code u} in [0, 1), with the unit
+     * interval split into equal cells, one per value (continuous FLOAT:
+     * mapped linearly). Uniform {@code u} gives every value the same
+     * chance.
+     */
+    public Object at(double u) {
+        u = Math.max(0, Math.min(Math.nextDown(1.0), u));
+        if (kind == Kind.CHOICE) {
+            return choices.get((int) (u * choices.size()));
+        }
+        if (step == null) {
+            return min + u * (max - min);
+        }
+        long steps = (long) Math.floor((max - min) / step + 1e-9);
+        double x = min + Math.min(steps, (long) (u * (steps + 1))) * step;
+        return kind == Kind.INT ? (Object) (int) Math.round(x) : (Object) x;
+    }
+
+    /**
+     * The value at unit coordinate {@code u} (numeric kinds), snapped to
+     * the step when there is one.
+     */
+    public Object value(double u) {
+        double x = min + Math.max(0, Math.min(1, u)) * (max - min);
+        if (step != null) {
+            long steps = (long) Math.floor((max - min) / step + 1e-9);
+            x = min + Math.min(steps, Math.round((x - min) / step)) * step;
+        }
+        return kind == Kind.INT ? (Object) (int) Math.round(x) : (Object) x;
+    }
+}
@@ -0,0 +1,105 @@
+package orhestra.coordinator.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Locale;
+
+/**
+ * Adaptive search over a job's parameter grid: every configuration starts
+ * at a small budget and only the best by {@code fopt} (minimised) are
+ * promoted to larger ones.
+ *
+ * The budgets form rungs {@code maxBudget / eta^k}, from {@code maxBudget}
+ * down to the last one not below {@code minBudget}. A configuration that
+ * finishes a rung is promoted when it is in the top {@code 1 / eta} of the
+ * results there.
+ *
+ * @param strategy    {@code ASHA} (default): promote as soon as results allow,
+ *                    so SPOTs never wait for a rung; {@code SUCCESSIVE_HALVING}:
+ *                    promote only after the whole rung has finished
+ * @param budgetParam payload key the budget is written to, e.g.
+ *                    {@code "run.iterations"}; must not be a grid parameter
+ * @param minBudget   smallest budget (integer, > 0)
+ * @param maxBudget   largest budget
+ * @param eta         reduction factor (>= 2, default 3)
+ * @param maxConfigs  configurations to sample from the grid (default: all)
+ * @param seed        seed of the sampling order (default 0)
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SearchSpec(
+        @JsonProperty("strategy") String strategy,
+        @JsonProperty("budgetParam") String budgetParam,
+        @JsonProperty("minBudget") Long minBudget,
+        @JsonProperty("maxBudget") Long maxBudget,
+        @JsonProperty("eta") Integer eta,
+        @JsonProperty("maxConfigs") Long maxConfigs,
+        @JsonProperty("seed") Long seed) {
+
+    public static final int DEFAULT_ETA = 3;
+
+    /** Promotion strategies. */
+    public enum Strategy {
+        ASHA,
+        SUCCESSIVE_HALVING
+    }
+
+    /** Check the fields; the grid size is checked by the request. */
+    public void validate() {
+        strategyOrDefault();
+        if (budgetParam == null || budgetParam.isBlank()) {
+            throw new IllegalArgumentException("search.budgetParam is required");
+        }
+        if (minBudget == null || minBudget <= 0) {
+            throw new IllegalArgumentException("search.minBudget must be positive");
+        }
+        if (maxBudget == null || maxBudget < minBudget) {
+            throw new IllegalArgumentException("search.maxBudget must be at least minBudget");
+        }
+        if (eta != null && eta < 2) {
+            throw new IllegalArgumentException("search.eta must be at least 2");
+        }
+        if (maxConfigs != null && maxConfigs <= 0) {
+            throw new IllegalArgumentException("search.maxConfigs must be positive");
+        }
+    }
+
+    public Strategy strategyOrDefault() {
+        if (strategy == null || strategy.isBlank()) {
+            return Strategy.ASHA;
+        }
+        try {
+            return Strategy.valueOf(strategy.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown search.strategy: " + strategy
+                    + " (expected asha or successive_halving)");
+        }
+    }
+
+    public int etaOrDefault() {
+        return eta != null ? eta : DEFAULT_ETA;
+    }
+
+    public long seedOrDefault() {
+        return seed != null ? seed : 0L;
+    }
+
+    /**
+     * Budgets of the rungs, smallest first: {@code maxBudget / eta^k},
+     * rounded, for every k that stays at or above {@code minBudget}.
+     */
+    public long[] budgets() {
+        int eta = etaOrDefault();
+        int rungs = 1;
+        for (double b = (double) maxBudget / eta; b >= minBudget; b /= eta) {
+            rungs++;
+        }
+        long[] budgets = new long[rungs];
+        double b = maxBudget;
+        for (int k = rungs - 1; k >= 0; k--) {
+            budgets[k] = Math.round(b);
+            b /= eta;
+        }
+        return budgets;
+    }
+}
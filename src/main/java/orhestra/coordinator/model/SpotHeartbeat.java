@@ -0,0 +1,36 @@
+package orhestra.coordinator.model;
+
+import java.time.Instant;
+
+/**
+ * Latest heartbeat of a SPOT, as held in memory between flushes to the
+ * {@code spots} table.
+ *
+ * @param at when the coordinator received the heartbeat
+ */
+public record SpotHeartbeat(
+        String spotId,
+        String ipAddress,
+        double cpuLoad,
+        int runningTasks,
+        int totalCores,
+        long ramUsedMb,
+        long ramTotalMb,
+        Instant at) {
+
+    /**
+     * Overlay this heartbeat on a (possibly stale) spot row.
+     */
+    public Spot applyTo(Spot spot) {
+        return spot.toBuilder()
+                .ipAddress(ipAddress)
+                .cpuLoad(cpuLoad)
+                .runningTasks(runningTasks)
+                .totalCores(totalCores)
+                .ramUsedMb(ramUsedMb)
+                .ramTotalMb(ramTotalMb)
+                .status(SpotStatus.UP)
+                .lastHeartbeat(at)
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+package orhestra.coordinator.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * When a job may stop before every combination has run. {@code fopt} is
+ * minimised; either criterion stops the job.
+ *
+ * @param targetFopt stop as soon as a task reports {@code fopt <= targetFopt}
+ * @param topK       together with {@code stableFor}: stop once the best
+ *                   {@code topK} results have not changed for
+ * @param stableFor  this many consecutive completions
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record StopCondition(
+        @JsonProperty("targetFopt") Double targetFopt,
+        @JsonProperty("topK") Integer topK,
+        @JsonProperty("stableFor") Integer stableFor) {
+
+    /** Check that at least one criterion is set and its values are usable. */
+    public void validate() {
+        if (targetFopt == null && topK == null && stableFor == null) {
+            throw new IllegalArgumentException("stopCondition needs targetFopt or topK with stableFor");
+        }
+        if (targetFopt != null && !Double.isFinite(targetFopt)) {
+            throw new IllegalArgumentException("stopCondition.targetFopt must be a finite number");
+        }
+        if ((topK == null) != (stableFor == null)) {
+            throw new IllegalArgumentException("stopCondition.topK and stableFor must be given together");
+        }
+        if (topK != null && (topK <= 0 || stableFor <= 0)) {
+            throw new IllegalArgumentException("stopCondition.topK and stableFor must be positive");
+        }
+    }
+
+    public static StopCondition targetFopt(double targetFopt) {
+        StopCondition condition = new StopCondition(targetFopt, null, null);
+        condition.validate();
+        return condition;
+    }
+
+    public static StopCondition topKStable(int topK, int stableFor) {
+        StopCondition condition = new StopCondition(null, topK, stableFor);
+        condition.validate();
+        return condition;
+    }
+}
@@ -0,0 +1,26 @@
+package orhestra.coordinator.model;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch of completions and failures applied in one transaction.
+ *
+ * @param completed per-task completion outcomes, in request order
+ * @param failed    per-task failure outcomes, in request order
+ * @param requeued  tasks reset to NEW by this batch (to feed the dispatcher)
+ */
+public record TaskBatchResult(
+        List<Completed> completed,
+        List<Failed> failed,
+        List<TaskQueueEntry> requeued) {
+
+    public record Completed(String taskId, TaskCompleteResult result) {
+    }
+
+    public record Failed(String taskId, TaskFailResult result) {
+    }
+
+    public static TaskBatchResult empty() {
+        return new TaskBatchResult(List.of(), List.of(), List.of());
+    }
+}
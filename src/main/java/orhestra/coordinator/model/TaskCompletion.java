@@ -0,0 +1,14 @@
+package orhestra.coordinator.model;
+
+/**
+ * One successful task result inside a batch report.
+ *
+ * @param result result JSON, or null
+ */
+public record TaskCompletion(
+        String taskId,
+        long runtimeMs,
+        Integer iter,
+        Double fopt,
+        String result) {
+}
@@ -0,0 +1,29 @@
+package orhestra.coordinator.model;
+
+/**
+ * One task failure inside a batch report.
+ *
+ * @param retriable whether the failure may be retried (used when no reason
+ *                  is given)
+ * @param reason    structured failure reason, or null for legacy reports
+ */
+public record TaskFailure(
+        String taskId,
+        String errorMessage,
+        boolean retriable,
+        FailureReason reason) {
+
+    /**
+     * Requeue without the attempt limit (UNSUPPORTED, MISSING_ARTIFACT).
+     */
+    public boolean forceRequeue() {
+        return reason != null && reason.shouldRequeue();
+    }
+
+    /**
+     * Whether a retry is allowed while attempts remain.
+     */
+    public boolean allowsRetry() {
+        return reason != null ? reason.countsAsAttempt() : retriable;
+    }
+}
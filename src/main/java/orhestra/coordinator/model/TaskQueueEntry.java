@@ -0,0 +1,42 @@
+package orhestra.coordinator.model;
+
+import java.time.Instant;
+
+/**
+ * Lightweight view of a claimable task, as held by the in-memory dispatcher.
+ * Carries only what is needed for ordering, capability matching and runtime
+ * prediction — never the payload or result CLOBs.
+ */
+public record TaskQueueEntry(
+        String id,
+        String jobId,
+        int priority,
+        Instant createdAt,
+        String optimizerId,
+        String algorithm,
+        String function,
+        Integer dimension,
+        Integer iterations,
+        Integer agents) {
+
+    /** Entry without the runtime-prediction columns. */
+    public TaskQueueEntry(String id, String jobId, int priority, Instant createdAt, String optimizerId,
+            String algorithm) {
+        this(id, jobId, priority, createdAt, optimizerId, algorithm, null, null, null, null);
+    }
+
+    /** Build an entry from a full task (e.g. right after it was inserted). */
+    public static TaskQueueEntry of(Task task) {
+        return new TaskQueueEntry(
+                task.id(),
+                task.jobId(),
+                task.priority(),
+                task.createdAt() != null ? task.createdAt() : Instant.now(),
+                task.optimizerId(),
+                task.algorithm(),
+                task.function(),
+                task.inputDimension(),
+                task.inputIterations(),
+                task.inputAgents());
+    }
+}
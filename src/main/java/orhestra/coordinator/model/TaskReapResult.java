@@ -0,0 +1,22 @@
+package orhestra.coordinator.model;
+
+import java.util.List;
+
+/**
+ * Outcome of one reaper pass over stuck RUNNING tasks.
+ *
+ * @param retried tasks reset to NEW (to feed the dispatcher)
+ * @param failed  IDs of tasks marked FAILED with their attempts exhausted
+ */
+public record TaskReapResult(
+        List<TaskQueueEntry> retried,
+        List<String> failed) {
+
+    public static TaskReapResult empty() {
+        return new TaskReapResult(List.of(), List.of());
+    }
+
+    public int total() {
+        return retried.size() + failed.size();
+    }
+}
@@ -66,6 +66,27 @@ public interface JobRepository {
      */
     int incrementCompleted(String jobId);
 
+    /**
+     * Move a job to a new status only if it is still in the expected one.
+     *
+     * @return true if the status changed
+     */
+    boolean transition(String jobId, JobStatus from, JobStatus to);
+
+    /**
+     * End ingest of a MATERIALIZING job: move it to RUNNING if any of its
+     * tasks already finished while rows were still being written, otherwise
+     * to PENDING. A job in any other status is left alone.
+     *
+     * @return true if the status changed
+     */
+    boolean finishIngest(String jobId);
+
+    /**
+     * Record how many of a job's tasks have rows so far.
+     */
+    void updateMaterialized(String jobId, int materialized);
+
     /**
      * Increment failed task count for a job.
      * 
@@ -89,6 +110,16 @@ public interface JobRepository {
      */
     void markFinished(String jobId, JobStatus status);
 
+    /**
+     * Close a job whose task count was open (an adaptive search that has
+     * generated its last task): set {@code total_tasks} to the tasks that
+     * finished and mark the job COMPLETED, unless it is already terminal.
+     *
+     * @param jobId the job ID
+     * @return true if the job was closed by this call
+     */
+    boolean finishOpenEnded(String jobId);
+
     /**
      * Delete a job and all its tasks.
      * 
@@ -1,6 +1,7 @@
 package orhestra.coordinator.repository;
 
 import orhestra.coordinator.model.Spot;
+import orhestra.coordinator.model.SpotHeartbeat;
 import orhestra.coordinator.model.SpotStatus;
 
 import java.time.Instant;
@@ -55,6 +56,15 @@ public interface SpotRepository {
     void heartbeat(String spotId, String ipAddress, double cpuLoad, int runningTasks, int totalCores, long ramUsedMb,
             long ramTotalMb);
 
+    /**
+     * Write buffered heartbeats in one transaction. Rows are only updated,
+     * never created.
+     *
+     * @param heartbeats latest heartbeat per SPOT
+     * @return IDs of SPOTs that have no row
+     */
+    List<String> updateHeartbeats(List<SpotHeartbeat> heartbeats);
+
     /**
      * Mark SPOTs as DOWN if they haven't sent heartbeat recently.
      * 
@@ -71,6 +81,14 @@ public interface SpotRepository {
      */
     boolean delete(String spotId);
 
+    /**
+     * Delete several SPOTs in one statement.
+     *
+     * @param spotIds the SPOT IDs
+     * @return number of rows deleted
+     */
+    int deleteAll(List<String> spotIds);
+
     /**
      * Get total count of SPOTs.
      * 
@@ -1,13 +1,23 @@
 package orhestra.coordinator.repository;
 
+import orhestra.coordinator.model.CancelledTask;
 import orhestra.coordinator.model.Task;
+import orhestra.coordinator.model.TaskBatchResult;
 import orhestra.coordinator.model.TaskCompleteResult;
+import orhestra.coordinator.model.TaskCompletion;
 import orhestra.coordinator.model.TaskFailResult;
+import orhestra.coordinator.model.TaskFailure;
+import orhestra.coordinator.model.TaskQueueEntry;
+import orhestra.coordinator.model.TaskReapResult;
 import orhestra.coordinator.model.TaskStatus;
 
 import java.time.Instant;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Repository interface for Task persistence.
@@ -29,6 +39,43 @@ public interface TaskRepository {
      */
     void saveAll(List<Task> tasks);
 
+    /**
+     * Bulk-insert tasks in chunks, one short transaction per chunk, reusing a
+     * single connection and batched INSERT. Tasks are pulled from the
+     * iterator as they are written, so the caller never has to hold the
+     * whole job in memory. Rows inserted as DONE (reused results) count
+     * towards their job's {@code completed_tasks} in the same transaction.
+     *
+     * @param tasks            tasks to insert
+     * @param chunkSize        rows per transaction
+     * @param onChunkCommitted called with each chunk after it is committed,
+     *                         or null
+     * @return number of rows inserted
+     */
+    long insertChunked(Iterator<Task> tasks, int chunkSize, Consumer<List<Task>> onChunkCommitted);
+
+    /**
+     * Write task rows for the next combinations of a lazy job and advance
+     * the job's materialisation cursor, in one transaction. Rows keep the
+     * status they carry (RUNNING for tasks handed straight to a SPOT, DONE
+     * for reused results, which count towards {@code completed_tasks}).
+     *
+     * @param jobId        the lazy job
+     * @param materialized new value of {@code jobs.materialized_tasks}
+     * @param tasks        rows to insert
+     */
+    void insertMaterialized(String jobId, int materialized, List<Task> tasks);
+
+    /**
+     * Write task rows an adaptive search generated and add them to the job's
+     * {@code total_tasks} and {@code materialized_tasks}, in one transaction.
+     * Rows keep the status they carry.
+     *
+     * @param jobId the search job
+     * @param tasks rows to insert
+     */
+    void insertGenerated(String jobId, List<Task> tasks);
+
     /**
      * Find a task by ID.
      * 
@@ -69,6 +116,8 @@ public interface TaskRepository {
      * Only claims tasks whose optimizer_id and algorithm are in the supported
      * lists.
      * Tasks whose IDs are in excludeTaskIds are skipped (blacklisted).
+     * Only used when no TaskDispatcher is configured; the dispatcher matches
+     * capabilities through its in-memory buckets instead.
      *
      * @param spotId          the SPOT claiming the tasks
      * @param maxTasks        maximum tasks to claim
@@ -80,6 +129,73 @@ public interface TaskRepository {
     List<Task> claimTasks(String spotId, int maxTasks, List<String> supportedOptIds,
             List<String> supportedAlgs, List<String> excludeTaskIds);
 
+    /**
+     * Move the given tasks from NEW to RUNNING for a SPOT in one transaction.
+     * Used by the in-memory dispatcher, which has already chosen the IDs.
+     * Tasks that are no longer NEW are skipped.
+     *
+     * @param spotId  the SPOT claiming the tasks
+     * @param taskIds task IDs chosen by the dispatcher
+     * @return the tasks that were actually claimed
+     */
+    List<Task> claimByIds(String spotId, List<String> taskIds);
+
+    /**
+     * Give a SPOT a speculative copy of each given task that is still
+     * RUNNING on another SPOT and not yet copied to this one. The original
+     * assignment is unchanged; the copy is recorded in {@code task_replicas}.
+     *
+     * @return the copied tasks, with payload
+     */
+    List<Task> claimReplicas(String spotId, List<String> taskIds);
+
+    /**
+     * Hand a RUNNING task over to the SPOT holding a copy of it: the SPOT
+     * becomes {@code assigned_to} and its copy is dropped.
+     *
+     * @return false if the task is no longer RUNNING or the SPOT holds no copy
+     */
+    boolean promoteReplica(String taskId, String spotId);
+
+    /**
+     * Drop speculative copies of a task.
+     *
+     * @param spotId the SPOT whose copy to drop, or null for all copies
+     */
+    void dropReplicas(String taskId, String spotId);
+
+    /**
+     * Cancel every NEW and RUNNING task of a job in one transaction (the job
+     * stopped early).
+     *
+     * @return the cancelled tasks, with the SPOT each RUNNING one was on
+     */
+    List<CancelledTask> cancelUnfinished(String jobId);
+
+    /**
+     * Load dispatcher entries for all tasks in a status (no payload/result).
+     *
+     * @param status the status to filter by
+     * @return lightweight entries
+     */
+    List<TaskQueueEntry> findQueueEntries(TaskStatus status);
+
+    /**
+     * Load the dispatcher entry for a single task.
+     *
+     * @param taskId the task ID
+     * @return the entry if found
+     */
+    Optional<TaskQueueEntry> findQueueEntry(String taskId);
+
+    /**
+     * Load a task's job and payload only, without the result columns.
+     *
+     * @param taskId the task ID
+     * @return a task carrying id, jobId and payload, if found
+     */
+    Optional<Task> findPayload(String taskId);
+
     /**
      * Complete a task successfully.
      * Only succeeds if task is RUNNING and assigned to the given SPOT.
@@ -116,6 +232,27 @@ public interface TaskRepository {
      */
     List<Task> findStuckRunning(Instant startedBefore);
 
+    /**
+     * Recover stuck RUNNING tasks in one transaction: tasks with attempts
+     * left go back to NEW, the others become FAILED and their jobs'
+     * counters are updated. Only queue columns are read, never the
+     * payload or result CLOBs.
+     *
+     * @param startedBefore tasks started before this timestamp are considered stuck
+     * @param skip          task IDs to leave alone (e.g. tasks holding a lease);
+     *                      they are excluded in the query and never locked
+     * @param reason        why the tasks are reaped (for the error message)
+     */
+    TaskReapResult reapStuckRunning(Instant startedBefore, Set<String> skip, String reason);
+
+    /**
+     * Same as {@link #reapStuckRunning} for given tasks, each only while it
+     * is still RUNNING on the given SPOT (e.g. expired leases).
+     *
+     * @param spotByTask task ID -> SPOT the task must still be assigned to
+     */
+    TaskReapResult reapRunning(Map<String, String> spotByTask, String reason);
+
     /**
      * Reset a task back to NEW status for retry.
      * 
@@ -142,6 +279,24 @@ public interface TaskRepository {
      */
     int freeTasksForSpot(String spotId);
 
+    /**
+     * Free all RUNNING tasks assigned to a SPOT and return them, so they can
+     * be put back on the dispatch queue.
+     *
+     * @param spotId the SPOT ID
+     * @return entries for the freed tasks
+     */
+    List<TaskQueueEntry> releaseTasksForSpot(String spotId);
+
+    /**
+     * Free all RUNNING tasks assigned to any of the given SPOTs in one
+     * statement and return them.
+     *
+     * @param spotIds the SPOT IDs
+     * @return entries for the freed tasks
+     */
+    List<TaskQueueEntry> releaseTasksForSpots(List<String> spotIds);
+
     /**
      * Count tasks by status for a job.
      * 
@@ -184,6 +339,19 @@ public interface TaskRepository {
      */
     TaskFailResult failIdempotent(String taskId, String spotId, String errorMessage, boolean retriable);
 
+    /**
+     * Apply many completions and failures from one SPOT in a single
+     * transaction. Per-task outcomes follow the same rules as
+     * {@link #completeIdempotent} and {@link #failIdempotent}; job counters
+     * get one grouped update per job.
+     *
+     * @param spotId      the reporting SPOT
+     * @param completions successful results
+     * @param failures    failures
+     * @return per-task outcomes and the tasks that went back to NEW
+     */
+    TaskBatchResult reportBatch(String spotId, List<TaskCompletion> completions, List<TaskFailure> failures);
+
     /**
      * Update the status of a task.
      */
@@ -196,4 +364,20 @@ public interface TaskRepository {
      * @return list of running tasks
      */
     List<Task> findRunningBySpotId(String spotId);
+
+    /**
+     * Count RUNNING tasks currently assigned to a SPOT.
+     *
+     * @param spotId the SPOT ID
+     * @return count
+     */
+    int countRunningBySpotId(String spotId);
+
+    /**
+     * Count tasks in a given status (across all jobs).
+     *
+     * @param status task status
+     * @return count
+     */
+    int countByStatus(TaskStatus status);
 }
@@ -1,7 +1,7 @@
 package orhestra.coordinator.scheduler;
 
 import orhestra.coordinator.config.CoordinatorConfig;
-import orhestra.coordinator.repository.TaskRepository;
+import orhestra.coordinator.service.TaskLeases;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,8 +12,12 @@ import java.util.concurrent.TimeUnit;
 /**
  * Coordinates background scheduled tasks:
  * - TaskReaper: recovers stuck RUNNING tasks
+ * - LeaseReaper: recovers RUNNING tasks whose lease expired
+ * (TaskReaper.reapExpiredLeases)
  * - SpotReaper: marks stale SPOTs as DOWN (handled by
  * SpotService.reapStaleSpots)
+ * - HeartbeatFlusher: writes buffered heartbeats to the spots table
+ * (SpotService.flushHeartbeats)
  * 
  * Uses a single-threaded executor to avoid concurrency issues.
  */
@@ -24,26 +28,32 @@ public class Scheduler implements AutoCloseable {
     private final ScheduledExecutorService executor;
     private final TaskReaper taskReaper;
     private final Runnable spotReaper;
+    private final Runnable heartbeatFlusher;
+    private final TaskLeases leases;
     private final CoordinatorConfig config;
 
     private volatile boolean running = false;
 
     /**
-     * Create scheduler with reapers.
-     * 
-     * @param taskRepository for task reaping
-     * @param spotReaper     runnable to reap stale SPOTs (typically
-     *                       SpotService::reapStaleSpots)
-     * @param config         configuration
+     * Create scheduler around a configured task reaper.
+     *
+     * @param taskReaper       recovers stuck tasks and expired leases
+     * @param leases           task leases to expire (null = threshold scan only)
+     * @param spotReaper       runnable to reap stale SPOTs
+     * @param heartbeatFlusher runnable to flush buffered heartbeats (null = none)
+     * @param config           configuration
      */
-    public Scheduler(TaskRepository taskRepository, Runnable spotReaper, CoordinatorConfig config) {
+    public Scheduler(TaskReaper taskReaper, TaskLeases leases, Runnable spotReaper, Runnable heartbeatFlusher,
+            CoordinatorConfig config) {
         this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread t = new Thread(r, "orhestra-scheduler");
             t.setDaemon(true);
             return t;
         });
-        this.taskReaper = new TaskReaper(taskRepository, config);
+        this.taskReaper = taskReaper;
         this.spotReaper = spotReaper;
+        this.heartbeatFlusher = heartbeatFlusher;
+        this.leases = leases;
         this.config = config;
     }
 
@@ -67,6 +77,17 @@ public class Scheduler implements AutoCloseable {
                 TimeUnit.MILLISECONDS);
         log.info("Task reaper scheduled every {}ms", taskReaperIntervalMs);
 
+        // Schedule lease reaper
+        if (leases != null) {
+            long leaseCheckIntervalMs = config.taskLeaseCheckInterval().toMillis();
+            executor.scheduleAtFixedRate(
+                    wrapRunnable("lease-reaper", taskReaper::reapExpiredLeases),
+                    leaseCheckIntervalMs,
+                    leaseCheckIntervalMs,
+                    TimeUnit.MILLISECONDS);
+            log.info("Lease reaper scheduled every {}ms", leaseCheckIntervalMs);
+        }
+
         // Schedule spot reaper
         long spotCleanupIntervalMs = config.spotCleanupInterval().toMillis();
         executor.scheduleAtFixedRate(
@@ -76,6 +97,17 @@ public class Scheduler implements AutoCloseable {
                 TimeUnit.MILLISECONDS);
         log.info("Spot reaper scheduled every {}ms", spotCleanupIntervalMs);
 
+        // Schedule heartbeat flusher (interval 0 = status changes only)
+        long flushIntervalMs = config.heartbeatFlushInterval().toMillis();
+        if (heartbeatFlusher != null && flushIntervalMs > 0) {
+            executor.scheduleAtFixedRate(
+                    wrapRunnable("heartbeat-flusher", heartbeatFlusher),
+                    flushIntervalMs,
+                    flushIntervalMs,
+                    TimeUnit.MILLISECONDS);
+            log.info("Heartbeat flusher scheduled every {}ms", flushIntervalMs);
+        }
+
         log.info("Scheduler started");
     }
 
@@ -2,13 +2,21 @@ package orhestra.coordinator.scheduler;
 
 import orhestra.coordinator.config.CoordinatorConfig;
 import orhestra.coordinator.core.AppBus;
-import orhestra.coordinator.model.Task;
+import orhestra.coordinator.model.Job;
+import orhestra.coordinator.model.TaskReapResult;
+import orhestra.coordinator.repository.JobRepository;
 import orhestra.coordinator.repository.TaskRepository;
+import orhestra.coordinator.service.SpeculativeExecution;
+import orhestra.coordinator.service.TaskDispatcher;
+import orhestra.coordinator.service.TaskLeases;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Background task that recovers stuck RUNNING tasks.
@@ -20,26 +28,60 @@ import java.util.List;
  * 
  * The reaper:
  * 1. Finds tasks that have been RUNNING longer than the threshold
- * 2. For each stuck task:
- * - If attempts < maxAttempts: reset to NEW for retry
- * - Otherwise: mark as FAILED
+ * 2. Recovers them as a set, in one transaction:
+ * - tasks with attempts < maxAttempts are reset to NEW for retry
+ * - the others are marked FAILED and their jobs' counters updated
+ * 3. Re-queues retried tasks on the dispatcher and reconciles it with the
+ * NEW rows in the database
+ *
+ * With {@link TaskLeases}, RUNNING tasks are recovered when their lease
+ * expires ({@link #reapExpiredLeases()}, run every
+ * {@code taskLeaseCheckInterval}) instead of after a fixed threshold. The
+ * threshold scan then only picks up tasks that hold no lease, i.e. tasks
+ * left RUNNING across a coordinator restart.
+ *
+ * A task whose lease expired while a {@link SpeculativeExecution} copy of it
+ * runs is handed to the copy instead of being reaped.
+ *
+ * Each run also drops the lease runtimes learned for jobs that have
+ * finished or been deleted; jobs finish in the counter UPDATE, so no service
+ * call sees it happen.
  */
 public class TaskReaper implements Runnable {
 
     private static final Logger log = LoggerFactory.getLogger(TaskReaper.class);
 
     private final TaskRepository taskRepository;
+    private final JobRepository jobRepository;
+    private final TaskDispatcher dispatcher;
+    private final TaskLeases leases;
+    private final SpeculativeExecution speculation;
     private final CoordinatorConfig config;
 
-    public TaskReaper(TaskRepository taskRepository, CoordinatorConfig config) {
-        this.taskRepository = taskRepository;
-        this.config = config;
+    private TaskReaper(Builder builder) {
+        this.taskRepository = builder.taskRepository;
+        this.jobRepository = builder.jobRepository;
+        this.dispatcher = builder.dispatcher;
+        this.leases = builder.leases;
+        this.speculation = builder.speculation;
+        this.config = builder.config;
+    }
+
+    /**
+     * Start building a reaper. On its own it only runs the threshold scan.
+     */
+    public static Builder builder(TaskRepository taskRepository, CoordinatorConfig config) {
+        return new Builder(taskRepository, config);
     }
 
     @Override
     public void run() {
         try {
             int reaped = reapStuckTasks();
+            if (dispatcher != null) {
+                dispatcher.reconcile();
+            }
+            forgetFinishedJobs();
             if (reaped > 0) {
                 AppBus.fireTasksChanged();
             }
@@ -55,42 +97,129 @@ public class TaskReaper implements Runnable {
      */
     public int reapStuckTasks() {
         Instant cutoff = Instant.now().minus(config.taskStuckThreshold());
+        // Leased tasks are recovered by reapExpiredLeases()
+        Set<String> leased = leases != null ? leases.taskIds() : Set.of();
 
-        List<Task> stuck = taskRepository.findStuckRunning(cutoff);
-
-        if (stuck.isEmpty()) {
+        TaskReapResult result = taskRepository.reapStuckRunning(cutoff, leased, "stuck in RUNNING");
+        if (result.total() == 0) {
             log.debug("No stuck tasks found");
             return 0;
         }
 
-        int retried = 0;
-        int failed = 0;
-
-        for (Task task : stuck) {
-            try {
-                if (task.canRetry()) {
-                    // Reset to NEW for retry
-                    taskRepository.resetToNew(task.id());
-                    retried++;
-                    log.info("Reaped task {} for retry (attempt {} of {})",
-                            task.id(), task.attempts(), task.maxAttempts());
-                } else {
-                    // Exhausted retries - mark as permanently failed
-                    taskRepository.markFailed(task.id(),
-                            "Task stuck in RUNNING - max attempts exceeded (" + task.attempts() + "/"
-                                    + task.maxAttempts() + ")");
-                    failed++;
-                    log.warn("Task {} permanently failed after {} attempts (stuck in RUNNING)",
-                            task.id(), task.attempts());
-                }
-            } catch (Exception e) {
-                log.error("Failed to reap task {}", task.id(), e);
+        onReaped(result);
+        log.info("Task reaper: {} retried, {} failed (stuck in RUNNING)",
+                result.retried().size(), result.failed().size());
+        return result.total();
+    }
+
+    /**
+     * Drop the lease runtimes of jobs that are terminal or gone.
+     *
+     * @return number of jobs forgotten
+     */
+    public int forgetFinishedJobs() {
+        if (leases == null || jobRepository == null) {
+            return 0;
+        }
+        int forgotten = 0;
+        for (String jobId : List.copyOf(leases.learnedJobIds())) {
+            if (jobRepository.findById(jobId).map(Job::isTerminal).orElse(true)) {
+                leases.forgetJob(jobId);
+                forgotten++;
+            }
+        }
+        return forgotten;
+    }
+
+    /**
+     * Recover the RUNNING tasks whose lease has expired.
+     *
+     * @return number of tasks recovered
+     */
+    public int reapExpiredLeases() {
+        if (leases == null) {
+            return 0;
+        }
+        List<TaskLeases.Lease> expired = leases.expired(System.currentTimeMillis());
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        // Tasks that finished or moved to another SPOT since are left alone
+        Map<String, String> spotByTask = new HashMap<>();
+        for (TaskLeases.Lease lease : expired) {
+            if (speculation == null || !speculation.takeOver(lease.taskId(), lease.spotId())) {
+                spotByTask.put(lease.taskId(), lease.spotId());
             }
         }
+        if (spotByTask.isEmpty()) {
+            return 0;
+        }
+        TaskReapResult result = taskRepository.reapRunning(spotByTask, "lease expired");
+        if (result.total() == 0) {
+            return 0;
+        }
+
+        onReaped(result);
+        log.info("Task reaper: {} retried, {} failed from {} expired leases",
+                result.retried().size(), result.failed().size(), expired.size());
+        AppBus.fireTasksChanged();
+        return result.total();
+    }
+
+    private void onReaped(TaskReapResult result) {
+        if (!result.failed().isEmpty()) {
+            log.warn("Tasks permanently failed (attempts exhausted): {}", result.failed());
+        }
+        if (speculation != null) {
+            result.retried().forEach(entry -> speculation.release(entry.id()));
+            result.failed().forEach(speculation::release);
+        }
+        if (dispatcher != null) {
+            dispatcher.offerAll(result.retried());
+            result.failed().forEach(dispatcher::onTerminal);
+        }
+    }
 
-        log.info("Task reaper: {} retried, {} failed, {} total stuck",
-                retried, failed, stuck.size());
+    public static final class Builder {
+        private final TaskRepository taskRepository;
+        private final CoordinatorConfig config;
+        private JobRepository jobRepository;
+        private TaskDispatcher dispatcher;
+        private TaskLeases leases;
+        private SpeculativeExecution speculation;
 
-        return retried + failed;
+        private Builder(TaskRepository taskRepository, CoordinatorConfig config) {
+            this.taskRepository = taskRepository;
+            this.config = config;
+        }
+
+        /** Tells which jobs have finished, to drop their lease runtimes */
+        public Builder jobRepository(JobRepository jobRepository) {
+            this.jobRepository = jobRepository;
+            return this;
+        }
+
+        /** Ready queue to re-queue retried tasks on and reconcile */
+        public Builder dispatcher(TaskDispatcher dispatcher) {
+            this.dispatcher = dispatcher;
+            return this;
+        }
+
+        /** Leases whose expiry reaps tasks; leased tasks skip the threshold scan */
+        public Builder leases(TaskLeases leases) {
+            this.leases = leases;
+            return this;
+        }
+
+        /** Copies that take over tasks whose lease expired */
+        public Builder speculation(SpeculativeExecution speculation) {
+            this.speculation = speculation;
+            return this;
+        }
+
+        public TaskReaper build() {
+            return new TaskReaper(this);
+        }
     }
 }
@@ -0,0 +1,169 @@
+package orhestra.coordinator.server;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded worker pool that runs controller code off the Netty event loop.
+ *
+ * Controllers do blocking JDBC work, so they must never run on I/O threads.
+ * Each pool has a fixed number of threads (normally sized to the Hikari pool)
+ * and a bounded queue. When the queue is full, {@link #execute(Runnable)}
+ * returns false and the caller answers 503 instead of piling up requests.
+ *
+ * Queue depth and wait time (enqueue → start) are tracked for the stats log
+ * and the health endpoint.
+ */
+public final class ControllerExecutor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ControllerExecutor.class);
+
+    private final String name;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor pool;
+
+    // Metrics
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder waitCount = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public ControllerExecutor(String name, int threads, int queueCapacity) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be >= 1");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be >= 1");
+        }
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+        this.pool = new ThreadPoolExecutor(
+                threads, threads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new NamedThreadFactory("orhestra-" + name),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Submit a task for execution.
+     *
+     * @return true if accepted, false if the pool is saturated or shut down
+     */
+    public boolean execute(Runnable task) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            pool.execute(() -> {
+                recordWait(System.nanoTime() - enqueuedAt);
+                task.run();
+            });
+            submitted.increment();
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return false;
+        }
+    }
+
+    /**
+     * View as a plain {@link Executor} that throws
+     * {@link RejectedExecutionException} when saturated.
+     */
+    public Executor asExecutor() {
+        return task -> {
+            if (!execute(task)) {
+                throw new RejectedExecutionException("executor '" + name + "' saturated");
+            }
+        };
+    }
+
+    private void recordWait(long nanos) {
+        waitCount.increment();
+        waitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int queueDepth() {
+        return pool.getQueue().size();
+    }
+
+    /**
+     * Snapshot current metrics. Wait times are cumulative since startup.
+     */
+    public Stats snapshot() {
+        long count = waitCount.sum();
+        long total = waitNanos.sum();
+        long max = maxWaitNanos.get();
+        double avgWaitMs = count == 0 ? 0.0 : (total / (double) count) / 1_000_000.0;
+        return new Stats(
+                name,
+                pool.getMaximumPoolSize(),
+                pool.getActiveCount(),
+                queueDepth(),
+                queueCapacity,
+                submitted.sum(),
+                rejected.sum(),
+                avgWaitMs,
+                max / 1_000_000.0);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(5, TimeUnit.SECONDS)) {
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        log.info("Controller executor '{}' stopped", name);
+    }
+
+    /**
+     * Point-in-time view of executor metrics.
+     */
+    public record Stats(
+            String name,
+            int threads,
+            int active,
+            int queueDepth,
+            int queueCapacity,
+            long submitted,
+            long rejected,
+            double avgWaitMs,
+            double maxWaitMs) {
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -19,6 +19,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
@@ -48,6 +50,7 @@ public final class CoordinatorNettyServer {
     private static Channel serverChannel;
     private static EventLoopGroup bossGroup;
     private static EventLoopGroup workerGroup;
+    private static ScheduledExecutorService statsExecutor;
 
     static final ChannelGroup CLIENTS = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
 
@@ -168,13 +171,21 @@ public final class CoordinatorNettyServer {
             dependencies.startScheduler();
             log("Background scheduler started");
 
-            // Periodic stats logging (every second)
-            workerGroup.next().scheduleAtFixedRate(() -> {
-                int activeSpots = dependencies.spotService().countActive();
-                long hb = HB_COUNT.sumThenReset();
-                long gt = GET_TASK_COUNT.sumThenReset();
-                if (hb > 0 || gt > 0) {
-                    log("stats: hb/s=" + hb + " claim/s=" + gt + " active_spots=" + activeSpots);
+            // Periodic stats logging (every second). The spot count is a DB
+            // query, so it runs on its own thread: not on the event loop, and
+            // not on the API executor, where saturation would reject it and
+            // count towards the very rejections it reports.
+            statsExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "orhestra-stats");
+                t.setDaemon(true);
+                return t;
+            });
+            statsExecutor.scheduleAtFixedRate(() -> {
+                try {
+                    logStats();
+                } catch (RuntimeException e) {
+                    // A thrown exception would cancel the schedule
+                    log.warn("Stats logging failed: {}", e.getMessage());
                 }
             }, 1, 1, TimeUnit.SECONDS);
 
@@ -195,6 +206,25 @@ public final class CoordinatorNettyServer {
         }
     }
 
+    private static void logStats() {
+        Dependencies deps = dependencies;
+        if (deps == null)
+            return;
+        long hb = HB_COUNT.sumThenReset();
+        long gt = GET_TASK_COUNT.sumThenReset();
+        ControllerExecutor.Stats internal = deps.internalExecutor().snapshot();
+        ControllerExecutor.Stats api = deps.apiExecutor().snapshot();
+        if (hb > 0 || gt > 0 || internal.queueDepth() > 0 || api.queueDepth() > 0) {
+            int activeSpots = deps.spotService().countActive();
+            log(String.format("stats: hb/s=%d claim/s=%d active_spots=%d"
+                    + " internal_queue=%d internal_wait_avg_ms=%.1f api_queue=%d api_wait_avg_ms=%.1f rejected=%d",
+                    hb, gt, activeSpots,
+                    internal.queueDepth(), internal.avgWaitMs(),
+                    api.queueDepth(), api.avgWaitMs(),
+                    internal.rejected() + api.rejected()));
+        }
+    }
+
     /**
      * Stop the server gracefully.
      */
@@ -221,6 +251,11 @@ public final class CoordinatorNettyServer {
             CLIENTS.close().awaitUninterruptibly();
 
         } finally {
+            if (statsExecutor != null) {
+                statsExecutor.shutdownNow();
+                statsExecutor = null;
+            }
+
             // Shutdown Netty
             if (workerGroup != null) {
                 workerGroup.shutdownGracefully();
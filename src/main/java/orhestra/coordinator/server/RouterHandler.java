@@ -17,6 +17,9 @@ import org.slf4j.LoggerFactory;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_TYPE;
 import static io.netty.handler.codec.http.HttpResponseStatus.*;
@@ -31,6 +34,16 @@ import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
  * 
  * All other endpoints return 404.
  * 
+ * Controllers do blocking JDBC work, so they are not run on the Netty event
+ * loop: /internal/* requests go to the internal executor and /api/* requests
+ * to the API executor. If the target executor is saturated the request is
+ * answered with 503 + Retry-After.
+ * 
+ * Controllers may also answer asynchronously (long-poll claims): the response
+ * is written when their future completes, without holding a worker thread.
+ * If the client has gone by then (a long-poll is cancelled when its channel
+ * closes), nothing is written.
+ * 
  * This handler is @Sharable because it has no per-channel state.
  */
 @Sharable
@@ -49,9 +62,25 @@ public class RouterHandler extends SimpleChannelInboundHandler<FullHttpRequest>
 
     private final List<Controller> controllers = new ArrayList<>();
     private final CoordinatorConfig config;
+    private final ControllerExecutor internalExecutor;
+    private final ControllerExecutor apiExecutor;
 
+    /**
+     * Create a router that runs controllers inline on the calling thread.
+     */
     public RouterHandler(CoordinatorConfig config) {
+        this(config, null, null);
+    }
+
+    /**
+     * Create a router that dispatches controllers to dedicated executors.
+     * A null executor means requests for that prefix run inline.
+     */
+    public RouterHandler(CoordinatorConfig config, ControllerExecutor internalExecutor,
+            ControllerExecutor apiExecutor) {
         this.config = config;
+        this.internalExecutor = internalExecutor;
+        this.apiExecutor = apiExecutor;
     }
 
     /**
@@ -67,11 +96,53 @@ public class RouterHandler extends SimpleChannelInboundHandler<FullHttpRequest>
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest req) {
         String uri = req.uri();
-        HttpMethod method = req.method();
 
         // Extract path without query string
         String path = uri.contains("?") ? uri.substring(0, uri.indexOf("?")) : uri;
 
+        ControllerExecutor executor = executorFor(path);
+        if (executor == null) {
+            dispatch(ctx, req, path);
+            return;
+        }
+
+        // SimpleChannelInboundHandler releases the request when this method
+        // returns, so keep a reference until the worker is done with it.
+        req.retain();
+        boolean accepted = executor.execute(() -> {
+            try {
+                dispatch(ctx, req, path);
+            } finally {
+                req.release();
+            }
+        });
+
+        if (!accepted) {
+            req.release();
+            log.warn("Executor '{}' saturated, rejecting {} {}", executor.name(), req.method(), path);
+            writeUnavailable(ctx);
+        }
+    }
+
+    /**
+     * Pick the executor for a request path, or null to run inline.
+     */
+    private ControllerExecutor executorFor(String path) {
+        if (path.startsWith("/internal/")) {
+            return internalExecutor;
+        }
+        if (path.startsWith("/api/")) {
+            return apiExecutor;
+        }
+        return null;
+    }
+
+    /**
+     * Run auth and the matching controller, then write the response.
+     */
+    private void dispatch(ChannelHandlerContext ctx, FullHttpRequest req, String path) {
+        HttpMethod method = req.method();
+
         try {
             // Check auth for internal endpoints
             if (!checkAuth(req, path)) {
@@ -83,8 +154,17 @@ public class RouterHandler extends SimpleChannelInboundHandler<FullHttpRequest>
             // Try registered controllers
             for (Controller controller : controllers) {
                 if (controller.matches(method, path)) {
-                    ControllerResponse response = controller.handle(ctx, req, path);
-                    writeSafe(ctx, response.status(), response.contentType(), response.body());
+                    // The request may be released by the time this completes:
+                    // only values captured here are used
+                    controller.handleAsync(ctx, req, path).whenComplete((response, t) -> {
+                        if (!ctx.channel().isActive()) {
+                            log.debug("Client closed the connection before {} {} completed", method, path);
+                        } else if (t == null) {
+                            writeSafe(ctx, response.status(), response.contentType(), response.body());
+                        } else {
+                            writeFailure(ctx, method, path, null, t);
+                        }
+                    });
                     return;
                 }
             }
@@ -93,19 +173,38 @@ public class RouterHandler extends SimpleChannelInboundHandler<FullHttpRequest>
             log.debug("No handler for: {} {}", method, path);
             writeSafe(ctx, NOT_FOUND, "application/json", "{\"error\":\"not found\"}");
 
-        } catch (IllegalArgumentException e) {
+        } catch (Throwable t) {
+            writeFailure(ctx, method, path, bodyOf(req), t);
+        }
+    }
+
+    /**
+     * Answer a failed request: 400 for validation errors, 503 if a
+     * continuation could not be scheduled, 500 with the error chain otherwise.
+     * A cancelled request (its client went away) gets no answer.
+     *
+     * @param body request body for the error log, or null if the request
+     *             may already be released
+     */
+    private void writeFailure(ChannelHandlerContext ctx, HttpMethod method, String path, String body, Throwable t) {
+        if (t instanceof CompletionException && t.getCause() != null) {
+            t = t.getCause();
+        }
+
+        if (t instanceof CancellationException) {
+            log.debug("Request {} {} cancelled", method, path);
+        } else if (t instanceof IllegalArgumentException) {
             // Validation errors
-            log.warn("Validation error: {}", e.getMessage());
+            log.warn("Validation error: {}", t.getMessage());
             writeSafe(ctx, BAD_REQUEST, "application/json",
-                    "{\"error\":\"" + escapeJson(e.getMessage()) + "\"}");
-        } catch (Throwable t) {
+                    "{\"error\":\"" + escapeJson(t.getMessage()) + "\"}");
+        } else if (t instanceof RejectedExecutionException) {
+            log.warn("Rejected continuation for {} {}: {}", method, path, t.getMessage());
+            writeUnavailable(ctx);
+        } else {
             // Catch ALL exceptions including Error, OutOfMemoryError, etc.
             // Log full details including request body for debugging
-            String requestBody = "";
-            try {
-                requestBody = req.content().toString(StandardCharsets.UTF_8);
-            } catch (Exception ignored) {
-            }
+            String requestBody = body != null ? body : "(not available)";
 
             log.error("Handler error: {} {} - Body: [{}] - Exception: {}", method, path, requestBody, t.toString(), t);
             System.err.println("=== ROUTER HANDLER EXCEPTION ===");
@@ -127,6 +226,14 @@ public class RouterHandler extends SimpleChannelInboundHandler<FullHttpRequest>
         }
     }
 
+    private static String bodyOf(FullHttpRequest req) {
+        try {
+            return req.content().toString(StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
     /**
      * Check if request requires and passes auth.
      */
@@ -144,6 +251,19 @@ public class RouterHandler extends SimpleChannelInboundHandler<FullHttpRequest>
         return config.agentKey().equals(providedKey);
     }
 
+    /**
+     * Answer 503 with Retry-After when an executor cannot accept more work.
+     */
+    private void writeUnavailable(ChannelHandlerContext ctx) {
+        byte[] bytes = "{\"error\":\"server busy\"}".getBytes(StandardCharsets.UTF_8);
+        FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, SERVICE_UNAVAILABLE,
+                Unpooled.wrappedBuffer(bytes));
+        response.headers().set(CONTENT_TYPE, "application/json; charset=utf-8");
+        response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, bytes.length);
+        response.headers().set(HttpHeaderNames.RETRY_AFTER, config.dispatchRetryAfter().toSeconds());
+        ctx.writeAndFlush(response);
+    }
+
     /**
      * Safe write that catches any exceptions during response writing.
      * Ensures we never silently close the connection.
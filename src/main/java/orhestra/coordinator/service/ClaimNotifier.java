@@ -0,0 +1,97 @@
+package orhestra.coordinator.service;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wakes parked long-poll claims when tasks become claimable.
+ *
+ * A waiter is just a {@link CompletableFuture} — no thread or DB connection
+ * is held while a SPOT waits. The {@link TaskDispatcher} calls
+ * {@link #signal()} whenever it queues tasks (job creation, retries, tasks
+ * freed from a dead SPOT, reaper resets), which completes every waiter with
+ * {@code true}. Waiters that time out complete with {@code false}.
+ *
+ * A version counter closes the race between "claim found nothing" and
+ * "park": callers read {@link #version()} before the claim and pass it to
+ * {@link #await}, which returns immediately if a signal came in between.
+ */
+public class ClaimNotifier implements AutoCloseable {
+
+    private final Set<CompletableFuture<Boolean>> waiters = ConcurrentHashMap.newKeySet();
+    private final AtomicLong version = new AtomicLong();
+    private final ScheduledThreadPoolExecutor timer;
+
+    public ClaimNotifier() {
+        this.timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "orhestra-claim-timer");
+            t.setDaemon(true);
+            return t;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Current signal version.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Wait for the next signal.
+     *
+     * @param seenVersion version read before the caller last found no tasks
+     * @param timeout     how long to wait
+     * @return future completing with true when signalled, false on timeout
+     */
+    public CompletableFuture<Boolean> await(long seenVersion, Duration timeout) {
+        CompletableFuture<Boolean> waiter = new CompletableFuture<>();
+        waiters.add(waiter);
+
+        // Registered first, so a concurrent signal either sees the waiter or
+        // has already bumped the version
+        if (version.get() != seenVersion) {
+            waiter.complete(true);
+        } else if (timer.isShutdown()) {
+            waiter.complete(false);
+        } else {
+            ScheduledFuture<?> timeoutTask = timer.schedule(() -> waiter.complete(false),
+                    timeout.toNanos(), TimeUnit.NANOSECONDS);
+            waiter.whenComplete((r, t) -> timeoutTask.cancel(false));
+        }
+        waiter.whenComplete((r, t) -> waiters.remove(waiter));
+        return waiter;
+    }
+
+    /**
+     * Tasks became claimable: wake every parked claim.
+     */
+    public void signal() {
+        version.incrementAndGet();
+        for (CompletableFuture<Boolean> waiter : waiters) {
+            waiter.complete(true);
+        }
+    }
+
+    /**
+     * Number of parked claims.
+     */
+    public int waiting() {
+        return waiters.size();
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        for (CompletableFuture<Boolean> waiter : waiters) {
+            waiter.complete(false);
+        }
+    }
+}
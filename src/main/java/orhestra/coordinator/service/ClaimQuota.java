@@ -0,0 +1,119 @@
+package orhestra.coordinator.service;
+
+import orhestra.coordinator.config.CoordinatorConfig;
+import orhestra.coordinator.model.TaskStatus;
+import orhestra.coordinator.repository.TaskRepository;
+
+/**
+ * Per-SPOT claim sizing.
+ *
+ * Instead of a fixed cap per claim, a SPOT may hold
+ * {@code capacity × depth} tasks, where capacity is its declared
+ * maxConcurrent (else its core count) and depth is how many average-length
+ * tasks fit into {@link CoordinatorConfig#claimLeadTime()}. Long tasks give
+ * depth 1 (only free slots are filled); sub-second tasks let each slot buffer
+ * several tasks so the SPOT is not idle between claim round trips.
+ *
+ * The grant for one claim is that target minus the SPOT's RUNNING count,
+ * capped by {@link CoordinatorConfig#maxClaimBatch()}. It is also capped by
+ * the SPOT's fair share of the remaining NEW tasks
+ * ({@code ceil(remaining / known SPOTs)}), so at the tail of a job one SPOT
+ * cannot hoard the last tasks while the others go idle.
+ *
+ * SPOTs that declared no capacity keep the former fixed limit.
+ */
+public class ClaimQuota {
+
+    /** Per-claim limit for SPOTs with unknown capacity */
+    public static final int DEFAULT_LIMIT = 10;
+
+    private final TaskRepository taskRepository;
+    private final SpotRegistry spotRegistry;
+    private final TaskDispatcher dispatcher;
+    private final LazyTaskSource lazyTasks;
+    private final CoordinatorConfig config;
+
+    public ClaimQuota(TaskRepository taskRepository, SpotRegistry spotRegistry,
+            TaskDispatcher dispatcher, CoordinatorConfig config) {
+        this(taskRepository, spotRegistry, dispatcher, null, config);
+    }
+
+    public ClaimQuota(TaskRepository taskRepository, SpotRegistry spotRegistry,
+            TaskDispatcher dispatcher, LazyTaskSource lazyTasks, CoordinatorConfig config) {
+        this.taskRepository = taskRepository;
+        this.spotRegistry = spotRegistry;
+        this.dispatcher = dispatcher;
+        this.lazyTasks = lazyTasks;
+        this.config = config;
+    }
+
+    /**
+     * Compute how many tasks a SPOT may claim right now.
+     */
+    public Quota quotaFor(String spotId) {
+        int max = Math.max(1, config.maxClaimBatch());
+        int capacity = capacity(spotId);
+        if (capacity <= 0) {
+            int batch = Math.min(DEFAULT_LIMIT, max);
+            return new Quota(Math.min(batch, fairShare()), batch);
+        }
+
+        long target = (long) capacity * depth(spotId, max);
+        int running = taskRepository.countRunningBySpotId(spotId);
+        int limit = (int) Math.max(0, Math.min(target - running, max));
+        return new Quota(Math.min(limit, fairShare()), (int) Math.min(target, max));
+    }
+
+    /**
+     * Suggested claim size for a SPOT, without touching the database
+     * (used when there is nothing to claim).
+     */
+    public int batchFor(String spotId) {
+        int max = Math.max(1, config.maxClaimBatch());
+        int capacity = capacity(spotId);
+        if (capacity <= 0) {
+            return Math.min(DEFAULT_LIMIT, max);
+        }
+        return (int) Math.min((long) capacity * depth(spotId, max), max);
+    }
+
+    private int capacity(String spotId) {
+        return spotRegistry != null
+                ? spotRegistry.get(spotId).map(SpotRegistry.SpotProfile::capacity).orElse(0)
+                : 0;
+    }
+
+    /**
+     * Tasks per slot: enough average-length tasks to cover the lead time.
+     */
+    int depth(String spotId, int max) {
+        double avgMs = spotRegistry != null ? spotRegistry.averageRuntimeMs(spotId) : 0;
+        long leadMs = config.claimLeadTime().toMillis();
+        if (avgMs <= 0 || avgMs >= leadMs) {
+            return 1;
+        }
+        return (int) Math.min(max, Math.ceil(leadMs / avgMs));
+    }
+
+    /**
+     * This SPOT's share of the remaining NEW tasks, including combinations
+     * of lazy jobs that have no row yet (at least 1).
+     */
+    int fairShare() {
+        long remaining = dispatcher != null
+                ? dispatcher.size()
+                : taskRepository.countByStatus(TaskStatus.NEW);
+        if (lazyTasks != null) {
+            remaining += lazyTasks.pending();
+        }
+        int spots = spotRegistry != null ? Math.max(1, spotRegistry.size()) : 1;
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, (remaining + spots - 1) / spots));
+    }
+
+    /**
+     * @param limit tasks this claim may take (fair-share capped)
+     * @param batch suggested {@code maxTasks} for the SPOT's next claim
+     */
+    public record Quota(int limit, int batch) {
+    }
+}
@@ -0,0 +1,197 @@
+package orhestra.coordinator.service;
+
+import orhestra.coordinator.model.CancelledTask;
+import orhestra.coordinator.model.JobStatus;
+import orhestra.coordinator.model.StopCondition;
+import orhestra.coordinator.repository.JobRepository;
+import orhestra.coordinator.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stops jobs whose {@link StopCondition} is met before every combination
+ * has run.
+ *
+ * Each completion's {@code fopt} is checked against its job's condition as
+ * it is reported: a target is a single comparison, and top-K stability keeps
+ * the best K values in a heap (O(log K) per completion). Completions without
+ * {@code fopt} are ignored.
+ *
+ * When the condition holds, the job stops: its NEW and RUNNING tasks are
+ * cancelled in one statement, combinations of a lazy job that have no row
+ * yet are dropped, SPOTs running its tasks get them in {@code cancelTaskIds}
+ * of their next heartbeat response, and the job is marked COMPLETED.
+ */
+public class EarlyStopping {
+
+    private static final Logger log = LoggerFactory.getLogger(EarlyStopping.class);
+
+    private final JobRepository jobRepository;
+    private final TaskRepository taskRepository;
+    private final TaskDispatcher dispatcher;
+    private final LazyTaskSource lazyTasks;
+    private final TaskLeases leases;
+    private final SpeculativeExecution speculation;
+    private final TaskCancels cancels;
+
+    private final ConcurrentHashMap<String, Watch> watches = new ConcurrentHashMap<>();
+
+    public EarlyStopping(JobRepository jobRepository, TaskRepository taskRepository, TaskDispatcher dispatcher,
+            LazyTaskSource lazyTasks, TaskLeases leases, SpeculativeExecution speculation, TaskCancels cancels) {
+        this.jobRepository = jobRepository;
+        this.taskRepository = taskRepository;
+        this.dispatcher = dispatcher;
+        this.lazyTasks = lazyTasks;
+        this.leases = leases;
+        this.speculation = speculation;
+        this.cancels = cancels;
+    }
+
+    /**
+     * @param condition   the job's stop condition
+     * @param completions completions with {@code fopt} seen so far
+     * @param bestFopt    lowest {@code fopt} so far (null before the first)
+     * @param stableFor   consecutive completions that left the top K unchanged
+     * @param stopped     whether the condition was met
+     */
+    public record Progress(StopCondition condition, long completions, Double bestFopt, int stableFor,
+            boolean stopped) {
+    }
+
+    /**
+     * Start watching a job's completions. Call before any of its tasks can
+     * be claimed.
+     */
+    public void watch(String jobId, StopCondition condition) {
+        condition.validate();
+        watches.put(jobId, new Watch(condition));
+    }
+
+    /**
+     * Stop watching a job (cancelled or removed).
+     */
+    public void forget(String jobId) {
+        watches.remove(jobId);
+    }
+
+    /**
+     * Whether any job is watched; lets completions skip the job lookup.
+     */
+    public boolean active() {
+        return !watches.isEmpty();
+    }
+
+    /**
+     * Whether a job was stopped early.
+     */
+    public boolean isStopped(String jobId) {
+        Watch watch = watches.get(jobId);
+        return watch != null && watch.progress().stopped();
+    }
+
+    /**
+     * Progress of a watched job towards its stop condition.
+     */
+    public Optional<Progress> progress(String jobId) {
+        Watch watch = watches.get(jobId);
+        return watch != null ? Optional.of(watch.progress()) : Optional.empty();
+    }
+
+    /**
+     * A task of the job completed; stop the job if its condition is now met.
+     *
+     * @return true if this completion stopped the job
+     */
+    public boolean onCompleted(String jobId, Double fopt) {
+        Watch watch = watches.get(jobId);
+        if (watch == null || fopt == null || !watch.offer(fopt)) {
+            return false;
+        }
+        stop(jobId, fopt);
+        return true;
+    }
+
+    private void stop(String jobId, double fopt) {
+        // No more rows for combinations that were never claimed
+        if (lazyTasks != null) {
+            lazyTasks.remove(jobId);
+        }
+
+        List<CancelledTask> cancelled = taskRepository.cancelUnfinished(jobId);
+        int running = 0;
+        for (CancelledTask task : cancelled) {
+            if (leases != null) {
+                leases.release(task.taskId());
+            }
+            if (speculation != null) {
+                speculation.release(task.taskId());
+            }
+            if (dispatcher != null) {
+                dispatcher.onTerminal(task.taskId());
+            }
+            if (task.spotId() != null) {
+                cancels.cancel(task.spotId(), task.taskId());
+                running++;
+            }
+        }
+
+        jobRepository.markFinished(jobId, JobStatus.COMPLETED);
+        log.info("Job {} stopped early at fopt {}: cancelled {} tasks ({} running)",
+                jobId, fopt, cancelled.size(), running);
+    }
+
+    /**
+     * Incremental state of one job's stop condition.
+     */
+    private static final class Watch {
+        private final StopCondition condition;
+        // Best K fopt values, worst of them on top
+        private final PriorityQueue<Double> topK = new PriorityQueue<>(Collections.reverseOrder());
+        private long completions;
+        private double best = Double.POSITIVE_INFINITY;
+        private int stable;
+        private boolean stopped;
+
+        Watch(StopCondition condition) {
+            this.condition = condition;
+        }
+
+        /**
+         * @return true if this value meets the condition (once per job)
+         */
+        synchronized boolean offer(double fopt) {
+            if (stopped) {
+                return false;
+            }
+            completions++;
+            best = Math.min(best, fopt);
+
+            if (condition.targetFopt() != null && fopt <= condition.targetFopt()) {
+                stopped = true;
+            } else if (condition.topK() != null) {
+                if (topK.size() < condition.topK()) {
+                    topK.add(fopt);
+                    stable = 0;
+                } else if (fopt < topK.peek()) {
+                    topK.poll();
+                    topK.add(fopt);
+                    stable = 0;
+                } else {
+                    stable++;
+                    stopped = stable >= condition.stableFor();
+                }
+            }
+            return stopped;
+        }
+
+        synchronized Progress progress() {
+            return new Progress(condition, completions, completions > 0 ? best : null, stable, stopped);
+        }
+    }
+}
@@ -10,9 +10,19 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
 
 /**
  * Business logic for Job management.
@@ -24,12 +34,37 @@ public class JobService {
 
     private final JobRepository jobRepository;
     private final TaskRepository taskRepository;
+    private final TaskDispatcher dispatcher;
+    private final LazyTaskSource lazyTasks;
+    private final Executor ingestExecutor;
+    private final EarlyStopping earlyStopping;
+    private final ResultCache resultCache;
     private final CoordinatorConfig config;
 
-    public JobService(JobRepository jobRepository, TaskRepository taskRepository, CoordinatorConfig config) {
-        this.jobRepository = jobRepository;
-        this.taskRepository = taskRepository;
-        this.config = config;
+    // Background ingests in flight: jobId -> cancelled flag
+    private final Map<String, AtomicBoolean> ingesting = new ConcurrentHashMap<>();
+    // Adaptive searches, kept after they finish for their progress
+    private final Map<String, SuccessiveHalving> searches = new ConcurrentHashMap<>();
+    private final Map<String, TpeSearch> optimizations = new ConcurrentHashMap<>();
+
+    private JobService(Builder builder) {
+        this.jobRepository = builder.jobRepository;
+        this.taskRepository = builder.taskRepository;
+        this.dispatcher = builder.dispatcher;
+        this.lazyTasks = builder.lazyTasks;
+        this.ingestExecutor = builder.ingestExecutor;
+        this.earlyStopping = builder.earlyStopping;
+        this.resultCache = builder.resultCache;
+        this.config = builder.config;
+    }
+
+    /**
+     * Start building a service. Lazy, search and stop-condition jobs need
+     * the matching collaborators.
+     */
+    public static Builder builder(JobRepository jobRepository, TaskRepository taskRepository,
+            CoordinatorConfig config) {
+        return new Builder(jobRepository, taskRepository, config);
     }
 
     /**
@@ -42,6 +77,32 @@ public class JobService {
      * @return created job
      */
     public Job createJob(ArtifactRef artifact, String mainClass, String config, List<String> payloads) {
+        return createJob(artifact, mainClass, config, payloads.size(), payloads.iterator());
+    }
+
+    /**
+     * Create a new job from a lazily generated payload stream. Payloads are
+     * pulled and written chunk by chunk, so memory use does not depend on
+     * the number of tasks.
+     *
+     * @param artifact   S3 artifact reference (bucket + key + endpoint)
+     * @param mainClass  main class name
+     * @param config     job configuration JSON
+     * @param totalTasks number of payloads the iterator yields
+     * @param payloads   flat JSON task payloads (one per combination)
+     * @return created job
+     */
+    public Job createJob(ArtifactRef artifact, String mainClass, String config,
+            int totalTasks, Iterator<String> payloads) {
+        return createJob(artifact, mainClass, config, totalTasks, payloads, JobScheduling.DEFAULT);
+    }
+
+    /**
+     * Same as {@link #createJob(ArtifactRef, String, String, int, Iterator)}
+     * with a priority and fair-share weight.
+     */
+    public Job createJob(ArtifactRef artifact, String mainClass, String config,
+            int totalTasks, Iterator<String> payloads, JobScheduling scheduling) {
         String jobId = jobRepository.generateId();
 
         Job job = Job.builder()
@@ -50,38 +111,454 @@ public class JobService {
                 .mainClass(mainClass)
                 .config(config)
                 .status(JobStatus.PENDING)
-                .totalTasks(payloads.size())
+                .totalTasks(totalTasks)
                 .completedTasks(0)
                 .failedTasks(0)
+                .scheduling(scheduling)
                 .createdAt(Instant.now())
                 .build();
 
         jobRepository.save(job);
-        log.info("Created job {} with {} tasks", jobId, payloads.size());
-
-        // Create tasks — payload JSON is self-contained (artifact + params)
-        List<Task> tasks = new ArrayList<>();
-        for (int i = 0; i < payloads.size(); i++) {
-            Task task = Task.builder()
-                    .id(UUID.randomUUID().toString())
-                    .jobId(jobId)
-                    .payload(payloads.get(i))
-                    .status(TaskStatus.NEW)
-                    .priority(i)
-                    .maxAttempts(this.config.defaultMaxAttempts())
-                    .createdAt(Instant.now())
-                    .build();
-            tasks.add(task);
+        registerScheduling(job);
+        registerCache(job, true);
+        log.info("Created job {} with {} tasks", jobId, totalTasks);
+
+        try {
+            ingestTasks(job, payloads, null);
+        } catch (RuntimeException e) {
+            log.error("Task ingest for job {} failed, removing the job", jobId, e);
+            if (resultCache != null) {
+                resultCache.remove(jobId);
+            }
+            jobRepository.delete(jobId);
+            throw e;
         }
+        return job;
+    }
 
-        for (Task task : tasks) {
-            taskRepository.save(task);
+    /**
+     * Submit a job and write its tasks in the background.
+     *
+     * The job is saved as {@link JobStatus#MATERIALIZING} and returned
+     * immediately. Tasks are ingested chunk by chunk on the ingest executor;
+     * each committed chunk is claimable at once and advances
+     * {@code materializedTasks}. When all tasks are written the job moves to
+     * PENDING. If ingestion fails the job is marked FAILED and the tasks
+     * written so far are cancelled.
+     *
+     * @param artifact   S3 artifact reference (bucket + key + endpoint)
+     * @param mainClass  main class name
+     * @param config     job configuration JSON
+     * @param totalTasks number of payloads the iterator yields
+     * @param payloads   flat JSON task payloads (one per combination)
+     * @return the job, still MATERIALIZING
+     */
+    public Job submitJob(ArtifactRef artifact, String mainClass, String config,
+            int totalTasks, Iterator<String> payloads) {
+        return submitJob(artifact, mainClass, config, totalTasks, payloads, JobScheduling.DEFAULT, null, true);
+    }
+
+    /**
+     * Same as {@link #submitJob(ArtifactRef, String, String, int, Iterator)}
+     * with scheduling options.
+     *
+     * @param scheduling   priority and fair-share weight
+     * @param stop         condition that stops the job early (null = run
+     *                     every task)
+     * @param cacheResults false keeps the job out of the result cache
+     *                     (nondeterministic algorithms)
+     */
+    public Job submitJob(ArtifactRef artifact, String mainClass, String config,
+            int totalTasks, Iterator<String> payloads, JobScheduling scheduling, StopCondition stop,
+            boolean cacheResults) {
+        requireEarlyStopping(stop);
+        String jobId = jobRepository.generateId();
+
+        Job job = Job.builder()
+                .id(jobId)
+                .artifact(artifact)
+                .mainClass(mainClass)
+                .config(config)
+                .status(JobStatus.MATERIALIZING)
+                .totalTasks(totalTasks)
+                .completedTasks(0)
+                .failedTasks(0)
+                .materializedTasks(0)
+                .scheduling(scheduling)
+                .createdAt(Instant.now())
+                .build();
+
+        jobRepository.save(job);
+        registerScheduling(job);
+        registerCache(job, cacheResults);
+        watch(jobId, stop);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        ingesting.put(jobId, cancelled);
+        log.info("Submitted job {} with {} tasks, ingesting in background", jobId, totalTasks);
+
+        Runnable ingest = () -> runIngest(job, payloads, cancelled);
+        if (ingestExecutor != null) {
+            try {
+                ingestExecutor.execute(ingest);
+            } catch (RejectedExecutionException e) {
+                ingesting.remove(jobId);
+                jobRepository.markFinished(jobId, JobStatus.FAILED);
+                throw e;
+            }
+        } else {
+            ingest.run();
+        }
+        return job;
+    }
+
+    private void runIngest(Job job, Iterator<String> payloads, AtomicBoolean cancelled) {
+        String jobId = job.id();
+        try {
+            ingestTasks(job, payloads, cancelled);
+            if (cancelled.get() || stopped(jobId)) {
+                // Rows of the chunk in flight when the job was cancelled
+                cancelNewTasks(jobId);
+            } else {
+                jobRepository.finishIngest(jobId);
+            }
+        } catch (RuntimeException e) {
+            log.error("Background task ingest for job {} failed", jobId, e);
+            try {
+                cancelNewTasks(jobId);
+                jobRepository.markFinished(jobId, JobStatus.FAILED);
+            } catch (RuntimeException cleanup) {
+                log.error("Failed to mark job {} as failed", jobId, cleanup);
+            }
+        } finally {
+            ingesting.remove(jobId);
+        }
+    }
+
+    /**
+     * Create a lazy job: only the job row (with its parameter spec in
+     * {@code config}) is written now. Task rows are written as SPOTs claim
+     * combinations (see {@link LazyTaskSource}), so submission cost does not
+     * depend on the grid size.
+     *
+     * @param artifact   S3 artifact reference (bucket + key + endpoint)
+     * @param mainClass  main class name
+     * @param config     job configuration JSON (parameter spec)
+     * @param totalTasks number of combinations
+     * @param payloadAt  decodes combination {@code i} into its payload
+     * @return created job
+     */
+    public Job createLazyJob(ArtifactRef artifact, String mainClass, String config,
+            int totalTasks, IntFunction<String> payloadAt) {
+        return createLazyJob(artifact, mainClass, config, totalTasks, payloadAt, JobScheduling.DEFAULT, null,
+                true);
+    }
+
+    /**
+     * Same as {@link #createLazyJob(ArtifactRef, String, String, int, IntFunction)}
+     * with scheduling options.
+     *
+     * @param scheduling   priority and fair-share weight
+     * @param stop         condition that stops the job early (null = run
+     *                     every task)
+     * @param cacheResults false keeps the job out of the result cache
+     */
+    public Job createLazyJob(ArtifactRef artifact, String mainClass, String config,
+            int totalTasks, IntFunction<String> payloadAt, JobScheduling scheduling, StopCondition stop,
+            boolean cacheResults) {
+        if (lazyTasks == null) {
+            throw new IllegalStateException("lazy jobs are not enabled");
+        }
+        requireEarlyStopping(stop);
+        String jobId = jobRepository.generateId();
+
+        Job job = Job.builder()
+                .id(jobId)
+                .artifact(artifact)
+                .mainClass(mainClass)
+                .config(config)
+                .status(JobStatus.PENDING)
+                .totalTasks(totalTasks)
+                .completedTasks(0)
+                .failedTasks(0)
+                .materializedTasks(0)
+                .scheduling(scheduling)
+                .createdAt(Instant.now())
+                .build();
+
+        jobRepository.save(job);
+        registerScheduling(job);
+        registerCache(job, cacheResults);
+        watch(jobId, stop);
+        lazyTasks.register(jobId, totalTasks, this.config.defaultMaxAttempts(), scheduling.priority(), payloadAt,
+                resultCache != null ? resultCache.lookup(jobId) : null);
+        log.info("Created lazy job {} with {} combinations", jobId, totalTasks);
+        return job;
+    }
+
+    /**
+     * Create an adaptive search job (see {@link SuccessiveHalving}). Like a
+     * lazy job, nothing is written up front: trials are decided and written
+     * as SPOTs claim them, and the job's total grows with them.
+     *
+     * @param artifact  S3 artifact reference (bucket + key + endpoint)
+     * @param mainClass main class name
+     * @param config    job configuration JSON (parameter spec and search)
+     * @param gridSize  number of configurations in the grid
+     * @param payloadAt decodes configuration {@code i} into its payload
+     * @param search    budgets and promotion strategy
+     * @param stop      condition that stops the job early (null = none)
+     * @return created job
+     */
+    public Job createSearchJob(ArtifactRef artifact, String mainClass, String config,
+            long gridSize, LongFunction<String> payloadAt, SearchSpec search, JobScheduling scheduling,
+            StopCondition stop) {
+        if (lazyTasks == null) {
+            throw new IllegalStateException("lazy jobs are not enabled");
+        }
+        requireEarlyStopping(stop);
+        String jobId = jobRepository.generateId();
+        SuccessiveHalving source = new SuccessiveHalving(jobId, search, gridSize, payloadAt,
+                scheduling.priority(), this.config.defaultMaxAttempts(), jobRepository, taskRepository, dispatcher);
+
+        // Total 1 until the search ends, so the task counters cannot finish it
+        Job job = Job.builder()
+                .id(jobId)
+                .artifact(artifact)
+                .mainClass(mainClass)
+                .config(config)
+                .status(JobStatus.PENDING)
+                .totalTasks(1)
+                .completedTasks(0)
+                .failedTasks(0)
+                .materializedTasks(0)
+                .scheduling(scheduling)
+                .createdAt(Instant.now())
+                .build();
+
+        jobRepository.save(job);
+        registerScheduling(job);
+        watch(jobId, stop);
+        searches.put(jobId, source);
+        lazyTasks.register(source);
+        log.info("Created {} search job {} over {} configurations, budgets {}",
+                search.strategyOrDefault(), jobId, gridSize, Arrays.toString(search.budgets()));
+        return job;
+    }
+
+    /**
+     * Create a model-guided search job (see {@link TpeSearch}): points are
+     * proposed from the results so far as SPOTs claim, instead of running
+     * a full grid.
+     *
+     * @param artifact  S3 artifact reference (bucket + key + endpoint)
+     * @param mainClass main class name
+     * @param config    job configuration JSON (parameter spec and optimize)
+     * @param space     parameters to search over
+     * @param optimize  trials, parallelism and model settings
+     * @param stop      condition that stops the job early (null = none)
+     * @return created job
+     */
+    public Job createOptimizeJob(ArtifactRef artifact, String mainClass, String config,
+            List<SearchDimension> space, OptimizeSpec optimize, JobScheduling scheduling, StopCondition stop) {
+        if (lazyTasks == null) {
+            throw new IllegalStateException("lazy jobs are not enabled");
         }
+        requireEarlyStopping(stop);
+        String jobId = jobRepository.generateId();
+        TpeSearch source = new TpeSearch(jobId, optimize, space, scheduling.priority(),
+                this.config.defaultMaxAttempts(), jobRepository, taskRepository, dispatcher);
+
+        // Total 1 until the search ends, so the task counters cannot finish it
+        Job job = Job.builder()
+                .id(jobId)
+                .artifact(artifact)
+                .mainClass(mainClass)
+                .config(config)
+                .status(JobStatus.PENDING)
+                .totalTasks(1)
+                .completedTasks(0)
+                .failedTasks(0)
+                .materializedTasks(0)
+                .scheduling(scheduling)
+                .createdAt(Instant.now())
+                .build();
 
-        log.debug("Created {} tasks for job {}", tasks.size(), jobId);
+        jobRepository.save(job);
+        registerScheduling(job);
+        watch(jobId, stop);
+        optimizations.put(jobId, source);
+        lazyTasks.register(source);
+        log.info("Created TPE search job {} over {} parameters, {} trials", jobId, space.size(), optimize.trials());
         return job;
     }
 
+    /**
+     * Progress of a model-guided search job.
+     */
+    public Optional<TpeSearch.Progress> optimization(String jobId) {
+        TpeSearch source = optimizations.get(jobId);
+        return source != null ? Optional.of(source.progress()) : Optional.empty();
+    }
+
+    /**
+     * Progress of an adaptive search job.
+     */
+    public Optional<SuccessiveHalving.Progress> search(String jobId) {
+        SuccessiveHalving source = searches.get(jobId);
+        return source != null ? Optional.of(source.progress()) : Optional.empty();
+    }
+
+    /**
+     * Write a job's tasks in chunked batches, one transaction per chunk.
+     * Each committed chunk is handed to the dispatcher right away, so SPOTs
+     * can start on a large sweep while the rest is still being written.
+     * On failure the queued tasks are dropped from the dispatcher and the
+     * error is rethrown.
+     *
+     * @param cancelled stops ingestion when set, and enables progress
+     *                  tracking on the job row; null for synchronous creation
+     */
+    private void ingestTasks(Job job, Iterator<String> payloads, AtomicBoolean cancelled) {
+        String jobId = job.id();
+        int priority = job.priority();
+        Instant createdAt = Instant.now();
+        int maxAttempts = this.config.defaultMaxAttempts();
+        List<String> queued = new ArrayList<>();
+        Function<String, ResultCache.Entry> cached = resultCache != null ? resultCache.lookup(jobId) : null;
+
+        // Payload JSON is self-contained (artifact + params); tasks of a job
+        // share its priority and are claimed in combination order. Payloads
+        // with a cached result are written as DONE and never dispatched
+        Iterator<Task> tasks = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                if (cancelled != null && (cancelled.get() || stopped(jobId)
+                        || Thread.currentThread().isInterrupted())) {
+                    return false;
+                }
+                return payloads.hasNext();
+            }
+
+            @Override
+            public Task next() {
+                String payload = payloads.next();
+                Task.Builder builder = Task.builder()
+                        .id(UUID.randomUUID().toString())
+                        .jobId(jobId)
+                        .payload(payload)
+                        .status(TaskStatus.NEW)
+                        .priority(priority)
+                        .maxAttempts(maxAttempts)
+                        .createdAt(createdAt);
+                ResultCache.Entry hit = cached != null ? cached.apply(payload) : null;
+                if (hit != null) {
+                    builder.status(TaskStatus.DONE)
+                            .finishedAt(Instant.now())
+                            .iter(hit.iter())
+                            .fopt(hit.fopt())
+                            .result(hit.result());
+                }
+                return PayloadColumns.apply(builder, payload).build();
+            }
+        };
+
+        long started = System.nanoTime();
+        long[] written = {0};
+        long[] reused = {0};
+        long inserted;
+        try {
+            inserted = taskRepository.insertChunked(tasks, this.config.ingestChunkSize(), chunk -> {
+                if (dispatcher != null) {
+                    dispatcher.offerTasks(chunk);
+                    chunk.forEach(t -> {
+                        if (t.status() == TaskStatus.NEW) {
+                            queued.add(t.id());
+                        }
+                    });
+                }
+                if (cached != null) {
+                    for (Task t : chunk) {
+                        if (t.status() == TaskStatus.DONE) {
+                            reused[0]++;
+                            if (earlyStopping != null) {
+                                earlyStopping.onCompleted(jobId, t.fopt());
+                            }
+                        }
+                    }
+                }
+                written[0] += chunk.size();
+                if (cancelled != null) {
+                    jobRepository.updateMaterialized(jobId, (int) written[0]);
+                }
+            });
+        } catch (RuntimeException e) {
+            if (dispatcher != null) {
+                queued.forEach(dispatcher::remove);
+            }
+            throw e;
+        }
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        log.info("Ingested {} tasks for job {} in {} ms ({} rows/s, {} results reused)",
+                inserted, jobId, elapsedMs, inserted * 1000 / elapsedMs, reused[0]);
+    }
+
+    private void registerScheduling(Job job) {
+        if (dispatcher != null) {
+            dispatcher.setWeight(job.id(), job.weight());
+        }
+    }
+
+    private void registerCache(Job job, boolean cacheResults) {
+        if (resultCache != null && cacheResults) {
+            resultCache.register(job.id(), job.artifact(), job.mainClass());
+        }
+    }
+
+    private void requireEarlyStopping(StopCondition stop) {
+        if (stop != null && earlyStopping == null) {
+            throw new IllegalStateException("early stopping is not enabled");
+        }
+    }
+
+    private void watch(String jobId, StopCondition stop) {
+        if (stop != null) {
+            earlyStopping.watch(jobId, stop);
+        }
+    }
+
+    private boolean stopped(String jobId) {
+        return earlyStopping != null && earlyStopping.isStopped(jobId);
+    }
+
+    /**
+     * Progress of a job towards its stop condition, if it has one.
+     */
+    public Optional<EarlyStopping.Progress> earlyStop(String jobId) {
+        return earlyStopping != null ? earlyStopping.progress(jobId) : Optional.empty();
+    }
+
+    /**
+     * Policy claims use to order tasks of different jobs.
+     */
+    public SchedulingPolicy schedulingPolicy() {
+        return dispatcher != null ? dispatcher.policy() : SchedulingPolicy.PRIORITY;
+    }
+
+    /**
+     * Per-job scheduling counters (queued, running, share, throughput).
+     */
+    public List<TaskDispatcher.JobStats> schedulingStats() {
+        return dispatcher != null ? dispatcher.jobStats() : List.of();
+    }
+
+    /**
+     * Runtime estimates, their errors and SPOT speed factors.
+     */
+    public RuntimeModel.Snapshot runtimeModel() {
+        return dispatcher != null ? dispatcher.runtimeModel().snapshot() : new RuntimeModel().snapshot();
+    }
+
     /**
      * Find a job by ID.
      */
@@ -134,12 +611,18 @@ public class JobService {
             return false;
         }
 
-        // Cancel pending tasks
-        List<Task> tasks = taskRepository.findByJobId(jobId);
-        for (Task task : tasks) {
-            if (task.status() == TaskStatus.NEW) {
-                taskRepository.updateStatus(task.id(), TaskStatus.CANCELLED);
-            }
+        // Stop materialising combinations that have no row yet
+        if (lazyTasks != null) {
+            lazyTasks.remove(jobId);
+        }
+        AtomicBoolean ingest = ingesting.get(jobId);
+        if (ingest != null) {
+            ingest.set(true);
+        }
+
+        cancelNewTasks(jobId);
+        if (earlyStopping != null) {
+            earlyStopping.forget(jobId);
         }
 
         // Mark job as cancelled
@@ -148,6 +631,21 @@ public class JobService {
         return true;
     }
 
+    /**
+     * Cancel a job's NEW tasks and drop them from the dispatcher.
+     */
+    private void cancelNewTasks(String jobId) {
+        List<Task> tasks = taskRepository.findByJobId(jobId);
+        for (Task task : tasks) {
+            if (task.status() == TaskStatus.NEW) {
+                taskRepository.updateStatus(task.id(), TaskStatus.CANCELLED);
+                if (dispatcher != null) {
+                    dispatcher.onTerminal(task.id());
+                }
+            }
+        }
+    }
+
     /**
      * Called when a task completes to update job progress.
      */
@@ -184,4 +682,54 @@ public class JobService {
                     jobId, finalStatus, job.completedTasks(), job.failedTasks());
         }
     }
+
+    public static final class Builder {
+        private final JobRepository jobRepository;
+        private final TaskRepository taskRepository;
+        private final CoordinatorConfig config;
+        private TaskDispatcher dispatcher;
+        private LazyTaskSource lazyTasks;
+        private Executor ingestExecutor;
+        private EarlyStopping earlyStopping;
+        private ResultCache resultCache;
+
+        private Builder(JobRepository jobRepository, TaskRepository taskRepository, CoordinatorConfig config) {
+            this.jobRepository = jobRepository;
+            this.taskRepository = taskRepository;
+            this.config = config;
+        }
+
+        public Builder dispatcher(TaskDispatcher dispatcher) {
+            this.dispatcher = dispatcher;
+            return this;
+        }
+
+        /** Serves lazy and adaptive jobs (unset = such jobs are rejected) */
+        public Builder lazyTasks(LazyTaskSource lazyTasks) {
+            this.lazyTasks = lazyTasks;
+            return this;
+        }
+
+        /** Runs background ingestion for {@link JobService#submitJob} (unset = on the caller) */
+        public Builder ingestExecutor(Executor ingestExecutor) {
+            this.ingestExecutor = ingestExecutor;
+            return this;
+        }
+
+        /** Watches jobs submitted with a {@link StopCondition} (unset = such jobs are rejected) */
+        public Builder earlyStopping(EarlyStopping earlyStopping) {
+            this.earlyStopping = earlyStopping;
+            return this;
+        }
+
+        /** Reuses results of earlier tasks with the same artifact and parameters */
+        public Builder resultCache(ResultCache resultCache) {
+            this.resultCache = resultCache;
+            return this;
+        }
+
+        public JobService build() {
+            return new JobService(this);
+        }
+    }
 }
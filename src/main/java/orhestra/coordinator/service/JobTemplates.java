@@ -0,0 +1,52 @@
+package orhestra.coordinator.service;
+
+import orhestra.coordinator.model.JobTemplate;
+import orhestra.coordinator.repository.JobRepository;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-job payload templates, read from the {@code jobs} row on first use.
+ *
+ * A job's artifact and main class never change, so a template is cached for
+ * the life of the process: one small entry per job, never stale.
+ */
+public class JobTemplates {
+
+    private final JobRepository jobRepository;
+    private final Map<String, JobTemplate> cache = new ConcurrentHashMap<>();
+
+    public JobTemplates(JobRepository jobRepository) {
+        this.jobRepository = jobRepository;
+    }
+
+    /**
+     * Template of a job, or empty if the job does not exist.
+     */
+    public Optional<JobTemplate> get(String jobId) {
+        if (jobId == null) {
+            return Optional.empty();
+        }
+        JobTemplate cached = cache.get(jobId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<JobTemplate> loaded = jobRepository.findById(jobId).map(JobTemplate::of);
+        loaded.ifPresent(t -> cache.putIfAbsent(jobId, t));
+        return loaded;
+    }
+
+    /**
+     * Full payload of a task: the job template merged into a params-only
+     * payload. Payloads of tasks without a job, and payloads that are
+     * already complete, are returned unchanged.
+     */
+    public String expand(String jobId, String payload) {
+        if (!JobTemplate.isParamsOnly(payload)) {
+            return payload;
+        }
+        return get(jobId).map(t -> t.expand(payload)).orElse(payload);
+    }
+}
@@ -0,0 +1,354 @@
+package orhestra.coordinator.service;
+
+import orhestra.coordinator.model.Task;
+import orhestra.coordinator.model.TaskStatus;
+import orhestra.coordinator.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Combinations of lazy jobs that do not have task rows yet.
+ *
+ * A lazy job stores only its parameter spec (in {@code jobs.config}). Its
+ * task {@code i} is identified by {@code (jobId, i)} and its payload is
+ * decoded from the spec on demand. Rows are written only when a SPOT claims
+ * the combination: the claim takes the next index range of the first lazy
+ * job in the {@link SchedulingPolicy} order, inserts those rows as RUNNING for the SPOT and advances
+ * {@code jobs.materialized_tasks} in the same transaction. From then on the
+ * task is an ordinary row — retries, reaping and completion are unchanged.
+ *
+ * Combinations whose (optimizer_id, algorithm) the claiming SPOT cannot run
+ * are written as NEW and handed to the {@link TaskDispatcher} for other
+ * SPOTs; combinations with a result in the {@link ResultCache} are written
+ * as DONE.
+ *
+ * Adaptive searches ({@link SuccessiveHalving}) are served the same way:
+ * each is a {@link Source} that decides its next tasks when a SPOT claims,
+ * and learns from its tasks as they finish.
+ *
+ * A job's cursor only moves once its rows are committed, in the same
+ * transaction as {@code jobs.materialized_tasks}, so the column never runs
+ * ahead of the rows.
+ */
+public class LazyTaskSource {
+
+    private static final Logger log = LoggerFactory.getLogger(LazyTaskSource.class);
+
+    private final TaskRepository taskRepository;
+    private final TaskDispatcher dispatcher;
+    private final Map<String, Source> jobs = new ConcurrentHashMap<>();
+
+    public LazyTaskSource(TaskRepository taskRepository, TaskDispatcher dispatcher) {
+        this.taskRepository = taskRepository;
+        this.dispatcher = dispatcher;
+        if (dispatcher != null) {
+            dispatcher.addTerminalListener(this::onTerminal);
+        }
+    }
+
+    /**
+     * A job whose task rows are written as SPOTs claim them.
+     */
+    interface Source {
+        String jobId();
+
+        int priority();
+
+        Instant createdAt();
+
+        /**
+         * Tasks that could be handed out now.
+         */
+        long remaining();
+
+        /**
+         * Whether the job will never hand out another task.
+         */
+        boolean exhausted();
+
+        /**
+         * Write up to {@code limit} tasks, RUNNING for the SPOT where its
+         * capabilities allow and NEW (handed to the dispatcher) otherwise.
+         *
+         * @return tasks written as RUNNING for the SPOT
+         */
+        List<Task> materialize(String spotId, int limit, TaskDispatcher.CapabilityFilter capabilities);
+
+        /**
+         * One of the job's tasks reached a terminal state.
+         *
+         * @return true if this made new tasks available
+         */
+        default boolean onTerminal(String taskId) {
+            return false;
+        }
+    }
+
+    /**
+     * Start serving a lazy job's combinations.
+     *
+     * @param jobId       the job
+     * @param total       number of combinations
+     * @param maxAttempts max attempts for each task
+     * @param payloadAt   decodes combination {@code i} into its payload
+     */
+    public void register(String jobId, int total, int maxAttempts, IntFunction<String> payloadAt) {
+        register(jobId, total, maxAttempts, 0, payloadAt);
+    }
+
+    /**
+     * @param priority priority of the job's task rows
+     */
+    public void register(String jobId, int total, int maxAttempts, int priority, IntFunction<String> payloadAt) {
+        register(jobId, total, maxAttempts, priority, payloadAt, null);
+    }
+
+    /**
+     * @param cached cached result of a payload or null, applied to each
+     *               combination as it is written (null = no result cache)
+     */
+    public void register(String jobId, int total, int maxAttempts, int priority, IntFunction<String> payloadAt,
+            Function<String, ResultCache.Entry> cached) {
+        register(new LazyJob(jobId, total, maxAttempts, priority, payloadAt, cached, Instant.now()));
+        log.info("Lazy job {} registered with {} combinations", jobId, total);
+    }
+
+    /**
+     * Start serving a job's tasks from a source.
+     */
+    void register(Source source) {
+        jobs.put(source.jobId(), source);
+        if (dispatcher != null) {
+            dispatcher.notifier().signal();
+        }
+    }
+
+    /**
+     * The source serving a job, if it is still active.
+     */
+    Optional<Source> source(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Stop serving a job (cancelled or deleted).
+     */
+    public void remove(String jobId) {
+        jobs.remove(jobId);
+    }
+
+    /**
+     * Combinations not yet written as rows, across all lazy jobs.
+     */
+    public long pending() {
+        long pending = 0;
+        for (Source job : jobs.values()) {
+            pending += job.remaining();
+        }
+        return pending;
+    }
+
+    public boolean hasPending() {
+        for (Source job : jobs.values()) {
+            if (job.remaining() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether a job still has combinations without a task row.
+     */
+    public boolean hasPending(String jobId) {
+        Source job = jobId != null ? jobs.get(jobId) : null;
+        return job != null && job.remaining() > 0;
+    }
+
+    /**
+     * Materialise up to {@code limit} combinations for a SPOT, jobs in the
+     * dispatcher's scheduling order (oldest first without a dispatcher).
+     *
+     * @return tasks written as RUNNING for the SPOT
+     */
+    public List<Task> claim(String spotId, int limit, TaskDispatcher.CapabilityFilter capabilities) {
+        List<Source> ordered = new ArrayList<>(jobs.values());
+        Comparator<Source> oldest = Comparator.comparing(Source::createdAt);
+        SchedulingPolicy policy = dispatcher != null ? dispatcher.policy() : SchedulingPolicy.FIFO;
+        switch (policy) {
+            case FAIR_SHARE -> ordered.sort(Comparator.<Source>comparingDouble(job -> dispatcher.load(job.jobId()))
+                    .thenComparing(oldest));
+            case PRIORITY -> ordered.sort(Comparator.<Source>comparingInt(job -> -job.priority())
+                    .thenComparing(oldest));
+            default -> ordered.sort(oldest);
+        }
+
+        List<Task> claimed = new ArrayList<>();
+        for (Source job : ordered) {
+            if (claimed.size() >= limit) {
+                break;
+            }
+            if (job.remaining() > 0) {
+                claimed.addAll(job.materialize(spotId, limit - claimed.size(), capabilities));
+            }
+            if (job.exhausted()) {
+                jobs.remove(job.jobId(), job);
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * A task reached a terminal state: let its source learn from it, and
+     * wake parked claims if that made tasks available.
+     */
+    private void onTerminal(String taskId) {
+        for (Source job : jobs.values()) {
+            if (job.onTerminal(taskId) && dispatcher != null) {
+                dispatcher.notifier().signal();
+            }
+            if (job.exhausted()) {
+                jobs.remove(job.jobId(), job);
+            }
+        }
+    }
+
+    /**
+     * Task ID of combination {@code index} of a job.
+     */
+    public static String taskId(String jobId, int index) {
+        return jobId + "-" + index;
+    }
+
+    private final class LazyJob implements Source {
+        final String jobId;
+        final int total;
+        final int maxAttempts;
+        final int priority;
+        final IntFunction<String> payloadAt;
+        final Function<String, ResultCache.Entry> cached;
+        final Instant createdAt;
+        volatile int cursor;
+
+        LazyJob(String jobId, int total, int maxAttempts, int priority, IntFunction<String> payloadAt,
+                Function<String, ResultCache.Entry> cached, Instant createdAt) {
+            this.jobId = jobId;
+            this.total = total;
+            this.maxAttempts = maxAttempts;
+            this.priority = priority;
+            this.payloadAt = payloadAt;
+            this.cached = cached;
+            this.createdAt = createdAt;
+        }
+
+        @Override
+        public String jobId() {
+            return jobId;
+        }
+
+        @Override
+        public int priority() {
+            return priority;
+        }
+
+        @Override
+        public Instant createdAt() {
+            return createdAt;
+        }
+
+        @Override
+        public long remaining() {
+            return total - cursor;
+        }
+
+        @Override
+        public boolean exhausted() {
+            return cursor >= total;
+        }
+
+        /**
+         * Serialised per job so index ranges are handed out exactly once;
+         * the cursor only moves after the rows are committed.
+         *
+         * Combinations with a cached result are written as DONE and do not
+         * count against the limit: ranges are written until {@code limit}
+         * tasks are dispatched or the job is exhausted.
+         */
+        @Override
+        public synchronized List<Task> materialize(String spotId, int limit,
+                TaskDispatcher.CapabilityFilter capabilities) {
+            int first = cursor;
+            Instant now = Instant.now();
+            List<Task> mine = new ArrayList<>();
+            List<Task> others = new ArrayList<>();
+            int reused = 0;
+            while (mine.size() + others.size() < limit && cursor < total) {
+                int from = cursor;
+                int to = (int) Math.min(total, (long) from + limit - mine.size() - others.size());
+                List<Task> rows = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    String payload = payloadAt.apply(i);
+                    Task task = PayloadColumns.apply(Task.builder()
+                            .id(taskId(jobId, i))
+                            .jobId(jobId)
+                            .payload(payload)
+                            .priority(priority)
+                            .maxAttempts(maxAttempts)
+                            .createdAt(createdAt), payload)
+                            .build();
+
+                    ResultCache.Entry hit = cached != null ? cached.apply(payload) : null;
+                    if (hit != null) {
+                        task = task.toBuilder()
+                                .status(TaskStatus.DONE)
+                                .finishedAt(now)
+                                .iter(hit.iter())
+                                .fopt(hit.fopt())
+                                .result(hit.result())
+                                .build();
+                        reused++;
+                    } else if (capabilities.allows(
+                            new TaskDispatcher.BucketKey(task.optimizerId(), task.algorithm()))) {
+                        task = task.toBuilder()
+                                .status(TaskStatus.RUNNING)
+                                .assignedTo(spotId)
+                                .attempts(1)
+                                .startedAt(now)
+                                .build();
+                        mine.add(task);
+                    } else {
+                        task = task.toBuilder().status(TaskStatus.NEW).build();
+                        others.add(task);
+                    }
+                    rows.add(task);
+                }
+
+                taskRepository.insertMaterialized(jobId, to, rows);
+                cursor = to;
+            }
+            if (cursor == first) {
+                return List.of();
+            }
+
+            if (dispatcher != null) {
+                dispatcher.recordClaimed(mine);
+                if (!others.isEmpty()) {
+                    dispatcher.offerTasks(others);
+                }
+            }
+            log.debug("Lazy job {}: materialised [{}, {}) for spot {} ({} handed to other spots, {} cached)",
+                    jobId, first, cursor, spotId, others.size(), reused);
+            return mine;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package orhestra.coordinator.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import orhestra.coordinator.model.Task;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Copies the well-known parameters of a job payload into the first-class
+ * task columns (algorithm, optimizer_id, function, input_*), so capability
+ * matching and result views do not have to parse the payload CLOB.
+ *
+ * Generated payloads carry {@code "params": {"group.paramId": value}}; a
+ * parameter is recognised by its paramId, whatever group it is in. Top-level
+ * keys of legacy flat payloads are matched the same way.
+ */
+public final class PayloadColumns {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private PayloadColumns() {
+    }
+
+    /**
+     * Fill the task columns from a payload. Malformed payloads leave the
+     * builder untouched.
+     */
+    public static Task.Builder apply(Task.Builder builder, String payload) {
+        if (payload == null || payload.isBlank()) {
+            return builder;
+        }
+        try {
+            JsonNode root = MAPPER.readTree(payload);
+            if (root == null || !root.isObject()) {
+                return builder;
+            }
+            applyFields(builder, root);
+            JsonNode params = root.path("params");
+            if (params.isObject()) {
+                applyFields(builder, params);
+            }
+        } catch (Exception ignored) {
+            // Not JSON — columns stay null
+        }
+        return builder;
+    }
+
+    private static void applyFields(Task.Builder builder, JsonNode node) {
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode value = field.getValue();
+            String key = field.getKey();
+            String paramId = key.substring(key.lastIndexOf('.') + 1);
+
+            switch (paramId) {
+                case "algorithm", "alg" -> {
+                    if (value.isValueNode() && !value.isNull())
+                        builder.algorithm(value.asText());
+                }
+                case "optimizerId", "optimizer" -> {
+                    if (value.isValueNode() && !value.isNull())
+                        builder.optimizerId(value.asText());
+                }
+                case "function" -> {
+                    if (value.isValueNode() && !value.isNull())
+                        builder.function(value.asText());
+                }
+                case "iterations" -> {
+                    Integer v = intValue(value.isObject() ? value.path("max") : value);
+                    if (v != null)
+                        builder.inputIterations(v);
+                }
+                case "agents" -> {
+                    Integer v = intValue(value);
+                    if (v != null)
+                        builder.inputAgents(v);
+                }
+                case "dimension" -> {
+                    Integer v = intValue(value);
+                    if (v != null)
+                        builder.inputDimension(v);
+                }
+                default -> {
+                }
+            }
+        }
+    }
+
+    private static Integer intValue(JsonNode value) {
+        return value.isNumber() ? value.asInt() : null;
+    }
+}
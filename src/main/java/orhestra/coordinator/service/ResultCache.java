@@ -0,0 +1,252 @@
+package orhestra.coordinator.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import orhestra.coordinator.config.CoordinatorConfig;
+import orhestra.coordinator.model.ArtifactRef;
+import orhestra.coordinator.model.Task;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Results of finished tasks, reused by later jobs that run the same
+ * artifact with the same parameters.
+ *
+ * An entry is keyed by the SHA-256 of the artifact (endpoint, bucket, key),
+ * the main class and the task's {@code params} in canonical form: keys
+ * sorted at every level and numbers compared by value, so {@code 2},
+ * {@code 2.0} and {@code 2.00} are the same parameter. A job's tasks are
+ * looked up when they are written (see {@link JobService}, lazy jobs in
+ * {@link LazyTaskSource}); hits are written as DONE with the stored
+ * {@code iter}, {@code fopt} and {@code result} and never dispatched.
+ * Completed tasks of participating jobs add their results under the key
+ * taken when they were claimed (see {@link TaskDispatcher}).
+ *
+ * Only jobs registered with {@link #register} take part: jobs whose
+ * algorithm is nondeterministic opt out and neither read nor add results.
+ *
+ * Eviction is least-recently-used, bounded by {@code resultCacheEntries}
+ * and by {@code resultCacheBytes} of stored results. An entry is a copy of a
+ * DONE row, so losing one only costs a rerun of that combination.
+ */
+public class ResultCache {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Bookkeeping per entry on top of the result text */
+    private static final int ENTRY_OVERHEAD = 160;
+
+    /**
+     * A stored result.
+     */
+    public record Entry(Integer iter, Double fopt, String result) {
+        long bytes() {
+            return ENTRY_OVERHEAD + (result != null ? 2L * result.length() : 0);
+        }
+    }
+
+    /**
+     * Cache counters for monitoring.
+     */
+    public record Stats(int entries, long bytes, long hits, long misses, long evictions) {}
+
+    private final int maxEntries;
+    private final long maxBytes;
+    // Access order: the eldest entry is the least recently used
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(1024, 0.75f, true);
+    // Participating jobs -> canonical artifact and main class
+    private final Map<String, String> scopes = new ConcurrentHashMap<>();
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ResultCache(CoordinatorConfig config) {
+        this(config.resultCacheEntries(), config.resultCacheBytes());
+    }
+
+    public ResultCache(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    public boolean enabled() {
+        return maxEntries > 0 && maxBytes > 0;
+    }
+
+    /**
+     * Let a job's tasks read and add cached results.
+     */
+    public void register(String jobId, ArtifactRef artifact, String mainClass) {
+        if (enabled()) {
+            scopes.put(jobId, scope(artifact, mainClass));
+        }
+    }
+
+    /**
+     * Whether a job takes part in the cache.
+     */
+    public boolean uses(String jobId) {
+        return jobId != null && scopes.containsKey(jobId);
+    }
+
+    /**
+     * Forget a job that was deleted. Its results stay cached.
+     */
+    public void remove(String jobId) {
+        scopes.remove(jobId);
+    }
+
+    /**
+     * Lookup function for a job's payloads, returning the cached result or
+     * null; null if the job does not take part.
+     */
+    public Function<String, Entry> lookup(String jobId) {
+        String scope = jobId != null ? scopes.get(jobId) : null;
+        if (scope == null) {
+            return null;
+        }
+        return payload -> get(scope, payload);
+    }
+
+    /**
+     * Cache key of a task, or null if its job does not take part. Computed
+     * when the task is claimed, so its completion can be stored without
+     * reading the payload back.
+     */
+    public String keyOf(Task task) {
+        String scope = task.jobId() != null ? scopes.get(task.jobId()) : null;
+        return scope != null && task.payload() != null ? key(scope, task.payload()) : null;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(entries.size(), bytes, hits, misses, evictions);
+    }
+
+    private Entry get(String scope, String payload) {
+        synchronized (this) {
+            // Nothing to find: skip hashing the payload
+            if (entries.isEmpty()) {
+                misses++;
+                return null;
+            }
+        }
+        return get(key(scope, payload));
+    }
+
+    synchronized Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return entry;
+    }
+
+    synchronized void put(String key, Entry entry) {
+        if (entry.bytes() > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            bytes -= previous.bytes();
+        }
+        bytes += entry.bytes();
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries || bytes > maxBytes) {
+            bytes -= eldest.next().bytes();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Canonical text of an artifact and main class.
+     */
+    static String scope(ArtifactRef artifact, String mainClass) {
+        return String.join("\n",
+                nullToEmpty(artifact.endpoint()),
+                nullToEmpty(artifact.bucket()),
+                nullToEmpty(artifact.key()),
+                nullToEmpty(mainClass));
+    }
+
+    /**
+     * Cache key of a payload run under a scope: hex SHA-256 of the scope and
+     * the canonical {@code params}.
+     */
+    static String key(String scope, String payload) {
+        StringBuilder text = new StringBuilder(scope.length() + payload.length() + 16).append(scope).append('\n');
+        try {
+            JsonNode root = MAPPER.readTree(payload);
+            JsonNode params = root.get("params");
+            canonical(params != null ? params : root, text);
+        } catch (IOException e) {
+            // Not JSON: the payload text is its own canonical form
+            text.append(payload);
+        }
+
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            byte[] digest = sha.digest(text.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void canonical(JsonNode node, StringBuilder out) {
+        if (node.isObject()) {
+            List<String> names = new ArrayList<>();
+            node.fieldNames().forEachRemaining(names::add);
+            Collections.sort(names);
+            out.append('{');
+            for (int i = 0; i < names.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                out.append(quote(names.get(i))).append(':');
+                canonical(node.get(names.get(i)), out);
+            }
+            out.append('}');
+        } else if (node.isArray()) {
+            out.append('[');
+            for (int i = 0; i < node.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                canonical(node.get(i), out);
+            }
+            out.append(']');
+        } else if (node.isNumber() && !(node.isFloatingPointNumber() && !Double.isFinite(node.doubleValue()))) {
+            out.append(node.decimalValue().stripTrailingZeros().toPlainString());
+        } else {
+            out.append(node.toString());
+        }
+    }
+
+    private static String quote(String s) {
+        return MAPPER.getNodeFactory().textNode(s).toString();
+    }
+
+    private static String nullToEmpty(String s) {
+        return s != null ? s : "";
+    }
+}
@@ -0,0 +1,296 @@
+package orhestra.coordinator.service;
+
+import orhestra.coordinator.model.TaskQueueEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runtime predictions for tasks, learned from completed {@code runtime_ms}.
+ *
+ * A task's runtime is estimated from, in order:
+ * - the mean runtime of completed tasks with the same (algorithm, function,
+ *   dimension, iterations, agents)
+ * - the mean cost per work unit (iterations × agents × dimension) of its
+ *   (algorithm, function), times its work units
+ * - the mean cost per work unit over all tasks
+ * - its work units alone (1 ms per unit), which still ranks tasks by size
+ *
+ * Means are running means that turn into an exponential moving average after
+ * {@code 1 / ALPHA} samples, so the model follows drifting SPOT hardware.
+ *
+ * Each completion is first compared with the prediction the model would have
+ * made for it; the absolute percentage error is kept per key and overall.
+ * Its ratio actual / predicted also feeds the SPOT's speed factor: a SPOT
+ * whose factor is well above the fleet median is {@link #isSlow slow}.
+ */
+public class RuntimeModel {
+
+    /** Weight of a new sample once a mean has seen 1 / ALPHA samples */
+    static final double ALPHA = 0.05;
+
+    /** Weight of a new sample in a SPOT's speed factor */
+    static final double SPEED_ALPHA = 0.2;
+
+    /** Predictions a SPOT needs before its speed factor is used */
+    static final int MIN_SPOT_SAMPLES = 3;
+
+    /** A SPOT is slow when its speed factor exceeds the median by this much */
+    static final double SLOW_FACTOR = 1.25;
+
+    /** Median speed factor is recomputed at most this often */
+    private static final long MEDIAN_REFRESH_MS = 1_000;
+
+    private final ConcurrentHashMap<RuntimeKey, KeyStats> byKey = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Mean> costByFamily = new ConcurrentHashMap<>();
+    private final Mean globalCost = new Mean();
+    private final ErrorMean globalError = new ErrorMean();
+    private final ConcurrentHashMap<String, SpotSpeed> spots = new ConcurrentHashMap<>();
+
+    private volatile double medianSpeed = 1.0;
+    private volatile long medianAtMs;
+
+    /**
+     * The features runtime is learned for.
+     */
+    public record RuntimeKey(String algorithm, String function, Integer dimension, Integer iterations,
+            Integer agents) {
+
+        public static RuntimeKey of(TaskQueueEntry entry) {
+            return new RuntimeKey(entry.algorithm(), entry.function(), entry.dimension(), entry.iterations(),
+                    entry.agents());
+        }
+
+        /** iterations × agents × dimension; missing factors count as 1 */
+        double workUnits() {
+            return (double) positive(iterations) * positive(agents) * positive(dimension);
+        }
+
+        String family() {
+            return algorithm + "/" + function;
+        }
+
+        private static int positive(Integer value) {
+            return value != null && value > 0 ? value : 1;
+        }
+    }
+
+    /**
+     * Predicted runtime of a task in milliseconds.
+     */
+    public long estimateMs(TaskQueueEntry entry) {
+        RuntimeKey key = RuntimeKey.of(entry);
+        double learned = predict(key);
+        return Math.round(Double.isNaN(learned) ? key.workUnits() : learned);
+    }
+
+    /**
+     * Predicted runtime of a task learned from completions, or -1 while
+     * nothing applies (unlike {@link #estimateMs}, no work-unit fallback).
+     */
+    public long expectedMs(TaskQueueEntry entry) {
+        double learned = predict(RuntimeKey.of(entry));
+        return Double.isNaN(learned) ? -1 : Math.round(learned);
+    }
+
+    /**
+     * Learn from a completed task.
+     *
+     * @param spotId SPOT that ran it, or null
+     */
+    public void observe(TaskQueueEntry entry, String spotId, long runtimeMs) {
+        if (runtimeMs <= 0) {
+            return;
+        }
+        RuntimeKey key = RuntimeKey.of(entry);
+        double predicted = predict(key);
+        if (!Double.isNaN(predicted) && predicted > 0) {
+            double error = Math.abs(predicted - runtimeMs) / runtimeMs;
+            globalError.add(error);
+            if (spotId != null) {
+                spots.computeIfAbsent(spotId, k -> new SpotSpeed()).add(runtimeMs / predicted);
+            }
+            byKey.computeIfAbsent(key, k -> new KeyStats()).observe(runtimeMs, Math.round(predicted), error);
+        } else {
+            byKey.computeIfAbsent(key, k -> new KeyStats()).observe(runtimeMs, -1, Double.NaN);
+        }
+
+        double cost = runtimeMs / key.workUnits();
+        costByFamily.computeIfAbsent(key.family(), k -> new Mean()).add(cost);
+        globalCost.add(cost);
+    }
+
+    /**
+     * Learned runtime, or NaN if nothing applies yet.
+     */
+    private double predict(RuntimeKey key) {
+        KeyStats exact = byKey.get(key);
+        if (exact != null && exact.runtime.count() > 0) {
+            return exact.runtime.value();
+        }
+        Mean family = costByFamily.get(key.family());
+        if (family != null && family.count() > 0) {
+            return family.value() * key.workUnits();
+        }
+        if (globalCost.count() > 0) {
+            return globalCost.value() * key.workUnits();
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * A SPOT's actual / predicted runtime ratio (1.0 until known).
+     */
+    public double speedFactor(String spotId) {
+        SpotSpeed speed = spots.get(spotId);
+        return speed != null && speed.samples >= MIN_SPOT_SAMPLES ? speed.factor : 1.0;
+    }
+
+    /**
+     * Whether a SPOT runs markedly slower than the fleet median; such SPOTs
+     * should get the shortest tasks.
+     */
+    public boolean isSlow(String spotId) {
+        SpotSpeed speed = spots.get(spotId);
+        if (speed == null || speed.samples < MIN_SPOT_SAMPLES) {
+            return false;
+        }
+        return speed.factor > medianSpeed(System.currentTimeMillis()) * SLOW_FACTOR;
+    }
+
+    /**
+     * Forget a SPOT that left the fleet.
+     */
+    public void forgetSpot(String spotId) {
+        spots.remove(spotId);
+    }
+
+    private double medianSpeed(long nowMs) {
+        if (nowMs - medianAtMs >= MEDIAN_REFRESH_MS) {
+            double[] factors = spots.values().stream()
+                    .filter(s -> s.samples >= MIN_SPOT_SAMPLES)
+                    .mapToDouble(s -> s.factor)
+                    .toArray();
+            if (factors.length > 0) {
+                Arrays.sort(factors);
+                medianSpeed = factors[factors.length / 2];
+            }
+            medianAtMs = nowMs;
+        }
+        return medianSpeed;
+    }
+
+    /**
+     * Estimates, errors and SPOT speed factors.
+     */
+    public Snapshot snapshot() {
+        List<KeySnapshot> keys = new ArrayList<>(byKey.size());
+        byKey.forEach((key, stats) -> keys.add(stats.snapshot(key)));
+        keys.sort(Comparator.comparingLong(KeySnapshot::samples).reversed());
+
+        Map<String, Double> speeds = new TreeMap<>();
+        spots.forEach((spotId, speed) -> {
+            if (speed.samples >= MIN_SPOT_SAMPLES) {
+                speeds.put(spotId, speed.factor);
+            }
+        });
+        return new Snapshot(globalError.count(), globalError.mean(), keys, speeds);
+    }
+
+    /**
+     * @param predictions     completions that had a prediction to compare with
+     * @param meanAbsPctError mean |predicted - actual| / actual over them
+     * @param spotSpeed       actual / predicted runtime per SPOT (1 = as
+     *                        predicted, 2 = twice as slow)
+     */
+    public record Snapshot(long predictions, double meanAbsPctError, List<KeySnapshot> keys,
+            Map<String, Double> spotSpeed) {
+    }
+
+    /**
+     * @param estimateMs      current prediction for the key
+     * @param lastPredictedMs prediction made for the latest completion (-1 if none)
+     * @param lastActualMs    runtime of the latest completion
+     * @param meanAbsPctError mean |predicted - actual| / actual for the key
+     */
+    public record KeySnapshot(String algorithm, String function, Integer dimension, Integer iterations,
+            Integer agents, long samples, long estimateMs, long lastPredictedMs, long lastActualMs,
+            double meanAbsPctError) {
+    }
+
+    private static final class KeyStats {
+        final Mean runtime = new Mean();
+        final ErrorMean error = new ErrorMean();
+        volatile long lastPredictedMs = -1;
+        volatile long lastActualMs;
+
+        void observe(long runtimeMs, long predictedMs, double relativeError) {
+            runtime.add(runtimeMs);
+            if (!Double.isNaN(relativeError)) {
+                error.add(relativeError);
+            }
+            lastPredictedMs = predictedMs;
+            lastActualMs = runtimeMs;
+        }
+
+        KeySnapshot snapshot(RuntimeKey key) {
+            return new KeySnapshot(key.algorithm(), key.function(), key.dimension(), key.iterations(),
+                    key.agents(), runtime.count(), Math.round(runtime.value()), lastPredictedMs, lastActualMs,
+                    error.mean());
+        }
+    }
+
+    /**
+     * Running mean that becomes an EWMA after 1 / ALPHA samples.
+     */
+    private static final class Mean {
+        private long count;
+        private double value;
+
+        synchronized void add(double sample) {
+            count++;
+            value += (sample - value) * Math.max(ALPHA, 1.0 / count);
+        }
+
+        synchronized long count() {
+            return count;
+        }
+
+        synchronized double value() {
+            return value;
+        }
+    }
+
+    private static final class ErrorMean {
+        private long count;
+        private double sum;
+
+        synchronized void add(double relativeError) {
+            count++;
+            sum += relativeError;
+        }
+
+        synchronized long count() {
+            return count;
+        }
+
+        synchronized double mean() {
+            return count > 0 ? sum / count : 0;
+        }
+    }
+
+    private static final class SpotSpeed {
+        volatile double factor = 1.0;
+        volatile int samples;
+
+        synchronized void add(double ratio) {
+            samples++;
+            factor = samples == 1 ? ratio : factor + (ratio - factor) * SPEED_ALPHA;
+        }
+    }
+}
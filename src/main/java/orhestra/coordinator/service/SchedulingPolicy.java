@@ -0,0 +1,38 @@
+package orhestra.coordinator.service;
+
+import java.util.Locale;
+
+/**
+ * How the {@link TaskDispatcher} orders queued tasks of different jobs.
+ *
+ * Within one job tasks are always claimed in priority and submission
+ * order; the policy only decides which job's next task a claim takes.
+ */
+public enum SchedulingPolicy {
+
+    /** Oldest task first, whatever its job (strict submission order) */
+    FIFO,
+
+    /**
+     * Job with the fewest RUNNING tasks per unit of weight first, so every
+     * job with queued work converges to {@code weight / sum(weights)} of the
+     * SPOT slots. A job above its share only gets slots that no other job
+     * can use.
+     */
+    FAIR_SHARE,
+
+    /** Highest job priority first, then submission order */
+    PRIORITY;
+
+    /**
+     * Parse a policy name ({@code fifo}, {@code fair_share}/{@code fair},
+     * {@code priority}), case-insensitively.
+     */
+    public static SchedulingPolicy parse(String value) {
+        String name = value.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+        if (name.equals("FAIR")) {
+            return FAIR_SHARE;
+        }
+        return valueOf(name);
+    }
+}
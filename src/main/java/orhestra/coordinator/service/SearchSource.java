@@ -0,0 +1,133 @@
+package orhestra.coordinator.service;
+
+import orhestra.coordinator.model.Task;
+import orhestra.coordinator.model.TaskStatus;
+import orhestra.coordinator.repository.JobRepository;
+import orhestra.coordinator.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An adaptive search job served through {@link LazyTaskSource}: it decides
+ * its trials as SPOTs claim and learns from them as they finish.
+ *
+ * Trials are written as ordinary task rows, each adding one to the job's
+ * {@code total_tasks}. The job is created with a total of 1 so the task
+ * counters never finish it while trials may still follow; the search
+ * closes it with {@link #finish()} once it is done.
+ */
+abstract class SearchSource implements LazyTaskSource.Source {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchSource.class);
+
+    protected final String jobId;
+    protected final int priority;
+    protected final int maxAttempts;
+    protected final Instant createdAt;
+    protected final JobRepository jobRepository;
+    protected final TaskRepository taskRepository;
+    protected final TaskDispatcher dispatcher;
+
+    SearchSource(String jobId, int priority, int maxAttempts, JobRepository jobRepository,
+            TaskRepository taskRepository, TaskDispatcher dispatcher) {
+        this.jobId = jobId;
+        this.priority = priority;
+        this.maxAttempts = maxAttempts;
+        this.createdAt = Instant.now();
+        this.jobRepository = jobRepository;
+        this.taskRepository = taskRepository;
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    public String jobId() {
+        return jobId;
+    }
+
+    @Override
+    public int priority() {
+        return priority;
+    }
+
+    @Override
+    public Instant createdAt() {
+        return createdAt;
+    }
+
+    /**
+     * Write trial rows, RUNNING for the SPOT where its capabilities allow
+     * and NEW (handed to the dispatcher) otherwise. Throws if the rows
+     * could not be written; the caller then undoes its choices.
+     *
+     * @param payloads task id -> payload, in claim order
+     * @return trials written as RUNNING for the SPOT
+     */
+    protected List<Task> write(String spotId, TaskDispatcher.CapabilityFilter capabilities,
+            Map<String, String> payloads) {
+        Instant now = Instant.now();
+        List<Task> rows = new ArrayList<>(payloads.size());
+        List<Task> mine = new ArrayList<>(payloads.size());
+        List<Task> others = new ArrayList<>();
+        for (Map.Entry<String, String> trial : payloads.entrySet()) {
+            Task task = PayloadColumns.apply(Task.builder()
+                    .id(trial.getKey())
+                    .jobId(jobId)
+                    .payload(trial.getValue())
+                    .priority(priority)
+                    .maxAttempts(maxAttempts)
+                    .createdAt(now), trial.getValue())
+                    .build();
+
+            if (capabilities.allows(new TaskDispatcher.BucketKey(task.optimizerId(), task.algorithm()))) {
+                task = task.toBuilder()
+                        .status(TaskStatus.RUNNING)
+                        .assignedTo(spotId)
+                        .attempts(1)
+                        .startedAt(now)
+                        .build();
+                mine.add(task);
+            } else {
+                task = task.toBuilder().status(TaskStatus.NEW).build();
+                others.add(task);
+            }
+            rows.add(task);
+        }
+
+        taskRepository.insertGenerated(jobId, rows);
+
+        if (dispatcher != null) {
+            dispatcher.recordClaimed(mine);
+            if (!others.isEmpty()) {
+                dispatcher.offerTasks(others);
+            }
+        }
+        log.debug("Search {}: started {} trials for spot {} ({} handed to other spots)",
+                jobId, rows.size(), spotId, others.size());
+        return mine;
+    }
+
+    /**
+     * Result of a finished trial: its {@code fopt}, or +infinity if it
+     * failed, was cancelled or reported none, so it ranks last.
+     */
+    protected double fopt(String taskId) {
+        Task task = taskRepository.findById(taskId).orElse(null);
+        return task != null && task.status() == TaskStatus.DONE && task.fopt() != null
+                ? task.fopt()
+                : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Close the job: its total becomes the trials that finished.
+     *
+     * @return true if this call closed it
+     */
+    protected boolean finish() {
+        return jobRepository.finishOpenEnded(jobId);
+    }
+}
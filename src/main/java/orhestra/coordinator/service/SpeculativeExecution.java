@@ -0,0 +1,350 @@
+package orhestra.coordinator.service;
+
+import orhestra.coordinator.config.CoordinatorConfig;
+import orhestra.coordinator.model.Task;
+import orhestra.coordinator.model.TaskQueueEntry;
+import orhestra.coordinator.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+
+/**
+ * Speculative copies of straggling tasks at the tail of a job.
+ *
+ * A SPOT whose claim finds nothing queued gets a copy of a RUNNING task
+ * instead, if the task's job has nothing left to hand out and the task has
+ * run {@code speculationFactor} times its predicted runtime (see
+ * {@link TaskDispatcher#stragglers}). The original stays {@code assigned_to}
+ * its SPOT; the copy is recorded in {@code task_replicas}.
+ *
+ * Whichever copy finishes first wins. A copy that reports completion first
+ * {@link #adopt adopts} the task (becomes {@code assigned_to}), so the
+ * completion itself goes through the normal idempotent path and a late
+ * report from the other SPOT gets {@code ALREADY_DONE}. When a task leaves
+ * RUNNING, every other SPOT still holding it is told to cancel it in its
+ * next heartbeat response.
+ *
+ * If the original's SPOT dies or its lease expires while a copy runs, the
+ * copy is promoted instead of the task being reset to NEW.
+ */
+public class SpeculativeExecution {
+
+    private static final Logger log = LoggerFactory.getLogger(SpeculativeExecution.class);
+
+    private final TaskRepository taskRepository;
+    private final TaskDispatcher dispatcher;
+    private final LazyTaskSource lazyTasks;
+    private final TaskLeases leases;
+    private final TaskCancels cancels;
+    private final CoordinatorConfig config;
+
+    private final ConcurrentHashMap<String, Copies> copies = new ConcurrentHashMap<>();
+
+    public SpeculativeExecution(TaskRepository taskRepository, TaskDispatcher dispatcher,
+            LazyTaskSource lazyTasks, TaskLeases leases, CoordinatorConfig config) {
+        this(taskRepository, dispatcher, lazyTasks, leases, new TaskCancels(), config);
+    }
+
+    /**
+     * @param cancels where losing copies are queued for their SPOTs
+     */
+    public SpeculativeExecution(TaskRepository taskRepository, TaskDispatcher dispatcher,
+            LazyTaskSource lazyTasks, TaskLeases leases, TaskCancels cancels, CoordinatorConfig config) {
+        this.taskRepository = taskRepository;
+        this.dispatcher = dispatcher;
+        this.lazyTasks = lazyTasks;
+        this.leases = leases;
+        this.cancels = cancels;
+        this.config = config;
+    }
+
+    /**
+     * SPOTs holding a task besides {@code assigned_to}.
+     */
+    private static final class Copies {
+        final TaskQueueEntry entry;
+        String primary;
+        // SPOTs with a task_replicas row
+        final Set<String> replicas = new HashSet<>();
+        // Former primaries whose copy was adopted by another SPOT
+        final Set<String> demoted = new HashSet<>();
+
+        Copies(TaskQueueEntry entry, String primary) {
+            this.entry = entry;
+            this.primary = primary;
+        }
+    }
+
+    public boolean enabled() {
+        return config.speculationFactor() > 0 && config.speculativeCopies() > 0;
+    }
+
+    /**
+     * Give an idle SPOT copies of up to {@code maxTasks} stragglers.
+     *
+     * @return the copied tasks, with payload
+     */
+    public List<Task> claim(String spotId, int maxTasks, TaskDispatcher.CapabilityFilter capabilities) {
+        return claim(spotId, () -> maxTasks, capabilities);
+    }
+
+    /**
+     * Give an idle SPOT copies of stragglers, up to a limit that is only
+     * computed once there are stragglers to copy.
+     *
+     * @return the copied tasks, with payload
+     */
+    public List<Task> claim(String spotId, IntSupplier limit, TaskDispatcher.CapabilityFilter capabilities) {
+        if (!enabled()) {
+            return List.of();
+        }
+        List<TaskDispatcher.Straggler> stragglers = dispatcher.stragglers(spotId, capabilities,
+                System.currentTimeMillis(), config.speculationFactor(), config.speculationMinRuntime().toMillis());
+        if (stragglers.isEmpty()) {
+            return List.of();
+        }
+        int maxTasks = limit.getAsInt();
+        if (maxTasks <= 0) {
+            return List.of();
+        }
+
+        // Reserve the copies first so concurrent claims stay within the limit
+        Map<String, TaskDispatcher.Straggler> chosen = new HashMap<>();
+        for (TaskDispatcher.Straggler s : stragglers) {
+            if (chosen.size() >= maxTasks) {
+                break;
+            }
+            String taskId = s.entry().id();
+            if (lazyTasks != null && lazyTasks.hasPending(s.entry().jobId())) {
+                continue;
+            }
+            Copies c = copies.computeIfAbsent(taskId, k -> new Copies(s.entry(), s.spotId()));
+            synchronized (c) {
+                if (c.replicas.size() < config.speculativeCopies() && !c.replicas.contains(spotId)
+                        && !spotId.equals(c.primary) && !c.demoted.contains(spotId)) {
+                    c.replicas.add(spotId);
+                    chosen.put(taskId, s);
+                } else if (c.replicas.isEmpty() && c.demoted.isEmpty()) {
+                    copies.remove(taskId, c);
+                }
+            }
+        }
+        if (chosen.isEmpty()) {
+            return List.of();
+        }
+
+        List<Task> copied;
+        try {
+            copied = taskRepository.claimReplicas(spotId, List.copyOf(chosen.keySet()));
+        } catch (RuntimeException e) {
+            chosen.keySet().forEach(taskId -> unreserve(taskId, spotId));
+            throw e;
+        }
+
+        Set<String> won = new HashSet<>();
+        for (Task task : copied) {
+            won.add(task.id());
+            Copies c = copies.get(task.id());
+            if (c != null) {
+                synchronized (c) {
+                    c.primary = task.assignedTo();
+                }
+            }
+        }
+        for (String taskId : chosen.keySet()) {
+            if (!won.contains(taskId)) {
+                unreserve(taskId, spotId); // finished or moved meanwhile
+            }
+        }
+        if (!copied.isEmpty()) {
+            log.info("Spot {} got speculative copies of {} stragglers: {}", spotId, copied.size(), won);
+        }
+        return copied;
+    }
+
+    /**
+     * Whether a SPOT runs a speculative copy of the task (not the original).
+     */
+    public boolean isCopy(String taskId, String spotId) {
+        Copies c = copies.get(taskId);
+        if (c == null) {
+            return false;
+        }
+        synchronized (c) {
+            return c.replicas.contains(spotId);
+        }
+    }
+
+    /**
+     * A SPOT holding a copy reports an outcome first: make it the task's
+     * owner, so the outcome is applied through the normal path.
+     *
+     * @return true if the SPOT now owns the task
+     */
+    public boolean adopt(String taskId, String spotId) {
+        return isCopy(taskId, spotId) && promote(taskId, spotId);
+    }
+
+    /**
+     * A copy failed: drop it and let the original carry on.
+     *
+     * @return true if the SPOT held a copy
+     */
+    public boolean dropCopy(String taskId, String spotId) {
+        if (!forget(taskId, spotId)) {
+            return false;
+        }
+        log.info("Speculative copy of task {} failed on spot {}; the original continues", taskId, spotId);
+        return true;
+    }
+
+    /**
+     * A task left RUNNING (finished, failed or requeued): tell every SPOT
+     * still holding a copy to cancel it.
+     */
+    public void release(String taskId) {
+        Copies c = copies.remove(taskId);
+        if (c == null) {
+            return;
+        }
+        Set<String> losers;
+        boolean replicaRows;
+        synchronized (c) {
+            losers = new HashSet<>(c.replicas);
+            losers.addAll(c.demoted);
+            losers.remove(c.primary);
+            replicaRows = !c.replicas.isEmpty();
+        }
+        if (replicaRows) {
+            taskRepository.dropReplicas(taskId, null);
+        }
+        for (String spotId : losers) {
+            cancels.cancel(spotId, taskId);
+        }
+        if (!losers.isEmpty()) {
+            log.info("Task {} finished on spot {}; cancelling it on {}", taskId, c.primary, losers);
+        }
+    }
+
+    /**
+     * The original's lease expired: hand the task to a copy if one runs.
+     *
+     * @return true if a copy took over (the task must not be reaped)
+     */
+    public boolean takeOver(String taskId, String spotId) {
+        Copies c = copies.get(taskId);
+        if (c == null) {
+            return false;
+        }
+        String copy;
+        synchronized (c) {
+            if (!spotId.equals(c.primary) || c.replicas.isEmpty()) {
+                return false;
+            }
+            copy = c.replicas.iterator().next();
+        }
+        if (!promote(taskId, copy)) {
+            return false;
+        }
+        if (leases != null) {
+            leases.grant(copy, c.entry);
+        }
+        log.info("Task {} lost its original on spot {}; its copy on spot {} took over", taskId, spotId, copy);
+        return true;
+    }
+
+    /**
+     * A SPOT is gone: promote copies of the tasks it ran and forget the
+     * copies it held. Call before its tasks are freed.
+     *
+     * @return number of tasks taken over by a copy
+     */
+    public int onSpotLost(String spotId) {
+        cancels.forgetSpot(spotId);
+        int promoted = 0;
+        for (String taskId : List.copyOf(copies.keySet())) {
+            if (takeOver(taskId, spotId)) {
+                promoted++;
+            }
+            forget(taskId, spotId);
+        }
+        return promoted;
+    }
+
+    /**
+     * Tasks a SPOT should stop running because another copy won; each is
+     * returned once.
+     */
+    public List<String> drainCancels(String spotId) {
+        return cancels.drain(spotId);
+    }
+
+    /**
+     * Number of tasks with a speculative copy.
+     */
+    public int size() {
+        return copies.size();
+    }
+
+    private boolean promote(String taskId, String spotId) {
+        if (!taskRepository.promoteReplica(taskId, spotId)) {
+            return false;
+        }
+        Copies c = copies.get(taskId);
+        if (c != null) {
+            synchronized (c) {
+                c.replicas.remove(spotId);
+                if (c.primary != null) {
+                    c.demoted.add(c.primary);
+                }
+                c.primary = spotId;
+            }
+        }
+        dispatcher.reassign(taskId, spotId);
+        return true;
+    }
+
+    /**
+     * Drop a SPOT's copy of a task (and its row).
+     *
+     * @return true if the SPOT held a copy
+     */
+    private boolean forget(String taskId, String spotId) {
+        Copies c = copies.get(taskId);
+        if (c == null) {
+            return false;
+        }
+        boolean held;
+        synchronized (c) {
+            held = c.replicas.remove(spotId);
+            c.demoted.remove(spotId);
+            if (c.replicas.isEmpty() && c.demoted.isEmpty()) {
+                copies.remove(taskId, c);
+            }
+        }
+        if (held) {
+            taskRepository.dropReplicas(taskId, spotId);
+        }
+        return held;
+    }
+
+    private void unreserve(String taskId, String spotId) {
+        Copies c = copies.get(taskId);
+        if (c == null) {
+            return;
+        }
+        synchronized (c) {
+            c.replicas.remove(spotId);
+            if (c.replicas.isEmpty() && c.demoted.isEmpty()) {
+                copies.remove(taskId, c);
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package orhestra.coordinator.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel of SPOT heartbeat deadlines.
+ *
+ * A deadline lands in slot {@code tick % slots}; each {@link #advance} walks
+ * only the slots whose ticks have passed, so finding the expired SPOTs costs
+ * O(elapsed ticks + due entries), not O(SPOTs). Deadlines further away than
+ * one revolution simply stay in their slot until their tick comes round.
+ *
+ * Rescheduling a SPOT leaves its old entry in place; the entry is skipped
+ * when it comes due because it no longer matches the SPOT's deadline. In
+ * practice SPOTs are not rescheduled per heartbeat: {@link SpotService}
+ * re-arms a due SPOT from its latest heartbeat, so each SPOT has a single
+ * entry and heartbeats never touch the wheel.
+ *
+ * Not thread-safe on its own; callers synchronise.
+ */
+public class SpotExpiryWheel {
+
+    private record Entry(String spotId, long tick) {
+    }
+
+    private final long tickMs;
+    private final List<ArrayDeque<Entry>> slots;
+    private final Map<String, Long> deadlines = new HashMap<>();
+
+    /** Last tick that has been processed */
+    private long currentTick;
+
+    /**
+     * @param tickMs  resolution; an expiry fires at most one tick late
+     * @param slots   number of slots (one revolution = tickMs * slots)
+     * @param startMs time the wheel starts at (epoch millis)
+     */
+    public SpotExpiryWheel(long tickMs, int slots, long startMs) {
+        if (tickMs <= 0 || slots <= 0) {
+            throw new IllegalArgumentException("tickMs and slots must be positive");
+        }
+        this.tickMs = tickMs;
+        this.slots = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            this.slots.add(new ArrayDeque<>());
+        }
+        this.currentTick = startMs / tickMs;
+    }
+
+    /**
+     * Set (or move) a SPOT's deadline.
+     */
+    public void schedule(String spotId, long deadlineMs) {
+        // Round up so a SPOT never expires before its deadline
+        long tick = Math.max(Math.floorDiv(deadlineMs + tickMs - 1, tickMs), currentTick + 1);
+        Long previous = deadlines.put(spotId, tick);
+        if (previous == null || previous != tick) {
+            slots.get(slotOf(tick)).add(new Entry(spotId, tick));
+        }
+    }
+
+    /**
+     * Forget a SPOT's deadline.
+     */
+    public void cancel(String spotId) {
+        deadlines.remove(spotId);
+    }
+
+    /**
+     * Move the wheel to {@code nowMs}.
+     *
+     * @return SPOTs whose deadline has passed, removed from the wheel
+     */
+    public List<String> advance(long nowMs) {
+        long target = Math.floorDiv(nowMs, tickMs);
+        List<String> due = new ArrayList<>();
+        if (target <= currentTick) {
+            return due;
+        }
+
+        // Past one full revolution every slot is visited once
+        long from = Math.max(currentTick + 1, target - slots.size() + 1);
+        for (long tick = from; tick <= target; tick++) {
+            Iterator<Entry> it = slots.get(slotOf(tick)).iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next();
+                if (entry.tick() > target) {
+                    continue; // a later revolution
+                }
+                it.remove();
+                Long deadline = deadlines.get(entry.spotId());
+                if (deadline != null && deadline == entry.tick()) {
+                    deadlines.remove(entry.spotId());
+                    due.add(entry.spotId());
+                }
+            }
+        }
+        currentTick = target;
+        return due;
+    }
+
+    /**
+     * Number of SPOTs with a deadline.
+     */
+    public int size() {
+        return deadlines.size();
+    }
+
+    private int slotOf(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.size());
+    }
+}
@@ -0,0 +1,249 @@
+package orhestra.coordinator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import orhestra.coordinator.model.Spot;
+import orhestra.coordinator.model.SpotCapabilities;
+import orhestra.coordinator.model.SpotHeartbeat;
+import orhestra.coordinator.repository.SpotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory registry of known SPOTs, used on the claim path.
+ *
+ * Capabilities only change at /internal/v1/hello, so they are parsed once at
+ * registration and kept here together with the precomputed optimizer and
+ * algorithm sets and the declared capacity (maxConcurrent, else cores). Claims read from this map instead of loading the spot row
+ * and re-parsing its capabilities JSON.
+ *
+ * Completed task runtimes feed a per-SPOT moving average, used to size claims
+ * (see {@link ClaimQuota}).
+ *
+ * Heartbeats are absorbed here too: each one replaces the SPOT's latest
+ * {@link SpotHeartbeat} and marks it dirty, and {@link SpotService} writes
+ * the dirty ones to the {@code spots} table in one batch per flush interval.
+ * Liveness (the spot reaper, SPOT listings) is judged from this map, so the
+ * table may lag behind it by up to one interval.
+ *
+ * A SPOT that is not in the registry (e.g. registered before a restart) is
+ * loaded from the repository once and then cached. Entries are evicted when
+ * the SPOT is reaped or deleted.
+ */
+public class SpotRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(SpotRegistry.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    /** Smoothing factor of the runtime moving average */
+    static final double RUNTIME_EMA_ALPHA = 0.2;
+
+    private final SpotRepository spotRepository;
+    private final ConcurrentHashMap<String, SpotProfile> profiles = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Double> runtimeEmaMs = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, SpotHeartbeat> heartbeats = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    public SpotRegistry(SpotRepository spotRepository) {
+        this.spotRepository = spotRepository;
+    }
+
+    /**
+     * Cache a SPOT's parsed capabilities at registration time.
+     */
+    public SpotProfile register(String spotId, String capabilitiesJson) {
+        return register(spotId, capabilitiesJson, 0);
+    }
+
+    /**
+     * Cache a SPOT's parsed capabilities and declared capacity.
+     *
+     * @param capacity concurrent task slots, or 0 if unknown
+     */
+    public SpotProfile register(String spotId, String capabilitiesJson, int capacity) {
+        SpotProfile profile = SpotProfile.parse(spotId, capabilitiesJson, capacity);
+        profiles.put(spotId, profile);
+        return profile;
+    }
+
+    /**
+     * Get the cached profile, loading it from the repository on a miss.
+     *
+     * @return profile, or empty if the SPOT is unknown
+     */
+    public Optional<SpotProfile> get(String spotId) {
+        SpotProfile cached = profiles.get(spotId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (spotRepository == null) {
+            return Optional.empty();
+        }
+        Optional<Spot> spot = spotRepository.findById(spotId);
+        spot.ifPresent(s -> profiles.putIfAbsent(spotId,
+                SpotProfile.parse(spotId, s.capabilitiesJson(), capacityOf(s.maxConcurrent(), s.totalCores()))));
+        return Optional.ofNullable(profiles.get(spotId));
+    }
+
+    /**
+     * Dispatcher bucket filter for a SPOT (unrestricted if unknown or no
+     * capabilities were declared).
+     */
+    public TaskDispatcher.CapabilityFilter capabilityFilter(String spotId) {
+        return get(spotId).map(SpotProfile::filter).orElse(TaskDispatcher.CapabilityFilter.ANY);
+    }
+
+    /**
+     * Drop a SPOT (reaped or deleted).
+     */
+    public void evict(String spotId) {
+        profiles.remove(spotId);
+        runtimeEmaMs.remove(spotId);
+        heartbeats.remove(spotId);
+        dirty.remove(spotId);
+    }
+
+    /**
+     * Record a heartbeat. Only the latest one per SPOT is kept.
+     *
+     * @return true if the SPOT was not live yet, so its row must be written
+     *         now rather than at the next flush
+     */
+    public boolean recordHeartbeat(SpotHeartbeat heartbeat) {
+        SpotHeartbeat previous = heartbeats.put(heartbeat.spotId(), heartbeat);
+        if (previous == null) {
+            return true;
+        }
+        dirty.add(heartbeat.spotId());
+        return false;
+    }
+
+    /**
+     * Track a SPOT whose row was just written (registration), without
+     * marking it dirty.
+     */
+    public void markLive(SpotHeartbeat heartbeat) {
+        heartbeats.put(heartbeat.spotId(), heartbeat);
+    }
+
+    /**
+     * Latest heartbeat of a live SPOT.
+     */
+    public Optional<SpotHeartbeat> lastHeartbeat(String spotId) {
+        return Optional.ofNullable(heartbeats.get(spotId));
+    }
+
+    /**
+     * Take the heartbeats received since the last drain, one per SPOT.
+     */
+    public List<SpotHeartbeat> drainDirty() {
+        List<SpotHeartbeat> drained = new ArrayList<>();
+        Iterator<String> it = dirty.iterator();
+        while (it.hasNext()) {
+            String spotId = it.next();
+            it.remove();
+            SpotHeartbeat latest = heartbeats.get(spotId);
+            if (latest != null) {
+                drained.add(latest);
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Evict a SPOT if its latest heartbeat is older than {@code cutoff}. A
+     * SPOT that heartbeats while this runs is kept.
+     *
+     * @return true if the SPOT was evicted
+     */
+    public boolean evictIfStale(String spotId, Instant cutoff) {
+        SpotHeartbeat latest = heartbeats.get(spotId);
+        if (latest == null || !latest.at().isBefore(cutoff) || !heartbeats.remove(spotId, latest)) {
+            return false;
+        }
+        dirty.remove(spotId);
+        profiles.remove(spotId);
+        runtimeEmaMs.remove(spotId);
+        return true;
+    }
+
+    /**
+     * Fold a completed task's runtime into the SPOT's moving average.
+     */
+    public void recordRuntime(String spotId, long runtimeMs) {
+        if (runtimeMs <= 0) {
+            return;
+        }
+        runtimeEmaMs.merge(spotId, (double) runtimeMs,
+                (avg, x) -> avg + RUNTIME_EMA_ALPHA * (x - avg));
+    }
+
+    /**
+     * Moving average of task runtime on a SPOT, or 0 if nothing completed yet.
+     */
+    public double averageRuntimeMs(String spotId) {
+        return runtimeEmaMs.getOrDefault(spotId, 0.0);
+    }
+
+    public int size() {
+        return profiles.size();
+    }
+
+    /**
+     * Concurrent task slots a SPOT declared: maxConcurrent if set, else its
+     * core count, else 0 (unknown).
+     */
+    public static int capacityOf(int maxConcurrent, int totalCores) {
+        if (maxConcurrent > 0) {
+            return maxConcurrent;
+        }
+        return Math.max(0, totalCores);
+    }
+
+    /**
+     * Parsed, claim-ready view of a SPOT's capabilities.
+     *
+     * @param capabilities parsed capabilities, or null if none declared
+     * @param capacity     concurrent task slots, or 0 if unknown
+     */
+    public record SpotProfile(
+            String spotId,
+            SpotCapabilities capabilities,
+            List<String> optimizerIds,
+            List<String> algorithms,
+            TaskDispatcher.CapabilityFilter filter,
+            int capacity) {
+
+        static SpotProfile parse(String spotId, String capabilitiesJson, int capacity) {
+            if (capabilitiesJson == null || capabilitiesJson.isBlank()) {
+                return unrestricted(spotId, capacity);
+            }
+            try {
+                SpotCapabilities caps = mapper.readValue(capabilitiesJson, SpotCapabilities.class);
+                List<String> optIds = caps.optimizerIds();
+                List<String> algs = caps.allAlgorithms();
+                return new SpotProfile(spotId, caps, optIds, algs,
+                        new TaskDispatcher.CapabilityFilter(Set.copyOf(optIds), Set.copyOf(algs)), capacity);
+            } catch (Exception e) {
+                log.warn("Failed to parse capabilities for spot {}, treating as unfiltered", spotId, e);
+                return unrestricted(spotId, capacity);
+            }
+        }
+
+        private static SpotProfile unrestricted(String spotId, int capacity) {
+            return new SpotProfile(spotId, null, List.of(), List.of(), TaskDispatcher.CapabilityFilter.ANY,
+                    capacity);
+        }
+
+        public boolean hasCapabilities() {
+            return capabilities != null;
+        }
+    }
+}
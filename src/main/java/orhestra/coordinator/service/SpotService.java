@@ -3,19 +3,35 @@ package orhestra.coordinator.service;
 import orhestra.coordinator.config.CoordinatorConfig;
 import orhestra.coordinator.core.AppBus;
 import orhestra.coordinator.model.Spot;
+import orhestra.coordinator.model.SpotHeartbeat;
 import orhestra.coordinator.model.SpotStatus;
+import orhestra.coordinator.model.TaskQueueEntry;
 import orhestra.coordinator.repository.SpotRepository;
 import orhestra.coordinator.repository.TaskRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Service layer for SPOT node operations.
  * Handles heartbeats, registration, and staleness detection.
+ *
+ * With a {@link SpotRegistry}, heartbeats are write-behind: a SPOT's first
+ * heartbeat creates or revives its row right away, later ones only update
+ * the registry and reach the {@code spots} table via
+ * {@link #flushHeartbeats()}. Reads overlay the registry on the rows.
+ *
+ * Heartbeat deadlines are then kept in a {@link SpotExpiryWheel}: each reaper
+ * tick only looks at SPOTs whose deadline has come up, and re-arms those that
+ * heartbeated since from their latest heartbeat. SPOT rows left UP by a
+ * previous run are armed from their stored heartbeat at construction.
+ *
+ * Heartbeats also renew the SPOT's {@link TaskLeases} and collect the
+ * speculative copies it should cancel ({@link SpeculativeExecution}).
  */
 public class SpotService {
 
@@ -23,12 +39,60 @@ public class SpotService {
 
     private final SpotRepository spotRepository;
     private final TaskRepository taskRepository;
+    private final SpotRegistry spotRegistry;
+    private final TaskDispatcher dispatcher;
     private final CoordinatorConfig config;
+    private final SpotExpiryWheel expiryWheel;
+    private final TaskLeases leases;
+    private final SpeculativeExecution speculation;
+    private final TaskCancels cancels;
 
-    public SpotService(SpotRepository spotRepository, TaskRepository taskRepository, CoordinatorConfig config) {
-        this.spotRepository = spotRepository;
-        this.taskRepository = taskRepository;
-        this.config = config;
+    private SpotService(Builder builder) {
+        this.spotRepository = builder.spotRepository;
+        this.taskRepository = builder.taskRepository;
+        this.spotRegistry = builder.spotRegistry;
+        this.dispatcher = builder.dispatcher;
+        this.config = builder.config;
+        this.expiryWheel = spotRegistry != null ? newExpiryWheel(config) : null;
+        this.leases = builder.leases;
+        this.speculation = builder.speculation;
+        this.cancels = builder.cancels;
+        if (expiryWheel != null) {
+            restoreLiveSpots();
+        }
+    }
+
+    /**
+     * Start building a service. Without a registry every heartbeat is
+     * written to its row.
+     */
+    public static Builder builder(SpotRepository spotRepository, TaskRepository taskRepository,
+            CoordinatorConfig config) {
+        return new Builder(spotRepository, taskRepository, config);
+    }
+
+    private static SpotExpiryWheel newExpiryWheel(CoordinatorConfig config) {
+        long tickMs = Math.max(1, config.spotCleanupInterval().toMillis());
+        // Two revolutions per timeout keeps almost every deadline in its first round
+        int slots = (int) Math.max(8, 2 * config.spotHeartbeatTimeout().toMillis() / tickMs);
+        return new SpotExpiryWheel(tickMs, slots, System.currentTimeMillis());
+    }
+
+    /**
+     * Track the SPOT rows left UP by a previous run, so the wheel expires
+     * them from their last stored heartbeat unless they heartbeat again.
+     */
+    private void restoreLiveSpots() {
+        List<Spot> live = spotRepository.findByStatus(SpotStatus.UP);
+        for (Spot spot : live) {
+            Instant at = spot.lastHeartbeat() != null ? spot.lastHeartbeat() : Instant.now();
+            spotRegistry.markLive(new SpotHeartbeat(spot.id(), spot.ipAddress(), spot.cpuLoad(),
+                    spot.runningTasks(), spot.totalCores(), spot.ramUsedMb(), spot.ramTotalMb(), at));
+            armExpiry(spot.id(), at);
+        }
+        if (!live.isEmpty()) {
+            log.info("Restored {} live SPOTs from the spots table", live.size());
+        }
     }
 
     /**
@@ -59,6 +123,12 @@ public class SpotService {
                 .build();
 
         spotRepository.save(spot);
+        if (spotRegistry != null) {
+            spotRegistry.register(spotId, capabilitiesJson, SpotRegistry.capacityOf(maxConcurrent, cores));
+            spotRegistry.markLive(new SpotHeartbeat(spotId, ipAddress, 0, 0, cores, 0, ramMb,
+                    spot.lastHeartbeat()));
+            armExpiry(spotId, spot.lastHeartbeat());
+        }
         log.info("Registered new SPOT: {} from {} (cores={}, maxConcurrent={}, capabilities={})",
                 spotId, ipAddress, cores, maxConcurrent, capabilitiesJson != null ? "yes" : "none");
 
@@ -70,37 +140,87 @@ public class SpotService {
      */
     public void heartbeat(String spotId, String ipAddress, double cpuLoad, int runningTasks, int totalCores,
             long ramUsedMb, long ramTotalMb) {
-        spotRepository.heartbeat(spotId, ipAddress, cpuLoad, runningTasks, totalCores, ramUsedMb, ramTotalMb);
+        heartbeat(spotId, ipAddress, cpuLoad, runningTasks, totalCores, ramUsedMb, ramTotalMb, null);
+    }
+
+    /**
+     * Process heartbeat from a SPOT and renew its task leases.
+     *
+     * @param taskIds tasks the SPOT is running; null renews all of its leases
+     * @return tasks the SPOT should cancel (another copy finished them, or
+     *         their job stopped early)
+     */
+    public List<String> heartbeat(String spotId, String ipAddress, double cpuLoad, int runningTasks,
+            int totalCores, long ramUsedMb, long ramTotalMb, List<String> taskIds) {
+        if (leases != null) {
+            leases.renew(spotId, taskIds);
+        }
+        boolean writeThrough = spotRegistry == null
+                || spotRegistry.recordHeartbeat(new SpotHeartbeat(spotId, ipAddress, cpuLoad, runningTasks,
+                        totalCores, ramUsedMb, ramTotalMb, Instant.now()));
+        if (writeThrough) {
+            // New or revived SPOT: status changes are written immediately
+            spotRepository.heartbeat(spotId, ipAddress, cpuLoad, runningTasks, totalCores, ramUsedMb, ramTotalMb);
+            if (spotRegistry != null) {
+                armExpiry(spotId, Instant.now());
+            }
+        }
         log.debug("Heartbeat from spot {} (cpu={}%, tasks={}, cores={}, ram={}/{}MB)", spotId, cpuLoad, runningTasks,
                 totalCores, ramUsedMb, ramTotalMb);
+        return cancels != null ? cancels.drain(spotId) : List.of();
+    }
+
+    /**
+     * Write the heartbeats buffered since the last flush in one batch.
+     *
+     * @return number of SPOT rows written
+     */
+    public int flushHeartbeats() {
+        if (spotRegistry == null) {
+            return 0;
+        }
+        List<SpotHeartbeat> pending = spotRegistry.drainDirty();
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        List<String> missing = spotRepository.updateHeartbeats(pending);
+        for (SpotHeartbeat hb : pending) {
+            // Row deleted behind our back (e.g. reaped while heartbeating): recreate it
+            if (missing.contains(hb.spotId())) {
+                spotRepository.heartbeat(hb.spotId(), hb.ipAddress(), hb.cpuLoad(), hb.runningTasks(),
+                        hb.totalCores(), hb.ramUsedMb(), hb.ramTotalMb());
+            }
+        }
+        log.debug("Flushed {} heartbeats", pending.size());
+        return pending.size();
     }
 
     /**
      * Find a SPOT by ID.
      */
     public Optional<Spot> findById(String spotId) {
-        return spotRepository.findById(spotId);
+        return spotRepository.findById(spotId).map(this::withLiveState);
     }
 
     /**
      * Get all SPOTs.
      */
     public List<Spot> findAll() {
-        return spotRepository.findAll();
+        return withLiveState(spotRepository.findAll());
     }
 
     /**
      * Get SPOTs by status.
      */
     public List<Spot> findByStatus(SpotStatus status) {
-        return spotRepository.findByStatus(status);
+        return withLiveState(spotRepository.findByStatus(status));
     }
 
     /**
      * Get active (UP) SPOTs.
      */
     public List<Spot> findActive() {
-        return spotRepository.findByStatus(SpotStatus.UP);
+        return findByStatus(SpotStatus.UP);
     }
 
     /**
@@ -116,23 +236,51 @@ public class SpotService {
      * @return number of SPOTs removed
      */
     public int reapStaleSpots() {
-        Instant cutoff = Instant.now().minus(config.spotHeartbeatTimeout());
-        List<String> staleIds = spotRepository.markStaleAsDown(cutoff);
+        List<String> staleIds = spotRegistry != null
+                ? expiredSpots()
+                : spotRepository.markStaleAsDown(Instant.now().minus(config.spotHeartbeatTimeout()));
+        if (staleIds.isEmpty()) {
+            return 0;
+        }
 
         // Free tasks assigned to stale SPOTs, then delete them
-        int totalFreed = 0;
-        for (String spotId : staleIds) {
-            int freed = taskRepository.freeTasksForSpot(spotId);
-            totalFreed += freed;
-            spotRepository.delete(spotId);
+        int totalFreed = freeTasks(staleIds);
+        spotRepository.deleteAll(staleIds);
+
+        log.info("Reaped {} stale SPOTs, freed {} tasks", staleIds.size(), totalFreed);
+        AppBus.fireSpotsChanged();
+
+        return staleIds.size();
+    }
+
+    /**
+     * Advance the expiry wheel and evict the SPOTs that are really stale.
+     * SPOTs that heartbeated since they were armed are re-armed instead.
+     */
+    private List<String> expiredSpots() {
+        long now = System.currentTimeMillis();
+        List<String> due;
+        synchronized (expiryWheel) {
+            due = expiryWheel.advance(now);
         }
 
-        if (!staleIds.isEmpty()) {
-            log.info("Reaped {} stale SPOTs, freed {} tasks", staleIds.size(), totalFreed);
-            AppBus.fireSpotsChanged();
+        Instant cutoff = Instant.ofEpochMilli(now).minus(config.spotHeartbeatTimeout());
+        List<String> staleIds = new ArrayList<>();
+        for (String spotId : due) {
+            if (spotRegistry.evictIfStale(spotId, cutoff)) {
+                staleIds.add(spotId);
+            } else {
+                spotRegistry.lastHeartbeat(spotId).ifPresent(hb -> armExpiry(spotId, hb.at()));
+            }
         }
+        return staleIds;
+    }
 
-        return staleIds.size();
+    private void armExpiry(String spotId, Instant lastHeartbeat) {
+        long deadline = lastHeartbeat.plus(config.spotHeartbeatTimeout()).toEpochMilli();
+        synchronized (expiryWheel) {
+            expiryWheel.schedule(spotId, deadline);
+        }
     }
 
     /**
@@ -140,7 +288,136 @@ public class SpotService {
      */
     public boolean delete(String spotId) {
         // First free any assigned tasks
-        taskRepository.freeTasksForSpot(spotId);
+        freeTasks(spotId);
+        if (spotRegistry != null) {
+            spotRegistry.evict(spotId);
+            synchronized (expiryWheel) {
+                expiryWheel.cancel(spotId);
+            }
+        }
         return spotRepository.delete(spotId);
     }
+
+    private List<Spot> withLiveState(List<Spot> spots) {
+        if (spotRegistry == null) {
+            return spots;
+        }
+        return spots.stream().map(this::withLiveState).toList();
+    }
+
+    private Spot withLiveState(Spot spot) {
+        if (spotRegistry == null) {
+            return spot;
+        }
+        return spotRegistry.lastHeartbeat(spot.id()).map(hb -> hb.applyTo(spot)).orElse(spot);
+    }
+
+    /**
+     * Return a SPOT's RUNNING tasks to NEW, and to the dispatch queue if one
+     * is configured.
+     */
+    private int freeTasks(String spotId) {
+        if (speculation != null) {
+            // Tasks with a running copy move to it instead of back to NEW
+            speculation.onSpotLost(spotId);
+        }
+        if (cancels != null) {
+            cancels.forgetSpot(spotId);
+        }
+        if (leases != null) {
+            leases.releaseSpot(spotId);
+        }
+        if (dispatcher == null) {
+            return taskRepository.freeTasksForSpot(spotId);
+        }
+        List<TaskQueueEntry> released = taskRepository.releaseTasksForSpot(spotId);
+        releaseCopies(released);
+        dispatcher.offerAll(released);
+        dispatcher.onSpotRemoved(spotId);
+        return released.size();
+    }
+
+    /**
+     * Return the RUNNING tasks of several SPOTs to NEW in one statement.
+     */
+    private int freeTasks(List<String> spotIds) {
+        if (speculation != null) {
+            spotIds.forEach(speculation::onSpotLost);
+        }
+        if (cancels != null) {
+            spotIds.forEach(cancels::forgetSpot);
+        }
+        if (leases != null) {
+            spotIds.forEach(leases::releaseSpot);
+        }
+        if (dispatcher == null) {
+            int freed = 0;
+            for (String spotId : spotIds) {
+                freed += taskRepository.freeTasksForSpot(spotId);
+            }
+            return freed;
+        }
+        List<TaskQueueEntry> released = taskRepository.releaseTasksForSpots(spotIds);
+        releaseCopies(released);
+        dispatcher.offerAll(released);
+        spotIds.forEach(dispatcher::onSpotRemoved);
+        return released.size();
+    }
+
+    /**
+     * Freed tasks start over: stop any speculative copies of them.
+     */
+    private void releaseCopies(List<TaskQueueEntry> released) {
+        if (speculation != null) {
+            released.forEach(entry -> speculation.release(entry.id()));
+        }
+    }
+
+    public static final class Builder {
+        private final SpotRepository spotRepository;
+        private final TaskRepository taskRepository;
+        private final CoordinatorConfig config;
+        private SpotRegistry spotRegistry;
+        private TaskDispatcher dispatcher;
+        private TaskLeases leases;
+        private SpeculativeExecution speculation;
+        private TaskCancels cancels;
+
+        private Builder(SpotRepository spotRepository, TaskRepository taskRepository, CoordinatorConfig config) {
+            this.spotRepository = spotRepository;
+            this.taskRepository = taskRepository;
+            this.config = config;
+        }
+
+        public Builder spotRegistry(SpotRegistry spotRegistry) {
+            this.spotRegistry = spotRegistry;
+            return this;
+        }
+
+        public Builder dispatcher(TaskDispatcher dispatcher) {
+            this.dispatcher = dispatcher;
+            return this;
+        }
+
+        /** Leases renewed by heartbeats */
+        public Builder leases(TaskLeases leases) {
+            this.leases = leases;
+            return this;
+        }
+
+        public Builder speculation(SpeculativeExecution speculation) {
+            this.speculation = speculation;
+            return this;
+        }
+
+        /** Tasks SPOTs should abort, returned by {@link SpotService#heartbeat} */
+        public Builder cancels(TaskCancels cancels) {
+            this.cancels = cancels;
+            return this;
+        }
+
+        public SpotService build() {
+            return new SpotService(this);
+        }
+    }
 }
@@ -1,39 +1,86 @@
 package orhestra.coordinator.service;
 
+import java.util.Collections;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * In-memory blacklist: tracks (spotId, taskId) pairs where
  * a spot returned UNSUPPORTED for a task.
  * Prevents infinite claim→fail→claim loops.
+ *
+ * Indexed both ways so every operation is O(1) per entry:
+ * - per SPOT: the task IDs it must not receive (consulted by the dispatcher)
+ * - per task: the SPOTs that rejected it (for eviction when it finishes)
  */
 public final class SpotTaskBlacklist {
 
-    // Key: "spotId:taskId"
-    private final Set<String> blacklisted = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, Set<String>> tasksBySpot = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> spotsByTask = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
 
     /** Record that this spot cannot execute this task */
     public void blacklist(String spotId, String taskId) {
-        blacklisted.add(key(spotId, taskId));
+        boolean[] added = new boolean[1];
+        tasksBySpot.compute(spotId, (k, tasks) -> {
+            if (tasks == null)
+                tasks = ConcurrentHashMap.newKeySet();
+            added[0] = tasks.add(taskId);
+            return tasks;
+        });
+        spotsByTask.compute(taskId, (k, spots) -> {
+            if (spots == null)
+                spots = ConcurrentHashMap.newKeySet();
+            spots.add(spotId);
+            return spots;
+        });
+        if (added[0])
+            size.incrementAndGet();
     }
 
     /** Check if this spot is blacklisted for this task */
     public boolean isBlacklisted(String spotId, String taskId) {
-        return blacklisted.contains(key(spotId, taskId));
+        Set<String> tasks = tasksBySpot.get(spotId);
+        return tasks != null && tasks.contains(taskId);
+    }
+
+    /** Task IDs this spot must not receive (live view, empty if none) */
+    public Set<String> excludedFor(String spotId) {
+        Set<String> tasks = tasksBySpot.get(spotId);
+        return tasks != null ? Collections.unmodifiableSet(tasks) : Set.of();
     }
 
     /** Remove all blacklist entries for a task (e.g., when task is completed) */
     public void clearForTask(String taskId) {
-        blacklisted.removeIf(k -> k.endsWith(":" + taskId));
+        Set<String> spots = spotsByTask.remove(taskId);
+        if (spots == null)
+            return;
+        for (String spotId : spots) {
+            tasksBySpot.computeIfPresent(spotId, (k, tasks) -> {
+                if (tasks.remove(taskId))
+                    size.decrementAndGet();
+                return tasks.isEmpty() ? null : tasks;
+            });
+        }
     }
 
-    /** Get count for monitoring */
-    public int size() {
-        return blacklisted.size();
+    /** Remove all blacklist entries for a spot (e.g., when spot is reaped) */
+    public void clearForSpot(String spotId) {
+        Set<String> tasks = tasksBySpot.remove(spotId);
+        if (tasks == null)
+            return;
+        size.addAndGet(-tasks.size());
+        for (String taskId : tasks) {
+            spotsByTask.computeIfPresent(taskId, (k, spots) -> {
+                spots.remove(spotId);
+                return spots.isEmpty() ? null : spots;
+            });
+        }
     }
 
-    private static String key(String spotId, String taskId) {
-        return spotId + ":" + taskId;
+    /** Get count for monitoring */
+    public int size() {
+        return size.get();
     }
 }
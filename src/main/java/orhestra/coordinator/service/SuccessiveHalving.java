@@ -0,0 +1,367 @@
+package orhestra.coordinator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import orhestra.coordinator.model.SearchSpec;
+import orhestra.coordinator.model.Task;
+import orhestra.coordinator.repository.JobRepository;
+import orhestra.coordinator.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+
+/**
+ * Successive halving over a job's parameter grid (see {@link SearchSpec}).
+ *
+ * Configurations are taken from the grid in a seeded pseudo-random order
+ * and each starts at the smallest budget (rung 0). Every finished trial is
+ * ranked within its rung by {@code fopt}; a configuration in the top
+ * {@code 1 / eta} of its rung is promoted and runs again at the next
+ * budget. With ASHA a promotion is issued as soon as the results allow it,
+ * so a claim always finds work while configurations remain; with
+ * SUCCESSIVE_HALVING a rung is promoted only once every trial in it has
+ * finished.
+ *
+ * Trials are decided when a SPOT claims (promotions first, highest rung
+ * first, then new configurations) and written as task rows
+ * {@code <jobId>-<config>-<rung>}. The job is closed once no trial is
+ * running and none can be generated. Failed trials rank last and are never
+ * promoted.
+ */
+public class SuccessiveHalving extends SearchSource {
+
+    private static final Logger log = LoggerFactory.getLogger(SuccessiveHalving.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final SearchSpec spec;
+    private final SearchSpec.Strategy strategy;
+    private final int eta;
+    private final long[] budgets;
+    private final LongFunction<String> payloadAt;
+    private final long gridSize;
+    private final long maxConfigs;
+    private final long offset;
+    private final long stride;
+
+    private final Rung[] rungs;
+    // Trials with a row that has not finished yet
+    private final ConcurrentHashMap<String, Trial> inFlight = new ConcurrentHashMap<>();
+    private long started;
+    private volatile long available;
+    private volatile boolean finished;
+
+    /**
+     * @param gridSize  number of configurations in the grid
+     * @param payloadAt decodes configuration {@code i} into its payload
+     */
+    public SuccessiveHalving(String jobId, SearchSpec spec, long gridSize, LongFunction<String> payloadAt,
+            int priority, int maxAttempts, JobRepository jobRepository, TaskRepository taskRepository,
+            TaskDispatcher dispatcher) {
+        super(jobId, priority, maxAttempts, jobRepository, taskRepository, dispatcher);
+        spec.validate();
+        if (gridSize <= 0) {
+            throw new IllegalArgumentException("search grid is empty");
+        }
+        this.spec = spec;
+        this.strategy = spec.strategyOrDefault();
+        this.eta = spec.etaOrDefault();
+        this.budgets = spec.budgets();
+        this.payloadAt = payloadAt;
+        this.gridSize = gridSize;
+        this.maxConfigs = spec.maxConfigs() != null ? Math.min(spec.maxConfigs(), gridSize) : gridSize;
+
+        // Visit the grid as offset + i * stride (mod size): a permutation
+        // when stride and size are coprime
+        SplittableRandom random = new SplittableRandom(spec.seedOrDefault());
+        this.offset = random.nextLong(gridSize);
+        long s = gridSize > 1 ? 1 + random.nextLong(gridSize - 1) : 1;
+        while (gcd(s, gridSize) != 1) {
+            s = s % (gridSize - 1) + 1;
+        }
+        this.stride = s;
+
+        this.rungs = new Rung[budgets.length];
+        for (int k = 0; k < rungs.length; k++) {
+            rungs[k] = new Rung();
+        }
+        this.available = maxConfigs;
+    }
+
+    /**
+     * @param budget   budget of the rung
+     * @param started  trials started at this rung
+     * @param finished trials finished at this rung
+     * @param promoted configurations promoted out of this rung
+     */
+    public record RungProgress(long budget, long started, long finished, long promoted) {
+    }
+
+    /**
+     * @param strategy   promotion strategy
+     * @param configs    configurations started so far
+     * @param maxConfigs configurations the search will start
+     * @param rungs      progress per rung, smallest budget first
+     * @param bestFopt   lowest {@code fopt} at the largest budget reached
+     * @param bestTaskId task that reported it
+     * @param finished   whether the search has generated its last trial
+     *                   and all of them finished
+     */
+    public record Progress(String strategy, long configs, long maxConfigs, List<RungProgress> rungs,
+            Double bestFopt, String bestTaskId, boolean finished) {
+    }
+
+    /**
+     * Task id of configuration {@code config} at rung {@code rung}.
+     */
+    public static String taskId(String jobId, long config, int rung) {
+        return jobId + "-" + config + "-" + rung;
+    }
+
+    @Override
+    public long remaining() {
+        return available;
+    }
+
+    @Override
+    public boolean exhausted() {
+        return finished;
+    }
+
+    /**
+     * Serialised per search so each promotion and configuration is handed
+     * out once; the state only moves after the rows are committed.
+     */
+    @Override
+    public synchronized List<Task> materialize(String spotId, int limit,
+            TaskDispatcher.CapabilityFilter capabilities) {
+        List<Trial> trials = new ArrayList<>();
+        while (trials.size() < limit) {
+            Trial trial = next();
+            if (trial == null) {
+                break;
+            }
+            trials.add(trial);
+        }
+        if (trials.isEmpty()) {
+            return List.of();
+        }
+
+        List<Task> mine;
+        try {
+            Map<String, String> payloads = new LinkedHashMap<>();
+            for (Trial trial : trials) {
+                payloads.put(trial.taskId, payload(trial));
+            }
+            mine = write(spotId, capabilities, payloads);
+        } catch (RuntimeException e) {
+            for (int i = trials.size() - 1; i >= 0; i--) {
+                undo(trials.get(i));
+            }
+            throw e;
+        }
+
+        for (Trial trial : trials) {
+            rungs[trial.rung].running++;
+            rungs[trial.rung].started++;
+            inFlight.put(trial.taskId, trial);
+        }
+        available = countAvailable();
+        return mine;
+    }
+
+    /**
+     * Record a finished trial and work out what it made available.
+     */
+    @Override
+    public boolean onTerminal(String taskId) {
+        if (!inFlight.containsKey(taskId)) {
+            return false;
+        }
+        double fopt = fopt(taskId);
+        boolean close;
+        long before;
+        synchronized (this) {
+            Trial trial = inFlight.remove(taskId);
+            if (trial == null) {
+                return false;
+            }
+            Rung rung = rungs[trial.rung];
+            rung.running--;
+            rung.results.add(new Result(trial.config, fopt, taskId));
+
+            before = available;
+            available = countAvailable();
+            close = !finished && available == 0 && inFlight.isEmpty() && started >= maxConfigs;
+            if (close) {
+                finished = true;
+            }
+        }
+        if (close && finish()) {
+            log.info("Search {} finished: {} configurations over {} rungs", jobId, started, rungs.length);
+        }
+        return available > before;
+    }
+
+    /**
+     * Current state of the search.
+     */
+    public synchronized Progress progress() {
+        List<RungProgress> perRung = new ArrayList<>(rungs.length);
+        Result best = null;
+        for (int k = 0; k < rungs.length; k++) {
+            Rung rung = rungs[k];
+            perRung.add(new RungProgress(budgets[k], rung.started, rung.results.size(), rung.promoted.size()));
+            if (!rung.results.isEmpty() && Double.isFinite(rung.results.first().fopt)) {
+                best = rung.results.first();
+            }
+        }
+        return new Progress(strategy.name(), started, maxConfigs, perRung,
+                best != null ? best.fopt : null, best != null ? best.taskId : null, finished);
+    }
+
+    /**
+     * The next trial to run: the best pending promotion of the highest rung
+     * that has one, else a new configuration. Null if none is available.
+     */
+    private Trial next() {
+        for (int k = rungs.length - 2; k >= 0; k--) {
+            Result promote = promotion(k);
+            if (promote != null) {
+                rungs[k].promoted.add(promote.config);
+                return new Trial(promote.config, k + 1);
+            }
+        }
+        if (started < maxConfigs) {
+            long config = Math.floorMod(offset + started * stride, gridSize);
+            started++;
+            return new Trial(config, 0);
+        }
+        return null;
+    }
+
+    private void undo(Trial trial) {
+        if (trial.rung > 0) {
+            rungs[trial.rung - 1].promoted.remove(trial.config);
+        } else {
+            started--;
+        }
+    }
+
+    /**
+     * The best result of rung {@code k} that may be promoted and has not
+     * been, or null.
+     */
+    private Result promotion(int k) {
+        if (strategy == SearchSpec.Strategy.SUCCESSIVE_HALVING && !closed(k)) {
+            return null;
+        }
+        Rung rung = rungs[k];
+        long top = rung.results.size() / eta;
+        for (Result result : rung.results) {
+            if (top-- <= 0 || !Double.isFinite(result.fopt)) {
+                break;
+            }
+            if (!rung.promoted.contains(result.config)) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether no further trial can enter rung {@code k} and all of its
+     * trials have finished.
+     */
+    private boolean closed(int k) {
+        if (rungs[k].running > 0) {
+            return false;
+        }
+        if (k == 0) {
+            return started >= maxConfigs;
+        }
+        return closed(k - 1) && promotion(k - 1) == null;
+    }
+
+    private long countAvailable() {
+        long count = maxConfigs - started;
+        for (int k = 0; k < rungs.length - 1; k++) {
+            if (strategy == SearchSpec.Strategy.SUCCESSIVE_HALVING && !closed(k)) {
+                continue;
+            }
+            Rung rung = rungs[k];
+            long top = rung.results.size() / eta;
+            for (Result result : rung.results) {
+                if (top-- <= 0 || !Double.isFinite(result.fopt)) {
+                    break;
+                }
+                if (!rung.promoted.contains(result.config)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The configuration's payload with the rung's budget written into its
+     * parameters.
+     */
+    private String payload(Trial trial) {
+        try {
+            ObjectNode payload = (ObjectNode) MAPPER.readTree(payloadAt.apply(trial.config));
+            ObjectNode params = payload.has("params") && payload.get("params").isObject()
+                    ? (ObjectNode) payload.get("params")
+                    : payload.putObject("params");
+            params.put(spec.budgetParam(), budgets[trial.rung]);
+            return MAPPER.writeValueAsString(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write search payload", e);
+        }
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private final class Trial {
+        final long config;
+        final int rung;
+        final String taskId;
+
+        Trial(long config, int rung) {
+            this.config = config;
+            this.rung = rung;
+            this.taskId = taskId(jobId, config, rung);
+        }
+    }
+
+    private record Result(long config, double fopt, String taskId) {
+    }
+
+    private static final class Rung {
+        // Finished trials, best first
+        final TreeSet<Result> results = new TreeSet<>(
+                Comparator.comparingDouble(Result::fopt).thenComparingLong(Result::config));
+        final Set<Long> promoted = new HashSet<>();
+        long started;
+        int running;
+    }
+}
@@ -0,0 +1,49 @@
+package orhestra.coordinator.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tasks each SPOT should stop running: the losing copy of a speculatively
+ * executed task, or the running tasks of a job that stopped early.
+ *
+ * Cancels are delivered in the SPOT's next heartbeat response, each once.
+ */
+public class TaskCancels {
+
+    private final ConcurrentHashMap<String, Set<String>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Tell a SPOT to stop running a task.
+     */
+    public void cancel(String spotId, String taskId) {
+        pending.computeIfAbsent(spotId, k -> ConcurrentHashMap.newKeySet()).add(taskId);
+    }
+
+    /**
+     * Tell a SPOT to stop running several tasks.
+     */
+    public void cancel(String spotId, Collection<String> taskIds) {
+        if (!taskIds.isEmpty()) {
+            pending.computeIfAbsent(spotId, k -> ConcurrentHashMap.newKeySet()).addAll(taskIds);
+        }
+    }
+
+    /**
+     * Remove and return the cancels pending for a SPOT.
+     */
+    public List<String> drain(String spotId) {
+        Set<String> tasks = pending.remove(spotId);
+        return tasks != null ? new ArrayList<>(tasks) : List.of();
+    }
+
+    /**
+     * Forget a SPOT that left the fleet.
+     */
+    public void forgetSpot(String spotId) {
+        pending.remove(spotId);
+    }
+}
@@ -0,0 +1,873 @@
+package orhestra.coordinator.service;
+
+import orhestra.coordinator.model.Task;
+import orhestra.coordinator.model.TaskQueueEntry;
+import orhestra.coordinator.model.TaskStatus;
+import orhestra.coordinator.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * In-memory ready queue of NEW tasks. Within a job tasks are claimed in
+ * (priority DESC, predicted runtime DESC, created_at ASC) order; across jobs
+ * the {@link SchedulingPolicy} decides.
+ *
+ * Claims pop task IDs from memory and then persist the NEW → RUNNING
+ * transition for the whole batch in one transaction via
+ * {@link TaskRepository#claimByIds}. The database stays authoritative:
+ * the UPDATE is guarded by {@code status = 'NEW'}, so a stale queue entry
+ * (cancelled, or claimed through another path) is simply dropped.
+ *
+ * The queue is partitioned into buckets keyed by (optimizer_id, algorithm,
+ * job). A claim only looks at the buckets the SPOT's capabilities allow and
+ * merges their heads, so capability matching costs O(#buckets) instead of a
+ * filtered scan over every NEW task. A bucket is dropped when it drains, so
+ * finished jobs cost claims nothing.
+ *
+ * Per job the dispatcher counts queued and RUNNING tasks and finished-task
+ * throughput ({@link #jobStats()}). Under FAIR_SHARE the merge takes the
+ * head of the job with the lowest RUNNING/weight, counting the tasks taken
+ * so far in the same claim, so each job's share of slots is enforced at
+ * claim time.
+ *
+ * Longest predicted task first (LPT) keeps the long tail of a job from
+ * starting last. The {@link RuntimeModel} estimate is taken when a task is
+ * queued and fixed while it stays queued. SPOTs the model finds markedly
+ * slower than the fleet walk each job from its short end instead, so the
+ * longest tasks go to the fast SPOTs.
+ *
+ * UNSUPPORTED pairs from the {@link SpotTaskBlacklist} are skipped while the
+ * bucket heads are merged. A claim only ever steps over the claiming SPOT's
+ * own blacklisted entries, so its cost does not grow with queue depth.
+ *
+ * Every path that makes a task NEW must feed the queue:
+ * task creation, retries ({@code resetToNew}), freed tasks of dead SPOTs
+ * and the TaskReaper. On startup the queue is rebuilt from the tasks table.
+ * Queuing tasks signals the {@link ClaimNotifier}, which wakes long-poll
+ * claims.
+ */
+public class TaskDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskDispatcher.class);
+
+    private static final Comparator<Slot> ORDER = Comparator
+            .comparingInt((Slot s) -> -s.entry().priority())
+            .thenComparingLong((Slot s) -> -s.estimateMs())
+            .thenComparingLong(Slot::createdAt)
+            .thenComparingLong(Slot::seq);
+
+    private static final Comparator<Slot> FIFO = Comparator
+            .comparingLong(Slot::createdAt)
+            .thenComparingLong(Slot::seq);
+
+    /** Stats key for tasks without a job */
+    private static final String NO_JOB = "";
+
+    private final TaskRepository taskRepository;
+    private final SpotTaskBlacklist blacklist;
+    private final ClaimNotifier notifier;
+    private final SchedulingPolicy policy;
+    private final RuntimeModel runtimeModel;
+    private final ResultCache resultCache;
+
+    private final ConcurrentHashMap<BucketKey, ConcurrentSkipListSet<Slot>> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Slot> byId = new ConcurrentHashMap<>();
+    private final AtomicLong seq = new AtomicLong();
+    private final ConcurrentHashMap<String, JobShare> jobs = new ConcurrentHashMap<>();
+    // RUNNING task -> its entry, SPOT and result cache key, to release the
+    // job's slot, learn its runtime and store its result when the task ends
+    private final ConcurrentHashMap<String, Running> running = new ConcurrentHashMap<>();
+    // Set while syncRunning reads the RUNNING rows, null otherwise
+    private volatile SyncWindow syncWindow;
+    private final List<Consumer<String>> terminalListeners = new CopyOnWriteArrayList<>();
+
+    private TaskDispatcher(Builder builder) {
+        this.taskRepository = builder.taskRepository;
+        this.blacklist = builder.blacklist;
+        this.notifier = builder.notifier != null ? builder.notifier : new ClaimNotifier();
+        this.policy = builder.policy;
+        this.runtimeModel = builder.runtimeModel != null ? builder.runtimeModel : new RuntimeModel();
+        this.resultCache = builder.resultCache;
+    }
+
+    /**
+     * Start building a queue under the PRIORITY policy.
+     */
+    public static Builder builder(TaskRepository taskRepository) {
+        return new Builder(taskRepository);
+    }
+
+    public SchedulingPolicy policy() {
+        return policy;
+    }
+
+    public RuntimeModel runtimeModel() {
+        return runtimeModel;
+    }
+
+    /**
+     * A job's RUNNING tasks per unit of weight; FAIR_SHARE serves the
+     * lowest first.
+     */
+    public double load(String jobId) {
+        JobShare share = jobs.get(jobKey(jobId));
+        return share != null ? (double) Math.max(0, share.running.get()) / share.weight : 0;
+    }
+
+    /**
+     * Set a job's weight for FAIR_SHARE (default 1).
+     */
+    public void setWeight(String jobId, int weight) {
+        share(jobId).weight = weight;
+    }
+
+    /**
+     * Notifier signalled whenever tasks are queued.
+     */
+    public ClaimNotifier notifier() {
+        return notifier;
+    }
+
+    /**
+     * Reload the queue from all NEW rows in the database.
+     *
+     * @return number of queued tasks
+     */
+    public int rebuild() {
+        buckets.clear();
+        byId.clear();
+        jobs.values().forEach(job -> job.queued.set(0));
+        syncRunning();
+        List<TaskQueueEntry> entries = taskRepository.findQueueEntries(TaskStatus.NEW);
+        offerAll(entries);
+        log.info("Task dispatcher rebuilt with {} NEW tasks", entries.size());
+        return entries.size();
+    }
+
+    /**
+     * Add NEW rows that are missing from the queue.
+     * Safety net for tasks that became NEW through a path that bypassed the
+     * dispatcher; duplicates are harmless because claims are DB-guarded.
+     * Also resyncs the per-job RUNNING counts with the database.
+     *
+     * @return number of tasks added
+     */
+    public int reconcile() {
+        syncRunning();
+        int added = 0;
+        for (TaskQueueEntry entry : taskRepository.findQueueEntries(TaskStatus.NEW)) {
+            if (enqueue(entry)) {
+                added++;
+            }
+        }
+        if (added > 0) {
+            notifier.signal();
+            log.warn("Task dispatcher reconcile: re-queued {} NEW tasks missing from memory", added);
+        }
+        return added;
+    }
+
+    /**
+     * Queue a task that was just inserted (or otherwise became NEW).
+     */
+    public void offer(TaskQueueEntry entry) {
+        if (enqueue(entry)) {
+            notifier.signal();
+        }
+    }
+
+    public void offerAll(Collection<TaskQueueEntry> entries) {
+        boolean added = false;
+        for (TaskQueueEntry entry : entries) {
+            added |= enqueue(entry);
+        }
+        if (added) {
+            notifier.signal();
+        }
+    }
+
+    /**
+     * Queue newly created tasks.
+     */
+    public void offerTasks(Collection<Task> tasks) {
+        boolean added = false;
+        for (Task task : tasks) {
+            if (task.status() == TaskStatus.NEW) {
+                added |= enqueue(TaskQueueEntry.of(task));
+            }
+        }
+        if (added) {
+            notifier.signal();
+        }
+    }
+
+    /**
+     * Add an entry without signalling.
+     *
+     * @return true if it was not queued yet
+     */
+    private boolean enqueue(TaskQueueEntry entry) {
+        long createdAt = entry.createdAt() != null ? entry.createdAt().toEpochMilli() : Long.MIN_VALUE;
+        Slot slot = new Slot(entry, runtimeModel.estimateMs(entry), createdAt, seq.incrementAndGet());
+        if (byId.putIfAbsent(entry.id(), slot) == null) {
+            releaseSlot(entry.id());
+            share(entry.jobId()).queued.incrementAndGet();
+            buckets.compute(bucketKey(entry), (k, bucket) -> {
+                if (bucket == null) {
+                    bucket = new ConcurrentSkipListSet<>(ORDER);
+                }
+                bucket.add(slot);
+                return bucket;
+            });
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Re-queue a task after it was reset to NEW in the database.
+     * Looks up its ordering key without loading the payload.
+     */
+    public void requeue(String taskId) {
+        taskRepository.findQueueEntry(taskId).ifPresent(this::offer);
+    }
+
+    /**
+     * A task reached a terminal state: drop it from the queue and forget its
+     * blacklist entries.
+     */
+    public void onTerminal(String taskId) {
+        noteEnded(taskId);
+        Running task = running.remove(taskId);
+        if (task != null) {
+            JobShare share = share(task.entry().jobId());
+            share.running.decrementAndGet();
+            share.finished.record(System.currentTimeMillis());
+        }
+        remove(taskId);
+        if (blacklist != null) {
+            blacklist.clearForTask(taskId);
+        }
+        for (Consumer<String> listener : terminalListeners) {
+            listener.accept(taskId);
+        }
+    }
+
+    /**
+     * Be told of every task passed to {@link #onTerminal}.
+     */
+    public void addTerminalListener(Consumer<String> listener) {
+        terminalListeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    /**
+     * A RUNNING task completed: learn from its runtime. Call before
+     * {@link #onTerminal}.
+     */
+    public void onCompleted(String taskId, String spotId, long runtimeMs) {
+        Running task = running.get(taskId);
+        if (task != null) {
+            runtimeModel.observe(task.entry(), spotId, runtimeMs);
+        }
+    }
+
+    /**
+     * Job of a RUNNING task, or null if the task is not tracked.
+     */
+    public String jobOf(String taskId) {
+        Running task = running.get(taskId);
+        return task != null ? task.entry().jobId() : null;
+    }
+
+    /**
+     * Result cache key of a RUNNING task, taken when it was claimed; null if
+     * its job does not use the cache or the task is not tracked.
+     */
+    public String cacheKeyOf(String taskId) {
+        Running task = running.get(taskId);
+        return task != null ? task.cacheKey() : null;
+    }
+
+    /**
+     * A SPOT is gone: forget its blacklist entries and speed.
+     */
+    public void onSpotRemoved(String spotId) {
+        if (blacklist != null) {
+            blacklist.clearForSpot(spotId);
+        }
+        runtimeModel.forgetSpot(spotId);
+    }
+
+    /**
+     * Drop a task from the queue (e.g. cancelled).
+     */
+    public void remove(String taskId) {
+        Slot slot = byId.remove(taskId);
+        if (slot == null) {
+            return;
+        }
+        BucketKey key = bucketKey(slot.entry());
+        ConcurrentSkipListSet<Slot> bucket = buckets.get(key);
+        if (bucket != null && bucket.remove(slot)) {
+            share(slot.entry().jobId()).queued.decrementAndGet();
+            dropIfEmpty(key);
+        }
+    }
+
+    /**
+     * Count tasks claimed outside the queue (fresh combinations of lazy
+     * jobs) towards their jobs' RUNNING tasks.
+     */
+    public void recordClaimed(Collection<Task> claimed) {
+        long now = System.currentTimeMillis();
+        for (Task task : claimed) {
+            recordRunning(TaskQueueEntry.of(task), task, now);
+        }
+    }
+
+    /**
+     * Track a claimed task under its queue entry, which carries the
+     * features the runtime model and straggler checks key off.
+     */
+    private void recordRunning(TaskQueueEntry entry, Task task, long now) {
+        long claimedAt = task.startedAt() != null ? task.startedAt().toEpochMilli() : now;
+        String cacheKey = resultCache != null ? resultCache.keyOf(task) : null;
+        SyncWindow window = syncWindow;
+        if (window != null) {
+            window.claimed().add(task.id());
+        }
+        if (running.put(task.id(), new Running(entry, task.assignedTo(), claimedAt, cacheKey)) == null) {
+            JobShare share = share(task.jobId());
+            share.running.incrementAndGet();
+            share.claimed.record(now);
+        }
+    }
+
+    private void releaseSlot(String taskId) {
+        noteEnded(taskId);
+        Running task = running.remove(taskId);
+        if (task != null) {
+            share(task.entry().jobId()).running.decrementAndGet();
+        }
+    }
+
+    /**
+     * Tell a running {@link #syncRunning} that a task stopped running after
+     * its snapshot may have been read. Call before removing the task.
+     */
+    private void noteEnded(String taskId) {
+        SyncWindow window = syncWindow;
+        if (window != null) {
+            window.ended().add(taskId);
+        }
+    }
+
+    /**
+     * A RUNNING task moved to another SPOT (its speculative copy took over).
+     */
+    public void reassign(String taskId, String spotId) {
+        running.computeIfPresent(taskId, (k, task) -> task.withSpot(spotId));
+    }
+
+    /**
+     * RUNNING tasks a SPOT could run a speculative copy of: their job has
+     * nothing left in the queue, and they have run for at least
+     * {@code minRunMs} and {@code factor} times their predicted runtime.
+     * Tasks without a learned prediction are never stragglers.
+     *
+     * @param spotId       the idle SPOT; its own tasks are excluded
+     * @param capabilities which (optimizer_id, algorithm) buckets it may run
+     * @return stragglers, most overdue (run time / prediction) first
+     */
+    public List<Straggler> stragglers(String spotId, CapabilityFilter capabilities, long nowMs, double factor,
+            long minRunMs) {
+        Set<String> excluded = blacklist != null ? blacklist.excludedFor(spotId) : Set.of();
+        List<Straggler> found = new ArrayList<>();
+        for (var e : running.entrySet()) {
+            Running task = e.getValue();
+            TaskQueueEntry entry = task.entry();
+            long elapsed = nowMs - task.claimedAtMs();
+            if (elapsed < minRunMs || spotId.equals(task.spotId()) || excluded.contains(e.getKey())) {
+                continue;
+            }
+            JobShare share = jobs.get(jobKey(entry.jobId()));
+            if (share != null && share.queued.get() > 0) {
+                continue;
+            }
+            if (!capabilities.allows(new BucketKey(entry.optimizerId(), entry.algorithm()))) {
+                continue;
+            }
+            long expected = runtimeModel.expectedMs(entry);
+            if (expected > 0 && elapsed >= expected * factor) {
+                found.add(new Straggler(entry, task.spotId(), elapsed, expected));
+            }
+        }
+        found.sort(Comparator.comparingDouble((Straggler s) -> (double) s.elapsedMs() / s.expectedMs()).reversed());
+        return found;
+    }
+
+    /**
+     * A RUNNING task that has overrun its predicted runtime.
+     *
+     * @param spotId SPOT running it (null if unknown, e.g. after a resync)
+     */
+    public record Straggler(TaskQueueEntry entry, String spotId, long elapsedMs, long expectedMs) {
+    }
+
+    /**
+     * Reload the RUNNING tasks per job from the database.
+     *
+     * Claims and terminations that race with the read are noted in a
+     * {@link SyncWindow}: a task claimed meanwhile is kept even if the rows
+     * predate it, and one that ended meanwhile is not put back.
+     */
+    private synchronized void syncRunning() {
+        SyncWindow window = new SyncWindow(ConcurrentHashMap.newKeySet(), ConcurrentHashMap.newKeySet());
+        syncWindow = window;
+        long now = System.currentTimeMillis();
+        try {
+            Map<String, TaskQueueEntry> fresh = new HashMap<>();
+            for (TaskQueueEntry entry : taskRepository.findQueueEntries(TaskStatus.RUNNING)) {
+                fresh.put(entry.id(), entry);
+            }
+            running.keySet().removeIf(id -> !fresh.containsKey(id) && !window.claimed().contains(id));
+            // Tasks first seen here count as claimed now, on an unknown SPOT
+            Map<String, Running> added = new HashMap<>();
+            fresh.forEach((id, entry) -> {
+                Running task = new Running(entry, null, now, null);
+                if (!window.ended().contains(id) && running.putIfAbsent(id, task) == null) {
+                    added.put(id, task);
+                }
+            });
+            // Ended between the check above and the put: take back only our own entry
+            added.forEach((id, task) -> {
+                if (window.ended().contains(id)) {
+                    running.remove(id, task);
+                }
+            });
+        } finally {
+            syncWindow = null;
+        }
+
+        Map<String, Integer> counts = new HashMap<>();
+        running.values().forEach(task -> counts.merge(jobKey(task.entry().jobId()), 1, Integer::sum));
+        jobs.forEach((job, share) -> share.running.set(counts.getOrDefault(job, 0)));
+        counts.keySet().forEach(job -> share(job).running.set(counts.get(job)));
+
+        // Drop idle jobs; ones with a custom weight are kept so it survives
+        // a pause in their work (e.g. between ingest chunks)
+        jobs.values().removeIf(share -> share.weight == 1 && share.queued.get() <= 0
+                && share.running.get() <= 0 && share.finished.perMinute(now) == 0
+                && share.claimed.perMinute(now) == 0);
+    }
+
+    /**
+     * Claim up to {@code maxTasks} tasks for a SPOT, ignoring capabilities.
+     *
+     * @param spotId   the claiming SPOT
+     * @param maxTasks upper bound on tasks returned
+     * @param filter   extra per-entry filter, or null
+     * @return claimed tasks, already RUNNING in the database
+     */
+    public List<Task> claim(String spotId, int maxTasks, Predicate<TaskQueueEntry> filter) {
+        return claim(spotId, maxTasks, CapabilityFilter.ANY, filter);
+    }
+
+    /**
+     * Claim up to {@code maxTasks} tasks for a SPOT.
+     *
+     * @param spotId       the claiming SPOT
+     * @param maxTasks     upper bound on tasks returned
+     * @param capabilities which (optimizer_id, algorithm) buckets may be used
+     * @param filter       extra per-entry filter, or null
+     * @return claimed tasks, already RUNNING in the database
+     */
+    public List<Task> claim(String spotId, int maxTasks, CapabilityFilter capabilities,
+            Predicate<TaskQueueEntry> filter) {
+        Set<String> excluded = blacklist != null ? blacklist.excludedFor(spotId) : Set.of();
+        if (!excluded.isEmpty()) {
+            Predicate<TaskQueueEntry> notExcluded = e -> !excluded.contains(e.id());
+            filter = filter != null ? filter.and(notExcluded) : notExcluded;
+        }
+
+        List<Slot> taken = take(maxTasks, capabilities, filter, runtimeModel.isSlow(spotId));
+        if (taken.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> ids = new ArrayList<>(taken.size());
+        for (Slot slot : taken) {
+            ids.add(slot.entry().id());
+        }
+
+        try {
+            List<Task> claimed = taskRepository.claimByIds(spotId, ids);
+            Map<String, TaskQueueEntry> entries = new HashMap<>(taken.size() * 2);
+            for (Slot slot : taken) {
+                entries.put(slot.entry().id(), slot.entry());
+            }
+            long now = System.currentTimeMillis();
+            for (Task task : claimed) {
+                recordRunning(entries.get(task.id()), task, now);
+            }
+            return claimed;
+        } catch (RuntimeException e) {
+            // Nothing was committed - put the entries back
+            for (Slot slot : taken) {
+                enqueue(slot.entry());
+            }
+            notifier.signal();
+            throw e;
+        }
+    }
+
+    /**
+     * Pop matching entries, merging the heads of all allowed buckets in the
+     * policy's order. With {@code shortestFirst} each bucket is walked from
+     * its end (shortest predicted task first).
+     * {@code remove} succeeds for exactly one thread per slot, so concurrent
+     * claimers never get the same task.
+     */
+    private List<Slot> take(int maxTasks, CapabilityFilter capabilities, Predicate<TaskQueueEntry> filter,
+            boolean shortestFirst) {
+        List<Cursor> cursors = new ArrayList<>();
+        List<Cursor> opened = new ArrayList<>();
+        for (var e : buckets.entrySet()) {
+            if (capabilities.allows(e.getKey()) && !e.getValue().isEmpty()) {
+                Cursor c = new Cursor(e.getKey(), e.getValue(), share(e.getKey().jobId()), shortestFirst);
+                opened.add(c);
+                if (c.advance(filter)) {
+                    cursors.add(c);
+                }
+            }
+        }
+
+        // Tasks taken in this claim per job, not yet counted as RUNNING
+        Map<JobShare, Integer> takenPerJob = new HashMap<>();
+        List<Slot> taken = new ArrayList<>(maxTasks);
+        while (taken.size() < maxTasks && !cursors.isEmpty()) {
+            Cursor best = cursors.get(0);
+            for (int i = 1; i < cursors.size(); i++) {
+                if (before(cursors.get(i), best, takenPerJob)) {
+                    best = cursors.get(i);
+                }
+            }
+
+            Slot slot = best.head;
+            if (best.bucket.remove(slot)) {
+                byId.remove(slot.entry().id(), slot);
+                best.job.queued.decrementAndGet();
+                takenPerJob.merge(best.job, 1, Integer::sum);
+                taken.add(slot);
+            }
+            if (!best.advance(filter)) {
+                cursors.remove(best);
+            }
+        }
+        for (Cursor c : opened) {
+            if (c.bucket.isEmpty()) {
+                dropIfEmpty(c.key);
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Whether cursor {@code a}'s head goes before {@code b}'s under the policy.
+     */
+    private boolean before(Cursor a, Cursor b, Map<JobShare, Integer> takenPerJob) {
+        switch (policy) {
+            case FIFO:
+                return FIFO.compare(a.head, b.head) < 0;
+            case FAIR_SHARE:
+                if (a.job != b.job) {
+                    // Compare running/weight without division
+                    long aLoad = (long) (a.job.running.get() + takenPerJob.getOrDefault(a.job, 0)) * b.job.weight;
+                    long bLoad = (long) (b.job.running.get() + takenPerJob.getOrDefault(b.job, 0)) * a.job.weight;
+                    if (aLoad != bLoad) {
+                        return aLoad < bLoad;
+                    }
+                }
+                return FIFO.compare(a.head, b.head) < 0;
+            default:
+                return ORDER.compare(a.head, b.head) < 0;
+        }
+    }
+
+    private static BucketKey bucketKey(TaskQueueEntry entry) {
+        return new BucketKey(entry.optimizerId(), entry.algorithm(), jobKey(entry.jobId()));
+    }
+
+    /**
+     * Drop a drained bucket, so claims stop walking the buckets of finished
+     * jobs. Runs in the same map lock as {@link #enqueue}'s add, so a slot is
+     * never added to a bucket that is being dropped.
+     */
+    private void dropIfEmpty(BucketKey key) {
+        buckets.computeIfPresent(key, (k, bucket) -> bucket.isEmpty() ? null : bucket);
+    }
+
+    private JobShare share(String jobId) {
+        return jobs.computeIfAbsent(jobKey(jobId), JobShare::new);
+    }
+
+    private static String jobKey(String jobId) {
+        return jobId != null ? jobId : NO_JOB;
+    }
+
+    /**
+     * Scheduling counters of every job with queued, RUNNING or recently
+     * finished tasks.
+     */
+    public List<JobStats> jobStats() {
+        long now = System.currentTimeMillis();
+        List<JobShare> active = jobs.values().stream()
+                .filter(job -> job.queued.get() > 0 || job.running.get() > 0 || job.finished.perMinute(now) > 0)
+                .toList();
+        int totalRunning = 0;
+        long demandWeight = 0;
+        for (JobShare job : active) {
+            totalRunning += Math.max(0, job.running.get());
+            if (job.queued.get() > 0 || job.running.get() > 0) {
+                demandWeight += job.weight;
+            }
+        }
+
+        List<JobStats> stats = new ArrayList<>(active.size());
+        for (JobShare job : active) {
+            int runningNow = Math.max(0, job.running.get());
+            boolean demand = job.queued.get() > 0 || runningNow > 0;
+            stats.add(new JobStats(
+                    job.jobId.isEmpty() ? null : job.jobId,
+                    job.weight,
+                    Math.max(0, job.queued.get()),
+                    runningNow,
+                    totalRunning > 0 ? (double) runningNow / totalRunning : 0,
+                    demand && demandWeight > 0 ? (double) job.weight / demandWeight : 0,
+                    job.claimed.perMinute(now),
+                    job.finished.perMinute(now)));
+        }
+        return stats;
+    }
+
+    /**
+     * Per-job scheduling counters.
+     *
+     * @param share             fraction of all RUNNING tasks that belong to the job
+     * @param targetShare       weight / sum of the weights of jobs with work
+     *                          (what FAIR_SHARE converges to)
+     * @param claimedPerMinute  tasks claimed in the last minute
+     * @param finishedPerMinute tasks completed or permanently failed in the
+     *                          last minute
+     */
+    public record JobStats(String jobId, int weight, int queued, int running, double share,
+            double targetShare, long claimedPerMinute, long finishedPerMinute) {
+    }
+
+    /**
+     * Number of tasks currently queued.
+     */
+    public int size() {
+        return byId.size();
+    }
+
+    public boolean contains(String taskId) {
+        return byId.containsKey(taskId);
+    }
+
+    /**
+     * Number of non-empty (optimizer_id, algorithm, job) buckets.
+     */
+    public int bucketCount() {
+        return buckets.size();
+    }
+
+    private record Slot(TaskQueueEntry entry, long estimateMs, long createdAt, long seq) {
+    }
+
+    /**
+     * Tasks claimed and ended while {@link #syncRunning} reads the RUNNING
+     * rows.
+     */
+    private record SyncWindow(Set<String> claimed, Set<String> ended) {
+    }
+
+    private record Running(TaskQueueEntry entry, String spotId, long claimedAtMs, String cacheKey) {
+
+        Running withSpot(String spotId) {
+            return new Running(entry, spotId, claimedAtMs, cacheKey);
+        }
+    }
+
+    /**
+     * Bucket key; null optimizer/algorithm mean "no requirement" on the task
+     * side.
+     */
+    record BucketKey(String optimizerId, String algorithm, String jobId) {
+
+        BucketKey(String optimizerId, String algorithm) {
+            this(optimizerId, algorithm, NO_JOB);
+        }
+    }
+
+    /**
+     * Scheduling state of one job.
+     */
+    private static final class JobShare {
+        final String jobId;
+        volatile int weight = 1;
+        final AtomicInteger queued = new AtomicInteger();
+        final AtomicInteger running = new AtomicInteger();
+        final Throughput claimed = new Throughput();
+        final Throughput finished = new Throughput();
+
+        JobShare(String jobId) {
+            this.jobId = jobId;
+        }
+    }
+
+    /**
+     * Events per second over the last minute, in a ring of one-second
+     * counters.
+     */
+    private static final class Throughput {
+        private static final int SECONDS = 60;
+        private final long[] second = new long[SECONDS];
+        private final long[] count = new long[SECONDS];
+
+        synchronized void record(long nowMs) {
+            long sec = nowMs / 1000;
+            int i = (int) (sec % SECONDS);
+            if (second[i] != sec) {
+                second[i] = sec;
+                count[i] = 0;
+            }
+            count[i]++;
+        }
+
+        synchronized long perMinute(long nowMs) {
+            long sec = nowMs / 1000;
+            long total = 0;
+            for (int i = 0; i < SECONDS; i++) {
+                if (sec - second[i] < SECONDS) {
+                    total += count[i];
+                }
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Walks one bucket in order (or reverse order), skipping entries rejected
+     * by the filter.
+     */
+    private static final class Cursor {
+        final BucketKey key;
+        final ConcurrentSkipListSet<Slot> bucket;
+        final JobShare job;
+        final Iterator<Slot> it;
+        Slot head;
+
+        Cursor(BucketKey key, ConcurrentSkipListSet<Slot> bucket, JobShare job, boolean reverse) {
+            this.key = key;
+            this.bucket = bucket;
+            this.job = job;
+            this.it = reverse ? bucket.descendingIterator() : bucket.iterator();
+        }
+
+        boolean advance(Predicate<TaskQueueEntry> filter) {
+            while (it.hasNext()) {
+                Slot next = it.next();
+                if (filter == null || filter.test(next.entry())) {
+                    head = next;
+                    return true;
+                }
+            }
+            head = null;
+            return false;
+        }
+    }
+
+    /**
+     * The (optimizer_id, algorithm) pairs a SPOT can run.
+     * Same semantics as the SQL claim: an empty set means "no restriction",
+     * and tasks with a NULL optimizer_id/algorithm match any SPOT.
+     */
+    public record CapabilityFilter(Set<String> optimizerIds, Set<String> algorithms) {
+
+        public static final CapabilityFilter ANY = new CapabilityFilter(Set.of(), Set.of());
+
+        public CapabilityFilter {
+            optimizerIds = Set.copyOf(Objects.requireNonNull(optimizerIds));
+            algorithms = Set.copyOf(Objects.requireNonNull(algorithms));
+        }
+
+        boolean allows(BucketKey key) {
+            return (key.optimizerId() == null || optimizerIds.isEmpty() || optimizerIds.contains(key.optimizerId()))
+                    && (key.algorithm() == null || algorithms.isEmpty() || algorithms.contains(key.algorithm()));
+        }
+    }
+
+    public static final class Builder {
+        private final TaskRepository taskRepository;
+        private SpotTaskBlacklist blacklist;
+        private ClaimNotifier notifier;
+        private SchedulingPolicy policy = SchedulingPolicy.PRIORITY;
+        private RuntimeModel runtimeModel;
+        private ResultCache resultCache;
+
+        private Builder(TaskRepository taskRepository) {
+            this.taskRepository = taskRepository;
+        }
+
+        /** UNSUPPORTED pairs to skip (unset = none) */
+        public Builder blacklist(SpotTaskBlacklist blacklist) {
+            this.blacklist = blacklist;
+            return this;
+        }
+
+        /** Wakes parked claims (unset = a private one) */
+        public Builder notifier(ClaimNotifier notifier) {
+            this.notifier = notifier;
+            return this;
+        }
+
+        /** Order of the merged bucket heads (default PRIORITY) */
+        public Builder policy(SchedulingPolicy policy) {
+            this.policy = policy;
+            return this;
+        }
+
+        public Builder runtimeModel(RuntimeModel runtimeModel) {
+            this.runtimeModel = runtimeModel;
+            return this;
+        }
+
+        /** Keys claimed tasks of jobs that use the cache (unset = none) */
+        public Builder resultCache(ResultCache resultCache) {
+            this.resultCache = resultCache;
+            return this;
+        }
+
+        public TaskDispatcher build() {
+            return new TaskDispatcher(this);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package orhestra.coordinator.service;
+
+import orhestra.coordinator.config.CoordinatorConfig;
+import orhestra.coordinator.model.Task;
+import orhestra.coordinator.model.TaskQueueEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Leases on RUNNING tasks, replacing the fixed {@code taskStuckThreshold}.
+ *
+ * A claim grants one lease per task. The lease expires at the earlier of:
+ * - its renewal window: {@code taskLeaseDuration} after the SPOT last
+ *   renewed it (every heartbeat renews the SPOT's leases, or only the
+ *   {@code taskIds} it lists)
+ * - its deadline: claim time + a budget learned from the runtimes of
+ *   completed tasks of the same job and algorithm — p99 × {@code
+ *   taskDeadlineFactor} plus the claim lead time (a claimed task may wait
+ *   that long on the SPOT before it starts), never below the lease duration.
+ *   Until {@link #MIN_SAMPLES} runtimes are known the budget is
+ *   {@code taskStuckThreshold}.
+ *   A job's runtimes are dropped once it is finished or deleted (see
+ *   {@code TaskReaper}).
+ *
+ * Expiry is found with a deadline queue ordered by due time. Renewals do
+ * not touch the queue: a lease that comes due but was renewed is pushed back
+ * to its new expiry.
+ */
+public class TaskLeases {
+
+    /** Runtimes needed before a learned budget replaces the default */
+    static final int MIN_SAMPLES = 10;
+
+    /** Most recent runtimes kept per job and algorithm */
+    static final int WINDOW = 256;
+
+    private final CoordinatorConfig config;
+    private final ConcurrentHashMap<String, Lease> byTask = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> bySpot = new ConcurrentHashMap<>();
+    // Job -> algorithm -> recent runtimes
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, RuntimeWindow>> runtimes =
+            new ConcurrentHashMap<>();
+    private final PriorityQueue<Due> queue = new PriorityQueue<>();
+
+    public TaskLeases(CoordinatorConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * A SPOT's claim on a RUNNING task.
+     */
+    public static final class Lease {
+        private final String taskId;
+        private final String spotId;
+        private final String jobId;
+        private final String algorithm;
+        private final long deadlineMs;
+        private volatile long renewedUntilMs;
+
+        Lease(String taskId, String spotId, String jobId, String algorithm, long deadlineMs, long renewedUntilMs) {
+            this.taskId = taskId;
+            this.spotId = spotId;
+            this.jobId = jobId;
+            this.algorithm = algorithm;
+            this.deadlineMs = deadlineMs;
+            this.renewedUntilMs = renewedUntilMs;
+        }
+
+        public String taskId() {
+            return taskId;
+        }
+
+        public String spotId() {
+            return spotId;
+        }
+
+        public long deadlineMs() {
+            return deadlineMs;
+        }
+
+        public long expiresAtMs() {
+            return Math.min(renewedUntilMs, deadlineMs);
+        }
+    }
+
+    private record Due(Lease lease, long atMs) implements Comparable<Due> {
+        @Override
+        public int compareTo(Due other) {
+            return Long.compare(atMs, other.atMs);
+        }
+    }
+
+    /**
+     * Grant a lease on each claimed task. Claimed tasks carry the same
+     * columns as their queue entries, so both grants learn under one key.
+     */
+    public void grant(String spotId, Collection<Task> claimed) {
+        for (Task task : claimed) {
+            grant(spotId, task.id(), jobKey(task.jobId()), algorithmKey(task.algorithm(), task.optimizerId()));
+        }
+    }
+
+    /**
+     * Grant a lease on a task that moved to another SPOT (a speculative copy
+     * took over); the deadline starts afresh.
+     */
+    public void grant(String spotId, TaskQueueEntry entry) {
+        grant(spotId, entry.id(), jobKey(entry.jobId()), algorithmKey(entry.algorithm(), entry.optimizerId()));
+    }
+
+    private void grant(String spotId, String taskId, String jobId, String algorithm) {
+        long now = System.currentTimeMillis();
+        Lease lease = new Lease(taskId, spotId, jobId, algorithm, now + budgetMs(jobId, algorithm),
+                now + config.taskLeaseDuration().toMillis());
+        Lease previous = byTask.put(taskId, lease);
+        if (previous != null) {
+            unindex(previous);
+        }
+        bySpot.compute(spotId, (k, tasks) -> {
+            if (tasks == null) {
+                tasks = ConcurrentHashMap.newKeySet();
+            }
+            tasks.add(taskId);
+            return tasks;
+        });
+        synchronized (queue) {
+            queue.add(new Due(lease, lease.expiresAtMs()));
+        }
+    }
+
+    /**
+     * Renew a SPOT's leases.
+     *
+     * @param taskIds tasks the SPOT reports as running, or null for all of
+     *                its leases
+     * @return number of leases renewed
+     */
+    public int renew(String spotId, Collection<String> taskIds) {
+        Set<String> held = bySpot.get(spotId);
+        if (held == null) {
+            return 0;
+        }
+        long until = System.currentTimeMillis() + config.taskLeaseDuration().toMillis();
+        int renewed = 0;
+        for (String taskId : taskIds != null ? taskIds : held) {
+            Lease lease = byTask.get(taskId);
+            if (lease != null && lease.spotId.equals(spotId)) {
+                lease.renewedUntilMs = until;
+                renewed++;
+            }
+        }
+        return renewed;
+    }
+
+    /**
+     * Drop a task's lease (finished, failed or requeued).
+     */
+    public void release(String taskId) {
+        Lease lease = byTask.remove(taskId);
+        if (lease != null) {
+            unindex(lease);
+        }
+    }
+
+    /**
+     * Drop every lease a SPOT holds (the SPOT is gone and its tasks freed).
+     */
+    public void releaseSpot(String spotId) {
+        Set<String> held = bySpot.remove(spotId);
+        if (held != null) {
+            for (String taskId : held) {
+                byTask.computeIfPresent(taskId, (k, lease) -> lease.spotId.equals(spotId) ? null : lease);
+            }
+        }
+    }
+
+    /**
+     * A task completed: drop its lease and learn from its runtime.
+     */
+    public void complete(String taskId, long runtimeMs) {
+        Lease lease = byTask.remove(taskId);
+        if (lease == null) {
+            return;
+        }
+        unindex(lease);
+        if (runtimeMs > 0) {
+            runtimes.computeIfAbsent(lease.jobId, k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(lease.algorithm, k -> new RuntimeWindow())
+                    .add(runtimeMs);
+        }
+    }
+
+    /**
+     * Drop the runtimes learned for a job (it finished or was deleted).
+     * Its remaining leases keep their deadlines.
+     */
+    public void forgetJob(String jobId) {
+        runtimes.remove(jobKey(jobId));
+    }
+
+    /**
+     * IDs of the jobs with learned runtimes (live view).
+     */
+    public Set<String> learnedJobIds() {
+        return Collections.unmodifiableSet(runtimes.keySet());
+    }
+
+    /**
+     * Remove and return the leases that have expired by {@code nowMs}.
+     */
+    public List<Lease> expired(long nowMs) {
+        List<Lease> expired = new ArrayList<>();
+        synchronized (queue) {
+            while (!queue.isEmpty() && queue.peek().atMs() <= nowMs) {
+                Lease lease = queue.poll().lease();
+                if (byTask.get(lease.taskId) != lease) {
+                    continue; // released or re-granted
+                }
+                long expiresAt = lease.expiresAtMs();
+                if (expiresAt > nowMs) {
+                    queue.add(new Due(lease, expiresAt)); // renewed since
+                } else if (byTask.remove(lease.taskId, lease)) {
+                    unindex(lease);
+                    expired.add(lease);
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Current lease on a task.
+     */
+    public Lease get(String taskId) {
+        return byTask.get(taskId);
+    }
+
+    /**
+     * IDs of the leased tasks (live view).
+     */
+    public Set<String> taskIds() {
+        return Collections.unmodifiableSet(byTask.keySet());
+    }
+
+    public int size() {
+        return byTask.size();
+    }
+
+    /**
+     * Run-time budget for tasks of a job and algorithm.
+     */
+    long budgetMs(String jobId, String algorithm) {
+        Map<String, RuntimeWindow> windows = runtimes.get(jobId);
+        RuntimeWindow window = windows != null ? windows.get(algorithm) : null;
+        long p99 = window != null ? window.p99() : -1;
+        if (p99 < 0) {
+            return config.taskStuckThreshold().toMillis();
+        }
+        long learned = (long) (p99 * config.taskDeadlineFactor()) + config.claimLeadTime().toMillis();
+        return Math.max(learned, config.taskLeaseDuration().toMillis());
+    }
+
+    private static String jobKey(String jobId) {
+        return jobId != null ? jobId : "";
+    }
+
+    private static String algorithmKey(String algorithm, String optimizerId) {
+        return algorithm != null ? algorithm : optimizerId != null ? optimizerId : "";
+    }
+
+    private void unindex(Lease lease) {
+        bySpot.computeIfPresent(lease.spotId, (k, tasks) -> {
+            tasks.remove(lease.taskId);
+            return tasks.isEmpty() ? null : tasks;
+        });
+    }
+
+    /**
+     * Ring buffer of recent runtimes; the p99 is recomputed on each sample.
+     */
+    private static final class RuntimeWindow {
+        private final long[] samples = new long[WINDOW];
+        private int count;
+        private int next;
+        private volatile long p99 = -1;
+
+        synchronized void add(long runtimeMs) {
+            samples[next] = runtimeMs;
+            next = (next + 1) % WINDOW;
+            count = Math.min(count + 1, WINDOW);
+            if (count >= MIN_SAMPLES) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                p99 = sorted[(int) Math.ceil(count * 0.99) - 1];
+            }
+        }
+
+        long p99() {
+            return p99;
+        }
+    }
+}
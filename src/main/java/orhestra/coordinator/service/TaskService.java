@@ -3,17 +3,24 @@ package orhestra.coordinator.service;
 import orhestra.coordinator.api.internal.v1.dto.ClaimTasksResponse;
 import orhestra.coordinator.config.CoordinatorConfig;
 import orhestra.coordinator.model.*;
-import orhestra.coordinator.repository.SpotRepository;
 import orhestra.coordinator.repository.TaskRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
 
 /**
  * Service layer for task operations.
@@ -25,21 +32,37 @@ public class TaskService {
     private static final Logger log = LoggerFactory.getLogger(TaskService.class);
 
     private final TaskRepository taskRepository;
-    private final SpotRepository spotRepository;
+    private final SpotRegistry spotRegistry;
     private final SpotTaskBlacklist blacklist;
+    private final TaskDispatcher dispatcher;
+    private final LazyTaskSource lazyTasks;
+    private final TaskLeases leases;
+    private final SpeculativeExecution speculation;
+    private final EarlyStopping earlyStopping;
+    private final ResultCache resultCache;
+    private final ClaimQuota claimQuota;
     private final CoordinatorConfig config;
-    private static final ObjectMapper mapper = new ObjectMapper();
 
-    public TaskService(TaskRepository taskRepository, CoordinatorConfig config) {
-        this(taskRepository, null, null, config);
+    private TaskService(Builder builder) {
+        this.taskRepository = builder.taskRepository;
+        this.spotRegistry = builder.spotRegistry;
+        this.blacklist = builder.blacklist;
+        this.dispatcher = builder.dispatcher;
+        this.lazyTasks = builder.lazyTasks;
+        this.leases = builder.leases;
+        this.speculation = builder.speculation;
+        this.earlyStopping = builder.earlyStopping;
+        this.resultCache = builder.resultCache;
+        this.config = builder.config;
+        this.claimQuota = new ClaimQuota(taskRepository, spotRegistry, dispatcher, lazyTasks, config);
     }
 
-    public TaskService(TaskRepository taskRepository, SpotRepository spotRepository,
-            SpotTaskBlacklist blacklist, CoordinatorConfig config) {
-        this.taskRepository = taskRepository;
-        this.spotRepository = spotRepository;
-        this.blacklist = blacklist;
-        this.config = config;
+    /**
+     * Start building a service. Collaborators not set are off: claims go
+     * straight to the database, with no leases, copies or result reuse.
+     */
+    public static Builder builder(TaskRepository taskRepository, CoordinatorConfig config) {
+        return new Builder(taskRepository, config);
     }
 
     /**
@@ -47,6 +70,16 @@ public class TaskService {
      * Atomically assigns up to maxTasks to the SPOT.
      */
     public List<Task> claimTasks(String spotId, int maxTasks) {
+        return claim(spotId, maxTasks).tasks();
+    }
+
+    /**
+     * Claim tasks for a SPOT node, bounded by its claim quota
+     * (see {@link ClaimQuota}).
+     *
+     * @return claimed tasks and the suggested size of the next claim
+     */
+    public ClaimResult claim(String spotId, int maxTasks) {
         if (spotId == null || spotId.isBlank()) {
             throw new IllegalArgumentException("spotId is required");
         }
@@ -54,33 +87,147 @@ public class TaskService {
             throw new IllegalArgumentException("maxTasks must be positive");
         }
 
-        int limit = Math.min(maxTasks, 10);
+        // Nothing queued: answer from memory (idle SPOTs cost no DB work
+        // unless there are stragglers to copy, which count against the quota)
+        if (dispatcher != null && dispatcher.size() == 0
+                && (lazyTasks == null || !lazyTasks.hasPending())) {
+            ClaimQuota.Quota[] quota = {null};
+            List<Task> copies = speculate(spotId, () -> {
+                quota[0] = claimQuota.quotaFor(spotId);
+                return Math.min(maxTasks, quota[0].limit());
+            });
+            return new ClaimResult(copies, quota[0] != null ? quota[0].batch() : claimQuota.batchFor(spotId));
+        }
+
+        ClaimQuota.Quota quota = claimQuota.quotaFor(spotId);
+        int limit = Math.min(maxTasks, quota.limit());
+        List<Task> claimed = limit > 0 ? claimUpTo(spotId, limit) : List.of();
+        if (leases != null && !claimed.isEmpty()) {
+            leases.grant(spotId, claimed);
+        }
+        if (claimed.isEmpty() && limit > 0) {
+            claimed = speculate(spotId, limit);
+        }
+        return new ClaimResult(claimed, quota.batch());
+    }
+
+    /**
+     * Copies of stragglers for a SPOT that found nothing to claim. Copies
+     * hold no lease: the original's lease covers the task.
+     */
+    private List<Task> speculate(String spotId, int limit) {
+        return speculate(spotId, () -> limit);
+    }
+
+    private List<Task> speculate(String spotId, IntSupplier limit) {
+        if (speculation == null || !speculation.enabled()) {
+            return List.of();
+        }
+        TaskDispatcher.CapabilityFilter caps = spotRegistry != null
+                ? spotRegistry.capabilityFilter(spotId)
+                : TaskDispatcher.CapabilityFilter.ANY;
+        return speculation.claim(spotId, limit, caps);
+    }
+
+    /**
+     * Long-poll claim: claim now, or park until tasks become claimable or
+     * {@code wait} elapses (capped by {@link CoordinatorConfig#maxClaimWait()}).
+     *
+     * While parked no thread or DB connection is held; the retry after a
+     * wake-up runs on {@code executor}. Cancelling the returned future (e.g.
+     * the connection closed) abandons the wait without claiming anything.
+     *
+     * @return future with the claimed tasks (empty on timeout)
+     */
+    public CompletableFuture<ClaimResult> claimWhenAvailable(String spotId, int maxTasks, Duration wait,
+            Executor executor) {
+        ClaimNotifier notifier = dispatcher != null ? dispatcher.notifier() : null;
+        long seen = notifier != null ? notifier.version() : 0;
+        ClaimResult first = claim(spotId, maxTasks);
+
+        Duration capped = wait.compareTo(config.maxClaimWait()) > 0 ? config.maxClaimWait() : wait;
+        if (!first.tasks().isEmpty() || notifier == null || capped.isZero() || capped.isNegative()) {
+            return CompletableFuture.completedFuture(first);
+        }
+
+        CompletableFuture<ClaimResult> result = new CompletableFuture<>();
+        parkClaim(result, notifier, seen, spotId, maxTasks, System.nanoTime() + capped.toNanos(),
+                first.quota(), executor);
+        return result;
+    }
+
+    private void parkClaim(CompletableFuture<ClaimResult> result, ClaimNotifier notifier, long seen,
+            String spotId, int maxTasks, long deadline, int quota, Executor executor) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            result.complete(new ClaimResult(List.of(), quota));
+            return;
+        }
 
-        // Try capability-aware claim if spot repository is available
-        if (spotRepository != null) {
-            Optional<Spot> spotOpt = spotRepository.findById(spotId);
-            if (spotOpt.isPresent()) {
-                Spot spot = spotOpt.get();
-                String capJson = spot.capabilitiesJson();
-                if (capJson != null && !capJson.isBlank()) {
+        CompletableFuture<Boolean> waiter = notifier.await(seen, Duration.ofNanos(remaining));
+        result.whenComplete((r, t) -> waiter.cancel(false));
+        waiter.thenAccept(woken -> {
+            if (result.isDone()) {
+                return;
+            }
+            if (!woken) {
+                result.complete(new ClaimResult(List.of(), quota));
+                return;
+            }
+            try {
+                executor.execute(() -> {
+                    if (result.isDone()) {
+                        return;
+                    }
                     try {
-                        SpotCapabilities caps = mapper.readValue(capJson, SpotCapabilities.class);
-                        List<String> optIds = caps.optimizerIds();
-                        List<String> algs = caps.allAlgorithms();
-
-                        // Get blacklisted task IDs for this spot
-                        List<String> excluded = blacklist != null
-                                ? taskRepository.findByStatus(TaskStatus.NEW, 1000).stream()
-                                        .map(Task::id)
-                                        .filter(tid -> blacklist.isBlacklisted(spotId, tid))
-                                        .toList()
-                                : Collections.emptyList();
-
-                        return taskRepository.claimTasks(spotId, limit, optIds, algs, excluded);
-                    } catch (Exception e) {
-                        log.warn("Failed to parse capabilities for spot {}, falling back to unfiltered", spotId, e);
+                        long version = notifier.version();
+                        ClaimResult r = claim(spotId, maxTasks);
+                        if (!r.tasks().isEmpty()) {
+                            result.complete(r);
+                        } else {
+                            // Another SPOT won the race: wait for the next signal
+                            parkClaim(result, notifier, version, spotId, maxTasks, deadline, r.quota(), executor);
+                        }
+                    } catch (Throwable t) {
+                        result.completeExceptionally(t);
                     }
-                }
+                });
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+    }
+
+    private List<Task> claimUpTo(String spotId, int limit) {
+
+        if (dispatcher != null) {
+            // Capabilities select buckets; the dispatcher applies the blacklist
+            TaskDispatcher.CapabilityFilter caps = spotRegistry != null
+                    ? spotRegistry.capabilityFilter(spotId)
+                    : TaskDispatcher.CapabilityFilter.ANY;
+            List<Task> claimed = dispatcher.claim(spotId, limit, caps, null);
+
+            // Queued rows (retries, eager jobs) first, then fresh combinations
+            // of lazy jobs
+            if (claimed.size() < limit && lazyTasks != null && lazyTasks.hasPending()) {
+                List<Task> all = new ArrayList<>(claimed);
+                all.addAll(lazyTasks.claim(spotId, limit - claimed.size(), caps));
+                return all;
+            }
+            return claimed;
+        }
+
+        // Try capability-aware claim if spot registry is available
+        if (spotRegistry != null) {
+            Optional<SpotRegistry.SpotProfile> profile = spotRegistry.get(spotId);
+            if (profile.isPresent() && profile.get().hasCapabilities()) {
+                // Get blacklisted task IDs for this spot
+                List<String> excluded = blacklist != null
+                        ? List.copyOf(blacklist.excludedFor(spotId))
+                        : Collections.emptyList();
+
+                return taskRepository.claimTasks(spotId, limit,
+                        profile.get().optimizerIds(), profile.get().algorithms(), excluded);
             }
         }
 
@@ -102,9 +249,14 @@ public class TaskService {
             throw new IllegalArgumentException("spotId is required");
         }
 
+        adoptCopy(taskId, spotId);
         boolean completed = taskRepository.complete(taskId, spotId, runtimeMs, iter, fopt, result);
 
         if (completed) {
+            recordRuntime(spotId, taskId, runtimeMs);
+            checkStop(taskId, fopt);
+            cacheResult(taskId, iter, fopt, result);
+            onTerminal(taskId);
             log.info("Task {} completed by spot {} in {}ms", taskId, spotId, runtimeMs);
         } else {
             log.warn("Failed to complete task {} by spot {} - not found or not assigned", taskId, spotId);
@@ -126,8 +278,18 @@ public class TaskService {
             throw new IllegalArgumentException("spotId is required");
         }
 
+        adoptCopy(taskId, spotId);
         TaskCompleteResult res = taskRepository.completeIdempotent(taskId, spotId, runtimeMs, iter, fopt, result);
 
+        if (res == TaskCompleteResult.COMPLETED) {
+            recordRuntime(spotId, taskId, runtimeMs);
+            checkStop(taskId, fopt);
+            cacheResult(taskId, iter, fopt, result);
+        }
+        if (res == TaskCompleteResult.COMPLETED || res == TaskCompleteResult.ALREADY_DONE) {
+            onTerminal(taskId);
+        }
+
         if (res == TaskCompleteResult.COMPLETED) {
             log.info("Task {} completed by spot {} in {}ms", taskId, spotId, runtimeMs);
         } else if (res == TaskCompleteResult.ALREADY_DONE) {
@@ -139,6 +301,87 @@ public class TaskService {
         return res;
     }
 
+    /**
+     * Report many completions and failures from one SPOT in a single
+     * transaction (see {@link TaskRepository#reportBatch}).
+     */
+    public TaskBatchResult reportBatch(String spotId, List<TaskCompletion> completions,
+            List<TaskFailure> failures) {
+        if (spotId == null || spotId.isBlank()) {
+            throw new IllegalArgumentException("spotId is required");
+        }
+
+        // A failed speculative copy is dropped; the original carries on
+        Set<String> failedCopies = new HashSet<>();
+        if (speculation != null) {
+            completions.forEach(c -> adoptCopy(c.taskId(), spotId));
+            for (TaskFailure f : failures) {
+                if (speculation.dropCopy(f.taskId(), spotId)) {
+                    failedCopies.add(f.taskId());
+                }
+            }
+        }
+        TaskBatchResult res;
+        if (failedCopies.isEmpty()) {
+            res = taskRepository.reportBatch(spotId, completions, failures);
+        } else {
+            res = withFailedCopies(taskRepository.reportBatch(spotId, completions,
+                    failures.stream().filter(f -> !failedCopies.contains(f.taskId())).toList()),
+                    failures, failedCopies);
+        }
+
+        for (int i = 0; i < completions.size(); i++) {
+            TaskCompleteResult r = res.completed().get(i).result();
+            TaskCompletion c = completions.get(i);
+            if (r == TaskCompleteResult.COMPLETED) {
+                recordRuntime(spotId, c.taskId(), c.runtimeMs());
+                checkStop(c.taskId(), c.fopt());
+                cacheResult(c.taskId(), c.iter(), c.fopt(), c.result());
+            }
+            if (r == TaskCompleteResult.COMPLETED || r == TaskCompleteResult.ALREADY_DONE) {
+                onTerminal(c.taskId());
+            }
+        }
+
+        for (int i = 0; i < failures.size(); i++) {
+            TaskFailResult r = res.failed().get(i).result();
+            TaskFailure f = failures.get(i);
+            if (r == TaskFailResult.FAILED || r == TaskFailResult.ALREADY_TERMINAL) {
+                onTerminal(f.taskId());
+            } else if (r == TaskFailResult.RETRIED && f.forceRequeue() && blacklist != null) {
+                // Blacklist before requeueing so this SPOT cannot take it back
+                blacklist.blacklist(spotId, f.taskId());
+            }
+        }
+
+        if (speculation != null) {
+            res.requeued().forEach(entry -> speculation.release(entry.id()));
+        }
+        if (dispatcher != null) {
+            dispatcher.offerAll(res.requeued());
+        }
+
+        log.info("Spot {} reported {} completions and {} failures in one batch",
+                spotId, completions.size(), failures.size());
+        return res;
+    }
+
+    /**
+     * Merge the outcomes of failed speculative copies (RETRIED: the original
+     * still runs) back into request order.
+     */
+    private static TaskBatchResult withFailedCopies(TaskBatchResult res, List<TaskFailure> failures,
+            Set<String> failedCopies) {
+        List<TaskBatchResult.Failed> failed = new ArrayList<>(failures.size());
+        Iterator<TaskBatchResult.Failed> own = res.failed().iterator();
+        for (TaskFailure f : failures) {
+            failed.add(failedCopies.contains(f.taskId())
+                    ? new TaskBatchResult.Failed(f.taskId(), TaskFailResult.RETRIED)
+                    : own.next());
+        }
+        return new TaskBatchResult(res.completed(), failed, res.requeued());
+    }
+
     /**
      * Report task failure.
      * 
@@ -151,8 +394,17 @@ public class TaskService {
         if (spotId == null || spotId.isBlank()) {
             throw new IllegalArgumentException("spotId is required");
         }
+        if (speculation != null && speculation.dropCopy(taskId, spotId)) {
+            return true;
+        }
 
-        return taskRepository.fail(taskId, spotId, errorMessage, retriable);
+        boolean willRetry = taskRepository.fail(taskId, spotId, errorMessage, retriable);
+        if (willRetry) {
+            requeue(taskId);
+        } else {
+            onTerminalIfFinished(taskId);
+        }
+        return willRetry;
     }
 
     /**
@@ -169,6 +421,13 @@ public class TaskService {
             throw new IllegalArgumentException("spotId is required");
         }
 
+        if (speculation != null && speculation.dropCopy(taskId, spotId)) {
+            if (reason == FailureReason.UNSUPPORTED && blacklist != null) {
+                blacklist.blacklist(spotId, taskId);
+            }
+            return true; // the original still runs
+        }
+
         if (reason == FailureReason.UNSUPPORTED) {
             // Don't count as attempt, re-queue for another spot
             if (blacklist != null)
@@ -176,6 +435,7 @@ public class TaskService {
             log.info("Task {} UNSUPPORTED by spot {}, blacklisted", taskId, spotId);
             // Re-queue: set back to NEW without incrementing attempt
             taskRepository.resetToNew(taskId);
+            requeue(taskId);
             return true; // task will be retried
         }
 
@@ -185,11 +445,18 @@ public class TaskService {
                 blacklist.blacklist(spotId, taskId);
             log.warn("Task {} MISSING_ARTIFACT on spot {}, spot degraded", taskId, spotId);
             taskRepository.resetToNew(taskId);
+            requeue(taskId);
             return true;
         }
 
         // RUNTIME_ERROR or TIMEOUT: normal retry with attempt counting
-        return taskRepository.fail(taskId, spotId, errorMessage, reason.countsAsAttempt());
+        boolean willRetry = taskRepository.fail(taskId, spotId, errorMessage, reason.countsAsAttempt());
+        if (willRetry) {
+            requeue(taskId);
+        } else {
+            onTerminalIfFinished(taskId);
+        }
+        return willRetry;
     }
 
     /**
@@ -204,9 +471,18 @@ public class TaskService {
             throw new IllegalArgumentException("spotId is required");
         }
 
+        if (speculation != null && speculation.dropCopy(taskId, spotId)) {
+            return TaskFailResult.RETRIED; // the original still runs
+        }
+
         TaskFailResult res = taskRepository.failIdempotent(taskId, spotId, errorMessage, retriable);
 
+        if (res == TaskFailResult.FAILED || res == TaskFailResult.ALREADY_TERMINAL) {
+            onTerminal(taskId);
+        }
+
         if (res == TaskFailResult.RETRIED) {
+            requeue(taskId);
             log.info("Task {} failed by spot {}, will retry", taskId, spotId);
         } else if (res == TaskFailResult.FAILED) {
             log.info("Task {} permanently failed", taskId);
@@ -252,6 +528,9 @@ public class TaskService {
      */
     public void createTasks(List<Task> tasks) {
         taskRepository.saveAll(tasks);
+        if (dispatcher != null) {
+            dispatcher.offerTasks(tasks);
+        }
         log.info("Created {} tasks", tasks.size());
     }
 
@@ -266,14 +545,14 @@ public class TaskService {
      * Count pending (NEW) tasks.
      */
     public int countPending() {
-        return taskRepository.findByStatus(TaskStatus.NEW, Integer.MAX_VALUE).size();
+        return taskRepository.countByStatus(TaskStatus.NEW);
     }
 
     /**
      * Count running tasks.
      */
     public int countRunning() {
-        return taskRepository.findByStatus(TaskStatus.RUNNING, Integer.MAX_VALUE).size();
+        return taskRepository.countByStatus(TaskStatus.RUNNING);
     }
 
     /**
@@ -287,10 +566,186 @@ public class TaskService {
      * Free all tasks assigned to a SPOT (when SPOT goes offline).
      */
     public int freeTasksForSpot(String spotId) {
-        int freed = taskRepository.freeTasksForSpot(spotId);
+        int freed;
+        if (dispatcher != null) {
+            List<TaskQueueEntry> released = taskRepository.releaseTasksForSpot(spotId);
+            dispatcher.offerAll(released);
+            freed = released.size();
+        } else {
+            freed = taskRepository.freeTasksForSpot(spotId);
+        }
         if (freed > 0) {
             log.info("Freed {} tasks from offline spot {}", freed, spotId);
         }
         return freed;
     }
+
+    private void recordRuntime(String spotId, String taskId, long runtimeMs) {
+        if (spotRegistry != null) {
+            spotRegistry.recordRuntime(spotId, runtimeMs);
+        }
+        if (leases != null) {
+            leases.complete(taskId, runtimeMs);
+        }
+        if (dispatcher != null) {
+            dispatcher.onCompleted(taskId, spotId, runtimeMs);
+        }
+    }
+
+    /**
+     * Check a completion against its job's stop condition. Runs before
+     * {@link #onTerminal}, while the dispatcher still knows the task's job.
+     */
+    private void checkStop(String taskId, Double fopt) {
+        if (earlyStopping == null || fopt == null || !earlyStopping.active()) {
+            return;
+        }
+        String jobId = dispatcher != null ? dispatcher.jobOf(taskId) : null;
+        if (jobId == null) {
+            jobId = taskRepository.findById(taskId).map(Task::jobId).orElse(null);
+        }
+        if (jobId != null) {
+            earlyStopping.onCompleted(jobId, fopt);
+        }
+    }
+
+    /**
+     * Store a completed task's result if its job uses the result cache.
+     * The key was taken when the dispatcher recorded the claim; only tasks
+     * it does not track (no dispatcher, or picked up by a resync) read
+     * their payload back.
+     */
+    private void cacheResult(String taskId, Integer iter, Double fopt, String result) {
+        if (resultCache == null || !resultCache.enabled()) {
+            return;
+        }
+        String key = dispatcher != null ? dispatcher.cacheKeyOf(taskId) : null;
+        String jobId = dispatcher != null ? dispatcher.jobOf(taskId) : null;
+        if (key == null && (jobId == null || resultCache.uses(jobId))) {
+            key = taskRepository.findPayload(taskId).map(resultCache::keyOf).orElse(null);
+        }
+        if (key != null) {
+            resultCache.put(key, new ResultCache.Entry(iter, fopt, result));
+        }
+    }
+
+    /**
+     * A SPOT holding a speculative copy reports completion: it takes the
+     * task over, so the completion below applies normally.
+     */
+    private void adoptCopy(String taskId, String spotId) {
+        if (speculation != null) {
+            speculation.adopt(taskId, spotId);
+        }
+    }
+
+    /**
+     * A task reached a terminal state: drop its lease, copies and blacklist
+     * entries.
+     */
+    private void onTerminal(String taskId) {
+        if (leases != null) {
+            leases.release(taskId);
+        }
+        if (speculation != null) {
+            speculation.release(taskId);
+        }
+        if (dispatcher != null) {
+            dispatcher.onTerminal(taskId);
+        } else if (blacklist != null) {
+            blacklist.clearForTask(taskId);
+        }
+    }
+
+    /**
+     * {@code fail} returns false both for "permanently failed" and for
+     * "rejected" (wrong spot / not running), so check before evicting.
+     */
+    private void onTerminalIfFinished(String taskId) {
+        taskRepository.findById(taskId)
+                .filter(Task::isTerminal)
+                .ifPresent(t -> onTerminal(taskId));
+    }
+
+    /**
+     * Put a task that was reset to NEW back on the dispatch queue.
+     */
+    private void requeue(String taskId) {
+        if (leases != null) {
+            leases.release(taskId);
+        }
+        if (speculation != null) {
+            speculation.release(taskId);
+        }
+        if (dispatcher != null) {
+            dispatcher.requeue(taskId);
+        }
+    }
+
+    public static final class Builder {
+        private final TaskRepository taskRepository;
+        private final CoordinatorConfig config;
+        private SpotRegistry spotRegistry;
+        private SpotTaskBlacklist blacklist;
+        private TaskDispatcher dispatcher;
+        private LazyTaskSource lazyTasks;
+        private TaskLeases leases;
+        private SpeculativeExecution speculation;
+        private EarlyStopping earlyStopping;
+        private ResultCache resultCache;
+
+        private Builder(TaskRepository taskRepository, CoordinatorConfig config) {
+            this.taskRepository = taskRepository;
+            this.config = config;
+        }
+
+        public Builder spotRegistry(SpotRegistry spotRegistry) {
+            this.spotRegistry = spotRegistry;
+            return this;
+        }
+
+        public Builder blacklist(SpotTaskBlacklist blacklist) {
+            this.blacklist = blacklist;
+            return this;
+        }
+
+        /** In-memory ready queue (unset = claims go to the database) */
+        public Builder dispatcher(TaskDispatcher dispatcher) {
+            this.dispatcher = dispatcher;
+            return this;
+        }
+
+        public Builder lazyTasks(LazyTaskSource lazyTasks) {
+            this.lazyTasks = lazyTasks;
+            return this;
+        }
+
+        /** Leases granted on claim (unset = only the stuck-task scan recovers RUNNING tasks) */
+        public Builder leases(TaskLeases leases) {
+            this.leases = leases;
+            return this;
+        }
+
+        /** Speculative copies for idle SPOTs */
+        public Builder speculation(SpeculativeExecution speculation) {
+            this.speculation = speculation;
+            return this;
+        }
+
+        /** Checks completions against job stop conditions (unset = jobs run to the end) */
+        public Builder earlyStopping(EarlyStopping earlyStopping) {
+            this.earlyStopping = earlyStopping;
+            return this;
+        }
+
+        /** Stores the results of completed tasks for reuse */
+        public Builder resultCache(ResultCache resultCache) {
+            this.resultCache = resultCache;
+            return this;
+        }
+
+        public TaskService build() {
+            return new TaskService(this);
+        }
+    }
 }
@@ -0,0 +1,382 @@
+package orhestra.coordinator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import orhestra.coordinator.model.OptimizeSpec;
+import orhestra.coordinator.model.SearchDimension;
+import orhestra.coordinator.model.Task;
+import orhestra.coordinator.repository.JobRepository;
+import orhestra.coordinator.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Model-guided search with a tree-structured Parzen estimator (TPE) over a
+ * job's parameter ranges (see {@link OptimizeSpec}).
+ *
+ * Finished trials are ranked by {@code fopt}; the best 10% (at most 25)
+ * are the "good" points and the rest the "bad" ones. Each dimension gets a
+ * density l(x) over the good points and g(x) over the bad ones, and the next
+ * point is the candidate, drawn from l, with the largest l(x) / g(x). The
+ * first {@code startupTrials} points are drawn uniformly. Failed trials
+ * rank last, which steers proposals away from where they failed.
+ *
+ * A result updates the model in O(log n + dimensions): it goes into a
+ * sorted set and into per-dimension histograms of all points. g is that
+ * histogram minus the good points and l a Gaussian mixture over at most 25
+ * points, so a proposal costs the same however many trials have finished.
+ *
+ * Up to {@code parallelism} trials run at once. Each is proposed when a
+ * SPOT claims, from the results in so far, and written as task row
+ * {@code <jobId>-<n>}. The job is closed once all trials have finished.
+ */
+public class TpeSearch extends SearchSource {
+
+    private static final Logger log = LoggerFactory.getLogger(TpeSearch.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final double GAMMA = 0.1;
+    private static final int MAX_GOOD = 25;
+    private static final int BINS = 32;
+
+    private final SearchDimension[] dims;
+    private final int trials;
+    private final int parallelism;
+    private final int startupTrials;
+    private final int candidates;
+    private final SplittableRandom random;
+
+    // Finished trials, best first
+    private final TreeSet<Result> results = new TreeSet<>(
+            Comparator.comparingDouble(Result::fopt).thenComparingInt(Result::trial));
+    // Per dimension: histogram of all finished points (numeric) or count
+    // per choice
+    private final int[][] counts;
+    // Trials with a row that has not finished yet -> their point
+    private final ConcurrentHashMap<String, Trial> inFlight = new ConcurrentHashMap<>();
+    private int started;
+    private int failed;
+    private volatile long available;
+    private volatile boolean finished;
+
+    public TpeSearch(String jobId, OptimizeSpec spec, List<SearchDimension> space, int priority, int maxAttempts,
+            JobRepository jobRepository, TaskRepository taskRepository, TaskDispatcher dispatcher) {
+        super(jobId, priority, maxAttempts, jobRepository, taskRepository, dispatcher);
+        spec.validate();
+        if (space.isEmpty()) {
+            throw new IllegalArgumentException("optimize needs at least one parameter");
+        }
+        this.dims = space.toArray(new SearchDimension[0]);
+        this.trials = spec.trials();
+        this.parallelism = spec.parallelismOrDefault();
+        this.startupTrials = spec.startupTrialsOrDefault();
+        this.candidates = spec.candidatesOrDefault();
+        this.random = new SplittableRandom(spec.seedOrDefault());
+
+        this.counts = new int[dims.length][];
+        for (int d = 0; d < dims.length; d++) {
+            counts[d] = new int[dims[d].isNumeric() ? BINS : dims[d].choices().size()];
+        }
+        this.available = Math.min(parallelism, trials);
+    }
+
+    /**
+     * @param method     search method
+     * @param trials     trials the search will run
+     * @param started    trials started so far
+     * @param finished   trials finished so far
+     * @param failed     finished trials without an {@code fopt}
+     * @param running    trials running now
+     * @param bestFopt   lowest {@code fopt} so far
+     * @param bestTaskId task that reported it
+     * @param bestParams its parameters
+     * @param done       whether all trials have finished
+     */
+    public record Progress(String method, int trials, int started, int finished, int failed, int running,
+            Double bestFopt, String bestTaskId, Map<String, Object> bestParams, boolean done) {
+    }
+
+    @Override
+    public long remaining() {
+        return available;
+    }
+
+    @Override
+    public boolean exhausted() {
+        return finished;
+    }
+
+    /**
+     * Serialised per search; proposals of one claim share one model.
+     */
+    @Override
+    public synchronized List<Task> materialize(String spotId, int limit,
+            TaskDispatcher.CapabilityFilter capabilities) {
+        int count = Math.min(limit, Math.min(parallelism - inFlight.size(), trials - started));
+        if (count <= 0) {
+            return List.of();
+        }
+
+        Model model = results.size() >= Math.max(1, startupTrials) ? new Model() : null;
+        Map<String, String> payloads = new LinkedHashMap<>();
+        List<Trial> proposed = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Trial trial = new Trial(started + i, model != null ? model.propose() : uniform());
+            proposed.add(trial);
+            payloads.put(trial.taskId, payload(trial.point));
+        }
+
+        List<Task> mine = write(spotId, capabilities, payloads);
+        for (Trial trial : proposed) {
+            inFlight.put(trial.taskId, trial);
+        }
+        started += count;
+        available = countAvailable();
+        return mine;
+    }
+
+    /**
+     * Add a finished trial to the model.
+     */
+    @Override
+    public boolean onTerminal(String taskId) {
+        if (!inFlight.containsKey(taskId)) {
+            return false;
+        }
+        double fopt = fopt(taskId);
+        boolean close;
+        long before;
+        synchronized (this) {
+            Trial trial = inFlight.remove(taskId);
+            if (trial == null) {
+                return false;
+            }
+            results.add(new Result(trial.index, trial.point, fopt, taskId));
+            for (int d = 0; d < dims.length; d++) {
+                counts[d][cell(d, trial.point[d])]++;
+            }
+            if (!Double.isFinite(fopt)) {
+                failed++;
+            }
+
+            before = available;
+            available = countAvailable();
+            close = !finished && started >= trials && inFlight.isEmpty();
+            if (close) {
+                finished = true;
+            }
+        }
+        if (close && finish()) {
+            log.info("Search {} finished: {} trials, best fopt {}", jobId, trials, results.first().fopt);
+        }
+        return available > before;
+    }
+
+    /**
+     * Current state of the search.
+     */
+    public synchronized Progress progress() {
+        Result best = !results.isEmpty() && Double.isFinite(results.first().fopt) ? results.first() : null;
+        return new Progress("TPE", trials, started, results.size(), failed, inFlight.size(),
+                best != null ? best.fopt : null, best != null ? best.taskId : null,
+                best != null ? params(best.point) : null, finished);
+    }
+
+    private long countAvailable() {
+        return Math.max(0, Math.min(parallelism - inFlight.size(), trials - started));
+    }
+
+    /**
+     * A point drawn uniformly: unit coordinate per numeric dimension, index
+     * per choice.
+     */
+    private double[] uniform() {
+        double[] point = new double[dims.length];
+        for (int d = 0; d < dims.length; d++) {
+            point[d] = dims[d].isNumeric()
+                    ? snap(d, random.nextDouble())
+                    : random.nextInt(dims[d].choices().size());
+        }
+        return point;
+    }
+
+    /**
+     * Unit coordinate of the value {@code u} maps to, so the model sees the
+     * point that actually ran.
+     */
+    private double snap(int d, double u) {
+        SearchDimension dim = dims[d];
+        if (dim.step() == null || dim.max() == dim.min()) {
+            return u;
+        }
+        double x = ((Number) dim.value(u)).doubleValue();
+        return (x - dim.min()) / (dim.max() - dim.min());
+    }
+
+    private int cell(int d, double x) {
+        return dims[d].isNumeric() ? Math.min(BINS - 1, (int) (x * BINS)) : (int) x;
+    }
+
+    private Map<String, Object> params(double[] point) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        for (int d = 0; d < dims.length; d++) {
+            params.put(dims[d].key(), dims[d].isNumeric()
+                    ? dims[d].value(point[d])
+                    : dims[d].choices().get((int) point[d]));
+        }
+        return params;
+    }
+
+    private String payload(double[] point) {
+        try {
+            ObjectNode payload = MAPPER.createObjectNode();
+            ObjectNode params = payload.putObject("params");
+            for (Map.Entry<String, Object> param : params(point).entrySet()) {
+                params.set(param.getKey(), MAPPER.valueToTree(param.getValue()));
+            }
+            return MAPPER.writeValueAsString(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write search payload", e);
+        }
+    }
+
+    /**
+     * l and g as of one claim. Each density is a mixture with a uniform
+     * prior of weight 1, so neither is ever zero.
+     */
+    private final class Model {
+        final int good;
+        final int bad;
+        // Per numeric dimension, from the spread of the good points
+        final double[] bandwidth;
+        final double[][] goodPoints;
+        final int[][] goodCounts;
+
+        Model() {
+            int n = results.size();
+            this.good = Math.max(1, Math.min(MAX_GOOD, (int) Math.ceil(GAMMA * n)));
+            this.bad = n - good;
+            this.goodPoints = new double[good][];
+            this.goodCounts = new int[dims.length][];
+            for (int d = 0; d < dims.length; d++) {
+                goodCounts[d] = new int[counts[d].length];
+            }
+            Iterator<Result> it = results.iterator();
+            for (int i = 0; i < good; i++) {
+                goodPoints[i] = it.next().point;
+                for (int d = 0; d < dims.length; d++) {
+                    goodCounts[d][cell(d, goodPoints[i][d])]++;
+                }
+            }
+
+            // Scott's rule; a quarter of the range until there is a spread
+            this.bandwidth = new double[dims.length];
+            for (int d = 0; d < dims.length; d++) {
+                double sigma = 0.25;
+                if (good > 1) {
+                    double mean = 0;
+                    for (double[] p : goodPoints) {
+                        mean += p[d] / good;
+                    }
+                    double var = 0;
+                    for (double[] p : goodPoints) {
+                        var += (p[d] - mean) * (p[d] - mean) / (good - 1);
+                    }
+                    sigma = Math.sqrt(var);
+                }
+                bandwidth[d] = Math.max(0.01, Math.min(0.5, 1.06 * sigma * Math.pow(good, -0.2)));
+            }
+        }
+
+        /**
+         * The best of {@code candidates} points drawn from l by
+         * log l(x) - log g(x), summed over dimensions.
+         */
+        double[] propose() {
+            double[] best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int c = 0; c < candidates; c++) {
+                double[] point = new double[dims.length];
+                double score = 0;
+                for (int d = 0; d < dims.length; d++) {
+                    point[d] = dims[d].isNumeric() ? snap(d, sampleNumeric(d)) : sampleChoice(d);
+                    score += Math.log(l(d, point[d])) - Math.log(g(d, point[d]));
+                }
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = point;
+                }
+            }
+            return best;
+        }
+
+        private double sampleNumeric(int d) {
+            int component = random.nextInt(good + 1);
+            if (component == good) {
+                return random.nextDouble();
+            }
+            double u = goodPoints[component][d] + bandwidth[d] * random.nextGaussian();
+            return Math.max(0, Math.min(1, u));
+        }
+
+        private int sampleChoice(int d) {
+            int size = goodCounts[d].length;
+            double r = random.nextDouble() * (good + 1);
+            for (int c = 0; c < size; c++) {
+                r -= goodCounts[d][c] + 1.0 / size;
+                if (r < 0) {
+                    return c;
+                }
+            }
+            return size - 1;
+        }
+
+        private double l(int d, double x) {
+            if (!dims[d].isNumeric()) {
+                return (goodCounts[d][(int) x] + 1.0 / goodCounts[d].length) / (good + 1);
+            }
+            double sum = 1;
+            for (double[] p : goodPoints) {
+                double z = (x - p[d]) / bandwidth[d];
+                sum += Math.exp(-0.5 * z * z) / (bandwidth[d] * Math.sqrt(2 * Math.PI));
+            }
+            return sum / (good + 1);
+        }
+
+        private double g(int d, double x) {
+            int c = cell(d, x);
+            int badCount = counts[d][c] - goodCounts[d][c];
+            if (!dims[d].isNumeric()) {
+                return (badCount + 1.0 / counts[d].length) / (bad + 1);
+            }
+            return (1 + (double) badCount * BINS) / (bad + 1);
+        }
+    }
+
+    private final class Trial {
+        final int index;
+        final double[] point;
+        final String taskId;
+
+        Trial(int index, double[] point) {
+            this.index = index;
+            this.point = point;
+            this.taskId = LazyTaskSource.taskId(jobId, index);
+        }
+    }
+
+    private record Result(int trial, double[] point, double fopt, String taskId) {
+    }
+}
@@ -9,18 +9,24 @@ import orhestra.coordinator.service.TaskService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * A single simulated SPOT worker.
  * Registers, then loops: claim → sleep → complete/fail → heartbeat.
+ * Idle workers long-poll the claim instead of sleeping and retrying.
  * Stops cleanly on Thread.interrupt().
  */
 public final class SimulatedSpotWorker implements Runnable {
 
     private static final Logger log = LoggerFactory.getLogger(SimulatedSpotWorker.class);
 
+    /** How long an idle worker parks on a claim before heartbeating */
+    private static final Duration IDLE_WAIT = Duration.ofSeconds(5);
+
     private final String spotId;
     private final SpotService spotService;
     private final TaskService taskService;
@@ -63,12 +69,14 @@ public final class SimulatedSpotWorker implements Runnable {
 
         while (!Thread.currentThread().isInterrupted()) {
             try {
-                // 1. Claim one task
-                List<Task> claimed = taskService.claimTasks(spotId, 1);
+                // 1. Claim one task (parks until tasks arrive)
+                List<Task> claimed = taskService
+                        .claimWhenAvailable(spotId, 1, IDLE_WAIT, ForkJoinPool.commonPool())
+                        .get()
+                        .tasks();
 
                 if (claimed.isEmpty()) {
-                    // No tasks — idle sleep
-                    Thread.sleep(500);
+                    // Still idle — keep the SPOT alive
                     sendHeartbeat(0);
                     continue;
                 }
@@ -96,6 +96,9 @@ public final class Database implements AutoCloseable {
                             total_tasks       INT DEFAULT 0,
                             completed_tasks   INT DEFAULT 0,
                             failed_tasks      INT DEFAULT 0,
+                            materialized_tasks INT,
+                            priority          INT DEFAULT 0,
+                            weight            INT DEFAULT 1,
                             created_at        TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                             started_at        TIMESTAMP,
                             finished_at       TIMESTAMP
@@ -130,6 +133,18 @@ public final class Database implements AutoCloseable {
                         );
                     """);
 
+            // ---------- TASK REPLICAS ----------
+            // Speculative copies of RUNNING tasks; tasks.assigned_to stays the
+            // SPOT that runs the original
+            st.addBatch("""
+                        CREATE TABLE IF NOT EXISTS task_replicas (
+                            task_id         VARCHAR(64) NOT NULL,
+                            spot_id         VARCHAR(64) NOT NULL,
+                            started_at      TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                            PRIMARY KEY (task_id, spot_id)
+                        );
+                    """);
+
             // ---------- SPOTS ----------
             st.addBatch("""
                         CREATE TABLE IF NOT EXISTS spots (
@@ -166,6 +181,9 @@ public final class Database implements AutoCloseable {
             st.addBatch("ALTER TABLE jobs ADD COLUMN IF NOT EXISTS artifact_bucket   VARCHAR(256);");
             st.addBatch("ALTER TABLE jobs ADD COLUMN IF NOT EXISTS artifact_key      VARCHAR(1024);");
             st.addBatch("ALTER TABLE jobs ADD COLUMN IF NOT EXISTS artifact_endpoint VARCHAR(512);");
+            st.addBatch("ALTER TABLE jobs ADD COLUMN IF NOT EXISTS materialized_tasks INT;");
+            st.addBatch("ALTER TABLE jobs ADD COLUMN IF NOT EXISTS priority INT DEFAULT 0;");
+            st.addBatch("ALTER TABLE jobs ADD COLUMN IF NOT EXISTS weight INT DEFAULT 1;");
             // jar_path was NOT NULL — make nullable for migration (artifact fields are the source of truth)
             st.addBatch("ALTER TABLE jobs ALTER COLUMN jar_path DROP NOT NULL;");
 
@@ -199,8 +217,9 @@ public final class Database implements AutoCloseable {
                 Statement st = conn.createStatement()) {
 
             // Delete in order that respects FK relationships:
-            // tasks -> spots -> jobs (tasks reference jobs)
+            // task_replicas -> tasks -> spots -> jobs (tasks reference jobs)
             // Using DELETE FROM instead of TRUNCATE for H2 PostgreSQL mode compatibility
+            st.addBatch("DELETE FROM task_replicas");
             st.addBatch("DELETE FROM tasks");
             st.addBatch("DELETE FROM spots");
             st.addBatch("DELETE FROM jobs");
@@ -32,8 +32,8 @@ public class JdbcJobRepository implements JobRepository {
         String sql = """
                     INSERT INTO jobs (id, artifact_bucket, artifact_key, artifact_endpoint,
                                       main_class, config, status, total_tasks, completed_tasks,
-                                      failed_tasks, created_at)
-                    VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                                      failed_tasks, materialized_tasks, priority, weight, created_at)
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
                 """;
 
         try (Connection conn = db.getConnection();
@@ -49,7 +49,14 @@ public class JdbcJobRepository implements JobRepository {
             ps.setInt(8, job.totalTasks());
             ps.setInt(9, job.completedTasks());
             ps.setInt(10, job.failedTasks());
-            ps.setTimestamp(11, Timestamp.from(job.createdAt() != null ? job.createdAt() : Instant.now()));
+            if (job.materializedTasks() != null) {
+                ps.setInt(11, job.materializedTasks());
+            } else {
+                ps.setNull(11, Types.INTEGER);
+            }
+            ps.setInt(12, job.priority());
+            ps.setInt(13, job.weight());
+            ps.setTimestamp(14, Timestamp.from(job.createdAt() != null ? job.createdAt() : Instant.now()));
 
             ps.executeUpdate();
             conn.commit();
@@ -170,6 +177,62 @@ public class JdbcJobRepository implements JobRepository {
         }
     }
 
+    @Override
+    public boolean transition(String jobId, JobStatus from, JobStatus to) {
+        String sql = "UPDATE jobs SET status = ? WHERE id = ? AND status = ?";
+
+        try (Connection conn = db.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, to.name());
+            ps.setString(2, jobId);
+            ps.setString(3, from.name());
+            int updated = ps.executeUpdate();
+            conn.commit();
+            return updated > 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to update job status: " + jobId, e);
+        }
+    }
+
+    @Override
+    public boolean finishIngest(String jobId) {
+        String sql = """
+                    UPDATE jobs SET status = CASE
+                        WHEN started_at IS NULL THEN 'PENDING'
+                        ELSE 'RUNNING'
+                    END
+                    WHERE id = ? AND status = 'MATERIALIZING'
+                """;
+
+        try (Connection conn = db.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, jobId);
+            int updated = ps.executeUpdate();
+            conn.commit();
+            return updated > 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to finish ingest of job: " + jobId, e);
+        }
+    }
+
+    @Override
+    public void updateMaterialized(String jobId, int materialized) {
+        String sql = "UPDATE jobs SET materialized_tasks = ? WHERE id = ?";
+
+        try (Connection conn = db.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, materialized);
+            ps.setString(2, jobId);
+            ps.executeUpdate();
+            conn.commit();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to update materialized count: " + jobId, e);
+        }
+    }
+
     @Override
     public void markStarted(String jobId) {
         String sql = """
@@ -209,6 +272,27 @@ public class JdbcJobRepository implements JobRepository {
         }
     }
 
+    @Override
+    public boolean finishOpenEnded(String jobId) {
+        String sql = """
+                    UPDATE jobs SET total_tasks = completed_tasks + failed_tasks,
+                        status = 'COMPLETED', finished_at = ?
+                    WHERE id = ? AND status NOT IN ('COMPLETED', 'FAILED', 'CANCELLED')
+                """;
+
+        try (Connection conn = db.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setTimestamp(1, Timestamp.from(Instant.now()));
+            ps.setString(2, jobId);
+            int updated = ps.executeUpdate();
+            conn.commit();
+            return updated > 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to finish job: " + jobId, e);
+        }
+    }
+
     @Override
     public boolean delete(String jobId) {
         // First delete tasks, then job
@@ -269,6 +353,9 @@ public class JdbcJobRepository implements JobRepository {
                 .totalTasks(rs.getInt("total_tasks"))
                 .completedTasks(rs.getInt("completed_tasks"))
                 .failedTasks(rs.getInt("failed_tasks"))
+                .materializedTasks(rs.getObject("materialized_tasks", Integer.class))
+                .priority(rs.getInt("priority"))
+                .weight(rs.getInt("weight"))
                 .createdAt(toInstant(rs.getTimestamp("created_at")))
                 .startedAt(toInstant(rs.getTimestamp("started_at")))
                 .finishedAt(toInstant(rs.getTimestamp("finished_at")))
@@ -1,6 +1,7 @@
 package orhestra.coordinator.store;
 
 import orhestra.coordinator.model.Spot;
+import orhestra.coordinator.model.SpotHeartbeat;
 import orhestra.coordinator.model.SpotStatus;
 import orhestra.coordinator.repository.SpotRepository;
 import org.slf4j.Logger;
@@ -185,6 +186,52 @@ public class JdbcSpotRepository implements SpotRepository {
         }
     }
 
+    @Override
+    public List<String> updateHeartbeats(List<SpotHeartbeat> heartbeats) {
+        if (heartbeats.isEmpty()) {
+            return List.of();
+        }
+
+        String sql = """
+                    UPDATE spots
+                    SET ip_address = ?, cpu_load = ?, running_tasks = ?, total_cores = ?,
+                        ram_used_mb = ?, ram_total_mb = ?,
+                        status = 'UP', last_heartbeat = ?
+                    WHERE id = ?
+                """;
+
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (SpotHeartbeat hb : heartbeats) {
+                    ps.setString(1, hb.ipAddress());
+                    ps.setDouble(2, hb.cpuLoad());
+                    ps.setInt(3, hb.runningTasks());
+                    ps.setInt(4, hb.totalCores());
+                    ps.setLong(5, hb.ramUsedMb());
+                    ps.setLong(6, hb.ramTotalMb());
+                    ps.setTimestamp(7, Timestamp.from(hb.at()));
+                    ps.setString(8, hb.spotId());
+                    ps.addBatch();
+                }
+                int[] results = ps.executeBatch();
+                conn.commit();
+
+                List<String> missing = new ArrayList<>();
+                for (int i = 0; i < results.length; i++) {
+                    if (results[i] == 0) {
+                        missing.add(heartbeats.get(i).spotId());
+                    }
+                }
+                return missing;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to flush " + heartbeats.size() + " heartbeats", e);
+        }
+    }
+
     @Override
     public List<String> markStaleAsDown(Instant lastHeartbeatBefore) {
         // First find the stale spots
@@ -237,6 +284,26 @@ public class JdbcSpotRepository implements SpotRepository {
         }
     }
 
+    @Override
+    public int deleteAll(List<String> spotIds) {
+        if (spotIds.isEmpty()) {
+            return 0;
+        }
+
+        String sql = "DELETE FROM spots WHERE id = ANY(?)";
+
+        try (Connection conn = db.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setObject(1, spotIds.toArray(new String[0]));
+            int deleted = ps.executeUpdate();
+            conn.commit();
+            return deleted;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to delete spots: " + spotIds, e);
+        }
+    }
+
     @Override
     public int count() {
         String sql = "SELECT COUNT(*) FROM spots";
@@ -1,8 +1,14 @@
 package orhestra.coordinator.store;
 
+import orhestra.coordinator.model.CancelledTask;
 import orhestra.coordinator.model.Task;
+import orhestra.coordinator.model.TaskBatchResult;
 import orhestra.coordinator.model.TaskCompleteResult;
+import orhestra.coordinator.model.TaskCompletion;
 import orhestra.coordinator.model.TaskFailResult;
+import orhestra.coordinator.model.TaskFailure;
+import orhestra.coordinator.model.TaskQueueEntry;
+import orhestra.coordinator.model.TaskReapResult;
 import orhestra.coordinator.model.TaskStatus;
 import orhestra.coordinator.repository.TaskRepository;
 import org.slf4j.Logger;
@@ -11,8 +17,16 @@ import org.slf4j.LoggerFactory;
 import java.sql.*;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * JDBC implementation of TaskRepository.
@@ -68,35 +82,23 @@ public class JdbcTaskRepository implements TaskRepository {
         }
     }
 
+    private static final String INSERT_BATCH_SQL = """
+                INSERT INTO tasks (id, job_id, payload, status, priority, attempts, max_attempts, created_at,
+                                   algorithm, optimizer_id, function, input_iterations, input_agents, input_dimension,
+                                   assigned_to, started_at, finished_at, iter, fopt, result)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
     @Override
     public void saveAll(List<Task> tasks) {
         if (tasks.isEmpty())
             return;
 
-        String sql = """
-                    INSERT INTO tasks (id, job_id, payload, status, priority, attempts, max_attempts, created_at,
-                                       algorithm, optimizer_id, function, input_iterations, input_agents, input_dimension)
-                    VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-                """;
-
         try (Connection conn = db.getConnection();
-                PreparedStatement ps = conn.prepareStatement(sql)) {
+                PreparedStatement ps = conn.prepareStatement(INSERT_BATCH_SQL)) {
 
             for (Task task : tasks) {
-                ps.setString(1, task.id());
-                ps.setString(2, task.jobId());
-                ps.setString(3, task.payload());
-                ps.setString(4, task.status().name());
-                ps.setInt(5, task.priority());
-                ps.setInt(6, task.attempts());
-                ps.setInt(7, task.maxAttempts());
-                setTimestamp(ps, 8, task.createdAt() != null ? task.createdAt() : Instant.now());
-                ps.setString(9, task.algorithm());
-                ps.setString(10, task.optimizerId());
-                ps.setString(11, task.function());
-                setIntOrNull(ps, 12, task.inputIterations());
-                setIntOrNull(ps, 13, task.inputAgents());
-                setIntOrNull(ps, 14, task.inputDimension());
+                bindInsert(ps, task);
                 ps.addBatch();
             }
 
@@ -109,6 +111,142 @@ public class JdbcTaskRepository implements TaskRepository {
         }
     }
 
+    @Override
+    public long insertChunked(Iterator<Task> tasks, int chunkSize, Consumer<List<Task>> onChunkCommitted) {
+        int size = Math.max(1, chunkSize);
+        long inserted = 0;
+
+        try (Connection conn = db.getConnection();
+                PreparedStatement ps = conn.prepareStatement(INSERT_BATCH_SQL)) {
+
+            List<Task> chunk = new ArrayList<>(size);
+            while (tasks.hasNext()) {
+                Task task = tasks.next();
+                bindInsert(ps, task);
+                ps.addBatch();
+                chunk.add(task);
+
+                if (chunk.size() == size || !tasks.hasNext()) {
+                    try {
+                        ps.executeBatch();
+                        countInsertedDone(conn, chunk);
+                        conn.commit();
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        throw e;
+                    }
+                    inserted += chunk.size();
+                    if (onChunkCommitted != null) {
+                        onChunkCommitted.accept(chunk);
+                    }
+                    chunk = new ArrayList<>(size);
+                }
+            }
+            return inserted;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to insert tasks after " + inserted + " rows", e);
+        }
+    }
+
+    private void bindInsert(PreparedStatement ps, Task task) throws SQLException {
+        ps.setString(1, task.id());
+        ps.setString(2, task.jobId());
+        ps.setString(3, task.payload());
+        ps.setString(4, task.status().name());
+        ps.setInt(5, task.priority());
+        ps.setInt(6, task.attempts());
+        ps.setInt(7, task.maxAttempts());
+        setTimestamp(ps, 8, task.createdAt() != null ? task.createdAt() : Instant.now());
+        ps.setString(9, task.algorithm());
+        ps.setString(10, task.optimizerId());
+        ps.setString(11, task.function());
+        setIntOrNull(ps, 12, task.inputIterations());
+        setIntOrNull(ps, 13, task.inputAgents());
+        setIntOrNull(ps, 14, task.inputDimension());
+        ps.setString(15, task.assignedTo());
+        setTimestamp(ps, 16, task.startedAt());
+        setTimestamp(ps, 17, task.finishedAt());
+        setIntOrNull(ps, 18, task.iter());
+        setDoubleOrNull(ps, 19, task.fopt());
+        ps.setString(20, task.result());
+    }
+
+    /**
+     * Count rows inserted as DONE (results reused from the result cache)
+     * towards their jobs, in the inserting transaction.
+     */
+    private void countInsertedDone(Connection conn, List<Task> tasks) throws SQLException {
+        Map<String, int[]> jobDeltas = new HashMap<>();
+        for (Task task : tasks) {
+            if (task.status() == TaskStatus.DONE) {
+                addJobDelta(jobDeltas, task.jobId(), 0);
+            }
+        }
+        updateJobCounters(conn, jobDeltas, Timestamp.from(Instant.now()));
+    }
+
+    @Override
+    public void insertMaterialized(String jobId, int materialized, List<Task> tasks) {
+        String jobSql = "UPDATE jobs SET materialized_tasks = ? WHERE id = ?";
+
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(INSERT_BATCH_SQL);
+                    PreparedStatement jobPs = conn.prepareStatement(jobSql)) {
+
+                for (Task task : tasks) {
+                    bindInsert(ps, task);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                countInsertedDone(conn, tasks);
+
+                jobPs.setInt(1, materialized);
+                jobPs.setString(2, jobId);
+                jobPs.executeUpdate();
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to materialize tasks for job: " + jobId, e);
+        }
+    }
+
+    @Override
+    public void insertGenerated(String jobId, List<Task> tasks) {
+        String jobSql = """
+                    UPDATE jobs SET total_tasks = total_tasks + ?,
+                        materialized_tasks = COALESCE(materialized_tasks, 0) + ?
+                    WHERE id = ?
+                """;
+
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(INSERT_BATCH_SQL);
+                    PreparedStatement jobPs = conn.prepareStatement(jobSql)) {
+
+                for (Task task : tasks) {
+                    bindInsert(ps, task);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                jobPs.setInt(1, tasks.size());
+                jobPs.setInt(2, tasks.size());
+                jobPs.setString(3, jobId);
+                jobPs.executeUpdate();
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to insert generated tasks for job: " + jobId, e);
+        }
+    }
+
     @Override
     public Optional<Task> findById(String taskId) {
         String sql = "SELECT * FROM tasks WHERE id = ?";
@@ -157,12 +295,20 @@ public class JdbcTaskRepository implements TaskRepository {
         }
     }
 
+    /**
+     * Columns a claim returns: the payload plus the features leases and the
+     * runtime model key off. See {@link #claimedRow}.
+     */
+    private static final String CLAIM_COLUMNS = """
+                id, job_id, payload, priority, attempts, max_attempts, created_at,
+                algorithm, optimizer_id, function, input_iterations, input_agents, input_dimension""";
+
     @Override
     public List<Task> claimTasks(String spotId, int maxTasks) {
         // Use SELECT FOR UPDATE to lock rows, then update them
         // Include job_id so we can return it to the SPOT
-        String selectSql = """
-                    SELECT id, job_id, payload FROM tasks
+        String selectSql = "SELECT " + CLAIM_COLUMNS + """
+                 FROM tasks
                     WHERE status = 'NEW'
                     ORDER BY priority DESC, created_at
                     LIMIT ?
@@ -189,24 +335,17 @@ public class JdbcTaskRepository implements TaskRepository {
                     Timestamp now = Timestamp.from(Instant.now());
 
                     while (rs.next()) {
-                        String id = rs.getString("id");
-                        String jobId = rs.getString("job_id");
-                        String payload = rs.getString("payload");
+                        // Selected before the UPDATE bumps attempts
+                        Task task = claimedRow(rs, spotId, now);
+                        task = task.toBuilder().attempts(task.attempts() + 1).build();
 
                         updatePs.setString(1, spotId);
                         updatePs.setTimestamp(2, now);
-                        updatePs.setString(3, id);
+                        updatePs.setString(3, task.id());
                         updatePs.addBatch();
 
                         // Build claimed task with jobId for response
-                        claimed.add(Task.builder()
-                                .id(id)
-                                .jobId(jobId)
-                                .payload(payload)
-                                .status(TaskStatus.RUNNING)
-                                .assignedTo(spotId)
-                                .startedAt(now.toInstant())
-                                .build());
+                        claimed.add(task);
                     }
                 }
 
@@ -245,7 +384,7 @@ public class JdbcTaskRepository implements TaskRepository {
             List<String> supportedAlgs, List<String> excludeTaskIds) {
         // Build dynamic SQL with capability filters
         StringBuilder selectSql = new StringBuilder(
-                "SELECT id, job_id, payload FROM tasks WHERE status = 'NEW'");
+                "SELECT " + CLAIM_COLUMNS + " FROM tasks WHERE status = 'NEW'");
         List<Object> params = new ArrayList<>();
 
         // Filter by optimizer_id if spot declares supported optimizers
@@ -300,23 +439,16 @@ public class JdbcTaskRepository implements TaskRepository {
                     Timestamp now = Timestamp.from(Instant.now());
 
                     while (rs.next()) {
-                        String id = rs.getString("id");
-                        String jobId = rs.getString("job_id");
-                        String payload = rs.getString("payload");
+                        // Selected before the UPDATE bumps attempts
+                        Task task = claimedRow(rs, spotId, now);
+                        task = task.toBuilder().attempts(task.attempts() + 1).build();
 
                         updatePs.setString(1, spotId);
                         updatePs.setTimestamp(2, now);
-                        updatePs.setString(3, id);
+                        updatePs.setString(3, task.id());
                         updatePs.addBatch();
 
-                        claimed.add(Task.builder()
-                                .id(id)
-                                .jobId(jobId)
-                                .payload(payload)
-                                .status(TaskStatus.RUNNING)
-                                .assignedTo(spotId)
-                                .startedAt(now.toInstant())
-                                .build());
+                        claimed.add(task);
                     }
                 }
 
@@ -340,6 +472,294 @@ public class JdbcTaskRepository implements TaskRepository {
         }
     }
 
+    @Override
+    public List<Task> claimByIds(String spotId, List<String> taskIds) {
+        if (taskIds.isEmpty())
+            return List.of();
+
+        // WHERE status='NEW' keeps the DB authoritative: an ID the dispatcher
+        // still had queued but that was claimed/cancelled elsewhere is skipped.
+        String updateSql = """
+                    UPDATE tasks
+                    SET status = 'RUNNING', assigned_to = ?, started_at = ?, attempts = attempts + 1
+                    WHERE id = ? AND status = 'NEW'
+                """;
+        String selectSql = "SELECT " + CLAIM_COLUMNS + " FROM tasks WHERE id = ANY(?)";
+
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement updatePs = conn.prepareStatement(updateSql);
+                    PreparedStatement selectPs = conn.prepareStatement(selectSql)) {
+
+                Timestamp now = Timestamp.from(Instant.now());
+                for (String id : taskIds) {
+                    updatePs.setString(1, spotId);
+                    updatePs.setTimestamp(2, now);
+                    updatePs.setString(3, id);
+                    updatePs.addBatch();
+                }
+                int[] results = updatePs.executeBatch();
+
+                List<String> won = new ArrayList<>(taskIds.size());
+                for (int i = 0; i < results.length; i++) {
+                    if (results[i] > 0)
+                        won.add(taskIds.get(i));
+                }
+
+                List<Task> claimed = new ArrayList<>(won.size());
+                if (!won.isEmpty()) {
+                    selectPs.setObject(1, won.toArray(new String[0]));
+                    try (ResultSet rs = selectPs.executeQuery()) {
+                        while (rs.next()) {
+                            claimed.add(claimedRow(rs, spotId, now));
+                        }
+                    }
+                }
+
+                conn.commit();
+
+                if (won.size() != taskIds.size()) {
+                    log.debug("Dispatcher claim: {} of {} queued tasks were no longer NEW",
+                            taskIds.size() - won.size(), taskIds.size());
+                }
+                if (!claimed.isEmpty()) {
+                    log.info("Claimed {} tasks for spot {}", claimed.size(), spotId);
+                }
+                return claimed;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to claim tasks for spot: " + spotId, e);
+        }
+    }
+
+    @Override
+    public List<Task> claimReplicas(String spotId, List<String> taskIds) {
+        if (taskIds.isEmpty())
+            return List.of();
+
+        String selectSql = """
+                    SELECT id FROM tasks t
+                    WHERE id = ANY(?) AND status = 'RUNNING' AND assigned_to <> ?
+                      AND NOT EXISTS (SELECT 1 FROM task_replicas r WHERE r.task_id = t.id AND r.spot_id = ?)
+                    FOR UPDATE
+                """;
+        String insertSql = "INSERT INTO task_replicas (task_id, spot_id, started_at) VALUES (?, ?, ?)";
+        String loadSql = "SELECT * FROM tasks WHERE id = ANY(?)";
+
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement selectPs = conn.prepareStatement(selectSql);
+                    PreparedStatement insertPs = conn.prepareStatement(insertSql);
+                    PreparedStatement loadPs = conn.prepareStatement(loadSql)) {
+
+                List<String> copied = new ArrayList<>(taskIds.size());
+                selectPs.setObject(1, taskIds.toArray(new String[0]));
+                selectPs.setString(2, spotId);
+                selectPs.setString(3, spotId);
+                try (ResultSet rs = selectPs.executeQuery()) {
+                    while (rs.next()) {
+                        copied.add(rs.getString("id"));
+                    }
+                }
+                if (copied.isEmpty()) {
+                    conn.rollback();
+                    return List.of();
+                }
+
+                Timestamp now = Timestamp.from(Instant.now());
+                for (String id : copied) {
+                    insertPs.setString(1, id);
+                    insertPs.setString(2, spotId);
+                    insertPs.setTimestamp(3, now);
+                    insertPs.addBatch();
+                }
+                insertPs.executeBatch();
+
+                List<Task> tasks = new ArrayList<>(copied.size());
+                loadPs.setObject(1, copied.toArray(new String[0]));
+                try (ResultSet rs = loadPs.executeQuery()) {
+                    while (rs.next()) {
+                        tasks.add(mapRow(rs));
+                    }
+                }
+
+                conn.commit();
+                log.info("Speculative copies of {} tasks for spot {}", tasks.size(), spotId);
+                return tasks;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to copy tasks for spot: " + spotId, e);
+        }
+    }
+
+    @Override
+    public boolean promoteReplica(String taskId, String spotId) {
+        String updateSql = """
+                    UPDATE tasks SET assigned_to = ?
+                    WHERE id = ? AND status = 'RUNNING'
+                      AND EXISTS (SELECT 1 FROM task_replicas r WHERE r.task_id = ? AND r.spot_id = ?)
+                """;
+        String deleteSql = "DELETE FROM task_replicas WHERE task_id = ? AND spot_id = ?";
+
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement updatePs = conn.prepareStatement(updateSql);
+                    PreparedStatement deletePs = conn.prepareStatement(deleteSql)) {
+                updatePs.setString(1, spotId);
+                updatePs.setString(2, taskId);
+                updatePs.setString(3, taskId);
+                updatePs.setString(4, spotId);
+                boolean promoted = updatePs.executeUpdate() == 1;
+
+                deletePs.setString(1, taskId);
+                deletePs.setString(2, spotId);
+                deletePs.executeUpdate();
+
+                conn.commit();
+                return promoted;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to promote copy of task " + taskId + " on spot " + spotId, e);
+        }
+    }
+
+    @Override
+    public void dropReplicas(String taskId, String spotId) {
+        String sql = spotId != null
+                ? "DELETE FROM task_replicas WHERE task_id = ? AND spot_id = ?"
+                : "DELETE FROM task_replicas WHERE task_id = ?";
+
+        try (Connection conn = db.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, taskId);
+            if (spotId != null) {
+                ps.setString(2, spotId);
+            }
+            ps.executeUpdate();
+            conn.commit();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to drop copies of task: " + taskId, e);
+        }
+    }
+
+    @Override
+    public List<CancelledTask> cancelUnfinished(String jobId) {
+        String selectSql = """
+                    SELECT id, status, assigned_to FROM tasks
+                    WHERE job_id = ? AND status IN ('NEW', 'RUNNING')
+                    FOR UPDATE
+                """;
+        String updateSql = """
+                    UPDATE tasks SET status = 'CANCELLED', finished_at = ?
+                    WHERE job_id = ? AND status IN ('NEW', 'RUNNING')
+                """;
+
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement selectPs = conn.prepareStatement(selectSql);
+                    PreparedStatement updatePs = conn.prepareStatement(updateSql)) {
+
+                List<CancelledTask> cancelled = new ArrayList<>();
+                selectPs.setString(1, jobId);
+                try (ResultSet rs = selectPs.executeQuery()) {
+                    while (rs.next()) {
+                        boolean running = TaskStatus.RUNNING.name().equals(rs.getString("status"));
+                        cancelled.add(new CancelledTask(rs.getString("id"),
+                                running ? rs.getString("assigned_to") : null));
+                    }
+                }
+
+                if (!cancelled.isEmpty()) {
+                    updatePs.setTimestamp(1, Timestamp.from(Instant.now()));
+                    updatePs.setString(2, jobId);
+                    updatePs.executeUpdate();
+                }
+                conn.commit();
+                return cancelled;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to cancel tasks for job: " + jobId, e);
+        }
+    }
+
+    @Override
+    public List<TaskQueueEntry> findQueueEntries(TaskStatus status) {
+        String sql = """
+                    SELECT id, job_id, priority, created_at, optimizer_id, algorithm,
+                           function, input_dimension, input_iterations, input_agents
+                    FROM tasks WHERE status = ?
+                """;
+
+        try (Connection conn = db.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, status.name());
+            List<TaskQueueEntry> entries = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(mapQueueEntry(rs));
+                }
+            }
+            return entries;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load queue entries: " + status, e);
+        }
+    }
+
+    @Override
+    public Optional<TaskQueueEntry> findQueueEntry(String taskId) {
+        String sql = """
+                    SELECT id, job_id, priority, created_at, optimizer_id, algorithm,
+                           function, input_dimension, input_iterations, input_agents
+                    FROM tasks WHERE id = ?
+                """;
+
+        try (Connection conn = db.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, taskId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(mapQueueEntry(rs));
+                }
+            }
+            return Optional.empty();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load queue entry: " + taskId, e);
+        }
+    }
+
+    @Override
+    public Optional<Task> findPayload(String taskId) {
+        String sql = "SELECT id, job_id, payload FROM tasks WHERE id = ?";
+
+        try (Connection conn = db.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, taskId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(Task.builder()
+                            .id(rs.getString("id"))
+                            .jobId(rs.getString("job_id"))
+                            .payload(rs.getString("payload"))
+                            .build());
+                }
+            }
+            return Optional.empty();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load task payload: " + taskId, e);
+        }
+    }
+
     @Override
     public boolean complete(String taskId, String spotId, long runtimeMs, Integer iter, Double fopt, String result) {
         String sql = """
@@ -424,6 +844,107 @@ public class JdbcTaskRepository implements TaskRepository {
         }
     }
 
+    @Override
+    public TaskReapResult reapStuckRunning(Instant startedBefore, Set<String> skip, String reason) {
+        String selectSql = """
+                    SELECT id, job_id, assigned_to, attempts, max_attempts,
+                           priority, created_at, optimizer_id, algorithm,
+                           function, input_dimension, input_iterations, input_agents
+                    FROM tasks WHERE status = 'RUNNING' AND started_at < ? AND id <> ALL(?)
+                    FOR UPDATE
+                """;
+        // Skipped (leased) rows are left out of the scan, so they are never locked
+        return reap(selectSql, ps -> {
+            ps.setTimestamp(1, Timestamp.from(startedBefore));
+            ps.setObject(2, skip.toArray(new String[0]));
+        }, row -> true, reason);
+    }
+
+    @Override
+    public TaskReapResult reapRunning(Map<String, String> spotByTask, String reason) {
+        if (spotByTask.isEmpty()) {
+            return TaskReapResult.empty();
+        }
+        String selectSql = """
+                    SELECT id, job_id, assigned_to, attempts, max_attempts,
+                           priority, created_at, optimizer_id, algorithm,
+                           function, input_dimension, input_iterations, input_agents
+                    FROM tasks WHERE id = ANY(?) AND status = 'RUNNING'
+                    FOR UPDATE
+                """;
+        return reap(selectSql, ps -> ps.setObject(1, spotByTask.keySet().toArray(new String[0])),
+                row -> row.assignedTo != null && row.assignedTo.equals(spotByTask.get(row.entry.id())),
+                reason);
+    }
+
+    /**
+     * Lock the selected RUNNING rows, then retry and fail them with one
+     * statement each and a grouped job counter update.
+     */
+    private TaskReapResult reap(String selectSql, SqlBinder binder, Predicate<BatchRow> filter,
+            String reason) {
+        String resetSql = """
+                    UPDATE tasks
+                    SET status = 'NEW', assigned_to = NULL, started_at = NULL, error_message = NULL
+                    WHERE id = ANY(?) AND status = 'RUNNING'
+                """;
+        String failSql = """
+                    UPDATE tasks
+                    SET status = 'FAILED', finished_at = ?,
+                        error_message = CONCAT(?, ' - max attempts exceeded (', attempts, '/', max_attempts, ')')
+                    WHERE id = ANY(?) AND status = 'RUNNING'
+                """;
+
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement selectPs = conn.prepareStatement(selectSql);
+                    PreparedStatement resetPs = conn.prepareStatement(resetSql);
+                    PreparedStatement failPs = conn.prepareStatement(failSql)) {
+
+                binder.bind(selectPs);
+                List<TaskQueueEntry> retried = new ArrayList<>();
+                List<String> failed = new ArrayList<>();
+                // jobId -> {completed delta, failed delta}
+                Map<String, int[]> jobDeltas = new LinkedHashMap<>();
+                try (ResultSet rs = selectPs.executeQuery()) {
+                    while (rs.next()) {
+                        BatchRow row = new BatchRow(mapQueueEntry(rs), TaskStatus.RUNNING,
+                                rs.getString("assigned_to"), rs.getInt("attempts"), rs.getInt("max_attempts"));
+                        if (!filter.test(row)) {
+                            continue;
+                        }
+                        if (row.attempts < row.maxAttempts) {
+                            retried.add(row.entry);
+                        } else {
+                            failed.add(row.entry.id());
+                            addJobDelta(jobDeltas, row.entry.jobId(), 1);
+                        }
+                    }
+                }
+
+                // Rows are locked, so the update counts match the selection
+                Timestamp now = Timestamp.from(Instant.now());
+                if (!retried.isEmpty()) {
+                    resetPs.setObject(1, retried.stream().map(TaskQueueEntry::id).toArray(String[]::new));
+                    resetPs.executeUpdate();
+                }
+                if (!failed.isEmpty()) {
+                    failPs.setTimestamp(1, now);
+                    failPs.setString(2, "Task " + reason);
+                    failPs.setObject(3, failed.toArray(new String[0]));
+                    failPs.executeUpdate();
+                    updateJobCounters(conn, jobDeltas, now);
+                }
+                conn.commit();
+                return new TaskReapResult(retried, failed);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to reap RUNNING tasks", e);
+        }
+    }
+
     @Override
     public boolean resetToNew(String taskId) {
         String sql = """
@@ -502,6 +1023,101 @@ public class JdbcTaskRepository implements TaskRepository {
         }
     }
 
+    @Override
+    public List<TaskQueueEntry> releaseTasksForSpot(String spotId) {
+        String selectSql = """
+                    SELECT id, job_id, priority, created_at, optimizer_id, algorithm,
+                           function, input_dimension, input_iterations, input_agents
+                    FROM tasks WHERE assigned_to = ? AND status = 'RUNNING'
+                    FOR UPDATE
+                """;
+        String updateSql = """
+                    UPDATE tasks
+                    SET status = 'NEW', assigned_to = NULL, started_at = NULL
+                    WHERE assigned_to = ? AND status = 'RUNNING'
+                """;
+
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement selectPs = conn.prepareStatement(selectSql);
+                    PreparedStatement updatePs = conn.prepareStatement(updateSql)) {
+
+                List<TaskQueueEntry> freed = new ArrayList<>();
+                selectPs.setString(1, spotId);
+                try (ResultSet rs = selectPs.executeQuery()) {
+                    while (rs.next()) {
+                        freed.add(mapQueueEntry(rs));
+                    }
+                }
+
+                if (!freed.isEmpty()) {
+                    updatePs.setString(1, spotId);
+                    updatePs.executeUpdate();
+                }
+                conn.commit();
+
+                if (!freed.isEmpty()) {
+                    log.info("Freed {} tasks from offline spot {}", freed.size(), spotId);
+                }
+                return freed;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to free tasks for spot: " + spotId, e);
+        }
+    }
+
+    @Override
+    public List<TaskQueueEntry> releaseTasksForSpots(List<String> spotIds) {
+        if (spotIds.isEmpty()) {
+            return List.of();
+        }
+
+        String selectSql = """
+                    SELECT id, job_id, priority, created_at, optimizer_id, algorithm,
+                           function, input_dimension, input_iterations, input_agents
+                    FROM tasks WHERE assigned_to = ANY(?) AND status = 'RUNNING'
+                    FOR UPDATE
+                """;
+        String updateSql = """
+                    UPDATE tasks
+                    SET status = 'NEW', assigned_to = NULL, started_at = NULL
+                    WHERE assigned_to = ANY(?) AND status = 'RUNNING'
+                """;
+
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement selectPs = conn.prepareStatement(selectSql);
+                    PreparedStatement updatePs = conn.prepareStatement(updateSql)) {
+
+                Object[] ids = spotIds.toArray(new String[0]);
+                List<TaskQueueEntry> freed = new ArrayList<>();
+                selectPs.setObject(1, ids);
+                try (ResultSet rs = selectPs.executeQuery()) {
+                    while (rs.next()) {
+                        freed.add(mapQueueEntry(rs));
+                    }
+                }
+
+                if (!freed.isEmpty()) {
+                    updatePs.setObject(1, ids);
+                    updatePs.executeUpdate();
+                }
+                conn.commit();
+
+                if (!freed.isEmpty()) {
+                    log.info("Freed {} tasks from {} offline spots", freed.size(), spotIds.size());
+                }
+                return freed;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to free tasks for spots: " + spotIds, e);
+        }
+    }
+
     @Override
     public int countByJobIdAndStatus(String jobId, TaskStatus status) {
         String sql = "SELECT COUNT(*) FROM tasks WHERE job_id = ? AND status = ?";
@@ -634,6 +1250,7 @@ public class JdbcTaskRepository implements TaskRepository {
                         started_at = COALESCE(started_at, ?),
                         status = CASE
                             WHEN completed_tasks + failed_tasks + 1 >= total_tasks THEN 'COMPLETED'
+                            WHEN status = 'MATERIALIZING' THEN status
                             ELSE 'RUNNING'
                         END,
                         finished_at = CASE
@@ -757,6 +1374,7 @@ public class JdbcTaskRepository implements TaskRepository {
                         started_at = COALESCE(started_at, ?),
                         status = CASE
                             WHEN completed_tasks + failed_tasks + 1 >= total_tasks THEN 'COMPLETED'
+                            WHEN status = 'MATERIALIZING' THEN status
                             ELSE 'RUNNING'
                         END,
                         finished_at = CASE
@@ -783,6 +1401,225 @@ public class JdbcTaskRepository implements TaskRepository {
         }
     }
 
+    @Override
+    public TaskBatchResult reportBatch(String spotId, List<TaskCompletion> completions, List<TaskFailure> failures) {
+        Set<String> ids = new LinkedHashSet<>();
+        completions.forEach(c -> ids.add(c.taskId()));
+        failures.forEach(f -> ids.add(f.taskId()));
+        if (ids.isEmpty()) {
+            return TaskBatchResult.empty();
+        }
+
+        // Lock the rows up front; no payload/result CLOBs are read
+        String selectSql = """
+                    SELECT id, job_id, status, assigned_to, attempts, max_attempts,
+                           priority, created_at, optimizer_id, algorithm,
+                           function, input_dimension, input_iterations, input_agents
+                    FROM tasks WHERE id = ANY(?) FOR UPDATE
+                """;
+        String completeSql = """
+                    UPDATE tasks
+                    SET status = 'DONE', finished_at = ?, runtime_ms = ?, iter = ?, fopt = ?, result = ?
+                    WHERE id = ? AND assigned_to = ? AND status = 'RUNNING'
+                """;
+        String failSql = """
+                    UPDATE tasks
+                    SET status = 'FAILED', error_message = ?, finished_at = ?
+                    WHERE id = ? AND status = 'RUNNING'
+                """;
+        String resetSql = """
+                    UPDATE tasks
+                    SET status = 'NEW', assigned_to = NULL, started_at = NULL, error_message = NULL
+                    WHERE id = ? AND status = 'RUNNING'
+                """;
+
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement selectPs = conn.prepareStatement(selectSql);
+                    PreparedStatement completePs = conn.prepareStatement(completeSql);
+                    PreparedStatement failPs = conn.prepareStatement(failSql);
+                    PreparedStatement resetPs = conn.prepareStatement(resetSql)) {
+
+                Map<String, BatchRow> rows = new HashMap<>();
+                selectPs.setObject(1, ids.toArray(new String[0]));
+                try (ResultSet rs = selectPs.executeQuery()) {
+                    while (rs.next()) {
+                        BatchRow row = new BatchRow(mapQueueEntry(rs),
+                                TaskStatus.valueOf(rs.getString("status")),
+                                rs.getString("assigned_to"),
+                                rs.getInt("attempts"),
+                                rs.getInt("max_attempts"));
+                        rows.put(row.entry.id(), row);
+                    }
+                }
+
+                Timestamp now = Timestamp.from(Instant.now());
+                // jobId -> {completed delta, failed delta}
+                Map<String, int[]> jobDeltas = new LinkedHashMap<>();
+
+                List<TaskBatchResult.Completed> completed = new ArrayList<>(completions.size());
+                for (TaskCompletion c : completions) {
+                    BatchRow row = rows.get(c.taskId());
+                    TaskCompleteResult result;
+                    if (row == null) {
+                        result = TaskCompleteResult.NOT_FOUND;
+                    } else if (row.status == TaskStatus.DONE || row.status == TaskStatus.FAILED) {
+                        result = TaskCompleteResult.ALREADY_DONE;
+                    } else if (row.assignedTo != null && !spotId.equals(row.assignedTo)) {
+                        result = TaskCompleteResult.WRONG_SPOT;
+                    } else if (row.status != TaskStatus.RUNNING) {
+                        result = TaskCompleteResult.ALREADY_DONE;
+                    } else {
+                        completePs.setTimestamp(1, now);
+                        completePs.setLong(2, c.runtimeMs());
+                        setIntOrNull(completePs, 3, c.iter());
+                        setDoubleOrNull(completePs, 4, c.fopt());
+                        completePs.setString(5, c.result());
+                        completePs.setString(6, c.taskId());
+                        completePs.setString(7, spotId);
+                        completePs.addBatch();
+                        row.status = TaskStatus.DONE;
+                        addJobDelta(jobDeltas, row.entry.jobId(), 0);
+                        result = TaskCompleteResult.COMPLETED;
+                    }
+                    completed.add(new TaskBatchResult.Completed(c.taskId(), result));
+                }
+
+                List<TaskBatchResult.Failed> failed = new ArrayList<>(failures.size());
+                List<TaskQueueEntry> requeued = new ArrayList<>();
+                for (TaskFailure f : failures) {
+                    BatchRow row = rows.get(f.taskId());
+                    TaskFailResult result;
+                    if (row == null) {
+                        result = TaskFailResult.NOT_FOUND;
+                    } else if (row.status == TaskStatus.DONE || row.status == TaskStatus.FAILED
+                            || row.status == TaskStatus.CANCELLED) {
+                        result = TaskFailResult.ALREADY_TERMINAL;
+                    } else if (row.assignedTo != null && !spotId.equals(row.assignedTo)) {
+                        result = TaskFailResult.WRONG_SPOT;
+                    } else if (row.status != TaskStatus.RUNNING) {
+                        result = TaskFailResult.ALREADY_TERMINAL;
+                    } else if (f.forceRequeue() || (f.allowsRetry() && row.attempts < row.maxAttempts)) {
+                        resetPs.setString(1, f.taskId());
+                        resetPs.addBatch();
+                        row.status = TaskStatus.NEW;
+                        row.assignedTo = null;
+                        requeued.add(row.entry);
+                        result = TaskFailResult.RETRIED;
+                    } else {
+                        failPs.setString(1, f.errorMessage());
+                        failPs.setTimestamp(2, now);
+                        failPs.setString(3, f.taskId());
+                        failPs.addBatch();
+                        row.status = TaskStatus.FAILED;
+                        addJobDelta(jobDeltas, row.entry.jobId(), 1);
+                        result = TaskFailResult.FAILED;
+                    }
+                    failed.add(new TaskBatchResult.Failed(f.taskId(), result));
+                }
+
+                // Rows are locked, so every guarded UPDATE hits exactly once
+                completePs.executeBatch();
+                failPs.executeBatch();
+                resetPs.executeBatch();
+                updateJobCounters(conn, jobDeltas, now);
+
+                conn.commit();
+                log.info("Batch report from spot {}: {} completions, {} failures, {} jobs updated",
+                        spotId, completions.size(), failures.size(), jobDeltas.size());
+                return new TaskBatchResult(completed, failed, requeued);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to apply task report batch for spot: " + spotId, e);
+        }
+    }
+
+    private static void addJobDelta(Map<String, int[]> jobDeltas, String jobId, int index) {
+        if (jobId != null) {
+            jobDeltas.computeIfAbsent(jobId, k -> new int[2])[index]++;
+        }
+    }
+
+    /**
+     * Grouped version of {@link #updateJobOnTaskComplete} /
+     * {@link #updateJobOnTaskFail}: one UPDATE per job for the whole batch.
+     */
+    private void updateJobCounters(Connection conn, Map<String, int[]> jobDeltas, Timestamp now)
+            throws SQLException {
+        if (jobDeltas.isEmpty()) {
+            return;
+        }
+        String sql = """
+                    UPDATE jobs
+                    SET completed_tasks = completed_tasks + ?,
+                        failed_tasks = failed_tasks + ?,
+                        started_at = COALESCE(started_at, ?),
+                        status = CASE
+                            WHEN completed_tasks + failed_tasks + ? >= total_tasks THEN 'COMPLETED'
+                            WHEN status = 'MATERIALIZING' THEN status
+                            ELSE 'RUNNING'
+                        END,
+                        finished_at = CASE
+                            WHEN completed_tasks + failed_tasks + ? >= total_tasks THEN ?
+                            ELSE finished_at
+                        END
+                    WHERE id = ?
+                """;
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            List<String> jobIds = new ArrayList<>(jobDeltas.keySet());
+            for (String jobId : jobIds) {
+                int[] delta = jobDeltas.get(jobId);
+                int total = delta[0] + delta[1];
+                ps.setInt(1, delta[0]);
+                ps.setInt(2, delta[1]);
+                ps.setTimestamp(3, now);
+                ps.setInt(4, total);
+                ps.setInt(5, total);
+                ps.setTimestamp(6, now);
+                ps.setString(7, jobId);
+                ps.addBatch();
+            }
+            int[] results = ps.executeBatch();
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] != 1) {
+                    log.error("CRITICAL: batch job update touched {} rows for job {} (expected 1)",
+                            results[i], jobIds.get(i));
+                    throw new SQLException("Job update failed: job " + jobIds.get(i) + " not found");
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the parameters of a prepared statement.
+     */
+    @FunctionalInterface
+    private interface SqlBinder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    /**
+     * Locked task state used while applying a batch report.
+     */
+    private static final class BatchRow {
+        final TaskQueueEntry entry;
+        TaskStatus status;
+        String assignedTo;
+        final int attempts;
+        final int maxAttempts;
+
+        BatchRow(TaskQueueEntry entry, TaskStatus status, String assignedTo, int attempts, int maxAttempts) {
+            this.entry = entry;
+            this.status = status;
+            this.assignedTo = assignedTo;
+            this.attempts = attempts;
+            this.maxAttempts = maxAttempts;
+        }
+    }
+
     @Override
     public boolean updateStatus(String taskId, TaskStatus status) {
         String sql = "UPDATE tasks SET status = ? WHERE id = ?";
@@ -813,6 +1650,34 @@ public class JdbcTaskRepository implements TaskRepository {
         }
     }
 
+    @Override
+    public int countRunningBySpotId(String spotId) {
+        String sql = "SELECT COUNT(*) FROM tasks WHERE assigned_to = ? AND status = 'RUNNING'";
+        try (Connection conn = db.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, spotId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to count running tasks for spot: " + spotId, e);
+        }
+    }
+
+    @Override
+    public int countByStatus(TaskStatus status) {
+        String sql = "SELECT COUNT(*) FROM tasks WHERE status = ?";
+        try (Connection conn = db.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, status.name());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to count tasks by status: " + status, e);
+        }
+    }
+
     // Helper methods
 
     private List<Task> executeQuery(PreparedStatement ps) throws SQLException {
@@ -852,10 +1717,49 @@ public class JdbcTaskRepository implements TaskRepository {
                 .build();
     }
 
+    private TaskQueueEntry mapQueueEntry(ResultSet rs) throws SQLException {
+        return new TaskQueueEntry(
+                rs.getString("id"),
+                rs.getString("job_id"),
+                rs.getInt("priority"),
+                toInstant(rs.getTimestamp("created_at")),
+                rs.getString("optimizer_id"),
+                rs.getString("algorithm"),
+                rs.getString("function"),
+                getIntOrNull(rs, "input_dimension"),
+                getIntOrNull(rs, "input_iterations"),
+                getIntOrNull(rs, "input_agents"));
+    }
+
     private static Instant toInstant(Timestamp ts) {
         return ts != null ? ts.toInstant() : null;
     }
 
+    /**
+     * A claimed task from a row of {@link #CLAIM_COLUMNS}, RUNNING on the
+     * SPOT since {@code now}.
+     */
+    private static Task claimedRow(ResultSet rs, String spotId, Timestamp now) throws SQLException {
+        return Task.builder()
+                .id(rs.getString("id"))
+                .jobId(rs.getString("job_id"))
+                .payload(rs.getString("payload"))
+                .status(TaskStatus.RUNNING)
+                .assignedTo(spotId)
+                .priority(rs.getInt("priority"))
+                .attempts(rs.getInt("attempts"))
+                .maxAttempts(rs.getInt("max_attempts"))
+                .createdAt(toInstant(rs.getTimestamp("created_at")))
+                .startedAt(now.toInstant())
+                .algorithm(rs.getString("algorithm"))
+                .optimizerId(rs.getString("optimizer_id"))
+                .function(rs.getString("function"))
+                .inputIterations(getIntOrNull(rs, "input_iterations"))
+                .inputAgents(getIntOrNull(rs, "input_agents"))
+                .inputDimension(getIntOrNull(rs, "input_dimension"))
+                .build();
+    }
+
     private static void setTimestamp(PreparedStatement ps, int index, Instant instant) throws SQLException {
         if (instant != null) {
             ps.setTimestamp(index, Timestamp.from(instant));
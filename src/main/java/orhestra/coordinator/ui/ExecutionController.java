@@ -18,6 +18,7 @@ import orhestra.coordinator.model.Task;
 import orhestra.coordinator.model.TaskStatus;
 import orhestra.coordinator.server.CoordinatorNettyServer;
 import orhestra.coordinator.service.AutoScaler;
+import orhestra.coordinator.service.JobTemplates;
 import orhestra.coordinator.simulation.SimulationService;
 
 import java.io.File;
@@ -223,7 +224,8 @@ public class ExecutionController {
                 }
                 // DB work on background thread
                 List<TaskInfo> items = deps.taskService().findRecent(200)
-                        .stream().map(this::toTaskInfo).collect(Collectors.toList());
+                        .stream().map(task -> toTaskInfo(task, deps.jobTemplates()))
+                        .collect(Collectors.toList());
 
                 // Apply to UI on FX thread — fast, no DB calls here
                 Platform.runLater(() -> {
@@ -528,7 +530,7 @@ public class ExecutionController {
 
     // ================== Task model mapping ==================
 
-    private TaskInfo toTaskInfo(Task task) {
+    private TaskInfo toTaskInfo(Task task, JobTemplates templates) {
         String algDisplay = task.algorithm();
         Integer iters     = task.inputIterations();
         Integer agents    = task.inputAgents();
@@ -538,7 +540,9 @@ public class ExecutionController {
         // algColumn shows the algorithm name (e.g. COA), funcColumn shows algorithm.function (e.g. sphere)
         try {
             if (task.payload() != null && !task.payload().isBlank()) {
-                com.fasterxml.jackson.databind.JsonNode root = PAYLOAD_MAPPER.readTree(task.payload());
+                // Params-only payloads get the artifact back from the job template
+                String payload = templates.expand(task.jobId(), task.payload());
+                com.fasterxml.jackson.databind.JsonNode root = PAYLOAD_MAPPER.readTree(payload);
                 com.fasterxml.jackson.databind.JsonNode params = root.path("params");
                 if (params.isObject()) {
                     if (iters  == null && params.has("run.iterations")) iters  = params.get("run.iterations").asInt();
@@ -690,11 +694,19 @@ public class ExecutionController {
                         req.artifactKey(),
                         req.artifactEndpoint());
 
-                Job job = deps.jobService().createJob(
-                        artifact,
-                        req.mainClass(),
-                        req.config(),
-                        req.payloads());
+                Job job = req.isLazy()
+                        ? deps.jobService().createLazyJob(
+                                artifact,
+                                req.mainClass(),
+                                req.config(),
+                                (int) req.totalTasks(),
+                                req.grid()::payloadAt)
+                        : deps.jobService().submitJob(
+                                artifact,
+                                req.mainClass(),
+                                req.config(),
+                                (int) req.totalTasks(),
+                                req.payloadIterator());
 
                 AppBus.fireTasksChanged();
                 refreshTasks();
@@ -44,7 +44,11 @@ class InternalDtoTest {
         ClaimTasksRequest valid = new ClaimTasksRequest("spot-1", 4);
         assertDoesNotThrow(valid::validate);
 
-        ClaimTasksRequest tooMany = new ClaimTasksRequest("spot-1", 100);
+        // Large requests are allowed; the coordinator applies the SPOT's quota
+        ClaimTasksRequest large = new ClaimTasksRequest("spot-1", 100);
+        assertDoesNotThrow(large::validate);
+
+        ClaimTasksRequest tooMany = new ClaimTasksRequest("spot-1", ClaimTasksRequest.MAX_ALLOWED + 1);
         assertThrows(IllegalArgumentException.class, tooMany::validate);
 
         ClaimTasksRequest zero = new ClaimTasksRequest("spot-1", 0);
@@ -114,10 +114,10 @@ class CreateJobRequestTest {
         List<String> payloads = req.payloads();
         assertEquals(1, payloads.size());
 
+        // The artifact and mainClass live on the job row, not in each payload
         var node = mapper.readTree(payloads.get(0));
-        assertEquals("my-bucket", node.get("artifactBucket").asText());
-        assertEquals("my.jar",    node.get("artifactKey").asText());
-        assertEquals("com.Main",  node.get("mainClass").asText());
+        assertFalse(node.has("artifactKey"));
+        assertFalse(node.has("mainClass"));
         assertEquals(100, node.path("params").path("run.iter").asInt());
     }
 
@@ -139,6 +139,42 @@ class CreateJobRequestTest {
         assertThrows(IllegalArgumentException.class, req::validate);
     }
 
+    @Test
+    void payloadIteratorWalksGridInOrder() throws Exception {
+        Map<String, ParameterValue> params = new java.util.LinkedHashMap<>();
+        params.put("alg", new ParameterValue("ENUM_LIST", null, null, null, null, List.of("DE", "PSO")));
+        params.put("iter", new ParameterValue("INT_RANGE", 1, 3, 1, null, null));
+        CreateJobRequest req = new CreateJobRequest("bucket", "key.jar", null, "Main",
+                List.of(new CreateJobRequest.ParameterGroupRequest("g", params)));
+
+        List<String> combos = new java.util.ArrayList<>();
+        req.payloadIterator().forEachRemaining(p -> {
+            try {
+                var node = mapper.readTree(p).path("params");
+                combos.add(node.get("g.alg").asText() + node.get("g.iter").asInt());
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        assertEquals(List.of("DE1", "DE2", "DE3", "PSO1", "PSO2", "PSO3"), combos);
+        assertEquals(req.totalTasks(), combos.size());
+    }
+
+    @Test
+    void totalTasksSaturatesInsteadOfOverflowing() {
+        Map<String, ParameterValue> params = new java.util.LinkedHashMap<>();
+        for (int i = 0; i < 5; i++) {
+            params.put("p" + i, new ParameterValue("INT_RANGE", 0, 99_999, 1, null, null));
+        }
+        CreateJobRequest req = new CreateJobRequest("bucket", "key.jar", null, "Main",
+                List.of(new CreateJobRequest.ParameterGroupRequest("g", params)));
+
+        // 100000^5 does not fit in a long
+        assertEquals(Long.MAX_VALUE, req.totalTasks());
+        assertThrows(IllegalArgumentException.class, req::validate);
+    }
+
     @Test
     void validateEmptyParameters() {
         CreateJobRequest req = new CreateJobRequest(
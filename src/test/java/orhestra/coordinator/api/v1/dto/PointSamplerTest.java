@@ -0,0 +1,129 @@
+package orhestra.coordinator.api.v1.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import orhestra.coordinator.model.SamplingSpec;
+import orhestra.coordinator.model.SearchDimension;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointSamplerTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private static final List<SearchDimension> UNIT_SQUARE = List.of(
+            SearchDimension.ofFloat("a.x", 0, 1, null),
+            SearchDimension.ofFloat("a.y", 0, 1, null));
+
+    private List<double[]> points(PointSampler sampler, String... keys) throws Exception {
+        List<double[]> points = new ArrayList<>();
+        for (Iterator<String> it = sampler.iterator(); it.hasNext(); ) {
+            JsonNode params = mapper.readTree(it.next()).get("params");
+            double[] point = new double[keys.length];
+            for (int d = 0; d < keys.length; d++) {
+                point[d] = params.get(keys[d]).asDouble();
+            }
+            points.add(point);
+        }
+        return points;
+    }
+
+    @Test
+    void sameSeedSamePoints() {
+        for (String method : List.of("random", "lhs", "sobol")) {
+            PointSampler a = PointSampler.of(UNIT_SQUARE, new SamplingSpec(method, 50, 7L));
+            PointSampler b = PointSampler.of(UNIT_SQUARE, new SamplingSpec(method, 50, 7L));
+            PointSampler other = PointSampler.of(UNIT_SQUARE, new SamplingSpec(method, 50, 8L));
+            Iterator<String> it = a.iterator();
+            for (int i = 0; i < 50; i++) {
+                String payload = it.next();
+                assertEquals(payload, b.payloadAt(i), method + " point " + i);
+                assertEquals(payload, a.payloadAt(i), "iterator and random access agree");
+            }
+            assertNotEquals(a.payloadAt(3), other.payloadAt(3), method);
+        }
+    }
+
+    @Test
+    void latinHypercubeFillsEveryStratum() throws Exception {
+        int n = 100;
+        List<double[]> points = points(PointSampler.of(UNIT_SQUARE, new SamplingSpec("lhs", n, 3L)), "a.x", "a.y");
+        for (int d = 0; d < 2; d++) {
+            Set<Integer> strata = new HashSet<>();
+            for (double[] p : points) {
+                strata.add((int) (p[d] * n));
+            }
+            assertEquals(n, strata.size(), "one point per stratum in dimension " + d);
+        }
+    }
+
+    @Test
+    void sobolPointsFormANet() throws Exception {
+        // 64 points of the first two dimensions: one in each 8x8 cell
+        List<double[]> points = points(PointSampler.of(UNIT_SQUARE, new SamplingSpec("sobol", 64, 11L)), "a.x", "a.y");
+        Set<Integer> cells = new HashSet<>();
+        for (double[] p : points) {
+            cells.add((int) (p[0] * 8) * 8 + (int) (p[1] * 8));
+        }
+        assertEquals(64, cells.size());
+    }
+
+    @Test
+    void discreteAndFixedParameters() throws Exception {
+        List<SearchDimension> space = List.of(
+                SearchDimension.ofInt("run.agents", 10, 30, 10),
+                SearchDimension.ofChoices("algorithm.name", List.of("PSO", "GA")),
+                SearchDimension.ofChoices("run.dimension", List.of(20)));
+        List<Integer> agents = new ArrayList<>();
+        for (Iterator<String> it = PointSampler.of(space, new SamplingSpec("lhs", 30, null)).iterator(); it.hasNext(); ) {
+            JsonNode params = mapper.readTree(it.next()).get("params");
+            agents.add(params.get("run.agents").asInt());
+            assertTrue(List.of("PSO", "GA").contains(params.get("algorithm.name").asText()));
+            assertEquals(20, params.get("run.dimension").asInt());
+        }
+        // Latin hypercube: each of the three values exactly 10 times
+        assertEquals(10, Collections.frequency(agents, 10));
+        assertEquals(10, Collections.frequency(agents, 20));
+        assertEquals(10, Collections.frequency(agents, 30));
+    }
+
+    @Test
+    void sobolDimensionLimit() {
+        List<SearchDimension> space = new ArrayList<>();
+        for (int d = 0; d < PointSampler.MAX_SOBOL_DIMENSIONS + 1; d++) {
+            space.add(SearchDimension.ofFloat("a.x" + d, 0, 1, null));
+        }
+        assertThrows(IllegalArgumentException.class, () -> PointSampler.of(space, new SamplingSpec("sobol", 10, null)));
+        assertEquals(10, PointSampler.of(space, new SamplingSpec("random", 10, null)).size());
+        assertThrows(IllegalArgumentException.class, () -> new SamplingSpec("halton", 10, null).validate());
+    }
+
+    @Test
+    void requestSamplesInsteadOfExpandingTheGrid() throws Exception {
+        String json = """
+                {
+                  "artifactBucket": "b", "artifactKey": "k.jar", "mainClass": "Main",
+                  "parameters": [
+                    {"groupId": "algorithm", "params": {
+                      "w":  {"type": "FLOAT_RANGE", "min": 0, "max": 1},
+                      "c1": {"type": "FLOAT_RANGE", "min": 0, "max": 4, "step": 0.0001}
+                    }},
+                    {"groupId": "run", "params": {"agents": {"type": "INT_RANGE", "min": 1, "max": 100000}}}
+                  ],
+                  "sampling": {"method": "sobol", "points": 5000, "seed": 1}
+                }
+                """;
+        CreateJobRequest req = mapper.readValue(json, CreateJobRequest.class);
+        req.validate();
+        assertEquals(5000, req.totalTasks());
+        assertEquals(req.payloadAt().apply(4999), req.sampler().payloadAt(4999));
+    }
+}
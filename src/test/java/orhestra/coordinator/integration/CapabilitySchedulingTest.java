@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import orhestra.coordinator.config.CoordinatorConfig;
 import orhestra.coordinator.config.Dependencies;
 import orhestra.coordinator.model.*;
+import orhestra.coordinator.service.SpotRegistry;
 import orhestra.coordinator.service.SpotTaskBlacklist;
 import org.junit.jupiter.api.*;
 
@@ -103,6 +104,28 @@ class CapabilitySchedulingTest {
         assertEquals(TaskStatus.NEW, remaining.status(), "Task should remain NEW");
     }
 
+    @Test
+    void spotRegistryCachesParsedCapabilities() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        String capJson = mapper.writeValueAsString(Map.of(
+                "optimizers", List.of(Map.of(
+                        "optimizerId", OPT_ID,
+                        "version", "2.0.0",
+                        "algorithms", List.of("PSO", "GA")))));
+        String spotId = deps.spotService().registerSpot("127.0.0.3", 4, 8192, 7, capJson, "local");
+
+        // Filled at registration - no repository round trip needed
+        SpotRegistry.SpotProfile profile = deps.spotRegistry().get(spotId).orElseThrow();
+        assertTrue(profile.hasCapabilities());
+        assertEquals(List.of(OPT_ID), profile.optimizerIds());
+        assertEquals(List.of("PSO", "GA"), profile.algorithms());
+        assertSame(profile, deps.spotRegistry().get(spotId).orElseThrow());
+
+        // Evicted together with the spot
+        deps.spotService().delete(spotId);
+        assertFalse(deps.spotRegistry().get(spotId).isPresent());
+    }
+
     @Test
     void blacklistPreventsReassignment() {
         SpotTaskBlacklist blacklist = new SpotTaskBlacklist();
@@ -5,8 +5,11 @@ import orhestra.coordinator.config.CoordinatorConfig;
 import orhestra.coordinator.config.Dependencies;
 import orhestra.coordinator.model.ArtifactRef;
 import orhestra.coordinator.model.*;
+import orhestra.coordinator.service.JobService;
 import org.junit.jupiter.api.*;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -208,6 +211,119 @@ class FullFlowIntegrationTest {
                 assertEquals(spot1, task.assignedTo());
         }
 
+        @Test
+        @DisplayName("Job creation fills task columns from generated params")
+        void testCreateJobPopulatesTaskColumns() {
+                Job job = deps.jobService().createJob(
+                                new ArtifactRef("bucket", "algo.jar", "http://localhost:9000"),
+                                "com.example.Main",
+                                "{}",
+                                List.of("{\"artifactBucket\":\"bucket\",\"artifactKey\":\"algo.jar\",\"params\":{\"algorithm.optimizerId\":\"coa\",\"algorithm.algorithm\":\"PSO\",\"algorithm.function\":\"sphere\",\"run.iterations\":100,\"run.agents\":30}}"));
+
+                Task task = deps.jobService().getTasks(job.id()).get(0);
+                assertEquals("coa", task.optimizerId());
+                assertEquals("PSO", task.algorithm());
+                assertEquals("sphere", task.function());
+                assertEquals(100, task.inputIterations());
+                assertEquals(30, task.inputAgents());
+                assertNull(task.inputDimension());
+        }
+
+        @Test
+        @DisplayName("Submitted job is ingested in the background and reports progress")
+        void testSubmitJobIngestsInBackground() throws Exception {
+                List<String> payloads = new ArrayList<>();
+                for (int i = 0; i < 2500; i++) {
+                        payloads.add("{\"params\":{\"run.iterations\":" + i + "}}");
+                }
+                Job job = deps.jobService().submitJob(
+                                new ArtifactRef("bucket", "algo.jar", "http://localhost:9000"),
+                                "com.example.Main", "{}", payloads.size(), payloads.iterator());
+                assertEquals(JobStatus.MATERIALIZING, job.status());
+                assertEquals(0, job.materializedTasks());
+
+                long deadline = System.currentTimeMillis() + 10_000;
+                Job current = deps.jobService().findById(job.id()).orElseThrow();
+                while (current.status() == JobStatus.MATERIALIZING && System.currentTimeMillis() < deadline) {
+                        Thread.sleep(20);
+                        current = deps.jobService().findById(job.id()).orElseThrow();
+                }
+
+                assertEquals(JobStatus.PENDING, current.status());
+                assertEquals(2500, current.materializedTasks());
+                assertEquals(2500, deps.dispatcher().size());
+        }
+
+        @Test
+        @DisplayName("Cancelling a job during ingestion stops it and cancels written tasks")
+        void testCancelDuringIngest() {
+                List<Runnable> deferred = new ArrayList<>();
+                JobService jobService = JobService.builder(deps.jobRepository(), deps.taskRepository(), deps.config())
+                                .dispatcher(deps.dispatcher())
+                                .ingestExecutor(deferred::add)
+                                .build();
+
+                List<String> payloads = new ArrayList<>();
+                for (int i = 0; i < 10; i++) {
+                        payloads.add("{}");
+                }
+                Job job = jobService.submitJob(new ArtifactRef("bucket", "algo.jar", null),
+                                "com.example.Main", "{}", payloads.size(), payloads.iterator());
+
+                assertTrue(jobService.cancel(job.id()));
+                deferred.forEach(Runnable::run);
+
+                assertEquals(JobStatus.CANCELLED, jobService.findById(job.id()).orElseThrow().status());
+                assertTrue(jobService.getTasks(job.id()).stream()
+                                .noneMatch(t -> t.status() == TaskStatus.NEW));
+                assertEquals(0, deps.dispatcher().size());
+        }
+
+        @Test
+        @DisplayName("A task finished during ingestion keeps the job materializing until ingest ends")
+        void testCompleteDuringIngest() {
+                int chunk = deps.config().ingestChunkSize();
+                List<Runnable> deferred = new ArrayList<>();
+                JobService jobService = JobService.builder(deps.jobRepository(), deps.taskRepository(), deps.config())
+                                .dispatcher(deps.dispatcher())
+                                .ingestExecutor(deferred::add)
+                                .build();
+                String spotId = deps.spotService().registerSpot("192.168.1.1");
+
+                // Finish a task of the first chunk before the second one is written
+                JobStatus[] duringIngest = new JobStatus[1];
+                String[] jobId = new String[1];
+                Iterator<String> payloads = new Iterator<>() {
+                        int i;
+
+                        @Override
+                        public boolean hasNext() {
+                                return i < chunk * 2;
+                        }
+
+                        @Override
+                        public String next() {
+                                if (i == chunk) {
+                                        Task task = deps.taskService().claimTasks(spotId, 1).get(0);
+                                        deps.taskService().completeTaskIdempotent(
+                                                        task.id(), spotId, 1000, 100, 0.5, "{}");
+                                        duringIngest[0] = jobService.findById(jobId[0]).orElseThrow().status();
+                                }
+                                return "{\"params\":{\"run.iterations\":" + i++ + "}}";
+                        }
+                };
+                Job job = jobService.submitJob(new ArtifactRef("bucket", "algo.jar", null),
+                                "com.example.Main", "{}", chunk * 2, payloads);
+                jobId[0] = job.id();
+                deferred.forEach(Runnable::run);
+
+                assertEquals(JobStatus.MATERIALIZING, duringIngest[0]);
+                Job current = jobService.findById(job.id()).orElseThrow();
+                assertEquals(JobStatus.RUNNING, current.status());
+                assertEquals(1, current.completedTasks());
+                assertEquals(chunk * 2, current.materializedTasks());
+        }
+
         @Test
         @DisplayName("Task not found returns proper result")
         void testTaskNotFound() {
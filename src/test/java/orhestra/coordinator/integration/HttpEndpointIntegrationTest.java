@@ -92,14 +92,16 @@ class HttpEndpointIntegrationTest {
                                                 .build(),
                                 HttpResponse.BodyHandlers.ofString());
 
-                assertEquals(201, createResponse.statusCode(),
-                                "Create job should return 201 CREATED. Body: " + createResponse.body());
+                assertEquals(202, createResponse.statusCode(),
+                                "Create job should return 202 ACCEPTED. Body: " + createResponse.body());
                 JsonNode createResult = MAPPER.readTree(createResponse.body());
                 String jobId = createResult.get("jobId").asText();
                 assertNotNull(jobId);
+                assertEquals("MATERIALIZING", createResult.get("status").asText());
 
-                // Verify initial job status
-                JsonNode initialJob = getJob(baseUrl, jobId);
+                // Verify job status once its tasks are written
+                JsonNode initialJob = awaitIngested(baseUrl, jobId);
+                assertEquals(1, initialJob.get("materializedTasks").asInt());
                 assertEquals("PENDING", initialJob.get("status").asText());
                 assertEquals(0, initialJob.get("completedTasks").asInt());
                 assertEquals(1, initialJob.get("totalTasks").asInt());
@@ -222,6 +224,66 @@ class HttpEndpointIntegrationTest {
                 assertEquals("DONE", results.get("results").get(0).get("status").asText());
         }
 
+        @Test
+        @DisplayName("Long-poll claim is answered as soon as a job is created")
+        void testLongPollClaimWokenByJobCreation() throws Exception {
+                String baseUrl = "http://localhost:" + TEST_PORT;
+                String spotId = "spot-longpoll-" + System.nanoTime();
+
+                // 1. Park a claim on the empty queue
+                String claimBody = String.format("""
+                                {
+                                    "spotId": "%s",
+                                    "maxTasks": 5,
+                                    "waitMs": 20000
+                                }
+                                """, spotId);
+                long start = System.nanoTime();
+                var pending = httpClient.sendAsync(
+                                HttpRequest.newBuilder()
+                                                .uri(URI.create(baseUrl + "/internal/v1/tasks/claim"))
+                                                .header("Content-Type", "application/json")
+                                                .POST(HttpRequest.BodyPublishers.ofString(claimBody))
+                                                .build(),
+                                HttpResponse.BodyHandlers.ofString());
+
+                TimeUnit.MILLISECONDS.sleep(300);
+                assertFalse(pending.isDone(), "Claim should be parked while the queue is empty");
+
+                // 2. Create a job with 1 task
+                String createJobBody = """
+                                {
+                                    "artifactBucket":   "test-bucket",
+                                    "artifactKey":      "test/longpoll.jar",
+                                    "artifactEndpoint": "http://localhost:9000",
+                                    "mainClass":        "com.test.LongPoll",
+                                    "parameters": [
+                                        {
+                                            "groupId": "algorithm",
+                                            "params": {
+                                                "name": { "type": "ENUM_LIST", "values": ["DE"] }
+                                            }
+                                        }
+                                    ]
+                                }
+                                """;
+                HttpResponse<String> createResponse = httpClient.send(
+                                HttpRequest.newBuilder()
+                                                .uri(URI.create(baseUrl + "/api/v1/jobs"))
+                                                .header("Content-Type", "application/json")
+                                                .POST(HttpRequest.BodyPublishers.ofString(createJobBody))
+                                                .build(),
+                                HttpResponse.BodyHandlers.ofString());
+                assertEquals(202, createResponse.statusCode());
+
+                // 3. The parked claim returns the new task well before waitMs
+                HttpResponse<String> claimResponse = pending.get(10, TimeUnit.SECONDS);
+                long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                assertEquals(200, claimResponse.statusCode(), claimResponse.body());
+                assertEquals(1, MAPPER.readTree(claimResponse.body()).get("tasks").size());
+                assertTrue(elapsedMs < 10_000, "Claim took " + elapsedMs + "ms");
+        }
+
         @Test
         @DisplayName("Claim correctness: jobId match, status RUNNING, second claim empty")
         void testClaimCorrectnessAndSecondClaimEmpty() throws Exception {
@@ -261,10 +323,11 @@ class HttpEndpointIntegrationTest {
                                                 .build(),
                                 HttpResponse.BodyHandlers.ofString());
 
-                assertEquals(201, createResponse.statusCode());
+                assertEquals(202, createResponse.statusCode());
                 JsonNode createResult = MAPPER.readTree(createResponse.body());
                 String jobId = createResult.get("jobId").asText();
                 assertEquals(1, createResult.get("totalTasks").asInt());
+                awaitIngested(baseUrl, jobId);
 
                 // 2. Register spot via heartbeat
                 String spotId = "spot-claim-test-" + System.nanoTime();
@@ -312,6 +375,8 @@ class HttpEndpointIntegrationTest {
                 // Assert: claimed task.jobId == created jobId
                 assertEquals(jobId, claimedJobId, "Claimed task must belong to created job");
                 assertNotNull(claimedTask.get("payload"), "Payload should be present");
+                assertEquals("test/claim.jar", claimedTask.path("payload").path("artifactKey").asText(),
+                                "SPOTs without knownTemplates get the job template merged into the payload");
 
                 // 4. Second claim - should return empty (task is RUNNING, not NEW)
                 HttpResponse<String> secondClaimResponse = httpClient.send(
@@ -406,12 +471,12 @@ class HttpEndpointIntegrationTest {
                                                 .build(),
                                 HttpResponse.BodyHandlers.ofString());
 
-                assertEquals(201, createResponse.statusCode());
+                assertEquals(202, createResponse.statusCode());
                 JsonNode createResult = MAPPER.readTree(createResponse.body());
                 String jobId = createResult.get("jobId").asText();
 
                 // 2. Verify job exists (GET should return 200)
-                JsonNode job = getJob(baseUrl, jobId);
+                JsonNode job = awaitIngested(baseUrl, jobId);
                 assertEquals("PENDING", job.get("status").asText());
 
                 // 3. "Restart" the server (stop and start again)
@@ -449,6 +514,84 @@ class HttpEndpointIntegrationTest {
                 assertEquals(200, healthResponse.statusCode(), "Health endpoint should work after restart");
         }
 
+        @Test
+        @DisplayName("Claim with knownTemplates: params-only payloads, template sent once per version")
+        void testClaimWithTemplates() throws Exception {
+                String baseUrl = "http://localhost:" + TEST_PORT;
+
+                String createJobBody = """
+                                {
+                                    "artifactBucket":   "test-bucket",
+                                    "artifactKey":      "test/template.jar",
+                                    "artifactEndpoint": "http://localhost:9000",
+                                    "mainClass":        "com.test.TemplateTest",
+                                    "parameters": [
+                                        {
+                                            "groupId": "run",
+                                            "params": {
+                                                "iterations": { "type": "INT_RANGE", "min": 1, "max": 2, "step": 1 }
+                                            }
+                                        }
+                                    ]
+                                }
+                                """;
+                HttpResponse<String> createResponse = post(baseUrl, "/api/v1/jobs", createJobBody);
+                assertEquals(202, createResponse.statusCode());
+                String jobId = MAPPER.readTree(createResponse.body()).get("jobId").asText();
+                awaitIngested(baseUrl, jobId);
+
+                String spotId = "spot-template-test-" + System.nanoTime();
+                post(baseUrl, "/internal/v1/heartbeat", String.format("""
+                                { "spotId": "%s", "cpuLoad": 10.0, "runningTasks": 0, "totalCores": 2 }
+                                """, spotId));
+
+                // 1. Empty cache: template is sent, payload is params-only
+                JsonNode first = MAPPER.readTree(post(baseUrl, "/internal/v1/tasks/claim", String.format("""
+                                { "spotId": "%s", "maxTasks": 1, "knownTemplates": {} }
+                                """, spotId)).body());
+                assertEquals(1, first.get("tasks").size());
+                JsonNode payload = first.get("tasks").get(0).get("payload");
+                assertFalse(payload.has("artifactKey"), "Payload must not repeat the template");
+                assertTrue(payload.path("params").has("run.iterations"));
+
+                JsonNode template = first.path("templates").path(jobId);
+                assertEquals("test/template.jar", template.path("artifactKey").asText());
+                assertEquals("com.test.TemplateTest", template.path("mainClass").asText());
+                String version = template.path("version").asText();
+                assertFalse(version.isEmpty());
+
+                // 2. Cached version: template is not sent again
+                JsonNode second = MAPPER.readTree(post(baseUrl, "/internal/v1/tasks/claim", String.format("""
+                                { "spotId": "%s", "maxTasks": 1, "knownTemplates": { "%s": "%s" } }
+                                """, spotId, jobId, version)).body());
+                assertEquals(1, second.get("tasks").size());
+                assertFalse(second.has("templates"), "Known template must not be resent");
+        }
+
+        private HttpResponse<String> post(String baseUrl, String path, String body) throws Exception {
+                return httpClient.send(
+                                HttpRequest.newBuilder()
+                                                .uri(URI.create(baseUrl + path))
+                                                .header("Content-Type", "application/json")
+                                                .POST(HttpRequest.BodyPublishers.ofString(body))
+                                                .build(),
+                                HttpResponse.BodyHandlers.ofString());
+        }
+
+        /**
+         * Poll the job until background task ingestion has finished.
+         */
+        private JsonNode awaitIngested(String baseUrl, String jobId) throws Exception {
+                long deadline = System.currentTimeMillis() + 5000;
+                JsonNode job = getJob(baseUrl, jobId);
+                while ("MATERIALIZING".equals(job.get("status").asText())
+                                && System.currentTimeMillis() < deadline) {
+                        TimeUnit.MILLISECONDS.sleep(20);
+                        job = getJob(baseUrl, jobId);
+                }
+                return job;
+        }
+
         private JsonNode getJob(String baseUrl, String jobId) throws Exception {
                 HttpResponse<String> response = httpClient.send(
                                 HttpRequest.newBuilder()
@@ -235,4 +235,110 @@ class JobCounterSyncTest {
         assertEquals(2, afterSecond.completedTasks());
         assertEquals(JobStatus.COMPLETED, afterSecond.status(), "Job should be COMPLETED after 2 of 2 tasks");
     }
+
+    @Test
+    void reportBatch_groupsJobCountersAndReturnsPerTaskOutcomes() {
+        Job job = Job.builder()
+                .id("job-batch")
+                .artifact(new ArtifactRef("test-bucket", "test.jar", "http://localhost:9000"))
+                .mainClass("Test")
+                .config("{}")
+                .status(JobStatus.PENDING)
+                .totalTasks(4)
+                .build();
+        jobRepository.save(job);
+
+        for (int i = 1; i <= 4; i++) {
+            taskRepository.save(Task.builder()
+                    .id("batch-" + i)
+                    .jobId("job-batch")
+                    .payload("{}")
+                    .status(TaskStatus.NEW)
+                    .maxAttempts(i == 3 ? 1 : 3)
+                    .build());
+        }
+        assertEquals(4, taskRepository.claimTasks("spot-1", 4).size());
+
+        TaskBatchResult result = taskRepository.reportBatch("spot-1",
+                List.of(
+                        new TaskCompletion("batch-1", 100, 10, 0.5, "{}"),
+                        new TaskCompletion("batch-2", 200, 20, 0.25, null),
+                        new TaskCompletion("batch-1", 100, 10, 0.5, "{}"),
+                        new TaskCompletion("missing", 1, null, null, null)),
+                List.of(
+                        new TaskFailure("batch-3", "boom", true, FailureReason.RUNTIME_ERROR),
+                        new TaskFailure("batch-4", "flaky", true, null)));
+
+        assertEquals(List.of(TaskCompleteResult.COMPLETED, TaskCompleteResult.COMPLETED,
+                TaskCompleteResult.ALREADY_DONE, TaskCompleteResult.NOT_FOUND),
+                result.completed().stream().map(TaskBatchResult.Completed::result).toList());
+        assertEquals(List.of(TaskFailResult.FAILED, TaskFailResult.RETRIED),
+                result.failed().stream().map(TaskBatchResult.Failed::result).toList());
+        assertEquals(List.of("batch-4"), result.requeued().stream().map(TaskQueueEntry::id).toList());
+
+        assertEquals(TaskStatus.DONE, taskRepository.findById("batch-1").orElseThrow().status());
+        assertEquals(TaskStatus.FAILED, taskRepository.findById("batch-3").orElseThrow().status());
+        assertEquals(TaskStatus.NEW, taskRepository.findById("batch-4").orElseThrow().status());
+
+        Job updated = jobRepository.findById("job-batch").orElseThrow();
+        assertEquals(2, updated.completedTasks());
+        assertEquals(1, updated.failedTasks());
+        assertEquals(JobStatus.RUNNING, updated.status());
+
+        // Another spot cannot report the retried task once it is re-claimed elsewhere
+        assertEquals(1, taskRepository.claimTasks("spot-2", 1).size());
+        TaskBatchResult wrong = taskRepository.reportBatch("spot-1",
+                List.of(new TaskCompletion("batch-4", 5, null, null, null)), List.of());
+        assertEquals(TaskCompleteResult.WRONG_SPOT, wrong.completed().get(0).result());
+
+        TaskBatchResult last = taskRepository.reportBatch("spot-2",
+                List.of(new TaskCompletion("batch-4", 5, null, null, null)), List.of());
+        assertEquals(TaskCompleteResult.COMPLETED, last.completed().get(0).result());
+        Job finished = jobRepository.findById("job-batch").orElseThrow();
+        assertEquals(3, finished.completedTasks());
+        assertEquals(JobStatus.COMPLETED, finished.status());
+        assertNotNull(finished.finishedAt());
+    }
+
+    @Test
+    void reapStuckRunning_failsExhaustedTasksAndUpdatesJobCounters() {
+        Job job = Job.builder()
+                .id("job-reap")
+                .artifact(new ArtifactRef("test-bucket", "test.jar", "http://localhost:9000"))
+                .mainClass("Test")
+                .config("{}")
+                .status(JobStatus.PENDING)
+                .totalTasks(3)
+                .completedTasks(0)
+                .failedTasks(0)
+                .build();
+        jobRepository.save(job);
+
+        // Two tasks on their last attempt, one with a retry left
+        for (int i = 0; i < 3; i++) {
+            taskRepository.save(Task.builder()
+                    .id("task-reap-" + i)
+                    .jobId("job-reap")
+                    .payload("{}")
+                    .status(TaskStatus.NEW)
+                    .maxAttempts(i < 2 ? 1 : 2)
+                    .build());
+        }
+        taskRepository.claimTasks("spot-1", 3);
+
+        TaskReapResult result = taskRepository.reapStuckRunning(
+                java.time.Instant.now().plusSeconds(1), java.util.Set.of(), "stuck in RUNNING");
+
+        assertEquals(List.of("task-reap-2"), result.retried().stream().map(TaskQueueEntry::id).toList());
+        assertEquals(2, result.failed().size());
+
+        Task failed = taskRepository.findById("task-reap-0").orElseThrow();
+        assertEquals(TaskStatus.FAILED, failed.status());
+        assertEquals("Task stuck in RUNNING - max attempts exceeded (1/1)", failed.errorMessage());
+        assertEquals(TaskStatus.NEW, taskRepository.findById("task-reap-2").orElseThrow().status());
+
+        Job updatedJob = jobRepository.findById("job-reap").orElseThrow();
+        assertEquals(2, updatedJob.failedTasks(), "Both exhausted tasks counted in one update");
+        assertEquals(JobStatus.RUNNING, updatedJob.status());
+    }
 }
@@ -0,0 +1,153 @@
+package orhestra.coordinator.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import orhestra.coordinator.api.v1.dto.CreateJobRequest;
+import orhestra.coordinator.api.v1.dto.ParameterValue;
+import orhestra.coordinator.config.CoordinatorConfig;
+import orhestra.coordinator.config.Dependencies;
+import orhestra.coordinator.model.*;
+import orhestra.coordinator.service.LazyTaskSource;
+import org.junit.jupiter.api.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for lazy jobs: task rows are written only for claimed combinations.
+ */
+class LazyJobTest {
+
+    private Dependencies deps;
+
+    @BeforeEach
+    void setUp() {
+        CoordinatorConfig config = CoordinatorConfig.defaults()
+                .withDatabaseUrl("jdbc:h2:mem:test-lazy-" + System.nanoTime()
+                        + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_UPPER=FALSE");
+        deps = Dependencies.create(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (deps != null)
+            deps.close();
+    }
+
+    private CreateJobRequest request(String... algorithms) {
+        Map<String, ParameterValue> algo = new LinkedHashMap<>();
+        algo.put("algorithm", new ParameterValue("ENUM_LIST", null, null, null, null, List.of(algorithms)));
+        Map<String, ParameterValue> run = new LinkedHashMap<>();
+        run.put("iterations", new ParameterValue("INT_RANGE", 1, 1000, 1, null, null));
+        return new CreateJobRequest("bucket", "algo.jar", "http://localhost:9000", "com.example.Main",
+                List.of(new CreateJobRequest.ParameterGroupRequest("algorithm", algo),
+                        new CreateJobRequest.ParameterGroupRequest("run", run)),
+                true);
+    }
+
+    private Job createLazy(CreateJobRequest req) {
+        return deps.jobService().createLazyJob(
+                new ArtifactRef(req.artifactBucket(), req.artifactKey(), req.artifactEndpoint()),
+                req.mainClass(), req.config(), (int) req.totalTasks(), req.grid()::payloadAt);
+    }
+
+    @Test
+    @DisplayName("Only claimed combinations get task rows")
+    void rowsWrittenOnClaim() throws Exception {
+        Job job = createLazy(request("PSO", "GA"));
+        assertEquals(2000, job.totalTasks());
+        assertTrue(deps.jobService().getTasks(job.id()).isEmpty());
+
+        String spotId = deps.spotService().registerSpot("192.168.1.10");
+        List<Task> claimed = deps.taskService().claimTasks(spotId, 5);
+
+        assertEquals(5, claimed.size());
+        assertEquals(LazyTaskSource.taskId(job.id(), 0), claimed.get(0).id());
+        assertEquals(5, deps.jobService().getTasks(job.id()).size());
+        assertEquals(5, deps.jobService().findById(job.id()).orElseThrow().materializedTasks());
+
+        Task first = deps.taskRepository().findById(claimed.get(0).id()).orElseThrow();
+        assertEquals(TaskStatus.RUNNING, first.status());
+        assertEquals(spotId, first.assignedTo());
+        assertEquals("PSO", first.algorithm());
+        assertEquals(1, first.inputIterations());
+
+        var payload = new ObjectMapper().readTree(first.payload());
+        assertFalse(payload.has("artifactKey"));
+        assertEquals(1, payload.path("params").path("run.iterations").asInt());
+
+        var full = new ObjectMapper().readTree(deps.jobTemplates().expand(job.id(), first.payload()));
+        assertEquals("algo.jar", full.get("artifactKey").asText());
+        assertEquals("com.example.Main", full.get("mainClass").asText());
+        assertEquals(1, full.path("params").path("run.iterations").asInt());
+    }
+
+    @Test
+    @DisplayName("Lazy job completes once every combination is done")
+    void lazyJobCompletes() {
+        Map<String, ParameterValue> run = new LinkedHashMap<>();
+        run.put("iterations", new ParameterValue("INT_RANGE", 1, 3, 1, null, null));
+        CreateJobRequest req = new CreateJobRequest("bucket", "algo.jar", null, "Main",
+                List.of(new CreateJobRequest.ParameterGroupRequest("run", run)), true);
+        Job job = createLazy(req);
+
+        String spotId = deps.spotService().registerSpot("192.168.1.11");
+        List<Task> claimed = deps.taskService().claimTasks(spotId, 10);
+        assertEquals(3, claimed.size());
+        assertTrue(deps.taskService().claimTasks(spotId, 10).isEmpty());
+
+        for (Task t : claimed) {
+            deps.taskService().completeTaskIdempotent(t.id(), spotId, 10, 1, 0.0, "{}");
+        }
+        assertEquals(JobStatus.COMPLETED, deps.jobService().findById(job.id()).orElseThrow().status());
+    }
+
+    @Test
+    @DisplayName("Combinations a SPOT cannot run are queued for others")
+    void mismatchedCombinationsQueued() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        String capJson = mapper.writeValueAsString(Map.of(
+                "optimizers", List.of(Map.of(
+                        "optimizerId", "opt",
+                        "version", "1.0.0",
+                        "algorithms", List.of("GA"),
+                        "functions", List.of("sphere")))));
+        String gaSpot = deps.spotService().registerSpot("127.0.0.1", 4, 8192, 4, capJson, "local");
+
+        // Interleave PSO/GA by making algorithm the fastest-varying parameter
+        Map<String, ParameterValue> params = new LinkedHashMap<>();
+        params.put("iterations", new ParameterValue("INT_RANGE", 1, 2, 1, null, null));
+        params.put("algorithm", new ParameterValue("ENUM_LIST", null, null, null, null, List.of("PSO", "GA")));
+        CreateJobRequest req = new CreateJobRequest("bucket", "algo.jar", null, "Main",
+                List.of(new CreateJobRequest.ParameterGroupRequest("p", params)), true);
+        Job job = createLazy(req);
+
+        List<Task> claimed = deps.taskService().claimTasks(gaSpot, 4);
+        assertFalse(claimed.isEmpty());
+        assertTrue(claimed.stream().allMatch(t -> "GA".equals(
+                deps.taskRepository().findById(t.id()).orElseThrow().algorithm())));
+
+        long queued = deps.jobService().getTasks(job.id()).stream()
+                .filter(t -> t.status() == TaskStatus.NEW)
+                .peek(t -> assertEquals("PSO", t.algorithm()))
+                .peek(t -> assertTrue(deps.dispatcher().contains(t.id())))
+                .count();
+        assertTrue(queued > 0);
+    }
+
+    @Test
+    @DisplayName("Cancelling a lazy job stops materialisation")
+    void cancelStopsMaterialisation() {
+        Job job = createLazy(request("PSO"));
+        assertTrue(deps.lazyTasks().hasPending());
+
+        assertTrue(deps.jobService().cancel(job.id()));
+        assertFalse(deps.lazyTasks().hasPending());
+
+        String spotId = deps.spotService().registerSpot("192.168.1.12");
+        assertTrue(deps.taskService().claimTasks(spotId, 5).isEmpty());
+        assertTrue(deps.jobService().getTasks(job.id()).isEmpty());
+    }
+}
@@ -4,8 +4,11 @@ import orhestra.coordinator.config.CoordinatorConfig;
 import orhestra.coordinator.config.Dependencies;
 import orhestra.coordinator.model.Spot;
 import orhestra.coordinator.model.SpotStatus;
+import orhestra.coordinator.service.SpotRegistry;
+import orhestra.coordinator.service.SpotService;
 import org.junit.jupiter.api.*;
 
+import java.time.Instant;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -73,4 +76,50 @@ class SpotExpirationTest {
         // Cleanup
         deps.spotService().delete("test-spot-2");
     }
+
+    @Test
+    void heartbeatsAreWrittenBehind() {
+        // First heartbeat creates the row right away
+        deps.spotService().heartbeat("test-spot-3", "127.0.0.1", 10.0, 0, 4, 0, 0);
+        assertEquals(10.0, deps.spotRepository().findById("test-spot-3").orElseThrow().cpuLoad());
+
+        // Later ones are buffered: the row lags, reads see the latest values
+        deps.spotService().heartbeat("test-spot-3", "127.0.0.1", 55.0, 2, 4, 0, 0);
+        deps.spotService().heartbeat("test-spot-3", "127.0.0.1", 75.0, 3, 4, 0, 0);
+        assertEquals(10.0, deps.spotRepository().findById("test-spot-3").orElseThrow().cpuLoad());
+        assertEquals(75.0, deps.spotService().findById("test-spot-3").orElseThrow().cpuLoad());
+
+        // A flush writes only the latest heartbeat
+        assertEquals(1, deps.spotService().flushHeartbeats());
+        Spot row = deps.spotRepository().findById("test-spot-3").orElseThrow();
+        assertEquals(75.0, row.cpuLoad());
+        assertEquals(3, row.runningTasks());
+        assertEquals(0, deps.spotService().flushHeartbeats(), "Nothing new to flush");
+
+        deps.spotService().delete("test-spot-3");
+    }
+
+    @Test
+    void spotsLeftUpExpireAfterRestart() throws InterruptedException {
+        // Rows written by a previous run: one long silent, one recent
+        Instant now = Instant.now();
+        deps.spotRepository().save(Spot.builder().id("test-spot-4").ipAddress("127.0.0.1")
+                .status(SpotStatus.UP).lastHeartbeat(now.minusSeconds(60)).registeredAt(now.minusSeconds(120))
+                .build());
+        deps.spotRepository().save(Spot.builder().id("test-spot-5").ipAddress("127.0.0.1")
+                .status(SpotStatus.UP).lastHeartbeat(now).registeredAt(now)
+                .build());
+
+        // A restarted service knows neither SPOT from a heartbeat
+        SpotService restarted = SpotService.builder(deps.spotRepository(), deps.taskRepository(), deps.config())
+                .spotRegistry(new SpotRegistry(deps.spotRepository()))
+                .build();
+        Thread.sleep(deps.config().spotCleanupInterval().toMillis() + 100);
+
+        assertEquals(1, restarted.reapStaleSpots(), "Only the silent spot should be reaped");
+        assertTrue(deps.spotRepository().findById("test-spot-4").isEmpty());
+        assertTrue(deps.spotRepository().findById("test-spot-5").isPresent());
+
+        restarted.delete("test-spot-5");
+    }
 }
@@ -1,13 +1,21 @@
 package orhestra.coordinator.scheduler;
 
 import orhestra.coordinator.config.CoordinatorConfig;
+import orhestra.coordinator.config.Dependencies;
+import orhestra.coordinator.model.ArtifactRef;
+import orhestra.coordinator.model.Job;
+import orhestra.coordinator.model.JobStatus;
 import orhestra.coordinator.model.Task;
 import orhestra.coordinator.model.TaskStatus;
+import orhestra.coordinator.service.TaskLeases;
 import orhestra.coordinator.store.Database;
 import orhestra.coordinator.store.JdbcTaskRepository;
 import org.junit.jupiter.api.*;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -64,7 +72,7 @@ class TaskReaperTest {
         Thread.sleep(150);
 
         // Run the reaper
-        TaskReaper reaper = new TaskReaper(repo, config);
+        TaskReaper reaper = TaskReaper.builder(repo, config).build();
         int reaped = reaper.reapStuckTasks();
 
         // Should have been reset for retry
@@ -94,7 +102,7 @@ class TaskReaperTest {
         Thread.sleep(150);
 
         // Run the reaper
-        TaskReaper reaper = new TaskReaper(repo, config);
+        TaskReaper reaper = TaskReaper.builder(repo, config).build();
         int reaped = reaper.reapStuckTasks();
 
         // Should have been marked as failed
@@ -119,7 +127,7 @@ class TaskReaperTest {
         repo.claimTasks("spot-1", 1);
 
         // Don't wait - run reaper immediately
-        TaskReaper reaper = new TaskReaper(repo, config);
+        TaskReaper reaper = TaskReaper.builder(repo, config).build();
         int reaped = reaper.reapStuckTasks();
 
         // Should not be reaped (not stuck yet)
@@ -146,7 +154,7 @@ class TaskReaperTest {
         Thread.sleep(150);
 
         // Run the reaper
-        TaskReaper reaper = new TaskReaper(repo, config);
+        TaskReaper reaper = TaskReaper.builder(repo, config).build();
         int reaped = reaper.reapStuckTasks();
 
         // Should not be reaped (already DONE)
@@ -175,7 +183,7 @@ class TaskReaperTest {
         Thread.sleep(150);
 
         // Run the reaper
-        TaskReaper reaper = new TaskReaper(repo, config);
+        TaskReaper reaper = TaskReaper.builder(repo, config).build();
         int reaped = reaper.reapStuckTasks();
 
         // All 3 should be reaped
@@ -187,4 +195,69 @@ class TaskReaperTest {
             assertEquals(TaskStatus.NEW, updated.status());
         }
     }
+
+    @Test
+    void reapsTaskWhoseLeaseExpired() throws InterruptedException {
+        CoordinatorConfig leaseConfig = CoordinatorConfig.defaults()
+                .withTaskStuckThreshold(Duration.ofSeconds(60))
+                .withTaskLeaseDuration(Duration.ofMillis(100));
+        TaskLeases leases = new TaskLeases(leaseConfig);
+
+        for (String id : List.of("task-lease-lapsed", "task-lease-renewed")) {
+            repo.save(Task.builder().id(id).payload("{}").status(TaskStatus.NEW).maxAttempts(3).build());
+        }
+        leases.grant("spot-1", repo.claimTasks("spot-1", 1));
+        leases.grant("spot-2", repo.claimTasks("spot-2", 1));
+        String lapsed = repo.findById("task-lease-lapsed").orElseThrow().assignedTo();
+        String renewing = lapsed.equals("spot-1") ? "spot-2" : "spot-1";
+
+        Thread.sleep(60);
+        leases.renew(renewing, null);
+        Thread.sleep(60);
+
+        TaskReaper reaper = TaskReaper.builder(repo, leaseConfig).leases(leases).build();
+        // Far below the 60s threshold, so only the lease can reap it
+        assertEquals(0, reaper.reapStuckTasks());
+        assertEquals(1, reaper.reapExpiredLeases());
+
+        assertEquals(TaskStatus.NEW, repo.findById("task-lease-lapsed").orElseThrow().status());
+        assertEquals(TaskStatus.RUNNING, repo.findById("task-lease-renewed").orElseThrow().status());
+    }
+
+    @Test
+    void forgetsLeaseRuntimesOfFinishedJobs() {
+        CoordinatorConfig depsConfig = CoordinatorConfig.defaults()
+                .withDatabaseUrl("jdbc:h2:mem:test-reaper-jobs-" + System.nanoTime()
+                        + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_UPPER=FALSE");
+        Dependencies deps = Dependencies.create(depsConfig);
+        try {
+            List<String> payloads = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                payloads.add("{\"params\":{\"algorithm.name\":\"PSO\",\"run.iterations\":" + i + "}}");
+            }
+            Job job = deps.jobService().createJob(new ArtifactRef("bucket", "algo.jar", null), "com.example.Main",
+                    "{}", payloads);
+            String spotId = deps.spotService().registerSpot("10.0.0.1");
+            TaskReaper reaper = TaskReaper.builder(deps.taskRepository(), depsConfig)
+                    .jobRepository(deps.jobRepository())
+                    .dispatcher(deps.dispatcher())
+                    .leases(deps.taskLeases())
+                    .build();
+
+            List<Task> claimed = deps.taskService().claimTasks(spotId, payloads.size());
+            assertEquals(payloads.size(), claimed.size());
+            for (Task t : claimed.subList(1, claimed.size())) {
+                deps.taskService().completeTaskIdempotent(t.id(), spotId, 1_000, 1, 0.0, "{}");
+            }
+            reaper.run();
+            assertEquals(Set.of(job.id()), deps.taskLeases().learnedJobIds(), "job still running");
+
+            deps.taskService().completeTaskIdempotent(claimed.get(0).id(), spotId, 1_000, 1, 0.0, "{}");
+            assertEquals(JobStatus.COMPLETED, deps.jobRepository().findById(job.id()).orElseThrow().status());
+            assertEquals(1, reaper.forgetFinishedJobs());
+            assertTrue(deps.taskLeases().learnedJobIds().isEmpty());
+        } finally {
+            deps.close();
+        }
+    }
 }
@@ -0,0 +1,75 @@
+package orhestra.coordinator.server;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ControllerExecutor saturation and metrics.
+ */
+class ControllerExecutorTest {
+
+    @Test
+    @DisplayName("Rejects work once threads and queue are full")
+    void rejectsWhenSaturated() throws Exception {
+        try (ControllerExecutor executor = new ControllerExecutor("test", 1, 1)) {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            // Occupy the only thread
+            assertTrue(executor.execute(() -> {
+                started.countDown();
+                await(release);
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Fill the queue
+            assertTrue(executor.execute(() -> {
+            }));
+            assertEquals(1, executor.queueDepth());
+
+            // Saturated
+            assertFalse(executor.execute(() -> {
+            }));
+
+            ControllerExecutor.Stats stats = executor.snapshot();
+            assertEquals(1, stats.queueDepth());
+            assertEquals(1L, stats.rejected());
+            assertEquals(2L, stats.submitted());
+
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Records queue wait time")
+    void recordsWaitTime() throws Exception {
+        try (ControllerExecutor executor = new ControllerExecutor("test", 1, 10)) {
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(1);
+
+            executor.execute(() -> await(release));
+            executor.execute(done::countDown);
+
+            Thread.sleep(50);
+            release.countDown();
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+
+            ControllerExecutor.Stats stats = executor.snapshot();
+            assertTrue(stats.maxWaitMs() >= 40, "second task should have waited behind the first");
+            assertEquals(0, stats.queueDepth());
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
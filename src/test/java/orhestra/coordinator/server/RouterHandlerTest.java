@@ -0,0 +1,97 @@
+package orhestra.coordinator.server;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import orhestra.coordinator.api.Controller;
+import orhestra.coordinator.config.CoordinatorConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for answering asynchronous controller responses.
+ */
+class RouterHandlerTest {
+
+    /** Answers every request with a future the test completes. */
+    private static final class PendingController implements Controller {
+        final CompletableFuture<ControllerResponse> response = new CompletableFuture<>();
+
+        @Override
+        public boolean matches(HttpMethod method, String path) {
+            return true;
+        }
+
+        @Override
+        public ControllerResponse handle(ChannelHandlerContext ctx, FullHttpRequest req, String path) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<ControllerResponse> handleAsync(ChannelHandlerContext ctx, FullHttpRequest req,
+                String path) {
+            return response;
+        }
+    }
+
+    private static FullHttpRequest request() {
+        return new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/internal/v1/tasks/claim",
+                Unpooled.copiedBuffer("{\"spotId\":\"spot-1\"}", StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("A cancelled request is not answered")
+    void cancelledNotAnswered() {
+        PendingController controller = new PendingController();
+        EmbeddedChannel channel = new EmbeddedChannel(
+                new RouterHandler(CoordinatorConfig.defaults()).registerController(controller));
+        FullHttpRequest req = request();
+        channel.writeInbound(req);
+        assertEquals(0, req.refCnt(), "released once channelRead returns");
+
+        controller.response.cancel(false);
+        assertNull(channel.readOutbound());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    @DisplayName("Nothing is written once the client has gone")
+    void closedChannelNotAnswered() {
+        PendingController controller = new PendingController();
+        EmbeddedChannel channel = new EmbeddedChannel(
+                new RouterHandler(CoordinatorConfig.defaults()).registerController(controller));
+        channel.writeInbound(request());
+        channel.close();
+
+        controller.response.completeExceptionally(new IllegalStateException("late"));
+        assertNull(channel.readOutbound());
+    }
+
+    @Test
+    @DisplayName("A late failure is answered without reading the released request")
+    void lateFailureAnswered() {
+        PendingController controller = new PendingController();
+        EmbeddedChannel channel = new EmbeddedChannel(
+                new RouterHandler(CoordinatorConfig.defaults()).registerController(controller));
+        channel.writeInbound(request());
+
+        controller.response.completeExceptionally(new IllegalStateException("boom"));
+        FullHttpResponse response = channel.readOutbound();
+        assertEquals(HttpResponseStatus.INTERNAL_SERVER_ERROR, response.status());
+        assertTrue(response.content().toString(StandardCharsets.UTF_8).contains("boom"));
+        response.release();
+        channel.finishAndReleaseAll();
+    }
+}
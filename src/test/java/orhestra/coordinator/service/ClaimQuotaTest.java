@@ -0,0 +1,122 @@
+package orhestra.coordinator.service;
+
+import orhestra.coordinator.config.CoordinatorConfig;
+import orhestra.coordinator.model.ClaimResult;
+import orhestra.coordinator.model.Task;
+import orhestra.coordinator.model.TaskStatus;
+import orhestra.coordinator.store.Database;
+import orhestra.coordinator.store.JdbcSpotRepository;
+import orhestra.coordinator.store.JdbcTaskRepository;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for per-SPOT claim sizing.
+ */
+class ClaimQuotaTest {
+
+    private Database db;
+    private JdbcTaskRepository repo;
+    private SpotRegistry registry;
+    private TaskDispatcher dispatcher;
+    private TaskService service;
+
+    @BeforeEach
+    void setUp() {
+        CoordinatorConfig config = CoordinatorConfig.defaults()
+                .withDatabaseUrl("jdbc:h2:mem:test-quota-" + System.nanoTime()
+                        + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_UPPER=FALSE")
+                .withMaxClaimBatch(64)
+                .withClaimLeadTime(Duration.ofSeconds(2));
+        db = new Database(config);
+        repo = new JdbcTaskRepository(db);
+        registry = new SpotRegistry(new JdbcSpotRepository(db));
+        dispatcher = TaskDispatcher.builder(repo).build();
+        service = TaskService.builder(repo, config)
+                .spotRegistry(registry)
+                .blacklist(new SpotTaskBlacklist())
+                .dispatcher(dispatcher)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (db != null)
+            db.close();
+    }
+
+    private void seed(int n) {
+        List<Task> tasks = new ArrayList<>();
+        Instant now = Instant.now();
+        for (int i = 0; i < n; i++) {
+            tasks.add(Task.builder()
+                    .id("q-" + i)
+                    .payload("{}")
+                    .status(TaskStatus.NEW)
+                    .maxAttempts(3)
+                    .createdAt(now.plusMillis(i))
+                    .build());
+        }
+        repo.saveAll(tasks);
+        dispatcher.offerTasks(tasks);
+    }
+
+    @Test
+    @DisplayName("Long tasks: quota is the number of free slots")
+    void longTasksFillFreeSlots() {
+        seed(100);
+        registry.register("big", null, 8);
+
+        ClaimResult first = service.claim("big", 100);
+        assertEquals(8, first.tasks().size());
+        assertEquals(8, first.quota());
+
+        // All slots busy
+        assertTrue(service.claim("big", 100).tasks().isEmpty());
+
+        service.completeTaskIdempotent(first.tasks().get(0).id(), "big", 60_000, 1, 0.0, "{}");
+        assertEquals(1, service.claim("big", 100).tasks().size());
+    }
+
+    @Test
+    @DisplayName("Short tasks: each slot buffers enough work to cover the lead time")
+    void shortTasksBufferPerSlot() {
+        seed(1000);
+        registry.register("fast", null, 4);
+        registry.recordRuntime("fast", 250);
+
+        // depth = 2000ms / 250ms = 8 → 4 slots × 8
+        ClaimResult result = service.claim("fast", 1000);
+        assertEquals(32, result.tasks().size());
+        assertEquals(32, result.quota());
+    }
+
+    @Test
+    @DisplayName("Unknown capacity keeps the former fixed limit")
+    void unknownCapacity() {
+        seed(50);
+        registry.register("anon", null);
+
+        assertEquals(ClaimQuota.DEFAULT_LIMIT, service.claim("anon", 1000).tasks().size());
+        assertEquals(3, service.claim("anon", 3).tasks().size());
+    }
+
+    @Test
+    @DisplayName("Tail of a job is split across SPOTs")
+    void tailFairness() {
+        seed(6);
+        registry.register("s1", null, 64);
+        registry.register("s2", null, 64);
+        registry.register("s3", null, 64);
+
+        assertEquals(2, service.claim("s1", 100).tasks().size());
+        assertEquals(2, service.claim("s2", 100).tasks().size());
+        assertEquals(1, service.claim("s3", 100).tasks().size());
+    }
+}
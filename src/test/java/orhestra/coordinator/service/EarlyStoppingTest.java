@@ -0,0 +1,109 @@
+package orhestra.coordinator.service;
+
+import orhestra.coordinator.config.CoordinatorConfig;
+import orhestra.coordinator.config.Dependencies;
+import orhestra.coordinator.model.*;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for jobs that stop once their stop condition is met.
+ */
+class EarlyStoppingTest {
+
+    private Dependencies deps;
+    private JobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        CoordinatorConfig config = CoordinatorConfig.defaults()
+                .withDatabaseUrl("jdbc:h2:mem:test-early-stop-" + System.nanoTime()
+                        + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_UPPER=FALSE");
+        deps = Dependencies.create(config);
+        // Ingest on the calling thread
+        jobService = JobService.builder(deps.jobRepository(), deps.taskRepository(), config)
+                .dispatcher(deps.dispatcher())
+                .earlyStopping(deps.earlyStopping())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (deps != null) {
+            deps.close();
+        }
+    }
+
+    private Job submit(int tasks, StopCondition stop) {
+        List<String> payloads = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            payloads.add("{\"params\":{\"run.iterations\":" + i + "}}");
+        }
+        return jobService.submitJob(new ArtifactRef("bucket", "algo.jar", null), "com.example.Main", "{}",
+                tasks, payloads.iterator(), JobScheduling.DEFAULT, stop, true);
+    }
+
+    @Test
+    @DisplayName("Reaching the target fopt cancels the rest of the job and aborts its running tasks")
+    void targetFopt() {
+        Job job = submit(6, StopCondition.targetFopt(0.01));
+        String spotId = deps.spotService().registerSpot("10.0.0.1");
+        List<Task> claimed = deps.taskService().claimTasks(spotId, 3);
+        assertEquals(3, claimed.size());
+
+        assertEquals(TaskCompleteResult.COMPLETED, deps.taskService()
+                .completeTaskIdempotent(claimed.get(0).id(), spotId, 10, 100, 0.5, "{}"));
+        assertFalse(deps.earlyStopping().isStopped(job.id()));
+        assertEquals(TaskCompleteResult.COMPLETED, deps.taskService()
+                .completeTaskIdempotent(claimed.get(1).id(), spotId, 10, 100, 0.001, "{}"));
+
+        assertTrue(deps.earlyStopping().isStopped(job.id()));
+        assertEquals(JobStatus.COMPLETED, jobService.findById(job.id()).orElseThrow().status());
+        assertEquals(4, jobService.getTasks(job.id()).stream()
+                .filter(t -> t.status() == TaskStatus.CANCELLED).count());
+        assertEquals(0, deps.dispatcher().size(), "Nothing left to claim");
+
+        List<String> cancels = deps.spotService().heartbeat(spotId, "10.0.0.1", 0, 1, 2, 0, 0, null);
+        assertEquals(List.of(claimed.get(2).id()), cancels);
+
+        // A late report of the aborted task changes nothing
+        assertEquals(TaskCompleteResult.ALREADY_DONE, deps.taskService()
+                .completeTaskIdempotent(claimed.get(2).id(), spotId, 10, 100, 0.0001, "{}"));
+        assertEquals(2, jobService.findById(job.id()).orElseThrow().completedTasks());
+    }
+
+    @Test
+    @DisplayName("A stable top-K stops the job after the given number of completions")
+    void topKStable() {
+        Job job = submit(10, StopCondition.topKStable(2, 3));
+        String spotId = deps.spotService().registerSpot("10.0.0.1");
+        List<Task> claimed = deps.taskService().claimTasks(spotId, 10);
+
+        // 5 and 3 fill the top 2, 1 replaces 5; then 4, 6 and 9 leave it unchanged
+        double[] fopts = {5, 3, 1, 4, 6, 9};
+        for (int i = 0; i < fopts.length; i++) {
+            assertFalse(deps.earlyStopping().isStopped(job.id()), "Still running before completion " + i);
+            deps.taskService().completeTaskIdempotent(claimed.get(i).id(), spotId, 10, 100, fopts[i], "{}");
+        }
+
+        EarlyStopping.Progress progress = deps.earlyStopping().progress(job.id()).orElseThrow();
+        assertTrue(progress.stopped());
+        assertEquals(6, progress.completions());
+        assertEquals(1.0, progress.bestFopt());
+        assertEquals(JobStatus.COMPLETED, jobService.findById(job.id()).orElseThrow().status());
+        assertEquals(4, deps.spotService().heartbeat(spotId, "10.0.0.1", 0, 4, 2, 0, 0, null).size());
+    }
+
+    @Test
+    @DisplayName("Invalid stop conditions are rejected")
+    void invalidCondition() {
+        assertThrows(IllegalArgumentException.class, () -> new StopCondition(null, null, null).validate());
+        assertThrows(IllegalArgumentException.class, () -> new StopCondition(null, 3, null).validate());
+        assertThrows(IllegalArgumentException.class, () -> StopCondition.topKStable(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> StopCondition.targetFopt(Double.NaN));
+    }
+}
@@ -0,0 +1,113 @@
+package orhestra.coordinator.service;
+
+import orhestra.coordinator.config.CoordinatorConfig;
+import orhestra.coordinator.model.ClaimResult;
+import orhestra.coordinator.model.Task;
+import orhestra.coordinator.model.TaskStatus;
+import orhestra.coordinator.store.Database;
+import orhestra.coordinator.store.JdbcTaskRepository;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for long-poll claims (waitMs).
+ */
+class LongPollClaimTest {
+
+    private Database db;
+    private JdbcTaskRepository repo;
+    private ClaimNotifier notifier;
+    private TaskDispatcher dispatcher;
+    private TaskService service;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        CoordinatorConfig config = CoordinatorConfig.defaults()
+                .withDatabaseUrl("jdbc:h2:mem:test-longpoll-" + System.nanoTime()
+                        + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_UPPER=FALSE");
+        db = new Database(config);
+        repo = new JdbcTaskRepository(db);
+        notifier = new ClaimNotifier();
+        dispatcher = TaskDispatcher.builder(repo).blacklist(new SpotTaskBlacklist()).notifier(notifier).build();
+        service = TaskService.builder(repo, config).dispatcher(dispatcher).build();
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        notifier.close();
+        if (db != null)
+            db.close();
+    }
+
+    private Task newTask(String id) {
+        return Task.builder()
+                .id(id)
+                .payload("{}")
+                .status(TaskStatus.NEW)
+                .maxAttempts(3)
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Parked claim is woken when tasks are queued")
+    void wokenByNewTasks() throws Exception {
+        CompletableFuture<ClaimResult> pending = service.claimWhenAvailable("spot-1", 5,
+                Duration.ofSeconds(10), executor);
+        assertFalse(pending.isDone());
+        assertEquals(1, notifier.waiting());
+
+        Task task = newTask("lp-1");
+        repo.save(task);
+        dispatcher.offerTasks(List.of(task));
+
+        ClaimResult result = pending.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("lp-1"), result.tasks().stream().map(Task::id).toList());
+        assertEquals(0, notifier.waiting());
+    }
+
+    @Test
+    @DisplayName("Parked claim returns empty when the wait elapses")
+    void timesOut() throws Exception {
+        ClaimResult result = service.claimWhenAvailable("spot-1", 5, Duration.ofMillis(100), executor)
+                .get(5, TimeUnit.SECONDS);
+        assertTrue(result.tasks().isEmpty());
+        assertEquals(0, notifier.waiting());
+    }
+
+    @Test
+    @DisplayName("Cancelled wait never claims")
+    void cancelledWaitDoesNotClaim() throws Exception {
+        CompletableFuture<ClaimResult> pending = service.claimWhenAvailable("spot-gone", 5,
+                Duration.ofSeconds(10), executor);
+        pending.cancel(false);
+        assertEquals(0, notifier.waiting());
+
+        Task task = newTask("lp-2");
+        repo.save(task);
+        dispatcher.offerTasks(List.of(task));
+
+        assertEquals(TaskStatus.NEW, repo.findById("lp-2").orElseThrow().status());
+        assertTrue(dispatcher.contains("lp-2"));
+    }
+
+    @Test
+    @DisplayName("Signal between the empty claim and parking is not lost")
+    void signalBeforeAwait() throws Exception {
+        long seen = notifier.version();
+        notifier.signal();
+        assertTrue(notifier.await(seen, Duration.ofSeconds(10)).get(1, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,207 @@
+package orhestra.coordinator.service;
+
+import orhestra.coordinator.config.CoordinatorConfig;
+import orhestra.coordinator.config.Dependencies;
+import orhestra.coordinator.model.*;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for reusing results of tasks with the same artifact and parameters.
+ */
+class ResultCacheTest {
+
+    private static final ArtifactRef ARTIFACT = new ArtifactRef("bucket", "algo.jar", null);
+
+    private Dependencies deps;
+    private JobService jobService;
+    private String spotId;
+
+    @BeforeEach
+    void setUp() {
+        CoordinatorConfig config = CoordinatorConfig.defaults()
+                .withDatabaseUrl("jdbc:h2:mem:test-result-cache-" + System.nanoTime()
+                        + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_UPPER=FALSE");
+        deps = Dependencies.create(config);
+        // Ingest on the calling thread
+        jobService = JobService.builder(deps.jobRepository(), deps.taskRepository(), config)
+                .dispatcher(deps.dispatcher())
+                .lazyTasks(deps.lazyTasks())
+                .earlyStopping(deps.earlyStopping())
+                .resultCache(deps.resultCache())
+                .build();
+        spotId = deps.spotService().registerSpot("10.0.0.1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (deps != null) {
+            deps.close();
+        }
+    }
+
+    private static String payload(Object iterations) {
+        return "{\"params\":{\"algorithm.name\":\"PSO\",\"run.iterations\":" + iterations + "}}";
+    }
+
+    private Job submit(boolean cache, Object... iterations) {
+        List<String> payloads = new ArrayList<>();
+        for (Object i : iterations) {
+            payloads.add(payload(i));
+        }
+        return jobService.submitJob(ARTIFACT, "com.example.Main", "{}", payloads.size(), payloads.iterator(),
+                JobScheduling.DEFAULT, null, cache);
+    }
+
+    /** Claim and complete every queued task, with fopt = run.iterations. */
+    private void runAll() {
+        List<Task> claimed = deps.taskService().claimTasks(spotId, 100);
+        for (Task t : claimed) {
+            double fopt = deps.taskRepository().findById(t.id()).orElseThrow().inputIterations();
+            assertEquals(TaskCompleteResult.COMPLETED, deps.taskService()
+                    .completeTaskIdempotent(t.id(), spotId, 10, 7, fopt, "{\"x\":" + fopt + "}"));
+        }
+    }
+
+    private List<Task> tasks(Job job, TaskStatus status) {
+        return jobService.getTasks(job.id()).stream()
+                .filter(t -> t.status() == status)
+                .sorted(Comparator.comparing(Task::inputIterations))
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Keys ignore key order and number formatting but not the artifact")
+    void canonicalKey() {
+        String scope = ResultCache.scope(ARTIFACT, "com.example.Main");
+        String key = ResultCache.key(scope, "{\"params\":{\"a\":\"x\",\"b\":2,\"c\":{\"d\":0.5,\"e\":[1,2]}}}");
+
+        assertEquals(key, ResultCache.key(scope, "{\"params\":{\"c\":{\"e\":[1.0,2],\"d\":0.50},\"b\":2.0,\"a\":\"x\"}}"));
+        assertNotEquals(key, ResultCache.key(scope, "{\"params\":{\"a\":\"x\",\"b\":3,\"c\":{\"d\":0.5,\"e\":[1,2]}}}"));
+        assertNotEquals(key, ResultCache.key(scope, "{\"params\":{\"a\":\"x\",\"b\":\"2\",\"c\":{\"d\":0.5,\"e\":[1,2]}}}"));
+        assertNotEquals(key, ResultCache.key(ResultCache.scope(new ArtifactRef("bucket", "algo-v2.jar", null),
+                "com.example.Main"), "{\"params\":{\"a\":\"x\",\"b\":2,\"c\":{\"d\":0.5,\"e\":[1,2]}}}"));
+    }
+
+    @Test
+    @DisplayName("Least recently used entries are evicted by count and by size")
+    void eviction() {
+        ResultCache cache = new ResultCache(2, 1 << 20);
+        cache.put("a", new ResultCache.Entry(1, 1.0, "{}"));
+        cache.put("b", new ResultCache.Entry(1, 2.0, "{}"));
+        assertNotNull(cache.get("a"));
+        cache.put("c", new ResultCache.Entry(1, 3.0, "{}"));
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"), "least recently used");
+        assertNotNull(cache.get("c"));
+        assertEquals(1, cache.stats().evictions());
+
+        ResultCache small = new ResultCache(100, 1000);
+        String result = "x".repeat(200);
+        small.put("a", new ResultCache.Entry(1, 1.0, result));
+        small.put("b", new ResultCache.Entry(1, 2.0, result));
+        assertNull(small.get("a"));
+        assertEquals(1, small.stats().entries());
+        small.put("huge", new ResultCache.Entry(1, 3.0, "x".repeat(1000)));
+        assertNull(small.get("huge"), "larger than the whole cache");
+        assertNotNull(small.get("b"));
+    }
+
+    @Test
+    @DisplayName("Cached combinations are written as DONE and only the rest is dispatched")
+    void hitsWrittenAsDone() {
+        Job first = submit(true, 1, 2, 3, 4);
+        runAll();
+        assertEquals(JobStatus.COMPLETED, jobService.findById(first.id()).orElseThrow().status());
+
+        Job second = submit(true, 3, "4.0", 5, 6);
+        List<Task> reused = tasks(second, TaskStatus.DONE);
+        assertEquals(2, reused.size());
+        assertEquals(3.0, reused.get(0).fopt());
+        assertEquals(7, reused.get(0).iter());
+        assertEquals("{\"x\":4.0}", reused.get(1).result());
+        assertEquals(2, jobService.findById(second.id()).orElseThrow().completedTasks());
+        assertEquals(2, deps.dispatcher().size(), "only the misses are queued");
+
+        runAll();
+        Job done = jobService.findById(second.id()).orElseThrow();
+        assertEquals(JobStatus.COMPLETED, done.status());
+        assertEquals(4, done.completedTasks());
+
+        // Every combination is known now: nothing to run at all
+        Job third = submit(true, 6, 5, 1);
+        assertEquals(JobStatus.COMPLETED, jobService.findById(third.id()).orElseThrow().status());
+        assertEquals(0, deps.dispatcher().size());
+    }
+
+    @Test
+    @DisplayName("Jobs that opt out neither reuse nor add results")
+    void optOut() {
+        submit(true, 1);
+        runAll();
+
+        Job nondeterministic = submit(false, 1, 2);
+        assertTrue(tasks(nondeterministic, TaskStatus.DONE).isEmpty());
+        runAll();
+
+        Job later = submit(true, 1, 2);
+        List<Task> reused = tasks(later, TaskStatus.DONE);
+        assertEquals(1, reused.size());
+        assertEquals(1, reused.get(0).inputIterations());
+    }
+
+    @Test
+    @DisplayName("Lazy jobs write cached combinations as DONE when they are materialised")
+    void lazyJob() {
+        submit(true, 0, 1, 2);
+        runAll();
+
+        Job lazy = jobService.createLazyJob(ARTIFACT, "com.example.Main", "{}", 5, i -> payload(i),
+                JobScheduling.DEFAULT, null, true);
+        List<Task> claimed = deps.taskService().claimTasks(spotId, 2);
+        assertEquals(List.of(LazyTaskSource.taskId(lazy.id(), 3), LazyTaskSource.taskId(lazy.id(), 4)),
+                claimed.stream().map(Task::id).toList(),
+                "cached combinations do not take the SPOT's slots");
+        assertEquals(3, tasks(lazy, TaskStatus.DONE).size());
+        assertEquals(3, jobService.findById(lazy.id()).orElseThrow().completedTasks());
+        assertEquals(5, jobService.findById(lazy.id()).orElseThrow().materializedTasks());
+    }
+
+    @Test
+    @DisplayName("Batch reports store results under the key taken at claim")
+    void batchReport() {
+        Job first = submit(true, 1, 2);
+        List<Task> claimed = deps.taskService().claimTasks(spotId, 10);
+        List<TaskCompletion> completions = new ArrayList<>();
+        for (Task t : claimed) {
+            assertNotNull(deps.dispatcher().cacheKeyOf(t.id()));
+            completions.add(new TaskCompletion(t.id(), 10, 7, 0.5, "{\"x\":0.5}"));
+        }
+        deps.taskService().reportBatch(spotId, completions, List.of());
+        assertEquals(JobStatus.COMPLETED, jobService.findById(first.id()).orElseThrow().status());
+
+        Job second = submit(true, 2, 1);
+        assertEquals(2, tasks(second, TaskStatus.DONE).size());
+    }
+
+    @Test
+    @DisplayName("Without a dispatcher the key is taken from the payload at completion")
+    void withoutDispatcher() {
+        TaskService direct = TaskService.builder(deps.taskRepository(), deps.config())
+                .resultCache(deps.resultCache())
+                .build();
+        submit(true, 1);
+        Task task = direct.claimTasks(spotId, 1).get(0);
+        assertEquals(TaskCompleteResult.COMPLETED,
+                direct.completeTaskIdempotent(task.id(), spotId, 10, 7, 1.0, "{}"));
+
+        Job later = submit(true, 1);
+        assertEquals(1, tasks(later, TaskStatus.DONE).size());
+    }
+}
@@ -0,0 +1,57 @@
+package orhestra.coordinator.service;
+
+import orhestra.coordinator.model.TaskQueueEntry;
+import org.junit.jupiter.api.*;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the learned runtime predictions.
+ */
+class RuntimeModelTest {
+
+    private static TaskQueueEntry entry(String algorithm, String function, int dimension, int iterations) {
+        return new TaskQueueEntry("t", "job", 0, Instant.now(), null, algorithm, function, dimension, iterations, 10);
+    }
+
+    @Test
+    @DisplayName("Without data tasks are ranked by work units")
+    void workUnitsBeforeLearning() {
+        RuntimeModel model = new RuntimeModel();
+        assertEquals(2 * 100 * 10, model.estimateMs(entry("GA", "sphere", 2, 100)));
+        assertTrue(model.estimateMs(entry("GA", "sphere", 2, 1000)) > model.estimateMs(entry("GA", "sphere", 2, 100)));
+    }
+
+    @Test
+    @DisplayName("Exact key wins; unseen keys scale the family's cost per work unit")
+    void exactThenFamily() {
+        RuntimeModel model = new RuntimeModel();
+        model.observe(entry("GA", "sphere", 2, 100), null, 4_000); // 2 ms per unit
+
+        assertEquals(4_000, model.estimateMs(entry("GA", "sphere", 2, 100)));
+        assertEquals(40_000, model.estimateMs(entry("GA", "sphere", 2, 1000)));
+        // Other family: global cost per unit
+        assertEquals(8_000, model.estimateMs(entry("PSO", "rastrigin", 4, 100)));
+    }
+
+    @Test
+    @DisplayName("Errors compare each completion with the prior prediction")
+    void tracksError() {
+        RuntimeModel model = new RuntimeModel();
+        TaskQueueEntry e = entry("GA", "sphere", 2, 100);
+        model.observe(e, "spot-1", 1_000); // nothing to compare with yet
+        model.observe(e, "spot-1", 2_000); // predicted 1000: 50% off
+
+        RuntimeModel.Snapshot snapshot = model.snapshot();
+        assertEquals(1, snapshot.predictions());
+        assertEquals(0.5, snapshot.meanAbsPctError(), 1e-9);
+
+        RuntimeModel.KeySnapshot key = snapshot.keys().get(0);
+        assertEquals(2, key.samples());
+        assertEquals(1_000, key.lastPredictedMs());
+        assertEquals(2_000, key.lastActualMs());
+        assertEquals(1_500, key.estimateMs());
+    }
+}
@@ -0,0 +1,154 @@
+package orhestra.coordinator.service;
+
+import orhestra.coordinator.config.CoordinatorConfig;
+import orhestra.coordinator.model.Task;
+import orhestra.coordinator.model.TaskCompleteResult;
+import orhestra.coordinator.model.TaskFailResult;
+import orhestra.coordinator.model.TaskQueueEntry;
+import orhestra.coordinator.model.TaskStatus;
+import orhestra.coordinator.store.Database;
+import orhestra.coordinator.store.JdbcTaskRepository;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for speculative copies of straggling tasks.
+ */
+class SpeculativeExecutionTest {
+
+    private CoordinatorConfig config;
+    private Database db;
+    private JdbcTaskRepository repo;
+    private TaskDispatcher dispatcher;
+    private SpeculativeExecution speculation;
+    private TaskService service;
+
+    @BeforeEach
+    void setUp() {
+        config = CoordinatorConfig.defaults()
+                .withDatabaseUrl("jdbc:h2:mem:test-speculation-" + System.nanoTime()
+                        + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_UPPER=FALSE")
+                .withSpeculationFactor(1.5)
+                .withSpeculationMinRuntime(Duration.ZERO);
+        db = new Database(config);
+        repo = new JdbcTaskRepository(db);
+        dispatcher = TaskDispatcher.builder(repo).build();
+        TaskLeases leases = new TaskLeases(config);
+        speculation = new SpeculativeExecution(repo, dispatcher, null, leases, config);
+        service = TaskService.builder(repo, config)
+                .dispatcher(dispatcher)
+                .leases(leases)
+                .speculation(speculation)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (db != null)
+            db.close();
+    }
+
+    /** Queue one task predicted to take 10 ms and let "slow" claim it. */
+    private Task claimedStraggler() throws InterruptedException {
+        Task task = Task.builder()
+                .id("t1")
+                .payload("{}")
+                .status(TaskStatus.NEW)
+                .maxAttempts(3)
+                .createdAt(Instant.now())
+                .algorithm("GA")
+                .function("sphere")
+                .build();
+        repo.save(task);
+        dispatcher.offerTasks(List.of(task));
+        dispatcher.runtimeModel().observe(TaskQueueEntry.of(task), null, 10);
+
+        assertEquals(1, service.claimTasks("slow", 1).size());
+        Thread.sleep(50); // well past 1.5 × 10 ms
+        return task;
+    }
+
+    @Test
+    @DisplayName("An idle SPOT copies a straggler; the first completion wins and the loser is cancelled")
+    void copyWins() throws Exception {
+        claimedStraggler();
+
+        assertEquals(1, service.claimTasks("fast", 1).size(), "Idle SPOT gets a copy");
+        assertTrue(service.claimTasks("third", 1).isEmpty(), "One copy per task by default");
+        assertEquals("slow", repo.findById("t1").orElseThrow().assignedTo(), "Original keeps its SPOT");
+
+        assertEquals(TaskCompleteResult.COMPLETED,
+                service.completeTaskIdempotent("t1", "fast", 20, 100, 0.5, "{}"));
+        Task done = repo.findById("t1").orElseThrow();
+        assertEquals(TaskStatus.DONE, done.status());
+        assertEquals("fast", done.assignedTo());
+
+        assertEquals(TaskCompleteResult.ALREADY_DONE,
+                service.completeTaskIdempotent("t1", "slow", 90, 100, 0.7, "{}"));
+        assertEquals(List.of("t1"), speculation.drainCancels("slow"));
+        assertTrue(speculation.drainCancels("slow").isEmpty(), "Cancels are delivered once");
+        assertEquals(0, speculation.size());
+    }
+
+    @Test
+    @DisplayName("A failed copy is dropped and the original keeps running")
+    void copyFails() throws Exception {
+        claimedStraggler();
+        assertEquals(1, service.claimTasks("fast", 1).size());
+
+        assertEquals(TaskFailResult.RETRIED, service.failTaskIdempotent("t1", "fast", "boom", true));
+        Task task = repo.findById("t1").orElseThrow();
+        assertEquals(TaskStatus.RUNNING, task.status());
+        assertEquals("slow", task.assignedTo());
+        assertEquals(1, task.attempts(), "A copy's failure costs no attempt");
+        assertEquals(0, speculation.size());
+    }
+
+    @Test
+    @DisplayName("When the original's SPOT is lost, the copy takes the task over")
+    void copyTakesOver() throws Exception {
+        claimedStraggler();
+        assertEquals(1, service.claimTasks("fast", 1).size());
+
+        assertEquals(1, speculation.onSpotLost("slow"));
+        assertEquals(0, repo.releaseTasksForSpot("slow").size(), "Nothing left to free");
+
+        Task task = repo.findById("t1").orElseThrow();
+        assertEquals(TaskStatus.RUNNING, task.status());
+        assertEquals("fast", task.assignedTo());
+        assertEquals(TaskCompleteResult.COMPLETED,
+                service.completeTaskIdempotent("t1", "fast", 20, 100, 0.5, "{}"));
+    }
+
+    @Test
+    @DisplayName("Copies for an idle SPOT stay within its claim quota")
+    void copiesWithinQuota() throws Exception {
+        SpotRegistry registry = new SpotRegistry(null);
+        registry.register("fast", null, 1);
+        TaskService capped = TaskService.builder(repo, config)
+                .spotRegistry(registry)
+                .dispatcher(dispatcher)
+                .speculation(speculation)
+                .build();
+        Task own = Task.builder()
+                .id("t2")
+                .payload("{}")
+                .status(TaskStatus.NEW)
+                .maxAttempts(3)
+                .createdAt(Instant.now())
+                .build();
+        repo.save(own);
+        dispatcher.offerTasks(List.of(own));
+        assertEquals(1, capped.claimTasks("fast", 1).size());
+        claimedStraggler();
+
+        assertTrue(capped.claimTasks("fast", 4).isEmpty(), "Its only slot is busy");
+        assertEquals(TaskCompleteResult.COMPLETED, capped.completeTaskIdempotent("t2", "fast", 20, 100, 0.5, "{}"));
+        assertEquals(List.of("t1"), capped.claimTasks("fast", 4).stream().map(Task::id).toList());
+    }
+}
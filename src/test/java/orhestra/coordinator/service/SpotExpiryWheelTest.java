@@ -0,0 +1,64 @@
+package orhestra.coordinator.service;
+
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the SPOT heartbeat timing wheel.
+ */
+class SpotExpiryWheelTest {
+
+    private static final long START = 1_000_000;
+
+    @Test
+    @DisplayName("Deadline fires on its tick, not before")
+    void firesWithinOneTick() {
+        SpotExpiryWheel wheel = new SpotExpiryWheel(100, 8, START);
+        wheel.schedule("a", START + 250);
+
+        assertTrue(wheel.advance(START + 299).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(START + 300));
+        assertEquals(0, wheel.size());
+        assertTrue(wheel.advance(START + 1_000).isEmpty(), "Fires only once");
+    }
+
+    @Test
+    @DisplayName("Deadlines beyond one revolution wait for their round")
+    void laterRevolution() {
+        SpotExpiryWheel wheel = new SpotExpiryWheel(100, 4, START);
+        wheel.schedule("far", START + 1_000);
+
+        assertTrue(wheel.advance(START + 900).isEmpty());
+        assertEquals(List.of("far"), wheel.advance(START + 1_000));
+    }
+
+    @Test
+    @DisplayName("Rescheduled and cancelled SPOTs do not fire on their old deadline")
+    void rescheduleAndCancel() {
+        SpotExpiryWheel wheel = new SpotExpiryWheel(100, 8, START);
+        wheel.schedule("moved", START + 200);
+        wheel.schedule("cancelled", START + 200);
+        wheel.schedule("moved", START + 500);
+        wheel.cancel("cancelled");
+
+        assertTrue(wheel.advance(START + 400).isEmpty());
+        assertEquals(List.of("moved"), wheel.advance(START + 500));
+    }
+
+    @Test
+    @DisplayName("A long gap between advances still fires every due SPOT")
+    void skipsManyTicks() {
+        SpotExpiryWheel wheel = new SpotExpiryWheel(100, 4, START);
+        wheel.schedule("a", START + 100);
+        wheel.schedule("b", START + 300);
+        wheel.schedule("c", START + 5_000);
+
+        List<String> due = wheel.advance(START + 2_000);
+        assertEquals(2, due.size());
+        assertTrue(due.containsAll(List.of("a", "b")));
+        assertEquals(List.of("c"), wheel.advance(START + 5_000));
+    }
+}
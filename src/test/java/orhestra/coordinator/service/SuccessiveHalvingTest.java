@@ -0,0 +1,140 @@
+package orhestra.coordinator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import orhestra.coordinator.config.CoordinatorConfig;
+import orhestra.coordinator.config.Dependencies;
+import orhestra.coordinator.model.*;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for adaptive search jobs run with successive halving.
+ */
+class SuccessiveHalvingTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private Dependencies deps;
+    private String spotId;
+
+    @BeforeEach
+    void setUp() {
+        CoordinatorConfig config = CoordinatorConfig.defaults()
+                .withDatabaseUrl("jdbc:h2:mem:test-search-" + System.nanoTime()
+                        + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_UPPER=FALSE");
+        deps = Dependencies.create(config);
+        spotId = deps.spotService().registerSpot("10.0.0.1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (deps != null) {
+            deps.close();
+        }
+    }
+
+    /** Grid of {@code size} configurations {@code a.x = i}. */
+    private Job search(long size, String strategy, long maxBudget, Long maxConfigs) {
+        SearchSpec spec = new SearchSpec(strategy, "run.budget", 1L, maxBudget, 3, maxConfigs, 7L);
+        return deps.jobService().createSearchJob(new ArtifactRef("bucket", "algo.jar", null), "com.example.Main",
+                "{}", size, i -> "{\"params\":{\"a.x\":" + i + "}}", spec, JobScheduling.DEFAULT, null);
+    }
+
+    private static long param(Task task, String key) {
+        try {
+            return MAPPER.readTree(task.payload()).get("params").get(key).asLong();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Complete a trial with fopt = its configuration's x. */
+    private void complete(Task task) {
+        deps.taskService().completeTaskIdempotent(task.id(), spotId, 10, 100, (double) param(task, "a.x"), "{}");
+    }
+
+    @Test
+    @DisplayName("Budgets are maxBudget / eta^k down to minBudget")
+    void budgets() {
+        assertArrayEquals(new long[] {1, 3, 9}, new SearchSpec(null, "b", 1L, 9L, null, null, null).budgets());
+        assertArrayEquals(new long[] {2, 7, 20}, new SearchSpec(null, "b", 2L, 20L, 3, null, null).budgets());
+        assertArrayEquals(new long[] {5}, new SearchSpec(null, "b", 5L, 5L, 2, null, null).budgets());
+        assertThrows(IllegalArgumentException.class, () -> new SearchSpec(null, "b", 0L, 9L, null, null, null).validate());
+        assertThrows(IllegalArgumentException.class, () -> new SearchSpec("grid", "b", 1L, 9L, null, null, null).validate());
+    }
+
+    @Test
+    @DisplayName("ASHA promotes the top 1/eta of a rung as soon as its results allow")
+    void ashaPromotesEarly() {
+        Job job = search(9, null, 9, null);
+        List<Task> first = deps.taskService().claimTasks(spotId, 3);
+        assertEquals(3, first.size());
+        for (Task task : first) {
+            assertEquals(1, param(task, "run.budget"));
+            complete(task);
+        }
+
+        // Best of three is promoted ahead of new configurations
+        long best = first.stream().mapToLong(t -> param(t, "a.x")).min().orElseThrow();
+        List<Task> next = deps.taskService().claimTasks(spotId, 2);
+        assertEquals(2, next.size());
+        assertEquals(SuccessiveHalving.taskId(job.id(), best, 1), next.get(0).id());
+        assertEquals(3, param(next.get(0), "run.budget"));
+        assertEquals(1, param(next.get(1), "run.budget"));
+
+        // All 9 configurations are sampled once, in a seeded order
+        List<Task> rest = deps.taskService().claimTasks(spotId, 20);
+        assertEquals(5, rest.size());
+        assertEquals(9, deps.jobService().search(job.id()).orElseThrow().configs());
+    }
+
+    @Test
+    @DisplayName("Successive halving waits for the whole rung before promoting")
+    void successiveHalvingWaitsForRung() {
+        search(3, "successive_halving", 3, null);
+        List<Task> claimed = deps.taskService().claimTasks(spotId, 2);
+        complete(claimed.get(0));
+        complete(claimed.get(1));
+
+        Task third = deps.taskService().claimTasks(spotId, 5).get(0);
+        assertEquals(1, param(third, "run.budget"));
+        assertTrue(deps.taskService().claimTasks(spotId, 5).isEmpty(), "Rung 0 still running");
+
+        complete(third);
+        List<Task> promoted = deps.taskService().claimTasks(spotId, 5);
+        assertEquals(1, promoted.size());
+        assertEquals(0, param(promoted.get(0), "a.x"));
+        assertEquals(3, param(promoted.get(0), "run.budget"));
+    }
+
+    @Test
+    @DisplayName("The job finishes once no trial is running and none can be generated")
+    void finishesWhenExhausted() {
+        Job job = search(3, null, 3, null);
+        int trials = 0;
+        List<Task> claimed;
+        while (!(claimed = deps.taskService().claimTasks(spotId, 10)).isEmpty()) {
+            for (Task task : claimed) {
+                assertNotEquals(JobStatus.COMPLETED, deps.jobService().findById(job.id()).orElseThrow().status());
+                complete(task);
+                trials++;
+            }
+        }
+
+        // Three configurations at budget 1, the best of them at budget 3
+        assertEquals(4, trials);
+        Job done = deps.jobService().findById(job.id()).orElseThrow();
+        assertEquals(JobStatus.COMPLETED, done.status());
+        assertEquals(4, done.totalTasks());
+        assertEquals(4, done.completedTasks());
+
+        SuccessiveHalving.Progress progress = deps.jobService().search(job.id()).orElseThrow();
+        assertTrue(progress.finished());
+        assertEquals(0.0, progress.bestFopt());
+        assertEquals(SuccessiveHalving.taskId(job.id(), 0, 1), progress.bestTaskId());
+        assertFalse(deps.lazyTasks().hasPending());
+    }
+}
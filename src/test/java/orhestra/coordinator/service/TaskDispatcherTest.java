@@ -0,0 +1,463 @@
+package orhestra.coordinator.service;
+
+import orhestra.coordinator.config.CoordinatorConfig;
+import orhestra.coordinator.model.Task;
+import orhestra.coordinator.model.TaskQueueEntry;
+import orhestra.coordinator.model.TaskStatus;
+import orhestra.coordinator.store.Database;
+import orhestra.coordinator.store.JdbcTaskRepository;
+import org.junit.jupiter.api.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the in-memory TaskDispatcher ready queue.
+ */
+class TaskDispatcherTest {
+
+    private Database db;
+    private JdbcTaskRepository repo;
+    private TaskDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        CoordinatorConfig config = CoordinatorConfig.defaults()
+                .withDatabaseUrl("jdbc:h2:mem:test-dispatcher-" + System.nanoTime()
+                        + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_UPPER=FALSE");
+        db = new Database(config);
+        repo = new JdbcTaskRepository(db);
+        dispatcher = TaskDispatcher.builder(repo).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (db != null)
+            db.close();
+    }
+
+    private Task newTask(String id, int priority, Instant createdAt) {
+        return Task.builder()
+                .id(id)
+                .payload("{\"id\":\"" + id + "\"}")
+                .status(TaskStatus.NEW)
+                .priority(priority)
+                .maxAttempts(3)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Rebuild loads NEW tasks and claims follow priority DESC, created_at ASC")
+    void rebuildAndOrder() {
+        Instant t0 = Instant.now();
+        repo.saveAll(List.of(
+                newTask("low", 1, t0),
+                newTask("high-late", 5, t0.plusSeconds(2)),
+                newTask("high-early", 5, t0.plusSeconds(1))));
+
+        assertEquals(3, dispatcher.rebuild());
+
+        List<Task> claimed = dispatcher.claim("spot-1", 3, null);
+        assertEquals(List.of("high-early", "high-late", "low"), claimed.stream().map(Task::id).toList());
+        assertEquals(0, dispatcher.size());
+
+        for (Task t : claimed) {
+            Task stored = repo.findById(t.id()).orElseThrow();
+            assertEquals(TaskStatus.RUNNING, stored.status());
+            assertEquals("spot-1", stored.assignedTo());
+            assertEquals(1, stored.attempts());
+            assertNotNull(t.payload());
+        }
+    }
+
+    @Test
+    @DisplayName("Stale queue entries are dropped by the DB guard")
+    void staleEntriesDropped() {
+        Task task = newTask("t1", 0, Instant.now());
+        repo.save(task);
+        dispatcher.offerTasks(List.of(task));
+
+        // Claimed through the SQL path behind the dispatcher's back
+        assertEquals(1, repo.claimTasks("spot-a", 1).size());
+
+        assertTrue(dispatcher.claim("spot-b", 1, null).isEmpty());
+        assertEquals("spot-a", repo.findById("t1").orElseThrow().assignedTo());
+    }
+
+    @Test
+    @DisplayName("Released and reset tasks go back on the queue")
+    void requeueOnReleaseAndReset() {
+        Instant now = Instant.now();
+        List<Task> tasks = List.of(newTask("a", 0, now), newTask("b", 0, now.plusMillis(1)));
+        repo.saveAll(tasks);
+        dispatcher.offerTasks(tasks);
+
+        assertEquals(2, dispatcher.claim("spot-1", 2, null).size());
+        assertEquals(0, dispatcher.size());
+
+        // Spot died: both tasks come back
+        dispatcher.offerAll(repo.releaseTasksForSpot("spot-1"));
+        assertEquals(2, dispatcher.size());
+
+        List<Task> again = dispatcher.claim("spot-2", 1, null);
+        assertEquals(1, again.size());
+
+        // Retry via resetToNew
+        repo.resetToNew(again.get(0).id());
+        dispatcher.requeue(again.get(0).id());
+        assertEquals(2, dispatcher.size());
+    }
+
+    @Test
+    @DisplayName("Filter skips entries without removing them")
+    void filterSkips() {
+        Instant now = Instant.now();
+        List<Task> tasks = List.of(newTask("skip-me", 9, now), newTask("take-me", 1, now));
+        repo.saveAll(tasks);
+        dispatcher.offerTasks(tasks);
+
+        List<Task> claimed = dispatcher.claim("spot-1", 5, e -> !e.id().equals("skip-me"));
+        assertEquals(1, claimed.size());
+        assertEquals("take-me", claimed.get(0).id());
+        assertTrue(dispatcher.contains("skip-me"));
+    }
+
+    @Test
+    @DisplayName("Capability buckets: only allowed buckets are merged, in global order")
+    void capabilityBuckets() {
+        Instant now = Instant.now();
+        List<Task> tasks = List.of(
+                capTask("pso-1", 3, now, "opt-a", "PSO"),
+                capTask("ga-1", 5, now, "opt-a", "GA"),
+                capTask("abc-1", 9, now, "opt-b", "ABC"),
+                capTask("any-1", 4, now, null, null),
+                capTask("pso-2", 1, now, "opt-a", "PSO"));
+        repo.saveAll(tasks);
+        dispatcher.offerTasks(tasks);
+        assertEquals(4, dispatcher.bucketCount());
+
+        TaskDispatcher.CapabilityFilter psoOnly = new TaskDispatcher.CapabilityFilter(Set.of("opt-a"), Set.of("PSO"));
+        List<Task> claimed = dispatcher.claim("spot-pso", 10, psoOnly, null);
+        assertEquals(List.of("any-1", "pso-1", "pso-2"), claimed.stream().map(Task::id).toList());
+
+        // Unrestricted spot takes the rest in priority order
+        List<Task> rest = dispatcher.claim("spot-any", 10, null);
+        assertEquals(List.of("abc-1", "ga-1"), rest.stream().map(Task::id).toList());
+        assertEquals(0, dispatcher.bucketCount(), "drained buckets are dropped");
+    }
+
+    @Test
+    @DisplayName("A job's bucket is dropped when its last task is claimed or removed")
+    void drainedBucketsDropped() {
+        Instant now = Instant.now();
+        List<Task> tasks = new ArrayList<>();
+        for (String job : List.of("job-a", "job-b")) {
+            for (int i = 0; i < 2; i++) {
+                tasks.add(newTask(job + "-" + i, 1, now).toBuilder().jobId(job).build());
+            }
+        }
+        repo.saveAll(tasks);
+        dispatcher.offerTasks(tasks);
+        assertEquals(2, dispatcher.bucketCount());
+
+        dispatcher.remove("job-a-0");
+        dispatcher.remove("job-a-1");
+        assertEquals(1, dispatcher.bucketCount());
+
+        // Stopped by maxTasks right after taking the bucket's last task
+        assertEquals(2, dispatcher.claim("spot-1", 2, null).size());
+        assertEquals(0, dispatcher.bucketCount());
+
+        Task late = newTask("job-b-2", 1, now).toBuilder().jobId("job-b").build();
+        repo.save(late);
+        dispatcher.offerTasks(List.of(late));
+        assertEquals(1, dispatcher.bucketCount());
+        assertEquals(List.of("job-b-2"), dispatcher.claim("spot-1", 2, null).stream().map(Task::id).toList());
+    }
+
+    @Test
+    @DisplayName("Blacklisted entries are skipped per SPOT and evicted on terminal/spot removal")
+    void blacklistInsideClaim() {
+        SpotTaskBlacklist blacklist = new SpotTaskBlacklist();
+        TaskDispatcher d = TaskDispatcher.builder(repo).blacklist(blacklist).build();
+        Instant now = Instant.now();
+        List<Task> tasks = List.of(newTask("bad", 9, now), newTask("ok", 1, now));
+        repo.saveAll(tasks);
+        d.offerTasks(tasks);
+
+        blacklist.blacklist("spot-1", "bad");
+        blacklist.blacklist("spot-2", "bad");
+        assertEquals(2, blacklist.size());
+        assertEquals(Set.of("bad"), blacklist.excludedFor("spot-1"));
+
+        List<Task> claimed = d.claim("spot-1", 5, null);
+        assertEquals(List.of("ok"), claimed.stream().map(Task::id).toList());
+        assertTrue(d.contains("bad"));
+
+        d.onSpotRemoved("spot-1");
+        assertEquals(1, blacklist.size());
+        assertTrue(blacklist.excludedFor("spot-1").isEmpty());
+        assertTrue(blacklist.isBlacklisted("spot-2", "bad"));
+
+        d.onTerminal("bad");
+        assertEquals(0, blacklist.size());
+        assertFalse(d.contains("bad"));
+    }
+
+    private Task capTask(String id, int priority, Instant createdAt, String optimizerId, String algorithm) {
+        return Task.builder()
+                .id(id)
+                .payload("{}")
+                .status(TaskStatus.NEW)
+                .priority(priority)
+                .maxAttempts(3)
+                .createdAt(createdAt)
+                .optimizerId(optimizerId)
+                .algorithm(algorithm)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Concurrent claimers never receive the same task")
+    void concurrentClaimsAreDisjoint() throws Exception {
+        List<Task> tasks = new ArrayList<>();
+        Instant now = Instant.now();
+        for (int i = 0; i < 200; i++) {
+            tasks.add(newTask("c-" + i, 0, now.plusMillis(i)));
+        }
+        repo.saveAll(tasks);
+        dispatcher.rebuild();
+
+        Set<String> seen = Collections.synchronizedSet(new HashSet<>());
+        List<String> duplicates = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int w = 0; w < 8; w++) {
+            String spot = "spot-" + w;
+            pool.submit(() -> {
+                start.await();
+                List<Task> got;
+                while (!(got = dispatcher.claim(spot, 5, null)).isEmpty()) {
+                    for (Task t : got) {
+                        if (!seen.add(t.id()))
+                            duplicates.add(t.id());
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertTrue(duplicates.isEmpty(), "duplicates: " + duplicates);
+        assertEquals(200, seen.size());
+        assertTrue(repo.findByStatus(TaskStatus.NEW, 1000).isEmpty());
+    }
+
+    private List<Task> jobTasks(String jobId, int count, int priority, Instant createdAt) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(newTask(jobId + "-" + i, priority, createdAt).toBuilder().jobId(jobId).build());
+        }
+        return tasks;
+    }
+
+    private static long countJob(List<Task> tasks, String jobId) {
+        return tasks.stream().filter(t -> jobId.equals(t.jobId())).count();
+    }
+
+    @Test
+    @DisplayName("Fair share: a later small job gets its weighted share next to a large one")
+    void fairShare() {
+        TaskDispatcher fair = TaskDispatcher.builder(repo).policy(SchedulingPolicy.FAIR_SHARE).build();
+        Instant now = Instant.now();
+        List<Task> big = jobTasks("big", 100, 0, now.minusSeconds(60));
+        List<Task> small = jobTasks("small", 20, 0, now);
+        repo.saveAll(big);
+        repo.saveAll(small);
+        fair.offerTasks(big);
+        fair.offerTasks(small);
+
+        List<Task> first = fair.claim("spot-1", 10, null);
+        assertEquals(5, countJob(first, "big"));
+        assertEquals(5, countJob(first, "small"));
+
+        // Weight 3 vs 1: the small job catches up to three quarters of the slots
+        fair.setWeight("small", 3);
+        List<Task> second = fair.claim("spot-2", 10, null);
+        assertEquals(15, countJob(first, "small") + countJob(second, "small"));
+
+        // Finished tasks free their job's slots
+        second.stream().filter(t -> "small".equals(t.jobId())).forEach(t -> fair.onTerminal(t.id()));
+        TaskDispatcher.JobStats smallStats = fair.jobStats().stream()
+                .filter(st -> "small".equals(st.jobId())).findFirst().orElseThrow();
+        assertEquals(5, smallStats.running());
+        assertEquals(5, smallStats.queued());
+        assertEquals(10, smallStats.finishedPerMinute());
+        assertEquals(15, smallStats.claimedPerMinute());
+        assertEquals(0.75, smallStats.targetShare(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("FIFO ignores job priority; PRIORITY serves the higher-priority job first")
+    void fifoAndPriority() {
+        Instant now = Instant.now();
+        List<Task> old = jobTasks("old", 3, 1, now.minusSeconds(60));
+        List<Task> urgent = jobTasks("urgent", 3, 9, now);
+        repo.saveAll(old);
+        repo.saveAll(urgent);
+
+        TaskDispatcher fifo = TaskDispatcher.builder(repo).policy(SchedulingPolicy.FIFO).build();
+        fifo.offerTasks(old);
+        fifo.offerTasks(urgent);
+        assertEquals(3, countJob(fifo.claim("spot-1", 3, e -> true), "old"));
+
+        dispatcher.offerTasks(urgent);
+        assertEquals(SchedulingPolicy.PRIORITY, dispatcher.policy());
+        assertEquals(3, countJob(dispatcher.claim("spot-2", 3, null), "urgent"));
+    }
+
+    @Test
+    @DisplayName("Longest predicted task goes first; slow SPOTs take the shortest")
+    void longestFirstAndSlowSpots() {
+        Instant now = Instant.now();
+        List<Task> tasks = new ArrayList<>();
+        for (int iterations : new int[] { 10, 1000, 100 }) {
+            tasks.add(Task.builder()
+                    .id("i" + iterations)
+                    .payload("{}")
+                    .status(TaskStatus.NEW)
+                    .maxAttempts(3)
+                    .createdAt(now)
+                    .algorithm("GA")
+                    .function("sphere")
+                    .inputIterations(iterations)
+                    .build());
+        }
+        repo.saveAll(tasks);
+        dispatcher.offerTasks(tasks);
+
+        RuntimeModel model = dispatcher.runtimeModel();
+        TaskQueueEntry probe = TaskQueueEntry.of(tasks.get(0));
+        model.observe(probe, null, 10);
+        for (int i = 0; i < 3; i++) {
+            model.observe(probe, "fast-1", 10);
+            model.observe(probe, "fast-2", 10);
+        }
+        for (int i = 0; i < 3; i++) {
+            model.observe(probe, "slow", 100);
+        }
+        assertTrue(model.isSlow("slow"));
+        assertFalse(model.isSlow("fast-1"));
+
+        assertEquals("i1000", dispatcher.claim("fast-1", 1, null).get(0).id());
+        assertEquals("i10", dispatcher.claim("slow", 1, null).get(0).id());
+        assertEquals("i100", dispatcher.claim("fast-2", 1, null).get(0).id());
+    }
+
+    private Task featured(String id, String algorithm) {
+        return Task.builder()
+                .id(id)
+                .payload("{}")
+                .status(TaskStatus.NEW)
+                .maxAttempts(3)
+                .createdAt(Instant.now())
+                .algorithm(algorithm)
+                .function("sphere")
+                .inputIterations(100)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Runtimes of tasks claimed from the queue are learned per algorithm")
+    void runtimesLearnedFromClaims() {
+        List<Task> tasks = List.of(featured("ga-1", "GA"), featured("pso-1", "PSO"),
+                featured("ga-2", "GA"), featured("pso-2", "PSO"));
+        repo.saveAll(tasks);
+        dispatcher.offerTasks(tasks);
+
+        for (Task t : dispatcher.claim("spot-1", 4, null)) {
+            assertEquals(100, t.inputIterations(), "claimed tasks carry their features");
+            dispatcher.onCompleted(t.id(), "spot-1", "GA".equals(t.algorithm()) ? 5000 : 50);
+            dispatcher.onTerminal(t.id());
+        }
+
+        RuntimeModel model = dispatcher.runtimeModel();
+        assertEquals(5000, model.expectedMs(TaskQueueEntry.of(featured("ga-3", "GA"))));
+        assertEquals(50, model.expectedMs(TaskQueueEntry.of(featured("pso-3", "PSO"))));
+    }
+
+    @Test
+    @DisplayName("Claimed tasks are stragglers against the runtime of their own algorithm")
+    void stragglersOfClaimedTasks() {
+        List<Task> learned = List.of(featured("ga-1", "GA"), featured("pso-1", "PSO"));
+        repo.saveAll(learned);
+        dispatcher.offerTasks(learned);
+        for (Task t : dispatcher.claim("spot-1", 2, null)) {
+            dispatcher.onCompleted(t.id(), "spot-1", "GA".equals(t.algorithm()) ? 5000 : 50);
+            dispatcher.onTerminal(t.id());
+        }
+
+        List<Task> tail = List.of(featured("ga-2", "GA"), featured("pso-2", "PSO"));
+        repo.saveAll(tail);
+        dispatcher.offerTasks(tail);
+        assertEquals(2, dispatcher.claim("spot-1", 2, null).size());
+
+        // One second in: ten times the PSO runtime, a fifth of the GA runtime
+        List<TaskDispatcher.Straggler> found = dispatcher.stragglers("spot-2", TaskDispatcher.CapabilityFilter.ANY,
+                System.currentTimeMillis() + 1000, 1.5, 0);
+        assertEquals(List.of("pso-2"), found.stream().map(st -> st.entry().id()).toList());
+        assertEquals(50, found.get(0).expectedMs());
+    }
+
+    @Test
+    @DisplayName("A resync keeps claims and drops completions that land after its read")
+    void resyncRacingClaims() {
+        Runnable[] afterRead = {() -> {}};
+        JdbcTaskRepository racing = new JdbcTaskRepository(db) {
+            @Override
+            public List<TaskQueueEntry> findQueueEntries(TaskStatus status) {
+                List<TaskQueueEntry> rows = super.findQueueEntries(status);
+                if (status == TaskStatus.RUNNING) {
+                    Runnable hook = afterRead[0];
+                    afterRead[0] = () -> {};
+                    hook.run();
+                }
+                return rows;
+            }
+        };
+        TaskDispatcher synced = TaskDispatcher.builder(racing).build();
+        Instant now = Instant.now();
+        List<Task> tasks = List.of(
+                newTask("done", 1, now).toBuilder().jobId("job-a").build(),
+                newTask("late", 1, now.plusSeconds(1)).toBuilder().jobId("job-a").build());
+        racing.saveAll(tasks);
+        synced.offerTasks(tasks);
+        assertEquals("done", synced.claim("spot-1", 1, null).get(0).id());
+
+        // Both land between the read of the RUNNING rows and the update
+        afterRead[0] = () -> {
+            assertEquals("late", synced.claim("spot-2", 1, null).get(0).id());
+            assertTrue(racing.complete("done", "spot-1", 10, 1, 0.5, "{}"));
+            synced.onTerminal("done");
+        };
+        synced.reconcile();
+
+        assertEquals("job-a", synced.jobOf("late"), "claimed after the read");
+        assertNull(synced.jobOf("done"), "completed after the read");
+        assertEquals(1, synced.jobStats().stream()
+                .filter(j -> "job-a".equals(j.jobId())).findFirst().orElseThrow().running());
+    }
+}
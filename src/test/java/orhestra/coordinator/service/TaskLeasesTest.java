@@ -0,0 +1,111 @@
+package orhestra.coordinator.service;
+
+import orhestra.coordinator.config.CoordinatorConfig;
+import orhestra.coordinator.model.Task;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for task leases and their learned deadlines.
+ */
+class TaskLeasesTest {
+
+    private CoordinatorConfig config;
+    private TaskLeases leases;
+
+    @BeforeEach
+    void setup() {
+        config = CoordinatorConfig.defaults()
+                .withTaskLeaseDuration(Duration.ofMillis(200))
+                .withTaskStuckThreshold(Duration.ofSeconds(60))
+                .withClaimLeadTime(Duration.ZERO)
+                .withTaskDeadlineFactor(2.0);
+        leases = new TaskLeases(config);
+    }
+
+    private static Task task(String id) {
+        return Task.builder().id(id).jobId("job-1").algorithm("sphere").payload("{}").build();
+    }
+
+    @Test
+    @DisplayName("Lease expires when its SPOT stops renewing it")
+    void expiresWithoutRenewal() {
+        long now = System.currentTimeMillis();
+        leases.grant("spot-1", List.of(task("t1")));
+
+        assertTrue(leases.expired(now).isEmpty());
+        List<TaskLeases.Lease> expired = leases.expired(now + 1_000);
+        assertEquals(1, expired.size());
+        assertEquals("t1", expired.get(0).taskId());
+        assertEquals("spot-1", expired.get(0).spotId());
+        assertNull(leases.get("t1"));
+    }
+
+    @Test
+    @DisplayName("Renewal pushes expiry back; only listed tasks are renewed")
+    void renewal() throws InterruptedException {
+        leases.grant("spot-1", List.of(task("t1"), task("t2")));
+        Thread.sleep(150);
+
+        assertEquals(1, leases.renew("spot-1", List.of("t1")));
+        assertEquals(0, leases.renew("spot-2", null), "Other SPOTs cannot renew");
+
+        List<TaskLeases.Lease> expired = leases.expired(System.currentTimeMillis() + 100);
+        assertEquals(List.of("t2"), expired.stream().map(TaskLeases.Lease::taskId).toList());
+        assertNotNull(leases.get("t1"));
+    }
+
+    @Test
+    @DisplayName("Released and completed tasks never expire")
+    void releasedLeasesDoNotExpire() {
+        leases.grant("spot-1", List.of(task("t1"), task("t2"), task("t3")));
+        leases.release("t1");
+        leases.complete("t2", 50);
+        leases.releaseSpot("spot-1");
+
+        assertTrue(leases.expired(System.currentTimeMillis() + 1_000).isEmpty());
+        assertEquals(0, leases.size());
+    }
+
+    @Test
+    @DisplayName("Deadline is learned from the job's runtime p99")
+    void learnedDeadline() {
+        assertEquals(60_000, leases.budgetMs("job-1", "sphere"), "Default until enough samples");
+
+        for (int i = 0; i < TaskLeases.MIN_SAMPLES; i++) {
+            String id = "done-" + i;
+            leases.grant("spot-1", List.of(task(id)));
+            leases.complete(id, 1_000 + i * 100);
+        }
+
+        // p99 of 1000..1900 is 1900, times 2
+        assertEquals(3_800, leases.budgetMs("job-1", "sphere"));
+        assertEquals(60_000, leases.budgetMs("job-2", "sphere"), "Other jobs keep the default");
+
+        // Renewals cannot extend a lease past its deadline
+        long now = System.currentTimeMillis();
+        leases.grant("spot-1", List.of(task("slow")));
+        leases.renew("spot-1", null);
+        assertTrue(leases.get("slow").deadlineMs() <= now + 3_800 + 50);
+    }
+
+    @Test
+    @DisplayName("Runtimes of a forgotten job are dropped")
+    void forgetJob() {
+        for (int i = 0; i < TaskLeases.MIN_SAMPLES; i++) {
+            String id = "done-" + i;
+            leases.grant("spot-1", List.of(task(id)));
+            leases.complete(id, 1_000);
+        }
+        assertEquals(Set.of("job-1"), leases.learnedJobIds());
+
+        leases.forgetJob("job-1");
+        assertTrue(leases.learnedJobIds().isEmpty());
+        assertEquals(60_000, leases.budgetMs("job-1", "sphere"));
+    }
+}
@@ -0,0 +1,114 @@
+package orhestra.coordinator.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import orhestra.coordinator.config.CoordinatorConfig;
+import orhestra.coordinator.config.Dependencies;
+import orhestra.coordinator.model.*;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for model-guided search jobs.
+ */
+class TpeSearchTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private Dependencies deps;
+    private String spotId;
+
+    @BeforeEach
+    void setUp() {
+        CoordinatorConfig config = CoordinatorConfig.defaults()
+                .withDatabaseUrl("jdbc:h2:mem:test-tpe-" + System.nanoTime()
+                        + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_UPPER=FALSE");
+        deps = Dependencies.create(config);
+        spotId = deps.spotService().registerSpot("10.0.0.1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (deps != null) {
+            deps.close();
+        }
+    }
+
+    private Job optimize(List<SearchDimension> space, int trials, int parallelism) {
+        OptimizeSpec spec = new OptimizeSpec("tpe", trials, parallelism, 10, null, 42L);
+        return deps.jobService().createOptimizeJob(new ArtifactRef("bucket", "algo.jar", null), "com.example.Main",
+                "{}", space, spec, JobScheduling.DEFAULT, null);
+    }
+
+    private static JsonNode params(Task task) {
+        try {
+            return MAPPER.readTree(task.payload()).get("params");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void complete(Task task, double fopt) {
+        deps.taskService().completeTaskIdempotent(task.id(), spotId, 10, 100, fopt, "{}");
+    }
+
+    @Test
+    @DisplayName("No more than parallelism trials run at once")
+    void parallelismCap() {
+        optimize(List.of(SearchDimension.ofFloat("a.x", 0, 1, null)), 50, 4);
+        List<Task> claimed = deps.taskService().claimTasks(spotId, 10);
+        assertEquals(4, claimed.size());
+        assertTrue(deps.taskService().claimTasks(spotId, 10).isEmpty());
+
+        complete(claimed.get(0), 1.0);
+        assertEquals(1, deps.taskService().claimTasks(spotId, 10).size());
+    }
+
+    @Test
+    @DisplayName("Proposals concentrate around the minimum once the model is used")
+    void converges() {
+        Job job = optimize(List.of(SearchDimension.ofFloat("a.x", 0, 1, null),
+                SearchDimension.ofFloat("a.y", -5, 5, null)), 120, 2);
+        List<Double> distances = new ArrayList<>();
+        List<Task> claimed;
+        while (!(claimed = deps.taskService().claimTasks(spotId, 2)).isEmpty()) {
+            for (Task task : claimed) {
+                double dx = params(task).get("a.x").asDouble() - 0.3;
+                double dy = (params(task).get("a.y").asDouble() - 1) / 10;
+                distances.add(Math.sqrt(dx * dx + dy * dy));
+                complete(task, dx * dx + dy * dy);
+            }
+        }
+
+        assertEquals(120, distances.size());
+        double early = distances.subList(0, 10).stream().mapToDouble(Double::doubleValue).average().orElseThrow();
+        double late = distances.subList(90, 120).stream().mapToDouble(Double::doubleValue).average().orElseThrow();
+        assertTrue(late < early / 2, "late " + late + " vs random " + early);
+
+        TpeSearch.Progress progress = deps.jobService().optimization(job.id()).orElseThrow();
+        assertTrue(progress.done());
+        assertTrue(progress.bestFopt() < 0.001, "best " + progress.bestFopt());
+        assertEquals(0.3, ((Number) progress.bestParams().get("a.x")).doubleValue(), 0.05);
+
+        Job done = deps.jobService().findById(job.id()).orElseThrow();
+        assertEquals(JobStatus.COMPLETED, done.status());
+        assertEquals(120, done.totalTasks());
+    }
+
+    @Test
+    @DisplayName("Integer and choice parameters get values from their ranges")
+    void discreteValues() {
+        optimize(List.of(SearchDimension.ofInt("run.agents", 10, 50, 10),
+                SearchDimension.ofChoices("algorithm.name", List.of("PSO", "GA"))), 30, 30);
+        for (Task task : deps.taskService().claimTasks(spotId, 30)) {
+            JsonNode params = params(task);
+            assertTrue(params.get("run.agents").isInt());
+            assertEquals(0, params.get("run.agents").asInt() % 10);
+            assertTrue(List.of("PSO", "GA").contains(params.get("algorithm.name").asText()));
+        }
+    }
+}
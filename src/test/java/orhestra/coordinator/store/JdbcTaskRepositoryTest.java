@@ -2,12 +2,16 @@ package orhestra.coordinator.store;
 
 import orhestra.coordinator.config.CoordinatorConfig;
 import orhestra.coordinator.model.Task;
+import orhestra.coordinator.model.TaskQueueEntry;
+import orhestra.coordinator.model.TaskReapResult;
 import orhestra.coordinator.model.TaskStatus;
 import org.junit.jupiter.api.*;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -73,6 +77,21 @@ class JdbcTaskRepositoryTest {
         assertEquals(3, repo.findByJobId("job-1").size());
     }
 
+    @Test
+    void insertChunked() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            tasks.add(Task.builder().id("chunk-" + i).jobId("job-chunk").payload("{}").build());
+        }
+        List<Integer> chunkSizes = new ArrayList<>();
+
+        long inserted = repo.insertChunked(tasks.iterator(), 10, chunk -> chunkSizes.add(chunk.size()));
+
+        assertEquals(25, inserted);
+        assertEquals(List.of(10, 10, 5), chunkSizes);
+        assertEquals(25, repo.findByJobId("job-chunk").size());
+    }
+
     @Test
     void claimTasks() {
         // Create 5 tasks
@@ -215,6 +234,22 @@ class JdbcTaskRepositoryTest {
         assertEquals("task-stuck", stuck.get(0).id());
     }
 
+    @Test
+    void reapStuckRunningSkipsGivenTasks() {
+        for (String id : List.of("task-leased", "task-orphaned")) {
+            repo.save(Task.builder().id(id).payload("{}").maxAttempts(3).build());
+        }
+        repo.claimTasks("spot-1", 2);
+
+        TaskReapResult result = repo.reapStuckRunning(Instant.now().plusSeconds(10), Set.of("task-leased"),
+                "stuck in RUNNING");
+        assertEquals(List.of("task-orphaned"), result.retried().stream().map(TaskQueueEntry::id).toList());
+        assertEquals(TaskStatus.RUNNING, repo.findById("task-leased").orElseThrow().status());
+
+        // Nothing skipped: the empty array excludes no row
+        assertEquals(1, repo.reapStuckRunning(Instant.now().plusSeconds(10), Set.of(), "stuck").total());
+    }
+
     @Test
     void freeTasksForSpot() {
         for (int i = 0; i < 3; i++) {